@@ -0,0 +1,52 @@
+package io.vertx.ext.web.client;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.JsonArray;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Converter and mapper for {@link io.vertx.ext.web.client.LoadBalancingOptions}.
+ * NOTE: This class has been automatically generated from the {@link io.vertx.ext.web.client.LoadBalancingOptions} original class using Vert.x codegen.
+ */
+public class LoadBalancingOptionsConverter {
+
+
+  public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, LoadBalancingOptions obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "ejectionTime":
+          if (member.getValue() instanceof Number) {
+            obj.setEjectionTime(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "hedgeDelay":
+          if (member.getValue() instanceof Number) {
+            obj.setHedgeDelay(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "latencyOutlierFactor":
+          if (member.getValue() instanceof Number) {
+            obj.setLatencyOutlierFactor(((Number)member.getValue()).doubleValue());
+          }
+          break;
+        case "maxConsecutiveFailures":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxConsecutiveFailures(((Number)member.getValue()).intValue());
+          }
+          break;
+      }
+    }
+  }
+
+  public static void toJson(LoadBalancingOptions obj, JsonObject json) {
+    toJson(obj, json.getMap());
+  }
+
+  public static void toJson(LoadBalancingOptions obj, java.util.Map<String, Object> json) {
+    json.put("ejectionTime", obj.getEjectionTime());
+    json.put("hedgeDelay", obj.getHedgeDelay());
+    json.put("latencyOutlierFactor", obj.getLatencyOutlierFactor());
+    json.put("maxConsecutiveFailures", obj.getMaxConsecutiveFailures());
+  }
+}
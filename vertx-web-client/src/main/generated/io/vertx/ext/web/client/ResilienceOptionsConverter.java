@@ -0,0 +1,100 @@
+package io.vertx.ext.web.client;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.JsonArray;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Converter and mapper for {@link io.vertx.ext.web.client.ResilienceOptions}.
+ * NOTE: This class has been automatically generated from the {@link io.vertx.ext.web.client.ResilienceOptions} original class using Vert.x codegen.
+ */
+public class ResilienceOptionsConverter {
+
+
+  public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, ResilienceOptions obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "backoffRatio":
+          if (member.getValue() instanceof Number) {
+            obj.setBackoffRatio(((Number)member.getValue()).doubleValue());
+          }
+          break;
+        case "initialLimit":
+          if (member.getValue() instanceof Number) {
+            obj.setInitialLimit(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "initialRetryDelay":
+          if (member.getValue() instanceof Number) {
+            obj.setInitialRetryDelay(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "latencyTolerance":
+          if (member.getValue() instanceof Number) {
+            obj.setLatencyTolerance(((Number)member.getValue()).doubleValue());
+          }
+          break;
+        case "maxLimit":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxLimit(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "maxQueueSize":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxQueueSize(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "maxRetries":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxRetries(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "maxRetryDelay":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxRetryDelay(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "minLimit":
+          if (member.getValue() instanceof Number) {
+            obj.setMinLimit(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "queueTimeout":
+          if (member.getValue() instanceof Number) {
+            obj.setQueueTimeout(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "retryBudgetCapacity":
+          if (member.getValue() instanceof Number) {
+            obj.setRetryBudgetCapacity(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "retryBudgetRatio":
+          if (member.getValue() instanceof Number) {
+            obj.setRetryBudgetRatio(((Number)member.getValue()).doubleValue());
+          }
+          break;
+      }
+    }
+  }
+
+  public static void toJson(ResilienceOptions obj, JsonObject json) {
+    toJson(obj, json.getMap());
+  }
+
+  public static void toJson(ResilienceOptions obj, java.util.Map<String, Object> json) {
+    json.put("backoffRatio", obj.getBackoffRatio());
+    json.put("initialLimit", obj.getInitialLimit());
+    json.put("initialRetryDelay", obj.getInitialRetryDelay());
+    json.put("latencyTolerance", obj.getLatencyTolerance());
+    json.put("maxLimit", obj.getMaxLimit());
+    json.put("maxQueueSize", obj.getMaxQueueSize());
+    json.put("maxRetries", obj.getMaxRetries());
+    json.put("maxRetryDelay", obj.getMaxRetryDelay());
+    json.put("minLimit", obj.getMinLimit());
+    json.put("queueTimeout", obj.getQueueTimeout());
+    json.put("retryBudgetCapacity", obj.getRetryBudgetCapacity());
+    json.put("retryBudgetRatio", obj.getRetryBudgetRatio());
+  }
+}
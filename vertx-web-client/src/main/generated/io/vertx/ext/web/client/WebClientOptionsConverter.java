@@ -15,11 +15,26 @@ public class WebClientOptionsConverter {
   public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, WebClientOptions obj) {
     for (java.util.Map.Entry<String, Object> member : json) {
       switch (member.getKey()) {
+        case "coalescingHeaders":
+          if (member.getValue() instanceof JsonArray) {
+            java.util.LinkedHashSet<java.lang.String> list =  new java.util.LinkedHashSet<>();
+            ((Iterable<Object>)member.getValue()).forEach( item -> {
+              if (item instanceof String)
+                list.add((String)item);
+            });
+            obj.setCoalescingHeaders(list);
+          }
+          break;
         case "followRedirects":
           if (member.getValue() instanceof Boolean) {
             obj.setFollowRedirects((Boolean)member.getValue());
           }
           break;
+        case "requestCoalescing":
+          if (member.getValue() instanceof Boolean) {
+            obj.setRequestCoalescing((Boolean)member.getValue());
+          }
+          break;
         case "userAgent":
           if (member.getValue() instanceof String) {
             obj.setUserAgent((String)member.getValue());
@@ -39,7 +54,13 @@ public class WebClientOptionsConverter {
   }
 
   public static void toJson(WebClientOptions obj, java.util.Map<String, Object> json) {
+    if (obj.getCoalescingHeaders() != null) {
+      JsonArray array = new JsonArray();
+      obj.getCoalescingHeaders().forEach(item -> array.add(item));
+      json.put("coalescingHeaders", array);
+    }
     json.put("followRedirects", obj.isFollowRedirects());
+    json.put("requestCoalescing", obj.isRequestCoalescing());
     if (obj.getUserAgent() != null) {
       json.put("userAgent", obj.getUserAgent());
     }
@@ -0,0 +1,20 @@
+package examples;
+
+import io.vertx.core.Vertx;
+import io.vertx.ext.web.client.CachingWebClient;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientSession;
+import io.vertx.ext.web.client.spi.CacheStore;
+
+public class CachingWebClientExamples {
+
+  public void create(Vertx vertx) {
+    WebClient client = WebClient.create(vertx);
+    CachingWebClient cachingClient = CachingWebClient.create(client, CacheStore.build(10_000));
+  }
+
+  public void withSession(WebClient client) {
+    WebClientSession session = WebClientSession.create(CachingWebClient.create(client));
+  }
+
+}
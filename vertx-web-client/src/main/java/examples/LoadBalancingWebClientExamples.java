@@ -0,0 +1,46 @@
+package examples;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.web.client.LoadBalancingOptions;
+import io.vertx.ext.web.client.LoadBalancingWebClient;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.spi.LoadBalancer;
+
+import java.util.Arrays;
+
+public class LoadBalancingWebClientExamples {
+
+  public void create(Vertx vertx) {
+    WebClient client = WebClient.create(vertx);
+    LoadBalancingWebClient lbClient = LoadBalancingWebClient.create(client);
+    lbClient.addService("inventory", Arrays.asList(
+      SocketAddress.inetSocketAddress(8080, "10.0.0.1"),
+      SocketAddress.inetSocketAddress(8080, "10.0.0.2"),
+      SocketAddress.inetSocketAddress(8080, "10.0.0.3")));
+
+    // Sent to one of the inventory endpoints
+    lbClient
+      .get("inventory", "/products/42")
+      .send(ar -> {
+        if (ar.succeeded()) {
+          System.out.println("Received response with status code" + ar.result().statusCode());
+        }
+      });
+  }
+
+  public void loadBalancer(LoadBalancingWebClient lbClient) {
+    lbClient.addService("inventory", Arrays.asList(
+      SocketAddress.inetSocketAddress(8080, "10.0.0.1"),
+      SocketAddress.inetSocketAddress(8080, "10.0.0.2")),
+      LoadBalancer.powerOfTwoChoices());
+  }
+
+  public void options(WebClient client) {
+    LoadBalancingWebClient lbClient = LoadBalancingWebClient.create(client, new LoadBalancingOptions()
+      .setMaxConsecutiveFailures(3)
+      .setEjectionTime(10_000)
+      .setLatencyOutlierFactor(5)
+      .setHedgeDelay(50));
+  }
+}
@@ -0,0 +1,46 @@
+package examples;
+
+import io.vertx.core.Vertx;
+import io.vertx.ext.web.client.ResilienceMetrics;
+import io.vertx.ext.web.client.ResilienceOptions;
+import io.vertx.ext.web.client.ResilientWebClient;
+import io.vertx.ext.web.client.WebClient;
+
+public class ResilientWebClientExamples {
+
+  public void create(Vertx vertx) {
+    WebClient client = WebClient.create(vertx);
+    ResilientWebClient resilientClient = ResilientWebClient.create(client, new ResilienceOptions()
+      .setInitialLimit(10)
+      .setMaxLimit(100)
+      .setMaxQueueSize(50)
+      .setQueueTimeout(500));
+
+    resilientClient
+      .get(8080, "myserver.mycompany.com", "/some-uri")
+      .send(ar -> {
+        if (ar.succeeded()) {
+          System.out.println("Received response with status code" + ar.result().statusCode());
+        } else {
+          // The request failed or was rejected by the concurrency limit
+          System.out.println("Something went wrong " + ar.cause().getMessage());
+        }
+      });
+  }
+
+  public void retries(WebClient client) {
+    ResilientWebClient resilientClient = ResilientWebClient.create(client, new ResilienceOptions()
+      .setMaxRetries(3)
+      .setInitialRetryDelay(50)
+      .setMaxRetryDelay(1000)
+      .setRetryBudgetRatio(0.2));
+  }
+
+  public void metrics(ResilientWebClient resilientClient) {
+    ResilienceMetrics metrics = resilientClient.metrics("myserver.mycompany.com", 8080);
+    if (metrics != null) {
+      System.out.println("Limit: " + metrics.limit() + ", in flight: " + metrics.inFlightRequests() +
+        ", queued: " + metrics.queueSize() + ", rejected: " + metrics.rejectedRequests());
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package examples;
+
+import io.vertx.ext.web.client.ResponseTiming;
+import io.vertx.ext.web.client.TimedWebClient;
+import io.vertx.ext.web.client.TimingHistogram;
+import io.vertx.ext.web.client.TimingHistograms;
+import io.vertx.ext.web.client.TimingInterval;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.spi.WebClientMetrics;
+
+import java.util.concurrent.TimeUnit;
+
+public class TimedWebClientExamples {
+
+  public void create(WebClient client) {
+    TimedWebClient timedClient = TimedWebClient.create(client);
+
+    timedClient
+      .get(8080, "myserver.mycompany.com", "/some-uri")
+      .send(ar -> {
+        if (ar.succeeded()) {
+          ResponseTiming timing = ar.result().timing();
+          System.out.println("Time to first byte: " + timing.duration(TimingInterval.WAIT) + " ns");
+          System.out.println("Body transfer: " + timing.duration(TimingInterval.BODY) + " ns");
+        }
+      });
+  }
+
+  public void histograms(WebClient client) {
+    TimingHistograms metrics = WebClientMetrics.histograms();
+    TimedWebClient timedClient = TimedWebClient.create(client, metrics);
+
+    timedClient
+      .get(8080, "myserver.mycompany.com", "/users/" + 42)
+      .routeTemplate("/users/:id")
+      .send(ar -> {
+        TimingHistogram histogram = metrics.histogram("myserver.mycompany.com", 8080, "/users/:id", TimingInterval.TOTAL);
+        System.out.println("p99: " + TimeUnit.NANOSECONDS.toMillis(histogram.valueAtPercentile(99)) + " ms");
+      });
+  }
+}
@@ -16,6 +16,7 @@
 
 package examples;
 
+import io.vertx.core.Future;
 import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
@@ -29,6 +30,7 @@ import io.vertx.core.parsetools.JsonParser;
 import io.vertx.core.streams.ReadStream;
 import io.vertx.core.streams.WriteStream;
 import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.ext.web.client.HttpRequestTemplate;
 import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.ext.web.client.WebClient;
 import io.vertx.ext.web.client.WebClientOptions;
@@ -161,6 +163,23 @@ public class WebClientExamples {
     });
   }
 
+  public void template(WebClient client) {
+    HttpRequestTemplate<JsonObject> template = client
+      .get(8080, "myserver.mycompany.com", "/users/:id/orders")
+      .putHeader("accept", "application/json")
+      .addQueryParam("limit", "10")
+      .as(BodyCodec.jsonObject())
+      .expect(ResponsePredicate.SC_OK)
+      .template();
+
+    // Send GET /users/42/orders?limit=10
+    template.request("42").send(ar -> {
+      if (ar.succeeded()) {
+        JsonObject orders = ar.result().body();
+      }
+    });
+  }
+
   public void timeout(WebClient client) {
     client
       .get(8080, "myserver.mycompany.com", "/some-uri")
@@ -174,6 +193,14 @@ public class WebClientExamples {
       });
   }
 
+  public void requestCoalescing(Vertx vertx) {
+    WebClientOptions options = new WebClientOptions()
+      .setRequestCoalescing(true)
+      // Requests with a different tenant get a different response
+      .addCoalescingHeader("X-Tenant");
+    WebClient client = WebClient.create(vertx, options);
+  }
+
   public void sendBuffer(WebClient client, Buffer buffer) {
     // Send a buffer to the server using POST, the content-length header will be set for you
     client
@@ -408,6 +435,44 @@ public class WebClientExamples {
       });
   }
 
+  public void receiveResponseAsBoundJsonStream(WebClient client) {
+    client
+      .get(8080, "myserver.mycompany.com", "/some-uri")
+      .as(BodyCodec.jsonStream(body -> {
+        JsonParser parser = JsonParser.newParser(body).objectValueMode();
+        parser.handler(event -> {
+          // Pausing the parser pauses the response
+          parser.pause();
+          process(event.objectValue()).onComplete(v -> parser.resume());
+        });
+        return parser;
+      }))
+      .send(ar -> {
+        if (ar.succeeded()) {
+          System.out.println("Processed the stream");
+        } else {
+          System.out.println("Something went wrong " + ar.cause().getMessage());
+        }
+      });
+  }
+
+  private Future<Void> process(JsonObject object) {
+    return Future.succeededFuture();
+  }
+
+  public void receiveResponseAsJsonLines(WebClient client, WriteStream<JsonObject> writeStream) {
+    client
+      .get(8080, "myserver.mycompany.com", "/some-uri")
+      .as(BodyCodec.jsonLines(JsonObject.class, writeStream))
+      .send(ar -> {
+        if (ar.succeeded()) {
+          System.out.println("Received all the objects");
+        } else {
+          System.out.println("Something went wrong " + ar.cause().getMessage());
+        }
+      });
+  }
+
   public void receiveResponseAndDiscard(WebClient client) {
     client
       .get(8080, "myserver.mycompany.com", "/some-uri")
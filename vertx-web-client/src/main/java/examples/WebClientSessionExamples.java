@@ -3,6 +3,7 @@ package examples;
 import io.vertx.core.Vertx;
 import io.vertx.ext.web.client.WebClient;
 import io.vertx.ext.web.client.WebClientSession;
+import io.vertx.ext.web.client.spi.CookieStore;
 
 public class WebClientSessionExamples {
 
@@ -15,5 +16,10 @@ public class WebClientSessionExamples {
     WebClientSession session = WebClientSession.create(client);
     session.addHeader("my-jwt-token", jwtToken);
   }
+
+  public void cookieStore(WebClient client) {
+    // At most 20 cookies per domain
+    WebClientSession session = WebClientSession.create(client, CookieStore.build(20));
+  }
   
 }
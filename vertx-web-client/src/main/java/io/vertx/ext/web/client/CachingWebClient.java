@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.ext.web.client.impl.CachingWebClientImpl;
+import io.vertx.ext.web.client.spi.CacheStore;
+
+/**
+ * An asynchronous HTTP / HTTP/2 client called {@code CachingWebClient}.
+ * <p>
+ * This client wraps a {@link WebClient} and caches the responses of {@code GET} requests following RFC 7234:
+ * <ul>
+ *   <li>Fresh responses are served without contacting the server, according to {@code Cache-Control} or {@code Expires}</li>
+ *   <li>Responses are selected according to their {@code Vary} header</li>
+ *   <li>Stale responses are revalidated with {@code If-None-Match} / {@code If-Modified-Since}</li>
+ *   <li>Stale responses are served while they are revalidated in the background when allowed by {@code stale-while-revalidate}</li>
+ *   <li>Conditional requests matching a fresh response are answered with a {@code 304} from the cache</li>
+ * </ul>
+ * <p>
+ * The cache is shared by all the requests of the client: {@code private} responses and responses setting cookies are
+ * never stored. Responses to {@code POST}, {@code PUT}, {@code PATCH} and {@code DELETE} requests invalidate the
+ * cached response of the same URI.
+ * <p>
+ * To combine it with a {@link WebClientSession}, create the session from the caching client.
+ */
+public interface CachingWebClient extends WebClient {
+
+  /**
+   * Create a caching web client using the provided {@code webClient} instance and an in memory store of
+   * {@link CacheStore#DEFAULT_MAX_SIZE} responses.
+   *
+   * @param webClient the web client instance
+   * @return the created client
+   */
+  static CachingWebClient create(WebClient webClient) {
+    return create(webClient, CacheStore.build());
+  }
+
+  /**
+   * Create a caching web client using the provided {@code webClient} instance.
+   *
+   * @param webClient the web client instance
+   * @param cacheStore the store of the responses
+   * @return the created client
+   */
+  static CachingWebClient create(WebClient webClient, CacheStore cacheStore) {
+    return new CachingWebClientImpl(webClient, cacheStore);
+  }
+
+  /**
+   * @return this client's {@code CacheStore}
+   */
+  CacheStore cacheStore();
+}
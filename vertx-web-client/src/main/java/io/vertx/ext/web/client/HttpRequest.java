@@ -220,6 +220,16 @@ public interface HttpRequest<T> {
   @Fluent
   HttpRequest<T> timeout(long value);
 
+  /**
+   * Set the route template of the request, e.g. {@code /users/:id}: a {@link TimedWebClient} reports the timing of the
+   * request with this template, so the requests of a route are aggregated together whatever their actual URI.
+   *
+   * @param value the route template
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  HttpRequest<T> routeTemplate(String value);
+
   /**
    * Add a query parameter to the request.
    *
@@ -287,6 +297,17 @@ public interface HttpRequest<T> {
    */
   HttpRequest<T> copy();
 
+  /**
+   * Compile this request into a template creating requests of the same shape at a lower cost: the headers are encoded
+   * once and shared by the requests, the query parameters are encoded once and the path can contain {@code :name}
+   * variables substituted by each request.
+   * <p>
+   * The template is a snapshot, modifying this request afterward does not modify it.
+   *
+   * @return the template
+   */
+  HttpRequestTemplate<T> template();
+
   /**
    * Allow or disallow multipart mixed encoding when sending {@link MultipartForm} having files sharing the same
    * file name.
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.codegen.annotations.GenIgnore;
+import io.vertx.codegen.annotations.VertxGen;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A template of requests compiled from an {@link HttpRequest} with {@link HttpRequest#template()}.
+ * <p>
+ * The requests of a template have the method, the server, the headers, the query parameters, the codec, the
+ * expectations and the options of the compiled request. The path of the compiled request can contain {@code :name}
+ * variables, e.g. {@code /users/:id/orders}, each request substitutes them with values encoded as path segments.
+ * The path is the route template of the requests unless one was set with {@link HttpRequest#routeTemplate(String)}.
+ * <p>
+ * Creating a request only allocates the request and its URI, the headers and the expectations are shared with the
+ * template until they are modified.
+ */
+@VertxGen
+public interface HttpRequestTemplate<T> {
+
+  /**
+   * @return the names of the path variables in order
+   */
+  List<String> variables();
+
+  /**
+   * Create a request of a template without variables.
+   *
+   * @return the request
+   * @throws IllegalArgumentException when the template has variables
+   */
+  HttpRequest<T> request();
+
+  /**
+   * Create a request.
+   *
+   * @param values the values of the variables by name
+   * @return the request
+   * @throws IllegalArgumentException when the value of a variable is missing
+   */
+  HttpRequest<T> request(Map<String, String> values);
+
+  /**
+   * Create a request.
+   *
+   * @param values the values of the variables in order
+   * @return the request
+   * @throws IllegalArgumentException when the number of values is not the number of variables
+   */
+  @GenIgnore
+  HttpRequest<T> request(String... values);
+}
@@ -122,6 +122,15 @@ public interface HttpResponse<T> {
   @CacheReturn
   List<String> followedRedirects();
 
+  /**
+   * @return the timing of the phases of the request, {@code null} unless the request was sent by a
+   *         {@link TimedWebClient}
+   */
+  @Nullable
+  default ResponseTiming timing() {
+    return null;
+  }
+
   /**
    * @return the response body decoded as a {@code String}, or {@code null} if a codec other than {@link BodyCodec#buffer()} was used
    */
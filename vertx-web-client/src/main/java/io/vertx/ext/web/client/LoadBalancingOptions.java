@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options of a {@link LoadBalancingWebClient}: the passive health checking of the endpoints and the hedging of the
+ * requests.
+ */
+@DataObject(generateConverter = true)
+public class LoadBalancingOptions {
+
+  /**
+   * The default number of consecutive failures ejecting an endpoint = 5.
+   */
+  public static final int DEFAULT_MAX_CONSECUTIVE_FAILURES = 5;
+
+  /**
+   * The default time an endpoint is ejected in milliseconds = 30000.
+   */
+  public static final long DEFAULT_EJECTION_TIME = 30000;
+
+  /**
+   * The default latency outlier factor = 0 (disabled).
+   */
+  public static final double DEFAULT_LATENCY_OUTLIER_FACTOR = 0;
+
+  /**
+   * The default hedge delay in milliseconds = 0 (disabled).
+   */
+  public static final long DEFAULT_HEDGE_DELAY = 0;
+
+  private int maxConsecutiveFailures = DEFAULT_MAX_CONSECUTIVE_FAILURES;
+  private long ejectionTime = DEFAULT_EJECTION_TIME;
+  private double latencyOutlierFactor = DEFAULT_LATENCY_OUTLIER_FACTOR;
+  private long hedgeDelay = DEFAULT_HEDGE_DELAY;
+
+  public LoadBalancingOptions() {
+  }
+
+  /**
+   * Copy constructor.
+   *
+   * @param other the options to copy
+   */
+  public LoadBalancingOptions(LoadBalancingOptions other) {
+    this.maxConsecutiveFailures = other.maxConsecutiveFailures;
+    this.ejectionTime = other.ejectionTime;
+    this.latencyOutlierFactor = other.latencyOutlierFactor;
+    this.hedgeDelay = other.hedgeDelay;
+  }
+
+  /**
+   * Creates a new instance from JSON.
+   *
+   * @param json the JSON object
+   */
+  public LoadBalancingOptions(JsonObject json) {
+    LoadBalancingOptionsConverter.fromJson(json, this);
+  }
+
+  /**
+   * Convert to JSON
+   *
+   * @return the JSON
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    LoadBalancingOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * @return the number of consecutive failures ejecting an endpoint
+   */
+  public int getMaxConsecutiveFailures() {
+    return maxConsecutiveFailures;
+  }
+
+  /**
+   * Set the number of consecutive failures ejecting an endpoint, a failure is a connection or protocol error or a
+   * response with a {@code 5xx} status code. Defaults to {@code 5}, {@code 0} disables the ejection on failures.
+   *
+   * @param maxConsecutiveFailures the number of failures
+   * @return a reference to this, so the API can be used fluently
+   */
+  public LoadBalancingOptions setMaxConsecutiveFailures(int maxConsecutiveFailures) {
+    if (maxConsecutiveFailures < 0) {
+      throw new IllegalArgumentException("maxConsecutiveFailures must be >= 0");
+    }
+    this.maxConsecutiveFailures = maxConsecutiveFailures;
+    return this;
+  }
+
+  /**
+   * @return the time an endpoint is ejected in milliseconds
+   */
+  public long getEjectionTime() {
+    return ejectionTime;
+  }
+
+  /**
+   * Set the time an ejected endpoint does not receive requests, after this time the endpoint receives requests again.
+   * Defaults to {@code 30000}.
+   *
+   * @param ejectionTime the time in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public LoadBalancingOptions setEjectionTime(long ejectionTime) {
+    if (ejectionTime <= 0) {
+      throw new IllegalArgumentException("ejectionTime must be > 0");
+    }
+    this.ejectionTime = ejectionTime;
+    return this;
+  }
+
+  /**
+   * @return the latency outlier factor
+   */
+  public double getLatencyOutlierFactor() {
+    return latencyOutlierFactor;
+  }
+
+  /**
+   * Set the factor ejecting an endpoint whose average latency is greater than the average latency of the other
+   * endpoints of the service multiplied by this factor. Defaults to {@code 0}, disabling the ejection on latency.
+   *
+   * @param latencyOutlierFactor the factor, {@code 0} or greater than {@code 1}
+   * @return a reference to this, so the API can be used fluently
+   */
+  public LoadBalancingOptions setLatencyOutlierFactor(double latencyOutlierFactor) {
+    if (latencyOutlierFactor != 0 && latencyOutlierFactor <= 1) {
+      throw new IllegalArgumentException("latencyOutlierFactor must be 0 or > 1");
+    }
+    this.latencyOutlierFactor = latencyOutlierFactor;
+    return this;
+  }
+
+  /**
+   * @return the hedge delay in milliseconds
+   */
+  public long getHedgeDelay() {
+    return hedgeDelay;
+  }
+
+  /**
+   * Set the delay after which a {@code GET} or {@code HEAD} request without response is sent again to another endpoint
+   * of the service, the first response is used and the other request is reset. Defaults to {@code 0}, disabling the
+   * hedging.
+   *
+   * @param hedgeDelay the delay in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public LoadBalancingOptions setHedgeDelay(long hedgeDelay) {
+    if (hedgeDelay < 0) {
+      throw new IllegalArgumentException("hedgeDelay must be >= 0");
+    }
+    this.hedgeDelay = hedgeDelay;
+    return this;
+  }
+}
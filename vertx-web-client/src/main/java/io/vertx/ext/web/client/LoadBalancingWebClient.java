@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.web.client.impl.LoadBalancingWebClientImpl;
+import io.vertx.ext.web.client.spi.Endpoint;
+import io.vertx.ext.web.client.spi.LoadBalancer;
+
+import java.util.List;
+
+/**
+ * A web client balancing the requests of logical services over their endpoints.
+ * <p>
+ * The host of a request is the name of a service: the request is sent to an endpoint of the service selected by the
+ * {@link LoadBalancer} of the service. The requests to other hosts are sent as usual.
+ */
+public interface LoadBalancingWebClient extends WebClient {
+
+  /**
+   * Create a load balancing web client using the provided {@code webClient} instance and the default options.
+   *
+   * @param webClient the web client instance
+   * @return the created client
+   */
+  static LoadBalancingWebClient create(WebClient webClient) {
+    return create(webClient, new LoadBalancingOptions());
+  }
+
+  /**
+   * Create a load balancing web client using the provided {@code webClient} instance.
+   *
+   * @param webClient the web client instance
+   * @param options the load balancing options
+   * @return the created client
+   */
+  static LoadBalancingWebClient create(WebClient webClient, LoadBalancingOptions options) {
+    return new LoadBalancingWebClientImpl(webClient, options);
+  }
+
+  /**
+   * Add a service balanced over {@code endpoints} in turn.
+   *
+   * @param name the name of the service, i.e. the host of its requests
+   * @param endpoints the endpoints of the service
+   * @return a reference to this, so the API can be used fluently
+   */
+  default LoadBalancingWebClient addService(String name, List<SocketAddress> endpoints) {
+    return addService(name, endpoints, LoadBalancer.roundRobin());
+  }
+
+  /**
+   * Add a service, replacing the service with the same name.
+   *
+   * @param name the name of the service, i.e. the host of its requests
+   * @param endpoints the endpoints of the service
+   * @param loadBalancer the load balancer selecting the endpoints
+   * @return a reference to this, so the API can be used fluently
+   */
+  LoadBalancingWebClient addService(String name, List<SocketAddress> endpoints, LoadBalancer loadBalancer);
+
+  /**
+   * Remove a service.
+   *
+   * @param name the name of the service
+   * @return a reference to this, so the API can be used fluently
+   */
+  LoadBalancingWebClient removeService(String name);
+
+  /**
+   * @param name the name of the service
+   * @return the endpoints of the service with their statistics, empty when the service does not exist
+   */
+  List<Endpoint> endpoints(String name);
+}
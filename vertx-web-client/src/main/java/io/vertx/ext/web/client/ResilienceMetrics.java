@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client;
+
+/**
+ * The metrics of the requests sent by a {@link ResilientWebClient} to a server.
+ */
+public interface ResilienceMetrics {
+
+  /**
+   * @return the current concurrency limit
+   */
+  int limit();
+
+  /**
+   * @return the number of requests waiting for a response
+   */
+  int inFlightRequests();
+
+  /**
+   * @return the number of requests waiting for the concurrency limit
+   */
+  int queueSize();
+
+  /**
+   * @return the number of requests rejected because the queue was full or because they waited too long
+   */
+  long rejectedRequests();
+
+  /**
+   * @return the number of retried requests
+   */
+  long retries();
+
+  /**
+   * @return the number of requests not retried because the retry budget was empty
+   */
+  long exhaustedRetryBudget();
+}
@@ -0,0 +1,400 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options of a {@link ResilientWebClient}: the adaptive concurrency limit of the requests sent to a server and the
+ * retries of the failed requests.
+ */
+@DataObject(generateConverter = true)
+public class ResilienceOptions {
+
+  /**
+   * The default initial concurrency limit = 20.
+   */
+  public static final int DEFAULT_INITIAL_LIMIT = 20;
+
+  /**
+   * The default minimum concurrency limit = 1.
+   */
+  public static final int DEFAULT_MIN_LIMIT = 1;
+
+  /**
+   * The default maximum concurrency limit = 200.
+   */
+  public static final int DEFAULT_MAX_LIMIT = 200;
+
+  /**
+   * The default ratio applied to the concurrency limit when the server is overloaded = 0.9.
+   */
+  public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+
+  /**
+   * The default latency tolerance = 2.
+   */
+  public static final double DEFAULT_LATENCY_TOLERANCE = 2;
+
+  /**
+   * The default maximum number of queued requests = 100.
+   */
+  public static final int DEFAULT_MAX_QUEUE_SIZE = 100;
+
+  /**
+   * The default time a request can be queued in milliseconds = 1000.
+   */
+  public static final long DEFAULT_QUEUE_TIMEOUT = 1000;
+
+  /**
+   * The default maximum number of retries of a request = 2.
+   */
+  public static final int DEFAULT_MAX_RETRIES = 2;
+
+  /**
+   * The default delay before the first retry in milliseconds = 100.
+   */
+  public static final long DEFAULT_INITIAL_RETRY_DELAY = 100;
+
+  /**
+   * The default maximum delay before a retry in milliseconds = 2000.
+   */
+  public static final long DEFAULT_MAX_RETRY_DELAY = 2000;
+
+  /**
+   * The default retry budget ratio = 0.1.
+   */
+  public static final double DEFAULT_RETRY_BUDGET_RATIO = 0.1;
+
+  /**
+   * The default retry budget capacity = 10.
+   */
+  public static final int DEFAULT_RETRY_BUDGET_CAPACITY = 10;
+
+  private int initialLimit = DEFAULT_INITIAL_LIMIT;
+  private int minLimit = DEFAULT_MIN_LIMIT;
+  private int maxLimit = DEFAULT_MAX_LIMIT;
+  private double backoffRatio = DEFAULT_BACKOFF_RATIO;
+  private double latencyTolerance = DEFAULT_LATENCY_TOLERANCE;
+  private int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+  private long queueTimeout = DEFAULT_QUEUE_TIMEOUT;
+  private int maxRetries = DEFAULT_MAX_RETRIES;
+  private long initialRetryDelay = DEFAULT_INITIAL_RETRY_DELAY;
+  private long maxRetryDelay = DEFAULT_MAX_RETRY_DELAY;
+  private double retryBudgetRatio = DEFAULT_RETRY_BUDGET_RATIO;
+  private int retryBudgetCapacity = DEFAULT_RETRY_BUDGET_CAPACITY;
+
+  public ResilienceOptions() {
+  }
+
+  /**
+   * Copy constructor.
+   *
+   * @param other the options to copy
+   */
+  public ResilienceOptions(ResilienceOptions other) {
+    this.initialLimit = other.initialLimit;
+    this.minLimit = other.minLimit;
+    this.maxLimit = other.maxLimit;
+    this.backoffRatio = other.backoffRatio;
+    this.latencyTolerance = other.latencyTolerance;
+    this.maxQueueSize = other.maxQueueSize;
+    this.queueTimeout = other.queueTimeout;
+    this.maxRetries = other.maxRetries;
+    this.initialRetryDelay = other.initialRetryDelay;
+    this.maxRetryDelay = other.maxRetryDelay;
+    this.retryBudgetRatio = other.retryBudgetRatio;
+    this.retryBudgetCapacity = other.retryBudgetCapacity;
+  }
+
+  /**
+   * Creates a new instance from JSON.
+   *
+   * @param json the JSON object
+   */
+  public ResilienceOptions(JsonObject json) {
+    ResilienceOptionsConverter.fromJson(json, this);
+  }
+
+  /**
+   * Convert to JSON
+   *
+   * @return the JSON
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    ResilienceOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * @return the initial concurrency limit
+   */
+  public int getInitialLimit() {
+    return initialLimit;
+  }
+
+  /**
+   * Set the concurrency limit of a server before any response is received from it. Defaults to {@code 20}.
+   *
+   * @param initialLimit the number of concurrent requests
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResilienceOptions setInitialLimit(int initialLimit) {
+    if (initialLimit < 1) {
+      throw new IllegalArgumentException("initialLimit must be > 0");
+    }
+    this.initialLimit = initialLimit;
+    return this;
+  }
+
+  /**
+   * @return the minimum concurrency limit
+   */
+  public int getMinLimit() {
+    return minLimit;
+  }
+
+  /**
+   * Set the value under which the concurrency limit of a server is never decreased. Defaults to {@code 1}.
+   *
+   * @param minLimit the number of concurrent requests
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResilienceOptions setMinLimit(int minLimit) {
+    if (minLimit < 1) {
+      throw new IllegalArgumentException("minLimit must be > 0");
+    }
+    this.minLimit = minLimit;
+    return this;
+  }
+
+  /**
+   * @return the maximum concurrency limit
+   */
+  public int getMaxLimit() {
+    return maxLimit;
+  }
+
+  /**
+   * Set the value over which the concurrency limit of a server is never increased. Defaults to {@code 200}.
+   *
+   * @param maxLimit the number of concurrent requests
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResilienceOptions setMaxLimit(int maxLimit) {
+    if (maxLimit < 1) {
+      throw new IllegalArgumentException("maxLimit must be > 0");
+    }
+    this.maxLimit = maxLimit;
+    return this;
+  }
+
+  /**
+   * @return the ratio applied to the concurrency limit when the server is overloaded
+   */
+  public double getBackoffRatio() {
+    return backoffRatio;
+  }
+
+  /**
+   * Set the ratio the concurrency limit of a server is multiplied by when the server is overloaded, i.e. a request
+   * fails, the server responds with a {@code 429} or {@code 503} status code or the latency of a response exceeds the
+   * tolerated latency. The limit grows by one after a full limit of successful responses. Defaults to {@code 0.9}.
+   *
+   * @param backoffRatio the ratio, greater than {@code 0} and lower than {@code 1}
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResilienceOptions setBackoffRatio(double backoffRatio) {
+    if (backoffRatio <= 0 || backoffRatio >= 1) {
+      throw new IllegalArgumentException("backoffRatio must be > 0 and < 1");
+    }
+    this.backoffRatio = backoffRatio;
+    return this;
+  }
+
+  /**
+   * @return the latency tolerance
+   */
+  public double getLatencyTolerance() {
+    return latencyTolerance;
+  }
+
+  /**
+   * Set the factor of the long term average latency of a server over which the latency of a response is a sign of
+   * overload. Defaults to {@code 2}, {@code 0} ignores the latency.
+   *
+   * @param latencyTolerance the tolerance, {@code 0} or greater than {@code 1}
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResilienceOptions setLatencyTolerance(double latencyTolerance) {
+    if (latencyTolerance != 0 && latencyTolerance <= 1) {
+      throw new IllegalArgumentException("latencyTolerance must be 0 or > 1");
+    }
+    this.latencyTolerance = latencyTolerance;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of queued requests
+   */
+  public int getMaxQueueSize() {
+    return maxQueueSize;
+  }
+
+  /**
+   * Set the number of requests waiting for the concurrency limit of a server, the next requests are rejected. Defaults
+   * to {@code 100}, {@code 0} rejects the requests exceeding the limit.
+   *
+   * @param maxQueueSize the number of requests
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResilienceOptions setMaxQueueSize(int maxQueueSize) {
+    if (maxQueueSize < 0) {
+      throw new IllegalArgumentException("maxQueueSize must be >= 0");
+    }
+    this.maxQueueSize = maxQueueSize;
+    return this;
+  }
+
+  /**
+   * @return the time a request can be queued in milliseconds
+   */
+  public long getQueueTimeout() {
+    return queueTimeout;
+  }
+
+  /**
+   * Set the time a request can wait for the concurrency limit of a server, after this time the request fails with a
+   * {@link java.util.concurrent.TimeoutException}. Defaults to {@code 1000}, {@code 0} waits forever.
+   *
+   * @param queueTimeout the time in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResilienceOptions setQueueTimeout(long queueTimeout) {
+    if (queueTimeout < 0) {
+      throw new IllegalArgumentException("queueTimeout must be >= 0");
+    }
+    this.queueTimeout = queueTimeout;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of retries of a request
+   */
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  /**
+   * Set the number of times an idempotent request is sent again after a failure or a response with a {@code 429},
+   * {@code 502}, {@code 503} or {@code 504} status code. Defaults to {@code 2}, {@code 0} disables the retries.
+   *
+   * @param maxRetries the number of retries
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResilienceOptions setMaxRetries(int maxRetries) {
+    if (maxRetries < 0) {
+      throw new IllegalArgumentException("maxRetries must be >= 0");
+    }
+    this.maxRetries = maxRetries;
+    return this;
+  }
+
+  /**
+   * @return the delay before the first retry in milliseconds
+   */
+  public long getInitialRetryDelay() {
+    return initialRetryDelay;
+  }
+
+  /**
+   * Set the delay before the first retry of a request, the delay doubles for each following retry and is randomized
+   * between half and all of its value. Defaults to {@code 100}.
+   *
+   * @param initialRetryDelay the delay in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResilienceOptions setInitialRetryDelay(long initialRetryDelay) {
+    if (initialRetryDelay < 1) {
+      throw new IllegalArgumentException("initialRetryDelay must be > 0");
+    }
+    this.initialRetryDelay = initialRetryDelay;
+    return this;
+  }
+
+  /**
+   * @return the maximum delay before a retry in milliseconds
+   */
+  public long getMaxRetryDelay() {
+    return maxRetryDelay;
+  }
+
+  /**
+   * Set the maximum delay before a retry. Defaults to {@code 2000}.
+   *
+   * @param maxRetryDelay the delay in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResilienceOptions setMaxRetryDelay(long maxRetryDelay) {
+    if (maxRetryDelay < 1) {
+      throw new IllegalArgumentException("maxRetryDelay must be > 0");
+    }
+    this.maxRetryDelay = maxRetryDelay;
+    return this;
+  }
+
+  /**
+   * @return the retry budget ratio
+   */
+  public double getRetryBudgetRatio() {
+    return retryBudgetRatio;
+  }
+
+  /**
+   * Set the number of retry tokens a request adds to the retry budget of its server, a retry takes a token from the
+   * budget and a request is not retried when the budget is empty. The retries are so bounded to this ratio of the
+   * requests. Defaults to {@code 0.1}.
+   *
+   * @param retryBudgetRatio the ratio, greater than {@code 0}
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResilienceOptions setRetryBudgetRatio(double retryBudgetRatio) {
+    if (retryBudgetRatio <= 0) {
+      throw new IllegalArgumentException("retryBudgetRatio must be > 0");
+    }
+    this.retryBudgetRatio = retryBudgetRatio;
+    return this;
+  }
+
+  /**
+   * @return the retry budget capacity
+   */
+  public int getRetryBudgetCapacity() {
+    return retryBudgetCapacity;
+  }
+
+  /**
+   * Set the maximum number of tokens of the retry budget of a server, the budget is full initially. Defaults to
+   * {@code 10}.
+   *
+   * @param retryBudgetCapacity the number of tokens
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResilienceOptions setRetryBudgetCapacity(int retryBudgetCapacity) {
+    if (retryBudgetCapacity < 0) {
+      throw new IllegalArgumentException("retryBudgetCapacity must be >= 0");
+    }
+    this.retryBudgetCapacity = retryBudgetCapacity;
+    return this;
+  }
+}
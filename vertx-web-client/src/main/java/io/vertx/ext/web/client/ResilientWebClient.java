@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.ext.web.client.impl.ResilientWebClientImpl;
+
+/**
+ * A web client protecting the servers it sends requests to from overload.
+ * <p>
+ * The number of concurrent requests sent to a server is limited, the limit adapts to the latency and to the failures
+ * of the responses of the server: the requests exceeding the limit wait in a bounded queue or fail fast. The failed
+ * idempotent requests are retried with an exponential backoff, within a retry budget bounding the retries to a ratio
+ * of the requests.
+ */
+public interface ResilientWebClient extends WebClient {
+
+  /**
+   * Create a resilient web client using the provided {@code webClient} instance and the default options.
+   *
+   * @param webClient the web client instance
+   * @return the created client
+   */
+  static ResilientWebClient create(WebClient webClient) {
+    return create(webClient, new ResilienceOptions());
+  }
+
+  /**
+   * Create a resilient web client using the provided {@code webClient} instance.
+   *
+   * @param webClient the web client instance
+   * @param options the resilience options
+   * @return the created client
+   */
+  static ResilientWebClient create(WebClient webClient, ResilienceOptions options) {
+    return new ResilientWebClientImpl(webClient, options);
+  }
+
+  /**
+   * @param host the host of the server
+   * @param port the port of the server
+   * @return the metrics of the requests sent to the server, {@code null} when no request was sent to it
+   */
+  ResilienceMetrics metrics(String host, int port);
+}
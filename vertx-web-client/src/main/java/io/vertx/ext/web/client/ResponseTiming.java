@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.codegen.annotations.VertxGen;
+
+/**
+ * The timing of the phases of a request sent by a {@link TimedWebClient}.
+ */
+@VertxGen
+public interface ResponseTiming {
+
+  /**
+   * @param interval the interval
+   * @return the duration of the {@code interval} in nanoseconds or {@code -1} when the request did not go through it,
+   *         e.g. a response without body or a failed request
+   */
+  long duration(TimingInterval interval);
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.ext.web.client.impl.TimedWebClientImpl;
+import io.vertx.ext.web.client.spi.WebClientMetrics;
+
+/**
+ * A web client timing the phases of its requests: the timing of a response is available with
+ * {@link HttpResponse#timing()} and reported to the {@link WebClientMetrics}.
+ */
+public interface TimedWebClient extends WebClient {
+
+  /**
+   * Create a timed web client using the provided {@code webClient} instance, the timings are only available with
+   * {@link HttpResponse#timing()}.
+   *
+   * @param webClient the web client instance
+   * @return the created client
+   */
+  static TimedWebClient create(WebClient webClient) {
+    return create(webClient, null);
+  }
+
+  /**
+   * Create a timed web client using the provided {@code webClient} instance.
+   *
+   * @param webClient the web client instance
+   * @param metrics the metrics the timings are reported to, can be {@code null}
+   * @return the created client
+   */
+  static TimedWebClient create(WebClient webClient, WebClientMetrics metrics) {
+    return new TimedWebClientImpl(webClient, metrics);
+  }
+}
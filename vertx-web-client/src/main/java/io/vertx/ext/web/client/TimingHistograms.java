@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.ext.web.client.spi.WebClientMetrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics aggregating the timings of the requests in a {@link TimingHistogram} per host, port, route template and
+ * {@link TimingInterval}. The requests without route template of a server are aggregated together.
+ */
+public class TimingHistograms implements WebClientMetrics {
+
+  private static final TimingInterval[] INTERVALS = TimingInterval.values();
+
+  private final ConcurrentMap<String, Route> routes = new ConcurrentHashMap<>();
+
+  @Override
+  public void record(String host, int port, String routeTemplate, ResponseTiming timing, Throwable failure) {
+    Route route = routes.computeIfAbsent(key(host, port, routeTemplate), k -> new Route());
+    if (failure != null) {
+      route.failures.incrementAndGet();
+    }
+    for (TimingInterval interval : INTERVALS) {
+      route.histograms[interval.ordinal()].record(timing.duration(interval));
+    }
+  }
+
+  /**
+   * @param host the host of the requests
+   * @param port the port of the requests
+   * @param routeTemplate the route template of the requests or {@code null}
+   * @param interval the interval
+   * @return the histogram of the {@code interval}, {@code null} when no request was recorded for the route
+   */
+  public TimingHistogram histogram(String host, int port, String routeTemplate, TimingInterval interval) {
+    Route route = routes.get(key(host, port, routeTemplate));
+    return route != null ? route.histograms[interval.ordinal()] : null;
+  }
+
+  /**
+   * @param host the host of the requests
+   * @param port the port of the requests
+   * @param routeTemplate the route template of the requests or {@code null}
+   * @return the number of failed requests of the route
+   */
+  public long failures(String host, int port, String routeTemplate) {
+    Route route = routes.get(key(host, port, routeTemplate));
+    return route != null ? route.failures.get() : 0;
+  }
+
+  private static String key(String host, int port, String routeTemplate) {
+    return host + ':' + port + ' ' + (routeTemplate != null ? routeTemplate : "");
+  }
+
+  private static final class Route {
+
+    private final TimingHistogram[] histograms = new TimingHistogram[INTERVALS.length];
+    private final AtomicLong failures = new AtomicLong();
+
+    private Route() {
+      for (int i = 0; i < histograms.length; i++) {
+        histograms[i] = new TimingHistogram();
+      }
+    }
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.codegen.annotations.VertxGen;
+
+/**
+ * The intervals between the phases of a request sent by a {@link TimedWebClient}.
+ */
+@VertxGen
+public enum TimingInterval {
+
+  /**
+   * From the send of the request to the creation of the HTTP request, i.e. the {@code PREPARE_REQUEST} interceptors.
+   */
+  PREPARE,
+
+  /**
+   * From the creation of the HTTP request until it is written, including the acquisition of a connection.
+   */
+  WRITE,
+
+  /**
+   * From the write of the request until the response head is received.
+   */
+  WAIT,
+
+  /**
+   * From the response head until the first byte of the response body is received.
+   */
+  FIRST_BODY_BYTE,
+
+  /**
+   * From the first byte until the last byte of the response body is received.
+   */
+  BODY,
+
+  /**
+   * From the last byte of the response body until the response is dispatched, i.e. the decoding of the body.
+   */
+  DECODE,
+
+  /**
+   * From the send of the request until the response is dispatched.
+   */
+  TOTAL
+}
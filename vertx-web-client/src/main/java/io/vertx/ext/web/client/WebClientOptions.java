@@ -25,6 +25,9 @@ import io.vertx.core.impl.launcher.commands.VersionCommand;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.net.*;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -50,9 +53,23 @@ public class WebClientOptions extends HttpClientOptions {
    */
   public static final boolean DEFAULT_FOLLOW_REDIRECTS = true;
 
+  /**
+   * The default value of whether identical in-flight requests are coalesced = false.
+   */
+  public static final boolean DEFAULT_REQUEST_COALESCING = false;
+
+  /**
+   * The default request headers distinguishing coalesced requests = accept, accept-encoding, accept-language,
+   * authorization, cookie.
+   */
+  public static final Set<String> DEFAULT_COALESCING_HEADERS = Collections.unmodifiableSet(new LinkedHashSet<>(
+    Arrays.asList("accept", "accept-encoding", "accept-language", "authorization", "cookie")));
+
   private boolean userAgentEnabled = DEFAULT_USER_AGENT_ENABLED;
   private String userAgent = DEFAULT_USER_AGENT;
   private boolean followRedirects = DEFAULT_FOLLOW_REDIRECTS;
+  private boolean requestCoalescing = DEFAULT_REQUEST_COALESCING;
+  private Set<String> coalescingHeaders = new LinkedHashSet<>(DEFAULT_COALESCING_HEADERS);
 
   public WebClientOptions() {
   }
@@ -90,6 +107,8 @@ public class WebClientOptions extends HttpClientOptions {
     this.userAgentEnabled = other.userAgentEnabled;
     this.userAgent = other.userAgent;
     this.followRedirects = other.followRedirects;
+    this.requestCoalescing = other.requestCoalescing;
+    this.coalescingHeaders = new LinkedHashSet<>(other.coalescingHeaders);
   }
 
   /**
@@ -157,6 +176,57 @@ public class WebClientOptions extends HttpClientOptions {
     return this;
   }
 
+  /**
+   * @return true if identical in-flight requests are coalesced
+   */
+  public boolean isRequestCoalescing() {
+    return requestCoalescing;
+  }
+
+  /**
+   * Configure the client to coalesce identical in-flight {@code GET} and {@code HEAD} requests: while a request is
+   * in-flight, the requests with the same URI and the same values for the {@link #getCoalescingHeaders() coalescing
+   * headers} wait for its response instead of being sent. Defaults to false.
+   *
+   * @param requestCoalescing true to coalesce identical requests
+   * @return a reference to this, so the API can be used fluently
+   */
+  public WebClientOptions setRequestCoalescing(boolean requestCoalescing) {
+    this.requestCoalescing = requestCoalescing;
+    return this;
+  }
+
+  /**
+   * @return the request headers distinguishing coalesced requests
+   */
+  public Set<String> getCoalescingHeaders() {
+    return coalescingHeaders;
+  }
+
+  /**
+   * Set the request headers distinguishing coalesced requests, requests with different values for these headers are
+   * never coalesced. Any header changing the response must be listed.
+   *
+   * @param coalescingHeaders the header names
+   * @return a reference to this, so the API can be used fluently
+   */
+  public WebClientOptions setCoalescingHeaders(Set<String> coalescingHeaders) {
+    this.coalescingHeaders = new LinkedHashSet<>();
+    coalescingHeaders.forEach(this::addCoalescingHeader);
+    return this;
+  }
+
+  /**
+   * Add a request header distinguishing coalesced requests.
+   *
+   * @param coalescingHeader the header name
+   * @return a reference to this, so the API can be used fluently
+   */
+  public WebClientOptions addCoalescingHeader(String coalescingHeader) {
+    coalescingHeaders.add(coalescingHeader.toLowerCase());
+    return this;
+  }
+
   @Override
   public WebClientOptions setMaxRedirects(int maxRedirects) {
     return (WebClientOptions) super.setMaxRedirects(maxRedirects);
@@ -0,0 +1,523 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.impl;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.QueryStringEncoder;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.ext.web.client.spi.CacheStore;
+import io.vertx.ext.web.client.spi.CachedHttpResponse;
+import io.vertx.ext.web.codec.BodyCodec;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An interceptor caching the responses of {@code GET} requests, it follows the RFC 7234 rules of a shared cache as
+ * the same client usually serves many users.
+ * <ul>
+ *   <li>{@link ClientPhase#PREPARE_REQUEST}: a fresh cached response is dispatched without sending the request. A
+ *   stale one is either revalidated or, when {@code stale-while-revalidate} allows it, dispatched while it is
+ *   revalidated in the background</li>
+ *   <li>{@link ClientPhase#SEND_REQUEST}: the validators of the stale response are added to the request</li>
+ *   <li>{@link ClientPhase#RECEIVE_RESPONSE}: a {@code 304} refreshes the cached response which is then dispatched,
+ *   a cacheable response is stored</li>
+ * </ul>
+ * The interceptor is the first of the chain so it sees the {@code 304} responses it asked for before the request
+ * expectations; the expectations of a response dispatched by this interceptor are evaluated by the interceptor itself.
+ */
+public class CacheInterceptor implements Handler<HttpContext<?>> {
+
+  private static final String STATE_KEY = "_cache";
+
+  private static final Set<Integer> CACHEABLE_STATUS = new HashSet<>(Arrays.asList(200, 203, 204, 300, 301, 404, 405, 410, 414, 501));
+
+  /**
+   * The state of a request, {@code cached} is the response being revalidated.
+   */
+  private static final class State {
+    private final String key;
+    private final boolean invalidate;
+    private CachedHttpResponse cached;
+    private boolean redirected;
+
+    private State(String key, boolean invalidate) {
+      this.key = key;
+      this.invalidate = invalidate;
+    }
+  }
+
+  private final CacheStore store;
+  // keys with a background revalidation in progress
+  private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+
+  public CacheInterceptor(CacheStore store) {
+    this.store = store;
+  }
+
+  @Override
+  public void handle(HttpContext<?> context) {
+    switch (context.phase()) {
+      case PREPARE_REQUEST:
+        prepareRequest(context);
+        break;
+      case SEND_REQUEST:
+        sendRequest(context);
+        break;
+      case FOLLOW_REDIRECT:
+        followRedirect(context);
+        break;
+      case RECEIVE_RESPONSE:
+        receiveResponse(context);
+        break;
+      default:
+        context.next();
+        break;
+    }
+  }
+
+  private void prepareRequest(HttpContext<?> context) {
+    if (context.get(STATE_KEY) != null) {
+      // a background revalidation
+      context.next();
+      return;
+    }
+
+    HttpRequestImpl<?> request = (HttpRequestImpl<?>) context.request();
+    HttpMethod method = request.method;
+
+    if (!HttpMethod.GET.equals(method)) {
+      if (HttpMethod.POST.equals(method) || HttpMethod.PUT.equals(method) || HttpMethod.DELETE.equals(method) || HttpMethod.PATCH.equals(method)) {
+        // unsafe methods invalidate the cached response of the same URI
+        context.set(STATE_KEY, new State(key(request), true));
+      }
+      context.next();
+      return;
+    }
+
+    MultiMap headers = request.headers != null ? request.headers : MultiMap.caseInsensitiveMultiMap();
+    CacheControl cacheControl = CacheControl.parse(headers.getAll(HttpHeaders.CACHE_CONTROL));
+    if (cacheControl.noStore) {
+      context.next();
+      return;
+    }
+
+    State state = new State(key(request), false);
+    context.set(STATE_KEY, state);
+
+    store.get(state.key).onComplete(ar -> {
+      CachedHttpResponse cached = ar.succeeded() ? ar.result() : null;
+      if (cached == null || !varyMatches(cached, headers)) {
+        context.next();
+        return;
+      }
+
+      long now = System.currentTimeMillis();
+      boolean conditional = headers.contains(HttpHeaders.IF_NONE_MATCH) || headers.contains(HttpHeaders.IF_MODIFIED_SINCE);
+      boolean noCache = cacheControl.noCache || "no-cache".equalsIgnoreCase(headers.get(HttpHeaderNames.PRAGMA));
+
+      if (!noCache && cached.isFresh(now) && (cacheControl.maxAge == -1 || cached.age(now) < cacheControl.maxAge * 1000)) {
+        if (conditional && notModified(cached, headers)) {
+          MultiMap notModifiedHeaders = cachedHeaders(cached, now);
+          notModifiedHeaders.remove(HttpHeaders.CONTENT_LENGTH);
+          respond(context, cached.version(), 304, "Not Modified", notModifiedHeaders, Buffer.buffer());
+        } else {
+          respond(context, cached.version(), cached.statusCode(), cached.statusMessage(), cachedHeaders(cached, now), cached.body());
+        }
+        return;
+      }
+
+      if (!conditional) {
+        if (!noCache && cached.isStaleWhileRevalidate(now)) {
+          respond(context, cached.version(), cached.statusCode(), cached.statusMessage(), cachedHeaders(cached, now), cached.body());
+          revalidate(request, state.key, cached);
+          return;
+        }
+        if (cached.headers().contains(HttpHeaders.ETAG) || cached.headers().contains(HttpHeaders.LAST_MODIFIED)) {
+          state.cached = cached;
+        }
+      }
+      context.next();
+    });
+  }
+
+  private void sendRequest(HttpContext<?> context) {
+    State state = context.get(STATE_KEY);
+    // the validators are not sent to the location of a redirect
+    if (state != null && state.cached != null && !state.redirected) {
+      MultiMap headers = context.clientRequest().headers();
+      String etag = state.cached.headers().get(HttpHeaders.ETAG);
+      if (etag != null) {
+        headers.set(HttpHeaders.IF_NONE_MATCH, etag);
+      }
+      String lastModified = state.cached.headers().get(HttpHeaders.LAST_MODIFIED);
+      if (lastModified != null) {
+        headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+      }
+    }
+    context.next();
+  }
+
+  private void followRedirect(HttpContext<?> context) {
+    State state = context.get(STATE_KEY);
+    if (state != null) {
+      // the final response is not the response of the cached URI
+      state.redirected = true;
+    }
+    context.next();
+  }
+
+  private void receiveResponse(HttpContext<?> context) {
+    State state = context.get(STATE_KEY);
+    HttpClientResponse resp = context.clientResponse();
+
+    if (state == null || state.redirected) {
+      context.next();
+      return;
+    }
+
+    if (state.invalidate) {
+      if (resp.statusCode() < 400) {
+        store.delete(state.key);
+      }
+      context.next();
+      return;
+    }
+
+    HttpRequestImpl<?> request = (HttpRequestImpl<?>) context.request();
+
+    if (state.cached != null && resp.statusCode() == 304) {
+      CachedHttpResponse stale = state.cached;
+      resp.exceptionHandler(context::fail);
+      resp.bodyHandler(ignore -> {
+        long now = System.currentTimeMillis();
+        CachedHttpResponse refreshed = refresh(stale, resp.headers(), now);
+        store.set(state.key, refreshed);
+        respond(context, refreshed.version(), refreshed.statusCode(), refreshed.statusMessage(), cachedHeaders(refreshed, now), refreshed.body());
+      });
+      resp.resume();
+      return;
+    }
+
+    CacheControl cacheControl = CacheControl.parse(resp.headers().getAll(HttpHeaders.CACHE_CONTROL));
+    // only the responses that will be stored are buffered, the others are streamed to the body codec
+    if (!isCacheable(request, resp, cacheControl) || !isStorable(resp.headers(), cacheControl)) {
+      context.next();
+      return;
+    }
+
+    resp.exceptionHandler(context::fail);
+    resp.bodyHandler(body -> {
+      MultiMap headers = MultiMap.caseInsensitiveMultiMap().addAll(resp.headers());
+      store.set(state.key, create(resp.version(), resp.statusCode(), resp.statusMessage(), headers, body,
+        varyHeaders(headers, request.headers), System.currentTimeMillis()));
+      respond(context, resp.version(), resp.statusCode(), resp.statusMessage(), resp.headers(), body);
+    });
+    resp.resume();
+  }
+
+  private static void respond(HttpContext<?> context, HttpVersion version, int statusCode, String statusMessage, MultiMap headers, Buffer body) {
+    context.dispatchBufferedResponse(new HttpResponseImpl<>(version, statusCode, statusMessage, headers,
+      MultiMap.caseInsensitiveMultiMap(), Collections.emptyList(), body, context.getRedirectedLocations()));
+  }
+
+  /**
+   * Revalidate a stale response in the background, at most once at a time per key.
+   */
+  private void revalidate(HttpRequestImpl<?> request, String key, CachedHttpResponse cached) {
+    if (!revalidating.add(key)) {
+      return;
+    }
+    HttpRequestImpl<Buffer> copy = (HttpRequestImpl<Buffer>) request.copy().as(BodyCodec.buffer());
+    HttpContext<Buffer> context = request.client.createContext(ar -> revalidating.remove(key));
+    State state = new State(key, false);
+    state.cached = cached;
+    context.set(STATE_KEY, state);
+    context.prepareRequest(copy, null, null);
+  }
+
+  private static boolean isCacheable(HttpRequestImpl<?> request, HttpClientResponse resp, CacheControl cacheControl) {
+    if (!CACHEABLE_STATUS.contains(resp.statusCode()) || cacheControl.noStore || cacheControl.isPrivate) {
+      return false;
+    }
+    // never share the cookies of a user with the others
+    if (resp.headers().contains(HttpHeaders.SET_COOKIE)) {
+      return false;
+    }
+    for (String vary : resp.headers().getAll(HttpHeaderNames.VARY)) {
+      if (vary.contains("*")) {
+        return false;
+      }
+    }
+    if (request.headers != null && request.headers.contains(HttpHeaders.AUTHORIZATION)) {
+      return cacheControl.isPublic || cacheControl.mustRevalidate || cacheControl.sMaxAge != -1;
+    }
+    return true;
+  }
+
+  /**
+   * @return {@code true} if a response with these headers is worth storing: it is fresh for some time, can be served
+   * stale while it is revalidated, or can be revalidated
+   */
+  private static boolean isStorable(MultiMap headers, CacheControl cacheControl) {
+    return maxAge(headers, cacheControl, System.currentTimeMillis()) + staleWhileRevalidate(cacheControl) > 0
+      || headers.contains(HttpHeaders.ETAG) || headers.contains(HttpHeaders.LAST_MODIFIED);
+  }
+
+  private static CachedHttpResponse create(HttpVersion version, int statusCode, String statusMessage, MultiMap headers,
+                                           Buffer body, MultiMap varyHeaders, long responseTime) {
+    CacheControl cacheControl = CacheControl.parse(headers.getAll(HttpHeaders.CACHE_CONTROL));
+
+    long maxAge = maxAge(headers, cacheControl, responseTime);
+    long staleWhileRevalidate = staleWhileRevalidate(cacheControl);
+
+    long age = 0;
+    try {
+      String value = headers.get(HttpHeaders.AGE);
+      if (value != null) {
+        age = Math.max(0, Long.parseLong(value.trim())) * 1000;
+      }
+    } catch (NumberFormatException ignore) {
+    }
+
+    return new CachedHttpResponse(version, statusCode, statusMessage, headers, body, varyHeaders, responseTime - age, maxAge, staleWhileRevalidate);
+  }
+
+  /**
+   * @return the freshness lifetime of a response in milliseconds
+   */
+  private static long maxAge(MultiMap headers, CacheControl cacheControl, long responseTime) {
+    if (cacheControl.noCache) {
+      return 0;
+    }
+    if (cacheControl.sMaxAge != -1) {
+      return cacheControl.sMaxAge * 1000;
+    }
+    if (cacheControl.maxAge != -1) {
+      return cacheControl.maxAge * 1000;
+    }
+    if (headers.contains(HttpHeaders.EXPIRES)) {
+      // an invalid date means already expired
+      long expires = parseDate(headers.get(HttpHeaders.EXPIRES));
+      long date = parseDate(headers.get(HttpHeaders.DATE));
+      return Math.max(0, expires - (date == -1 ? responseTime : date));
+    }
+    return 0;
+  }
+
+  private static long staleWhileRevalidate(CacheControl cacheControl) {
+    if (!cacheControl.noCache && !cacheControl.mustRevalidate && cacheControl.staleWhileRevalidate != -1) {
+      return cacheControl.staleWhileRevalidate * 1000;
+    }
+    return 0;
+  }
+
+  /**
+   * Update a cached response with the headers of a {@code 304} response.
+   */
+  private static CachedHttpResponse refresh(CachedHttpResponse cached, MultiMap notModified, long now) {
+    MultiMap headers = MultiMap.caseInsensitiveMultiMap().addAll(cached.headers());
+    for (String name : notModified.names()) {
+      if (!HttpHeaderNames.CONTENT_LENGTH.contentEqualsIgnoreCase(name) && !HttpHeaderNames.TRANSFER_ENCODING.contentEqualsIgnoreCase(name)) {
+        headers.set(name, notModified.getAll(name));
+      }
+    }
+    return create(cached.version(), cached.statusCode(), cached.statusMessage(), headers, cached.body(), cached.varyHeaders(), now);
+  }
+
+  /**
+   * @return a copy of the cached headers, with the {@code Age} of the response
+   */
+  private static MultiMap cachedHeaders(CachedHttpResponse cached, long now) {
+    return MultiMap.caseInsensitiveMultiMap()
+      .addAll(cached.headers())
+      .set(HttpHeaders.AGE, Long.toString(cached.age(now) / 1000));
+  }
+
+  private static MultiMap varyHeaders(MultiMap responseHeaders, MultiMap requestHeaders) {
+    MultiMap varyHeaders = MultiMap.caseInsensitiveMultiMap();
+    if (requestHeaders != null) {
+      for (String vary : responseHeaders.getAll(HttpHeaderNames.VARY)) {
+        for (String name : vary.split(",")) {
+          name = name.trim();
+          if (!name.isEmpty()) {
+            varyHeaders.add(name, requestHeaders.getAll(name));
+          }
+        }
+      }
+    }
+    return varyHeaders;
+  }
+
+  private static boolean varyMatches(CachedHttpResponse cached, MultiMap requestHeaders) {
+    for (String vary : cached.headers().getAll(HttpHeaderNames.VARY)) {
+      for (String name : vary.split(",")) {
+        name = name.trim();
+        if (!name.isEmpty() && !cached.varyHeaders().getAll(name).equals(requestHeaders.getAll(name))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return {@code true} if the validators of the request match the cached response
+   */
+  private static boolean notModified(CachedHttpResponse cached, MultiMap requestHeaders) {
+    String ifNoneMatch = requestHeaders.get(HttpHeaders.IF_NONE_MATCH);
+    if (ifNoneMatch != null) {
+      String etag = cached.headers().get(HttpHeaders.ETAG);
+      if (etag == null) {
+        return false;
+      }
+      etag = weak(etag);
+      for (String candidate : ifNoneMatch.split(",")) {
+        candidate = candidate.trim();
+        if ("*".equals(candidate) || weak(candidate).equals(etag)) {
+          return true;
+        }
+      }
+      return false;
+    }
+    long ifModifiedSince = parseDate(requestHeaders.get(HttpHeaders.IF_MODIFIED_SINCE));
+    long lastModified = parseDate(cached.headers().get(HttpHeaders.LAST_MODIFIED));
+    return ifModifiedSince != -1 && lastModified != -1 && lastModified <= ifModifiedSince;
+  }
+
+  private static String weak(String etag) {
+    return etag.startsWith("W/") ? etag.substring(2) : etag;
+  }
+
+  private static long parseDate(String value) {
+    if (value == null) {
+      return -1;
+    }
+    try {
+      return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+    } catch (DateTimeParseException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * The key of a request, its absolute URI.
+   */
+  static String key(HttpRequestImpl<?> request) {
+    String protocol = request.protocol;
+    if (protocol == null) {
+      boolean ssl = request.ssl != null ? request.ssl : request.options.isSsl();
+      protocol = ssl ? "https" : "http";
+    }
+    String uri = request.uri;
+    if (request.params != null && request.params.size() > 0) {
+      QueryStringEncoder enc = new QueryStringEncoder(uri);
+      request.params.forEach(param -> enc.addParam(param.getKey(), param.getValue()));
+      uri = enc.toString();
+    }
+    StringBuilder key = new StringBuilder(protocol).append("://");
+    if (request.serverAddress != null) {
+      key.append(request.serverAddress).append('/');
+    }
+    return key
+      .append(request.virtualHost != null ? request.virtualHost : request.host())
+      .append(':')
+      .append(request.port())
+      .append(uri)
+      .toString();
+  }
+
+  /**
+   * The cache directives of a request or a response.
+   */
+  static final class CacheControl {
+
+    boolean noStore;
+    boolean noCache;
+    boolean isPrivate;
+    boolean isPublic;
+    boolean mustRevalidate;
+    long maxAge = -1;
+    long sMaxAge = -1;
+    long staleWhileRevalidate = -1;
+
+    static CacheControl parse(List<String> values) {
+      CacheControl cacheControl = new CacheControl();
+      for (String value : values) {
+        for (String directive : value.split(",")) {
+          directive = directive.trim();
+          String name = directive;
+          String arg = null;
+          int idx = directive.indexOf('=');
+          if (idx != -1) {
+            name = directive.substring(0, idx).trim();
+            arg = directive.substring(idx + 1).trim();
+            if (arg.length() > 1 && arg.charAt(0) == '"' && arg.charAt(arg.length() - 1) == '"') {
+              arg = arg.substring(1, arg.length() - 1);
+            }
+          }
+          switch (name.toLowerCase()) {
+            case "no-store":
+              cacheControl.noStore = true;
+              break;
+            case "no-cache":
+              cacheControl.noCache = true;
+              break;
+            case "private":
+              cacheControl.isPrivate = true;
+              break;
+            case "public":
+              cacheControl.isPublic = true;
+              break;
+            case "must-revalidate":
+            case "proxy-revalidate":
+              cacheControl.mustRevalidate = true;
+              break;
+            case "max-age":
+              cacheControl.maxAge = seconds(arg);
+              break;
+            case "s-maxage":
+              cacheControl.sMaxAge = seconds(arg);
+              break;
+            case "stale-while-revalidate":
+              cacheControl.staleWhileRevalidate = seconds(arg);
+              break;
+          }
+        }
+      }
+      return cacheControl;
+    }
+
+    private static long seconds(String arg) {
+      if (arg == null) {
+        return -1;
+      }
+      try {
+        return Math.max(0, Long.parseLong(arg));
+      } catch (NumberFormatException e) {
+        return -1;
+      }
+    }
+  }
+}
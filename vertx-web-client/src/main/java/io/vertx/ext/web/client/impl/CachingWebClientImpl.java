@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.impl;
+
+import io.vertx.ext.web.client.CachingWebClient;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.spi.CacheStore;
+
+public class CachingWebClientImpl extends WebClientBase implements CachingWebClient {
+
+  private final CacheStore cacheStore;
+
+  public CachingWebClientImpl(WebClient webClient, CacheStore cacheStore) {
+    super((WebClientBase) webClient);
+    this.cacheStore = cacheStore;
+    // first, so the 304 responses are handled before the request expectations are evaluated
+    interceptors.add(0, new CacheInterceptor(cacheStore));
+  }
+
+  @Override
+  public CacheStore cacheStore() {
+    return cacheStore;
+  }
+}
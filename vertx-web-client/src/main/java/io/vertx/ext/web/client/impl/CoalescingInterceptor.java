@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxException;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.codec.BodyCodec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * An interceptor coalescing identical in-flight {@code GET} and {@code HEAD} requests.
+ * <p>
+ * The first request of a flight sends a copy of itself decoding the response as a {@link Buffer}, the requests with the
+ * same key joining the flight are not sent. Once the copy completes, its response is dispatched to every request of the
+ * flight, each one evaluating its own expectations and decoding the body with its own codec.
+ * <p>
+ * The copy is sent without timeout. A request with a timeout leaves the flight when its timeout fires, the copy is
+ * reset when no request waits for it anymore.
+ */
+public class CoalescingInterceptor implements Handler<HttpContext<?>> {
+
+  private static final String LEADER_KEY = "_coalescingLeader";
+
+  /**
+   * Flights are never shared by different clients, e.g.: the sessions of different users.
+   */
+  private static final class Key {
+    private final WebClientInternal client;
+    private final String value;
+
+    private Key(WebClientInternal client, String value) {
+      this.client = client;
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return client == that.client && value.equals(that.value);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(client) + value.hashCode();
+    }
+  }
+
+  private static final class Waiter {
+    private final HttpContext<?> context;
+    private final Context vertxContext;
+    private long timerId = -1;
+
+    private Waiter(HttpContext<?> context, Context vertxContext) {
+      this.context = context;
+      this.vertxContext = vertxContext;
+    }
+  }
+
+  private final class Flight {
+    private final Key key;
+    // guarded by this
+    private final List<Waiter> waiters = new ArrayList<>();
+    private boolean done;
+    private boolean cancelled;
+    private HttpContext<Buffer> leader;
+
+    private Flight(Key key) {
+      this.key = key;
+    }
+
+    synchronized boolean join(Waiter waiter) {
+      if (done) {
+        return false;
+      }
+      waiters.add(waiter);
+      return true;
+    }
+
+    /**
+     * @return {@code true} if the waiter was still part of the flight.
+     */
+    boolean leave(Waiter waiter) {
+      boolean cancel;
+      synchronized (this) {
+        if (!waiters.remove(waiter)) {
+          return false;
+        }
+        cancel = waiters.isEmpty();
+        if (cancel) {
+          done = true;
+          cancelled = true;
+        }
+      }
+      if (cancel) {
+        flights.remove(key, this);
+        HttpClientRequest request = leader != null ? leader.clientRequest() : null;
+        if (request != null) {
+          request.reset();
+        }
+      }
+      return true;
+    }
+
+    /**
+     * @return whether every request of the flight left it, the copy about to be sent shall then be reset
+     */
+    synchronized boolean isCancelled() {
+      return cancelled;
+    }
+
+    void complete(AsyncResult<HttpResponse<Buffer>> ar) {
+      List<Waiter> list;
+      synchronized (this) {
+        done = true;
+        list = new ArrayList<>(waiters);
+        waiters.clear();
+      }
+      flights.remove(key, this);
+      for (Waiter waiter : list) {
+        if (waiter.timerId != -1) {
+          vertx.cancelTimer(waiter.timerId);
+        }
+        if (waiter.vertxContext != null) {
+          waiter.vertxContext.runOnContext(v -> dispatch(waiter.context, ar));
+        } else {
+          dispatch(waiter.context, ar);
+        }
+      }
+    }
+  }
+
+  private final Vertx vertx;
+  private final Set<String> headers;
+  private final ConcurrentMap<Key, Flight> flights = new ConcurrentHashMap<>();
+
+  public CoalescingInterceptor(Vertx vertx, Set<String> headers) {
+    this.vertx = vertx;
+    this.headers = headers;
+  }
+
+  @Override
+  public void handle(HttpContext<?> context) {
+    if (context.phase() == ClientPhase.SEND_REQUEST) {
+      Flight flight = context.get(LEADER_KEY);
+      // the flight was left before the copy had a client request to reset
+      if (flight != null && flight.isCancelled()) {
+        context.clientRequest().reset();
+        context.fail(new VertxException("No request waits for the response"));
+        return;
+      }
+    }
+    if (context.phase() == ClientPhase.PREPARE_REQUEST && context.get(LEADER_KEY) == null && context.body() == null) {
+      HttpRequestImpl<?> request = (HttpRequestImpl<?>) context.request();
+      if (HttpMethod.GET.equals(request.method) || HttpMethod.HEAD.equals(request.method)) {
+        join(context, request);
+        return;
+      }
+    }
+    context.next();
+  }
+
+  private void join(HttpContext<?> context, HttpRequestImpl<?> request) {
+    Key key = new Key(request.client, key(request));
+    Waiter waiter = new Waiter(context, Vertx.currentContext());
+
+    Flight flight;
+    boolean leader = false;
+    while (true) {
+      flight = flights.get(key);
+      if (flight == null) {
+        flight = new Flight(key);
+        if (flights.putIfAbsent(key, flight) != null) {
+          continue;
+        }
+        leader = true;
+      }
+      // a flight completes concurrently, the request will join the next one
+      if (flight.join(waiter)) {
+        break;
+      }
+    }
+
+    if (request.timeout > 0) {
+      Flight joined = flight;
+      waiter.timerId = vertx.setTimer(request.timeout, id -> {
+        if (joined.leave(waiter)) {
+          context.fail(new TimeoutException("The timeout period of " + request.timeout + "ms has been exceeded while executing "
+            + request.method + " " + request.uri + " for server " + request.host() + ":" + request.port()));
+        }
+      });
+    }
+
+    if (leader) {
+      // each request times out on its own, the copy is reset once they all left the flight
+      HttpRequestImpl<Buffer> copy = (HttpRequestImpl<Buffer>) request.copy().timeout(0).as(BodyCodec.buffer());
+      HttpContext<Buffer> leaderContext = request.client.createContext(flight::complete);
+      leaderContext.set(LEADER_KEY, flight);
+      flight.leader = leaderContext;
+      leaderContext.prepareRequest(copy, context.contentType(), null);
+    }
+  }
+
+  private static void dispatch(HttpContext<?> context, AsyncResult<HttpResponse<Buffer>> ar) {
+    if (ar.succeeded()) {
+      HttpResponse<Buffer> response = ar.result();
+      // each request gets its own headers, they can be modified
+      context.dispatchBufferedResponse(new HttpResponseImpl<>(
+        response.version(),
+        response.statusCode(),
+        response.statusMessage(),
+        MultiMap.caseInsensitiveMultiMap().addAll(response.headers()),
+        response.trailers(),
+        response.cookies(),
+        response.body(),
+        response.followedRedirects()
+      ));
+    } else {
+      context.fail(ar.cause());
+    }
+  }
+
+  /**
+   * The key of a request: its method, absolute URI and the values of the coalescing headers.
+   */
+  private String key(HttpRequestImpl<?> request) {
+    StringBuilder key = new StringBuilder()
+      .append(request.method)
+      .append(' ')
+      .append(CacheInterceptor.key(request));
+    MultiMap requestHeaders = request.headers;
+    if (requestHeaders != null) {
+      for (String name : headers) {
+        for (String value : requestHeaders.getAll(name)) {
+          key.append('\n').append(name).append(':').append(value);
+        }
+      }
+    }
+    return key.toString();
+  }
+}
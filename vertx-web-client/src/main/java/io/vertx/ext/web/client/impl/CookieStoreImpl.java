@@ -10,188 +10,561 @@
  */
 package io.vertx.ext.web.client.impl;
 
-import java.util.Map.Entry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentSkipListMap;
-import java.util.function.Consumer;
 
+import io.netty.handler.codec.http.cookie.ClientCookieEncoder;
 import io.netty.handler.codec.http.cookie.Cookie;
 import io.vertx.core.http.impl.HttpUtils;
 import io.vertx.ext.web.client.spi.CookieStore;
 
 /**
+ * An in memory cookie store.
+ * <p>
+ * The cookies are indexed by domain in a trie of the reversed domain labels, the root of the trie holds the cookies
+ * without domain. A node of the trie holds its cookies in buckets sorted by path, so a lookup only visits the nodes
+ * of the requested domain and its parent domains.
+ * <p>
+ * The cookies with an expiration are tracked in a queue and removed when they expire. The number of cookies of a domain
+ * is bounded, the oldest cookie of the domain is evicted when a new one exceeds the bound.
+ * <p>
+ * The matched cookies and their {@code Cookie} header are cached per (domain, path, secure) and recomputed when
+ * a cookie of a visited node changes or when a matched cookie expires.
+ * <p>
+ * The lookups are lock free, the modifications are serialized.
+ *
  * @author <a href="mailto:tommaso.nolli@gmail.com">Tommaso Nolli</a>
  */
 public class CookieStoreImpl implements CookieStore {
 
-  private ConcurrentHashMap<Key, Cookie> noDomainCookies;
-  private ConcurrentSkipListMap<Key, Cookie> domainCookies;
-  
+  /**
+   * The default maximum number of cookies per domain = 50.
+   */
+  public static final int DEFAULT_MAX_COOKIES_PER_DOMAIN = 50;
+
+  /**
+   * The maximum number of cached lookups, the cache is cleared when it is reached.
+   */
+  private static final int MAX_CACHED_LOOKUPS = 1024;
+
+  private static final Bucket[] NO_BUCKETS = new Bucket[0];
+
+  private final int maxCookiesPerDomain;
+  private final Node root = new Node(null, null);
+  private final ConcurrentHashMap<LookupKey, Lookup> lookups = new ConcurrentHashMap<>();
+  private final Object lock = new Object();
+  // guarded by lock
+  private final PriorityQueue<Stored> expirations = new PriorityQueue<>(Comparator.comparingLong(s -> s.expiresAt));
+  private int expiring;
+  private long sequence;
+  private volatile long nextExpiration = Long.MAX_VALUE;
+
   public CookieStoreImpl() {
-    noDomainCookies = new ConcurrentHashMap<>();
-    domainCookies = new ConcurrentSkipListMap<>();
+    this(DEFAULT_MAX_COOKIES_PER_DOMAIN);
+  }
+
+  public CookieStoreImpl(int maxCookiesPerDomain) {
+    if (maxCookiesPerDomain < 1) {
+      throw new IllegalArgumentException("The maximum number of cookies per domain must be > 0");
+    }
+    this.maxCookiesPerDomain = maxCookiesPerDomain;
+  }
+
+  /**
+   * @return the current time in milliseconds, the expirations of the cookies are computed against it
+   */
+  protected long currentTimeMillis() {
+    return System.currentTimeMillis();
   }
-  
+
   @Override
   public Iterable<Cookie> get(Boolean ssl, String domain, String path) {
+    return lookup(ssl, domain, path).cookies;
+  }
+
+  /**
+   * Encode the value of the {@code Cookie} header of a request.
+   *
+   * @param ssl true if is the connection secure
+   * @param domain the domain we are calling
+   * @param path the path we are calling
+   * @return the header value or {@code null} when no cookie matches
+   */
+  public String encode(Boolean ssl, String domain, String path) {
+    return lookup(ssl, domain, path).header();
+  }
+
+  private Lookup lookup(Boolean ssl, String domain, String path) {
     assert domain != null && domain.length() > 0;
 
-    String cleanPath;
-    {
-      String uri = HttpUtils.removeDots(path);
-      // Remoe query params if present
-      int pos = uri.indexOf('?');
-      if (pos > -1) {
-        uri = uri.substring(0, pos);
+    long now = currentTimeMillis();
+    if (now >= nextExpiration) {
+      synchronized (lock) {
+        expire(now);
       }
-  
-      // Remoe frament identifier if present
-      pos = uri.indexOf('#');
-      if (pos > -1) {
-        uri = uri.substring(0, pos);
+    }
+
+    LookupKey key = new LookupKey(ssl == Boolean.TRUE, domain, cleanPath(path));
+    Lookup lookup = lookups.get(key);
+    if (lookup != null && lookup.isValid(now)) {
+      return lookup;
+    }
+    lookup = compute(key, now);
+    if (lookups.size() >= MAX_CACHED_LOOKUPS) {
+      lookups.clear();
+    }
+    lookups.put(key, lookup);
+    return lookup;
+  }
+
+  private static String cleanPath(String path) {
+    // Remove query params and fragment identifier if present
+    int pos = path.indexOf('?');
+    if (pos > -1) {
+      path = path.substring(0, pos);
+    }
+    pos = path.indexOf('#');
+    if (pos > -1) {
+      path = path.substring(0, pos);
+    }
+    if (path.indexOf('.') > -1) {
+      path = HttpUtils.removeDots(path);
+    }
+    return path;
+  }
+
+  private Lookup compute(LookupKey key, long now) {
+    // the nodes of the domain and its parent domains, from the least to the most specific
+    List<Node> nodes = new ArrayList<>();
+    Node node = root;
+    nodes.add(node);
+    String domain = key.domain;
+    int end = domain.length();
+    while (end > 0) {
+      int start = domain.lastIndexOf('.', end - 1);
+      Map<String, Node> children = node.children;
+      node = children != null ? children.get(domain.substring(start + 1, end)) : null;
+      if (node == null) {
+        break;
       }
-      cleanPath = uri;
+      nodes.add(node);
+      end = start;
     }
-    
+    Node[] chain = nodes.toArray(new Node[0]);
+
+    // the stamp is read before the buckets, so a concurrent modification makes the lookup stale
+    long stamp = stamp(chain);
+    long expiresAt = Long.MAX_VALUE;
     TreeMap<String, Cookie> matches = new TreeMap<>();
-    
-    Consumer<Cookie> adder = c -> {
-      if (ssl != Boolean.TRUE && c.isSecure()) {
-        return;
-      }
-      if (c.path() != null && !cleanPath.equals(c.path())) {
-        String cookiePath = c.path();
-        if (!cookiePath.endsWith("/")) {
-          cookiePath += '/';
+    for (Node n : chain) {
+      for (Bucket bucket : n.buckets) {
+        if (!bucket.matches(key.path)) {
+          continue;
         }
-        if (!cleanPath.startsWith(cookiePath)) {
-          return;
+        for (Stored stored : bucket.cookies) {
+          if ((!key.ssl && stored.cookie.isSecure()) || stored.expiresAt <= now) {
+            continue;
+          }
+          // the most specific domain and path wins
+          matches.put(stored.cookie.name(), stored.cookie);
+          expiresAt = Math.min(expiresAt, stored.expiresAt);
         }
       }
-      matches.put(c.name(), c);      
-    };
-    
-    for (Cookie c : noDomainCookies.values()) {
-      adder.accept(c);
-    }
-    
-    Key key = new Key(domain, "", "");
-    String prefix = key.domain.substring(0, 1);
-    for (Entry<Key, Cookie> entry : domainCookies.tailMap(new Key(prefix, "", ""), true).entrySet()) {
-      if (entry.getKey().domain.compareTo(key.domain) > 0) {
-        break;
-      }
-      if (!key.domain.startsWith(entry.getKey().domain)) {
-        continue;
-      }
-      adder.accept(entry.getValue());
     }
-        
-    return matches.values();
+    return new Lookup(chain, stamp, expiresAt, Collections.unmodifiableList(new ArrayList<>(matches.values())));
+  }
+
+  private static long stamp(Node[] chain) {
+    long stamp = 0;
+    for (Node node : chain) {
+      stamp += node.modCount;
+    }
+    return stamp;
   }
 
   @Override
   public CookieStore put(Cookie cookie) {
-    Key key = new Key(cookie.domain(), cookie.path(), cookie.name());
-    if (key.domain.equals(Key.NO_DOMAIN)) {
-      noDomainCookies.put(key, cookie);
-      return this;
+    String name = cookie.name();
+    String path = cookie.path() == null ? "" : cookie.path();
+    long maxAge = cookie.maxAge();
+    long now = currentTimeMillis();
+    synchronized (lock) {
+      expire(now);
+      if (maxAge != Cookie.UNDEFINED_MAX_AGE && maxAge <= 0) {
+        // the server removes the cookie
+        Node node = find(cookie.domain());
+        if (node != null) {
+          remove(node, path, name);
+        }
+        return this;
+      }
+      long expiresAt = maxAge == Cookie.UNDEFINED_MAX_AGE || maxAge >= (Long.MAX_VALUE - now) / 1000 ? Long.MAX_VALUE : now + maxAge * 1000;
+      Node node = findOrCreate(cookie.domain());
+      Stored stored = new Stored(cookie, expiresAt, sequence++);
+      Stored previous = node.put(path, stored);
+      if (previous != null) {
+        discard(previous);
+      } else {
+        node.size++;
+      }
+      if (expiresAt != Long.MAX_VALUE) {
+        expirations.add(stored);
+        expiring++;
+        nextExpiration = expirations.peek().expiresAt;
+      }
+      if (node.size > maxCookiesPerDomain) {
+        evictOldest(node);
+      }
+      node.modCount++;
     }
-    domainCookies.put(key, cookie);
     return this;
   }
 
   @Override
   public CookieStore remove(Cookie cookie) {
-    Key key = new Key(cookie.domain(), cookie.path(), cookie.name());
-    if (key.domain.equals(Key.NO_DOMAIN)) {
-      noDomainCookies.remove(key);
-    } else {
-      domainCookies.remove(key);
+    synchronized (lock) {
+      Node node = find(cookie.domain());
+      if (node != null) {
+        remove(node, cookie.path() == null ? "" : cookie.path(), cookie.name());
+      }
     }
     return this;
   }
 
-  private static class Key implements Comparable<Key> {
-    private static final String NO_DOMAIN = "";
-    
-    private final String domain;
-    private final String path;
-    private final String name;
+  /**
+   * @return the labels of a cookie domain from the top level domain, empty when the cookie has no domain
+   */
+  private static String[] labels(String domain) {
+    if (domain == null) {
+      return new String[0];
+    }
+    int start = 0;
+    int end = domain.length();
+    while (start < end && domain.charAt(start) == '.') {
+      start++;
+    }
+    while (end > start && domain.charAt(end - 1) == '.') {
+      end--;
+    }
+    if (start == end) {
+      return new String[0];
+    }
+    String[] labels = domain.substring(start, end).split("\\.");
+    Collections.reverse(Arrays.asList(labels));
+    return labels;
+  }
 
-    public Key(String domain, String path, String name) {
-      if (domain == null || domain.length() == 0) {
-        this.domain = NO_DOMAIN;
-      } else {
-        while (domain.charAt(0) == '.') {
-          domain = domain.substring(1);
+  // guarded by lock
+  private Node find(String domain) {
+    Node node = root;
+    for (String label : labels(domain)) {
+      node = node.children != null ? node.children.get(label) : null;
+      if (node == null) {
+        return null;
+      }
+    }
+    return node;
+  }
+
+  // guarded by lock
+  private Node findOrCreate(String domain) {
+    Node node = root;
+    for (String label : labels(domain)) {
+      if (node.children == null) {
+        node.children = new ConcurrentHashMap<>();
+      }
+      Node child = node.children.get(label);
+      if (child == null) {
+        child = new Node(node, label);
+        node.children.put(label, child);
+        // the lookups ending at the parent may now continue to the child
+        node.modCount++;
+      }
+      node = child;
+    }
+    return node;
+  }
+
+  // guarded by lock
+  private void remove(Node node, String path, String name) {
+    Stored removed = node.remove(path, name);
+    if (removed != null) {
+      discard(removed);
+      node.size--;
+      node.modCount++;
+      prune(node);
+    }
+  }
+
+  // guarded by lock
+  private void discard(Stored stored) {
+    stored.removed = true;
+    if (stored.expiresAt != Long.MAX_VALUE) {
+      expiring--;
+      // the removed cookies stay in the queue until they expire, the queue is compacted when they are too many
+      if (expirations.size() > 2 * expiring + 16) {
+        expirations.removeIf(s -> s.removed);
+        nextExpiration = expirations.isEmpty() ? Long.MAX_VALUE : expirations.peek().expiresAt;
+      }
+    }
+  }
+
+  // guarded by lock
+  private void expire(long now) {
+    Stored head;
+    while ((head = expirations.peek()) != null && head.expiresAt <= now) {
+      expirations.poll();
+      if (!head.removed) {
+        Node node = head.node;
+        remove(node, head.cookie.path() == null ? "" : head.cookie.path(), head.cookie.name());
+      }
+    }
+    nextExpiration = head == null ? Long.MAX_VALUE : head.expiresAt;
+  }
+
+  // guarded by lock
+  private void evictOldest(Node node) {
+    Stored oldest = null;
+    String oldestPath = null;
+    for (Bucket bucket : node.buckets) {
+      for (Stored stored : bucket.cookies) {
+        if (oldest == null || stored.sequence < oldest.sequence) {
+          oldest = stored;
+          oldestPath = bucket.path;
         }
-        while (domain.charAt(domain.length() - 1) == '.') {
-          domain = domain.substring(0, domain.length() - 1);
+      }
+    }
+    if (oldest != null) {
+      remove(node, oldestPath, oldest.cookie.name());
+    }
+  }
+
+  /**
+   * Remove the empty nodes of the trie, so the trie does not grow with the domains which cookies are gone.
+   */
+  // guarded by lock
+  private void prune(Node node) {
+    while (node.parent != null && node.size == 0 && (node.children == null || node.children.isEmpty())) {
+      Node parent = node.parent;
+      parent.children.remove(node.label);
+      parent.modCount++;
+      node = parent;
+    }
+  }
+
+  /**
+   * A node of the domain trie.
+   */
+  private static final class Node {
+
+    private final Node parent;
+    private final String label;
+    // written under lock
+    private volatile Map<String, Node> children;
+    private volatile Bucket[] buckets = NO_BUCKETS;
+    private volatile long modCount;
+    // guarded by lock
+    private int size;
+
+    private Node(Node parent, String label) {
+      this.parent = parent;
+      this.label = label;
+    }
+
+    /**
+     * @return the replaced cookie or {@code null}
+     */
+    // guarded by lock
+    Stored put(String path, Stored stored) {
+      stored.node = this;
+      Bucket[] current = buckets;
+      int idx = indexOf(current, path);
+      if (idx >= 0) {
+        Bucket bucket = current[idx];
+        Stored[] cookies = bucket.cookies;
+        for (int i = 0; i < cookies.length; i++) {
+          if (cookies[i].cookie.name().equals(stored.cookie.name())) {
+            Stored[] copy = cookies.clone();
+            copy[i] = stored;
+            update(current, idx, new Bucket(path, copy));
+            return cookies[i];
+          }
         }
-        if (domain.length() == 0) {
-          this.domain = NO_DOMAIN;
-        } else {
-          String[] tokens = domain.split("\\.");
-          String tmp;
-          for (int i = 0, j = tokens.length - 1; i < tokens.length / 2; ++i, --j) {
-            tmp = tokens[j];
-            tokens[j] = tokens[i];
-            tokens[i] = tmp;
+        Stored[] copy = Arrays.copyOf(cookies, cookies.length + 1);
+        copy[cookies.length] = stored;
+        update(current, idx, new Bucket(path, copy));
+      } else {
+        int insertion = -idx - 1;
+        Bucket[] copy = new Bucket[current.length + 1];
+        System.arraycopy(current, 0, copy, 0, insertion);
+        copy[insertion] = new Bucket(path, new Stored[] { stored });
+        System.arraycopy(current, insertion, copy, insertion + 1, current.length - insertion);
+        buckets = copy;
+      }
+      return null;
+    }
+
+    /**
+     * @return the removed cookie or {@code null}
+     */
+    // guarded by lock
+    Stored remove(String path, String name) {
+      Bucket[] current = buckets;
+      int idx = indexOf(current, path);
+      if (idx < 0) {
+        return null;
+      }
+      Stored[] cookies = current[idx].cookies;
+      for (int i = 0; i < cookies.length; i++) {
+        Stored stored = cookies[i];
+        if (stored.cookie.name().equals(name)) {
+          if (cookies.length == 1) {
+            Bucket[] copy = new Bucket[current.length - 1];
+            System.arraycopy(current, 0, copy, 0, idx);
+            System.arraycopy(current, idx + 1, copy, idx, current.length - idx - 1);
+            buckets = copy;
+          } else {
+            Stored[] copy = new Stored[cookies.length - 1];
+            System.arraycopy(cookies, 0, copy, 0, i);
+            System.arraycopy(cookies, i + 1, copy, i, cookies.length - i - 1);
+            update(current, idx, new Bucket(path, copy));
           }
-          this.domain = String.join(".", tokens);
+          return stored;
         }
-      }      
-      this.path = path == null ? "" : path;
-      this.name = name;
+      }
+      return null;
     }
 
-    @Override
-    public int compareTo(Key o) {
-      int ret = domain.compareTo(o.domain);
-      if (ret == 0)
-        ret = path.compareTo(o.path);
-      if (ret == 0)
-        ret = name.compareTo(o.name);
-      return ret;
+    private void update(Bucket[] current, int idx, Bucket bucket) {
+      Bucket[] copy = current.clone();
+      copy[idx] = bucket;
+      buckets = copy;
     }
 
-    @Override
-    public int hashCode() {
-      final int prime = 31;
-      int result = 1;
-      result = prime * result + ((domain == null) ? 0 : domain.hashCode());
-      result = prime * result + ((name == null) ? 0 : name.hashCode());
-      result = prime * result + ((path == null) ? 0 : path.hashCode());
-      return result;
+    private int indexOf(Bucket[] buckets, String path) {
+      int low = 0;
+      int high = buckets.length - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        int cmp = buckets[mid].path.compareTo(path);
+        if (cmp < 0) {
+          low = mid + 1;
+        } else if (cmp > 0) {
+          high = mid - 1;
+        } else {
+          return mid;
+        }
+      }
+      return -(low + 1);
+    }
+  }
+
+  /**
+   * The cookies of a domain for a path, immutable.
+   */
+  private static final class Bucket {
+
+    private final String path;
+    private final String prefix;
+    private final Stored[] cookies;
+
+    private Bucket(String path, Stored[] cookies) {
+      this.path = path;
+      this.prefix = path.endsWith("/") ? path : path + '/';
+      this.cookies = cookies;
+    }
+
+    boolean matches(String requestPath) {
+      return path.isEmpty() || requestPath.equals(path) || requestPath.startsWith(prefix);
+    }
+  }
+
+  private static final class Stored {
+
+    private final Cookie cookie;
+    private final long expiresAt;
+    private final long sequence;
+    // guarded by lock
+    private Node node;
+    private boolean removed;
+
+    private Stored(Cookie cookie, long expiresAt, long sequence) {
+      this.cookie = cookie;
+      this.expiresAt = expiresAt;
+      this.sequence = sequence;
+    }
+  }
+
+  private static final class LookupKey {
+
+    private final boolean ssl;
+    private final String domain;
+    private final String path;
+
+    private LookupKey(boolean ssl, String domain, String path) {
+      this.ssl = ssl;
+      this.domain = domain;
+      this.path = path;
     }
 
     @Override
-    public boolean equals(Object obj) {
-      if (this == obj)
+    public boolean equals(Object o) {
+      if (this == o) {
         return true;
-      if (obj == null)
-        return false;
-      if (getClass() != obj.getClass())
-        return false;
-      Key other = (Key) obj;
-      if (domain == null) {
-        if (other.domain != null)
-          return false;
-      } else if (!domain.equals(other.domain))
-        return false;
-      if (name == null) {
-        if (other.name != null)
-          return false;
-      } else if (!name.equals(other.name))
-        return false;
-      if (path == null) {
-        if (other.path != null)
-          return false;
-      } else if (!path.equals(other.path))
+      }
+      if (!(o instanceof LookupKey)) {
         return false;
-      return true;
+      }
+      LookupKey that = (LookupKey) o;
+      return ssl == that.ssl && domain.equals(that.domain) && path.equals(that.path);
     }
-  }  
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(ssl, domain, path);
+    }
+  }
+
+  /**
+   * The cookies matched by a lookup.
+   */
+  private static final class Lookup {
+
+    private final Node[] chain;
+    private final long stamp;
+    private final long expiresAt;
+    private final List<Cookie> cookies;
+    private volatile String header;
+
+    private Lookup(Node[] chain, long stamp, long expiresAt, List<Cookie> cookies) {
+      this.chain = chain;
+      this.stamp = stamp;
+      this.expiresAt = expiresAt;
+      this.cookies = cookies;
+    }
+
+    /**
+     * A lookup is valid until a node it visited changes or one of its cookies expires: a new child of the last node
+     * changes the last node, a removed node changes its parent.
+     */
+    boolean isValid(long now) {
+      return now < expiresAt && stamp(chain) == stamp;
+    }
+
+    String header() {
+      String h = header;
+      if (h == null && !cookies.isEmpty()) {
+        h = header = ClientCookieEncoder.STRICT.encode(cookies);
+      }
+      return h;
+    }
+  }
 }
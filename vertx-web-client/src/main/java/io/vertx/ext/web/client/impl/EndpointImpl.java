@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.impl;
+
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.web.client.spi.Endpoint;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The statistics of an endpoint of a load balanced service.
+ */
+class EndpointImpl implements Endpoint {
+
+  /**
+   * The weight of a new sample in the latency moving average.
+   */
+  private static final double ALPHA = 0.3;
+
+  private final SocketAddress address;
+  private final AtomicInteger outstanding = new AtomicInteger();
+  // guarded by this
+  private int samples;
+  private int consecutiveFailures;
+  private volatile long latency;
+  private volatile long ejectedUntil;
+  private volatile boolean ejected;
+
+  EndpointImpl(SocketAddress address) {
+    this.address = address;
+  }
+
+  @Override
+  public SocketAddress address() {
+    return address;
+  }
+
+  @Override
+  public int outstandingRequests() {
+    return outstanding.get();
+  }
+
+  @Override
+  public long latency() {
+    return latency;
+  }
+
+  @Override
+  public boolean isEjected() {
+    if (ejected) {
+      if (System.nanoTime() - ejectedUntil < 0) {
+        return true;
+      }
+      ejected = false;
+    }
+    return false;
+  }
+
+  void acquire() {
+    outstanding.incrementAndGet();
+  }
+
+  void release() {
+    outstanding.decrementAndGet();
+  }
+
+  /**
+   * Record a successful response.
+   *
+   * @return the number of latency samples
+   */
+  synchronized int succeeded(long elapsed) {
+    consecutiveFailures = 0;
+    long current = latency;
+    latency = current == 0 ? Math.max(elapsed, 1) : (long) (ALPHA * elapsed + (1 - ALPHA) * current);
+    return ++samples;
+  }
+
+  /**
+   * Record a failure.
+   *
+   * @return the number of consecutive failures
+   */
+  synchronized int failed() {
+    return ++consecutiveFailures;
+  }
+
+  /**
+   * Eject the endpoint, its statistics are reset so it is evaluated afresh when it comes back.
+   */
+  synchronized void eject(long ejectionTimeNanos) {
+    samples = 0;
+    consecutiveFailures = 0;
+    latency = 0;
+    ejectedUntil = System.nanoTime() + ejectionTimeNanos;
+    ejected = true;
+  }
+
+  @Override
+  public String toString() {
+    return "Endpoint[" + address + "]";
+  }
+}
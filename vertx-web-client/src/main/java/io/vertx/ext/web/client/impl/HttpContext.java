@@ -26,10 +26,14 @@ import io.vertx.core.http.RequestOptions;
 import io.vertx.core.http.impl.HttpClientImpl;
 import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.SocketAddress;
 import io.vertx.core.streams.Pipe;
 import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
 import io.vertx.ext.web.client.HttpRequest;
 import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.ResponseTiming;
+import io.vertx.ext.web.client.impl.predicate.PredicateInterceptor;
 import io.vertx.ext.web.codec.spi.BodyStream;
 import io.vertx.ext.web.multipart.MultipartForm;
 
@@ -49,6 +53,7 @@ public class HttpContext<T> {
   private HttpRequestImpl<T> request;
   private Object body;
   private String contentType;
+  private SocketAddress server;
   private Map<String, Object> attrs;
   private Iterator<Handler<HttpContext<?>>> it;
   private ClientPhase phase;
@@ -58,6 +63,7 @@ public class HttpContext<T> {
   private Throwable failure;
   private int redirects;
   private List<String> redirectedLocations = new ArrayList<>();
+  private ResponseTimingImpl timing;
 
   HttpContext(HttpClientImpl client, List<Handler<HttpContext<?>>> interceptors, Handler<AsyncResult<HttpResponse<T>>> handler) {
     this.handler = handler;
@@ -79,6 +85,17 @@ public class HttpContext<T> {
     return clientResponse;
   }
 
+  /**
+   * @return the timing of the phases of the request, {@code null} unless the client times its requests
+   */
+  public ResponseTiming timing() {
+    return timing;
+  }
+
+  void enableTiming() {
+    timing = new ResponseTimingImpl();
+  }
+
   /**
    * @return the current event type
    */
@@ -151,6 +168,26 @@ public class HttpContext<T> {
     return redirectedLocations;
   }
 
+  /**
+   * @return the server the request is sent to instead of the request server address, or {@code null}
+   */
+  public SocketAddress server() {
+    return server;
+  }
+
+  /**
+   * Set the server the request is sent to instead of the request server address, the request host and port are
+   * still used for the {@code Host} header. An interceptor can call it during {@link ClientPhase#PREPARE_REQUEST},
+   * e.g.: to send the request to an endpoint selected by a load balancer.
+   *
+   * @param server the server address
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HttpContext<T> server(SocketAddress server) {
+    this.server = server;
+    return this;
+  }
+
   /**
    * Prepare the HTTP request, this executes the {@link ClientPhase#PREPARE_REQUEST} phase:
    * <ul>
@@ -162,6 +199,9 @@ public class HttpContext<T> {
     this.request = (HttpRequestImpl<T>) request;
     this.contentType = contentType;
     this.body = body;
+    if (timing != null) {
+      timing.mark(ResponseTimingImpl.START);
+    }
     fire(ClientPhase.PREPARE_REQUEST);
   }
 
@@ -175,6 +215,9 @@ public class HttpContext<T> {
    */
   public void sendRequest(HttpClientRequest clientRequest) {
     this.clientRequest = clientRequest;
+    if (timing != null) {
+      timing.mark(ResponseTimingImpl.SEND);
+    }
     fire(ClientPhase.SEND_REQUEST);
   }
 
@@ -221,6 +264,9 @@ public class HttpContext<T> {
       }
     }
     this.clientResponse = clientResponse;
+    if (timing != null) {
+      timing.mark(ResponseTimingImpl.RESPONSE);
+    }
     fire(ClientPhase.RECEIVE_RESPONSE);
   }
 
@@ -231,12 +277,66 @@ public class HttpContext<T> {
    *   <li>Traverse the interceptor chain</li>
    *   <li>Deliver the response to the response handler</li>
    * </ul>
+   * An interceptor can call it during {@link ClientPhase#PREPARE_REQUEST} to respond without sending the request,
+   * e.g.: with a cached response.
    */
   public void dispatchResponse(HttpResponse<T> response) {
     this.response = response;
+    if (timing != null) {
+      timing.mark(ResponseTimingImpl.DISPATCH);
+      if (response instanceof HttpResponseImpl) {
+        ((HttpResponseImpl<T>) response).timing(timing);
+      }
+    }
     fire(ClientPhase.DISPATCH_RESPONSE);
   }
 
+  /**
+   * Dispatch a response which body has been buffered by an interceptor instead of the {@link HttpContext}, e.g.: a
+   * cached response:
+   * <ul>
+   *   <li>Evaluate the request expectations</li>
+   *   <li>Decode the body with the request codec</li>
+   *   <li>Execute the {@link ClientPhase#DISPATCH_RESPONSE} phase</li>
+   * </ul>
+   *
+   * @param response the response with its raw body
+   */
+  public void dispatchBufferedResponse(HttpResponse<Buffer> response) {
+    if (!PredicateInterceptor.evaluate(this, response)) {
+      return;
+    }
+    request.codec.create(ar1 -> {
+      if (ar1.failed()) {
+        fail(ar1.cause());
+        return;
+      }
+      BodyStream<T> stream = ar1.result();
+      stream.result().onComplete(ar2 -> {
+        if (ar2.succeeded()) {
+          dispatchResponse(new HttpResponseImpl<>(
+            response.version(),
+            response.statusCode(),
+            response.statusMessage(),
+            response.headers(),
+            response.trailers(),
+            response.cookies(),
+            ar2.result(),
+            response.followedRedirects()
+          ));
+        } else {
+          fail(ar2.cause());
+        }
+      });
+      Buffer body = response.body();
+      if (body != null) {
+        stream.end(body);
+      } else {
+        stream.end();
+      }
+    });
+  }
+
   /**
    * Fail the current HTTP context, this executes the {@link ClientPhase#FAILURE} phase:
    * <ul>
@@ -320,8 +420,9 @@ public class HttpContext<T> {
     }
     int port = request.port();
     String host = request.host();
+    SocketAddress serverAddress = server != null ? server : request.serverAddress;
     if (request.ssl != null && request.ssl != request.options.isSsl()) {
-      req = client.request(request.serverAddress, new RequestOptions().setMethod(request.method).setSsl(request.ssl).setHost(host).setPort
+      req = client.request(serverAddress, new RequestOptions().setMethod(request.method).setSsl(request.ssl).setHost(host).setPort
         (port)
         .setURI
           (requestURI));
@@ -330,13 +431,13 @@ public class HttpContext<T> {
         // we have to create an abs url again to parse it in HttpClient
         try {
           URI uri = new URI(request.protocol, null, host, port, requestURI, null, null);
-          req = client.request(request.serverAddress, new RequestOptions().setMethod(request.method).setAbsoluteURI(uri.toString()));
+          req = client.request(serverAddress, new RequestOptions().setMethod(request.method).setAbsoluteURI(uri.toString()));
         } catch (URISyntaxException ex) {
           fail(ex);
           return;
         }
       } else {
-        req = client.request(request.method, request.serverAddress, port, host, requestURI);
+        req = client.request(request.method, serverAddress, port, host, requestURI);
       }
     }
     if (request.virtualHost != null) {
@@ -376,7 +477,7 @@ public class HttpContext<T> {
     request.codec.create(ar1 -> {
       if (ar1.succeeded()) {
         BodyStream<T> stream = ar1.result();
-        pipe.to(stream, ar2 -> {
+        pipe.to(timing != null ? new TimedWriteStream(stream) : stream, ar2 -> {
           if (ar2.succeeded()) {
             stream.result().onComplete(ar3 -> {
               if (ar3.succeeded()) {
@@ -466,18 +567,31 @@ public class HttpContext<T> {
 
       if (body instanceof ReadStream<?>) {
         ReadStream<Buffer> stream = (ReadStream<Buffer>) body;
-        if (request.headers == null || !request.headers.contains(HttpHeaders.CONTENT_LENGTH)) {
-          req.setChunked(true);
-        }
         Pipe<Buffer> pipe = stream.pipe();
         // Don't end the stream on a failure as it will be reset after
         pipe.endOnFailure(false);
-        pipe.to(req, ar -> {
+        Handler<AsyncResult<Void>> completion = ar -> {
           if (ar.failed()) {
             responseFuture.tryFail(ar.cause());
             req.reset();
+          } else if (timing != null) {
+            timing.mark(ResponseTimingImpl.WRITTEN);
           }
-        });
+        };
+        if (req.headers().contains(HttpHeaders.CONTENT_LENGTH)) {
+          // the body is not chunked: send the head first so the body written from the stream context cannot overtake it
+          req.sendHead(ar -> {
+            if (ar.succeeded()) {
+              pipe.to(req, completion);
+            } else {
+              pipe.close();
+              responseFuture.tryFail(ar.cause());
+            }
+          });
+        } else {
+          req.setChunked(true);
+          pipe.to(req, completion);
+        }
       } else {
         Buffer buffer;
         if (body instanceof Buffer) {
@@ -488,11 +602,17 @@ public class HttpContext<T> {
           buffer = Buffer.buffer(Json.encode(body));
         }
         req.exceptionHandler(responseFuture::tryFail);
-        req.end(buffer);
+        written(req.end(buffer));
       }
     } else {
       req.exceptionHandler(responseFuture::tryFail);
-      req.end();
+      written(req.end());
+    }
+  }
+
+  private void written(Future<Void> end) {
+    if (timing != null) {
+      end.onSuccess(v -> timing.mark(ResponseTimingImpl.WRITTEN));
     }
   }
 
@@ -513,4 +633,57 @@ public class HttpContext<T> {
     }
     return this;
   }
+
+  /**
+   * Marks the first and the last byte of the response body.
+   */
+  private class TimedWriteStream implements WriteStream<Buffer> {
+
+    private final WriteStream<Buffer> stream;
+
+    TimedWriteStream(WriteStream<Buffer> stream) {
+      this.stream = stream;
+    }
+
+    @Override
+    public WriteStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+      stream.exceptionHandler(handler);
+      return this;
+    }
+
+    @Override
+    public Future<Void> write(Buffer data) {
+      timing.markOnce(ResponseTimingImpl.FIRST_BODY_BYTE);
+      return stream.write(data);
+    }
+
+    @Override
+    public void write(Buffer data, Handler<AsyncResult<Void>> handler) {
+      timing.markOnce(ResponseTimingImpl.FIRST_BODY_BYTE);
+      stream.write(data, handler);
+    }
+
+    @Override
+    public void end(Handler<AsyncResult<Void>> handler) {
+      timing.mark(ResponseTimingImpl.LAST_BODY_BYTE);
+      stream.end(handler);
+    }
+
+    @Override
+    public WriteStream<Buffer> setWriteQueueMaxSize(int maxSize) {
+      stream.setWriteQueueMaxSize(maxSize);
+      return this;
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+      return stream.writeQueueFull();
+    }
+
+    @Override
+    public WriteStream<Buffer> drainHandler(Handler<Void> handler) {
+      stream.drainHandler(handler);
+      return this;
+    }
+  }
 }
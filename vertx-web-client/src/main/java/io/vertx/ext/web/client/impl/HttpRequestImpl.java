@@ -26,8 +26,10 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.core.net.SocketAddress;
 import io.vertx.core.streams.ReadStream;
 import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.ext.web.client.HttpRequestTemplate;
 import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.ext.web.client.WebClientOptions;
+import io.vertx.ext.web.client.impl.predicate.CompiledExpectations;
 import io.vertx.ext.web.client.predicate.ResponsePredicate;
 import io.vertx.ext.web.codec.BodyCodec;
 import io.vertx.ext.web.multipart.MultipartForm;
@@ -53,11 +55,16 @@ public class HttpRequestImpl<T> implements HttpRequest<T> {
   String uri;
   MultiMap headers;
   long timeout = -1;
+  String routeTemplate;
   BodyCodec<T> codec;
   boolean followRedirects;
   Boolean ssl;
   boolean multipartMixed = true;
   public List<ResponsePredicate> expectations;
+  // compiled on the first response, reset when an expectation is added
+  private CompiledExpectations compiledExpectations;
+  // the headers and the expectations belong to a template, they are copied before being modified
+  private boolean shared;
 
   HttpRequestImpl(WebClientInternal client, HttpMethod method, SocketAddress serverAddress, Boolean ssl, Integer port, String host, String uri, BodyCodec<T>
           codec, WebClientOptions options) {
@@ -90,7 +97,9 @@ public class HttpRequestImpl<T> implements HttpRequest<T> {
     this.protocol = other.protocol;
     this.port = other.port;
     this.host = other.host;
+    this.virtualHost = other.virtualHost;
     this.timeout = other.timeout;
+    this.routeTemplate = other.routeTemplate;
     this.uri = other.uri;
     this.headers = other.headers != null ? HttpHeaders.headers().addAll(other.headers) : null;
     this.params = other.params != null ? HttpHeaders.headers().addAll(other.params) : null;
@@ -100,6 +109,37 @@ public class HttpRequestImpl<T> implements HttpRequest<T> {
     this.multipartMixed = other.multipartMixed;
   }
 
+  /**
+   * Create a request of a template, sharing the headers and the expectations of the template.
+   */
+  HttpRequestImpl(HttpRequestImpl<T> template, String uri) {
+    this.client = template.client;
+    this.serverAddress = template.serverAddress;
+    this.options = template.options;
+    this.method = template.method;
+    this.protocol = template.protocol;
+    this.port = template.port;
+    this.host = template.host;
+    this.virtualHost = template.virtualHost;
+    this.timeout = template.timeout;
+    this.routeTemplate = template.routeTemplate;
+    this.uri = uri;
+    this.headers = template.headers;
+    this.expectations = template.expectations;
+    this.compiledExpectations = template.compiledExpectations();
+    this.codec = template.codec;
+    this.followRedirects = template.followRedirects;
+    this.ssl = template.ssl;
+    this.multipartMixed = template.multipartMixed;
+    this.shared = true;
+  }
+
+  private void unshare() {
+    shared = false;
+    headers = headers != null ? HttpHeaders.headers().addAll(headers) : null;
+    expectations = expectations != null ? new ArrayList<>(expectations) : null;
+  }
+
   @Override
   public <U> HttpRequest<U> as(BodyCodec<U> responseCodec) {
     codec = (BodyCodec<T>) responseCodec;
@@ -177,6 +217,9 @@ public class HttpRequestImpl<T> implements HttpRequest<T> {
 
   @Override
   public MultiMap headers() {
+    if (shared) {
+      unshare();
+    }
     if (headers == null) {
       headers = HttpHeaders.headers();
     }
@@ -220,6 +263,16 @@ public class HttpRequestImpl<T> implements HttpRequest<T> {
     return timeout;
   }
 
+  @Override
+  public HttpRequest<T> routeTemplate(String value) {
+    routeTemplate = value;
+    return this;
+  }
+
+  public String routeTemplate() {
+    return routeTemplate;
+  }
+
   @Override
   public HttpRequest<T> addQueryParam(String paramName, String paramValue) {
     queryParams().add(paramName, paramValue);
@@ -244,13 +297,24 @@ public class HttpRequestImpl<T> implements HttpRequest<T> {
 
   @Override
   public HttpRequest<T> expect(ResponsePredicate expectation) {
+    if (shared) {
+      unshare();
+    }
     if (expectations == null) {
       expectations = new ArrayList<>();
     }
     expectations.add(expectation);
+    compiledExpectations = null;
     return this;
   }
 
+  public CompiledExpectations compiledExpectations() {
+    if (compiledExpectations == null && expectations != null) {
+      compiledExpectations = new CompiledExpectations(expectations);
+    }
+    return compiledExpectations;
+  }
+
   @Override
   public MultiMap queryParams() {
     if (params == null) {
@@ -272,6 +336,11 @@ public class HttpRequestImpl<T> implements HttpRequest<T> {
     return new HttpRequestImpl<>(this);
   }
 
+  @Override
+  public HttpRequestTemplate<T> template() {
+    return new HttpRequestTemplateImpl<>(this);
+  }
+
   @Override
   public HttpRequest<T> multipartMixed(boolean allow) {
     multipartMixed = allow;
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.impl;
+
+import io.netty.handler.codec.http.QueryStringEncoder;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.ext.web.client.HttpRequestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled request: the path is split around its variables, the query and the headers are encoded once.
+ */
+class HttpRequestTemplateImpl<T> implements HttpRequestTemplate<T> {
+
+  private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+  private final HttpRequestImpl<T> template;
+  // the path fragments around the variables, there is one more fragment than variables
+  private final String[] fragments;
+  private final List<String> variables;
+  private final String query;
+  // the URI of a template without variables
+  private final String uri;
+  private final int length;
+
+  HttpRequestTemplateImpl(HttpRequestImpl<T> request) {
+    HttpRequestImpl<T> template = (HttpRequestImpl<T>) request.copy();
+    String path = template.uri;
+    String query = "";
+    if (template.params != null && template.params.size() > 0) {
+      QueryStringEncoder enc = new QueryStringEncoder("");
+      template.params.forEach(param -> enc.addParam(param.getKey(), param.getValue()));
+      query = enc.toString();
+      template.params = null;
+    } else {
+      int idx = path.indexOf('?');
+      if (idx >= 0) {
+        query = path.substring(idx);
+        path = path.substring(0, idx);
+      }
+    }
+    List<String> fragments = new ArrayList<>();
+    List<String> variables = new ArrayList<>();
+    split(path, fragments, variables);
+    if (template.routeTemplate == null) {
+      template.routeTemplate = path;
+    }
+    template.headers = optimize(template.headers);
+    template.expectations = request.expectations != null ? Collections.unmodifiableList(new ArrayList<>(request.expectations)) : null;
+    template.uri = null;
+    this.template = template;
+    this.fragments = fragments.toArray(new String[0]);
+    this.variables = Collections.unmodifiableList(variables);
+    this.query = query;
+    this.uri = variables.isEmpty() ? path + query : null;
+    this.length = path.length() + query.length();
+  }
+
+  /**
+   * Split a path around its {@code :name} variables, a variable is a path segment starting with {@code :}.
+   */
+  private static void split(String path, List<String> fragments, List<String> variables) {
+    int from = 0;
+    int i = 0;
+    while (i < path.length()) {
+      if (path.charAt(i) == ':' && i > 0 && path.charAt(i - 1) == '/') {
+        int end = i + 1;
+        while (end < path.length() && isNameChar(path.charAt(end))) {
+          end++;
+        }
+        if (end > i + 1) {
+          fragments.add(path.substring(from, i));
+          variables.add(path.substring(i + 1, end));
+          from = end;
+        }
+        i = end;
+      } else {
+        i++;
+      }
+    }
+    fragments.add(path.substring(from));
+  }
+
+  private static boolean isNameChar(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+  }
+
+  /**
+   * @return the headers with their ASCII names and values encoded once
+   */
+  private static MultiMap optimize(MultiMap headers) {
+    if (headers == null) {
+      return null;
+    }
+    MultiMap optimized = HttpHeaders.headers();
+    for (Map.Entry<String, String> header : headers) {
+      optimized.add(optimize(header.getKey()), optimize(header.getValue()));
+    }
+    return optimized;
+  }
+
+  private static CharSequence optimize(String s) {
+    for (int i = 0; i < s.length(); i++) {
+      if (s.charAt(i) > 0x7F) {
+        return s;
+      }
+    }
+    return HttpHeaders.createOptimized(s);
+  }
+
+  @Override
+  public List<String> variables() {
+    return variables;
+  }
+
+  @Override
+  public HttpRequest<T> request() {
+    return request(new String[0]);
+  }
+
+  @Override
+  public HttpRequest<T> request(Map<String, String> values) {
+    String[] array = new String[variables.size()];
+    for (int i = 0; i < array.length; i++) {
+      String name = variables.get(i);
+      array[i] = values.get(name);
+      if (array[i] == null) {
+        throw new IllegalArgumentException("Missing value of variable " + name);
+      }
+    }
+    return request(array);
+  }
+
+  @Override
+  public HttpRequest<T> request(String... values) {
+    if (values.length != variables.size()) {
+      throw new IllegalArgumentException("Expected values of " + variables + " instead of " + Arrays.toString(values));
+    }
+    if (uri != null) {
+      return new HttpRequestImpl<>(template, uri);
+    }
+    int len = length;
+    for (String value : values) {
+      len += value.length();
+    }
+    StringBuilder sb = new StringBuilder(len);
+    sb.append(fragments[0]);
+    for (int i = 0; i < values.length; i++) {
+      appendSegment(sb, values[i]);
+      sb.append(fragments[i + 1]);
+    }
+    sb.append(query);
+    return new HttpRequestImpl<>(template, sb.toString());
+  }
+
+  /**
+   * Append a value percent-encoded as a path segment.
+   */
+  private static void appendSegment(StringBuilder sb, String value) {
+    int len = value.length();
+    int i = 0;
+    while (i < len && isSegmentChar(value.charAt(i))) {
+      i++;
+    }
+    if (i == len) {
+      sb.append(value);
+      return;
+    }
+    sb.append(value, 0, i);
+    for (byte b : value.substring(i).getBytes(StandardCharsets.UTF_8)) {
+      char c = (char) (b & 0xFF);
+      if (isSegmentChar(c)) {
+        sb.append(c);
+      } else {
+        sb.append('%').append(HEX[c >> 4]).append(HEX[c & 0xF]);
+      }
+    }
+  }
+
+  /**
+   * @return whether {@code c} is an unreserved character, a sub-delimiter, {@code :} or {@code @} (RFC 3986 pchar)
+   */
+  private static boolean isSegmentChar(char c) {
+    if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+      return true;
+    }
+    switch (c) {
+      case '-': case '.': case '_': case '~':
+      case '!': case '$': case '&': case '\'': case '(': case ')': case '*': case '+': case ',': case ';': case '=':
+      case ':': case '@':
+        return true;
+      default:
+        return false;
+    }
+  }
+}
@@ -20,6 +20,7 @@ import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpVersion;
 import io.vertx.core.json.JsonArray;
 import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.ResponseTiming;
 import io.vertx.ext.web.codec.impl.BodyCodecImpl;
 
 import java.util.List;
@@ -37,6 +38,7 @@ public class HttpResponseImpl<T> implements HttpResponse<T> {
   private final List<String> cookies;
   private final T body;
   private final List<String> redirects;
+  private ResponseTiming timing;
 
   public HttpResponseImpl(HttpVersion version,
                           int statusCode,
@@ -110,6 +112,16 @@ public class HttpResponseImpl<T> implements HttpResponse<T> {
     return redirects;
   }
 
+  @Override
+  public ResponseTiming timing() {
+    return timing;
+  }
+
+  public HttpResponseImpl<T> timing(ResponseTiming timing) {
+    this.timing = timing;
+    return this;
+  }
+
   @Override
   public JsonArray bodyAsJsonArray() {
     Buffer b = bodyAsBuffer();
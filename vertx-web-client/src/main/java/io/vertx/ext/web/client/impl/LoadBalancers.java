@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.impl;
+
+import io.vertx.ext.web.client.spi.Endpoint;
+import io.vertx.ext.web.client.spi.LoadBalancer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@link LoadBalancer} strategies.
+ */
+public final class LoadBalancers {
+
+  private LoadBalancers() {
+  }
+
+  public static class RoundRobin implements LoadBalancer {
+
+    private final AtomicInteger index = new AtomicInteger();
+
+    @Override
+    public Endpoint select(List<Endpoint> endpoints) {
+      int idx = index.getAndIncrement() & Integer.MAX_VALUE;
+      return endpoints.get(idx % endpoints.size());
+    }
+  }
+
+  public static class LeastRequests implements LoadBalancer {
+
+    private final AtomicInteger index = new AtomicInteger();
+
+    @Override
+    public Endpoint select(List<Endpoint> endpoints) {
+      int size = endpoints.size();
+      // start from a rotating index so ties are spread
+      int start = (index.getAndIncrement() & Integer.MAX_VALUE) % size;
+      Endpoint selected = null;
+      int min = Integer.MAX_VALUE;
+      for (int i = 0; i < size; i++) {
+        Endpoint endpoint = endpoints.get((start + i) % size);
+        int outstanding = endpoint.outstandingRequests();
+        if (outstanding < min) {
+          selected = endpoint;
+          min = outstanding;
+        }
+      }
+      return selected;
+    }
+  }
+
+  public static class PowerOfTwoChoices implements LoadBalancer {
+
+    @Override
+    public Endpoint select(List<Endpoint> endpoints) {
+      int size = endpoints.size();
+      if (size == 1) {
+        return endpoints.get(0);
+      }
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      int i = random.nextInt(size);
+      int j = random.nextInt(size - 1);
+      if (j >= i) {
+        j++;
+      }
+      Endpoint e1 = endpoints.get(i);
+      Endpoint e2 = endpoints.get(j);
+      return cost(e1) <= cost(e2) ? e1 : e2;
+    }
+
+    /**
+     * The latency weighted by the outstanding requests, endpoints without latency yet are preferred.
+     */
+    private static double cost(Endpoint endpoint) {
+      return (double) endpoint.latency() * (endpoint.outstandingRequests() + 1);
+    }
+  }
+}
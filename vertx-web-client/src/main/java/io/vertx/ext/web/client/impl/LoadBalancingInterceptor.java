@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.impl.HttpClientImpl;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.LoadBalancingOptions;
+import io.vertx.ext.web.client.spi.Endpoint;
+import io.vertx.ext.web.client.spi.LoadBalancer;
+import io.vertx.ext.web.codec.BodyCodec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An interceptor sending the requests of a service to the endpoint selected by the load balancer of the service.
+ * <p>
+ * The endpoints are passively health checked: an endpoint is ejected for a while after too many consecutive failures
+ * or when its latency is an outlier among the endpoints of its service. The last available endpoint of a service is
+ * never ejected.
+ * <p>
+ * When hedging is enabled, a {@code GET} or {@code HEAD} request without response after the hedge delay is sent again
+ * to another endpoint: the attempts decode the response as a {@link Buffer}, the first successful response is
+ * dispatched to the request and the other attempt is reset.
+ */
+public class LoadBalancingInterceptor implements Handler<HttpContext<?>> {
+
+  private static final String ATTEMPT_KEY = "_loadBalancingAttempt";
+
+  /**
+   * The number of latency samples required before an endpoint can be ejected as a latency outlier.
+   */
+  private static final int LATENCY_MIN_SAMPLES = 3;
+
+  private final Vertx vertx;
+  private final LoadBalancingOptions options;
+  private final long ejectionTime;
+  private final ConcurrentMap<String, Service> services = new ConcurrentHashMap<>();
+
+  public LoadBalancingInterceptor(Vertx vertx, LoadBalancingOptions options) {
+    this.vertx = vertx;
+    this.options = new LoadBalancingOptions(options);
+    this.ejectionTime = TimeUnit.MILLISECONDS.toNanos(options.getEjectionTime());
+  }
+
+  public void addService(String name, List<SocketAddress> addresses, LoadBalancer loadBalancer) {
+    if (addresses.isEmpty()) {
+      throw new IllegalArgumentException("A service must have at least one endpoint");
+    }
+    List<Endpoint> endpoints = new ArrayList<>(addresses.size());
+    for (SocketAddress address : addresses) {
+      endpoints.add(new EndpointImpl(address));
+    }
+    services.put(name, new Service(Collections.unmodifiableList(endpoints), loadBalancer));
+  }
+
+  public void removeService(String name) {
+    services.remove(name);
+  }
+
+  public List<Endpoint> endpoints(String name) {
+    Service service = services.get(name);
+    return service != null ? service.endpoints : Collections.emptyList();
+  }
+
+  @Override
+  public void handle(HttpContext<?> context) {
+    switch (context.phase()) {
+      case PREPARE_REQUEST:
+        HttpRequestImpl<?> request = (HttpRequestImpl<?>) context.request();
+        Service service = services.get(request.host());
+        if (service != null && context.server() == null) {
+          if (isHedged(context, request, service)) {
+            new Hedge(context, request, service).start();
+            return;
+          }
+          Attempt attempt = service.attempt(service.select(null));
+          context.set(ATTEMPT_KEY, attempt);
+          context.server(attempt.endpoint.address());
+        }
+        break;
+      case RECEIVE_RESPONSE:
+        Attempt attempt = context.get(ATTEMPT_KEY);
+        if (attempt != null) {
+          context.set(ATTEMPT_KEY, null);
+          attempt.complete(context.clientResponse().statusCode() < 500);
+        }
+        break;
+      case FAILURE:
+        attempt = context.get(ATTEMPT_KEY);
+        if (attempt != null) {
+          context.set(ATTEMPT_KEY, null);
+          attempt.complete(false);
+        }
+        break;
+    }
+    context.next();
+  }
+
+  private boolean isHedged(HttpContext<?> context, HttpRequestImpl<?> request, Service service) {
+    return options.getHedgeDelay() > 0
+      && service.endpoints.size() > 1
+      && context.body() == null
+      && (HttpMethod.GET.equals(request.method) || HttpMethod.HEAD.equals(request.method));
+  }
+
+  private final class Service {
+
+    private final List<Endpoint> endpoints;
+    private final LoadBalancer loadBalancer;
+
+    private Service(List<Endpoint> endpoints, LoadBalancer loadBalancer) {
+      this.endpoints = endpoints;
+      this.loadBalancer = loadBalancer;
+    }
+
+    /**
+     * Select an available endpoint, all the endpoints are candidates when they are all ejected.
+     *
+     * @param excluded an endpoint that cannot be selected or {@code null}
+     * @return the selected endpoint or {@code null} when the excluded endpoint is the only candidate
+     */
+    EndpointImpl select(Endpoint excluded) {
+      List<Endpoint> available = null;
+      int size = endpoints.size();
+      for (int i = 0; i < size; i++) {
+        Endpoint endpoint = endpoints.get(i);
+        if (endpoint.isEjected() || endpoint == excluded) {
+          if (available == null) {
+            available = new ArrayList<>(endpoints.subList(0, i));
+          }
+        } else if (available != null) {
+          available.add(endpoint);
+        }
+      }
+      if (available == null) {
+        available = endpoints;
+      } else if (available.isEmpty()) {
+        if (excluded != null) {
+          return null;
+        }
+        available = endpoints;
+      }
+      return (EndpointImpl) loadBalancer.select(available);
+    }
+
+    Attempt attempt(EndpointImpl endpoint) {
+      endpoint.acquire();
+      return new Attempt(this, endpoint);
+    }
+
+    void succeeded(EndpointImpl endpoint, long elapsed) {
+      int samples = endpoint.succeeded(elapsed);
+      double factor = options.getLatencyOutlierFactor();
+      if (factor > 0 && samples >= LATENCY_MIN_SAMPLES && isLatencyOutlier(endpoint, factor)) {
+        eject(endpoint);
+      }
+    }
+
+    void failed(EndpointImpl endpoint) {
+      int max = options.getMaxConsecutiveFailures();
+      if (endpoint.failed() >= max && max > 0) {
+        eject(endpoint);
+      }
+    }
+
+    /**
+     * @return whether the latency of the endpoint is greater than the average latency of the other available endpoints
+     *         multiplied by {@code factor}
+     */
+    private boolean isLatencyOutlier(EndpointImpl endpoint, double factor) {
+      long sum = 0;
+      int count = 0;
+      for (Endpoint other : endpoints) {
+        long latency = other.latency();
+        if (other != endpoint && latency > 0 && !other.isEjected()) {
+          sum += latency;
+          count++;
+        }
+      }
+      return count > 0 && endpoint.latency() > factor * sum / count;
+    }
+
+    private void eject(EndpointImpl endpoint) {
+      for (Endpoint other : endpoints) {
+        if (other != endpoint && !other.isEjected()) {
+          endpoint.eject(ejectionTime);
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * A request sent to an endpoint.
+   */
+  private static final class Attempt {
+
+    private final Service service;
+    private final EndpointImpl endpoint;
+    private final long start = System.nanoTime();
+    private HttpContext<Buffer> context;
+    private boolean cancelled;
+
+    private Attempt(Service service, EndpointImpl endpoint) {
+      this.service = service;
+      this.endpoint = endpoint;
+    }
+
+    void complete(boolean succeeded) {
+      endpoint.release();
+      if (cancelled) {
+        // reset by us, it does not tell anything about the endpoint
+        return;
+      }
+      if (succeeded) {
+        service.succeeded(endpoint, System.nanoTime() - start);
+      } else {
+        service.failed(endpoint);
+      }
+    }
+  }
+
+  private final class Hedge {
+
+    private final HttpContext<?> context;
+    private final HttpRequestImpl<?> request;
+    private final Service service;
+    private final Context vertxContext;
+    private final List<Handler<HttpContext<?>>> interceptors;
+    // guarded by this
+    private final List<Attempt> attempts = new ArrayList<>(2);
+    private int pending;
+    private boolean done;
+    private long timerId = -1;
+
+    private Hedge(HttpContext<?> context, HttpRequestImpl<?> request, Service service) {
+      this.context = context;
+      this.request = request;
+      this.service = service;
+      this.vertxContext = Vertx.currentContext();
+      // the attempts only go through the interceptors following this one, the request goes through the others
+      List<Handler<HttpContext<?>>> all = ((WebClientBase) request.client).interceptors;
+      int idx = all.indexOf(LoadBalancingInterceptor.this);
+      this.interceptors = new ArrayList<>(all.subList(idx + 1, all.size()));
+    }
+
+    void start() {
+      EndpointImpl first = service.select(null);
+      synchronized (this) {
+        pending++;
+      }
+      send(first);
+      synchronized (this) {
+        if (!done) {
+          timerId = vertx.setTimer(options.getHedgeDelay(), id -> hedge(first));
+        }
+      }
+    }
+
+    private void hedge(EndpointImpl first) {
+      EndpointImpl second = service.select(first);
+      synchronized (this) {
+        timerId = -1;
+        if (done || second == null) {
+          return;
+        }
+        pending++;
+      }
+      send(second);
+    }
+
+    private void send(EndpointImpl endpoint) {
+      Attempt attempt = service.attempt(endpoint);
+      HttpRequestImpl<Buffer> copy = (HttpRequestImpl<Buffer>) request.copy().as(BodyCodec.buffer());
+      HttpContext<Buffer> attemptContext = new HttpContext<>((HttpClientImpl) ((WebClientBase) request.client).client, interceptors, ar -> {
+        attempt.complete(ar.succeeded() && ar.result().statusCode() < 500);
+        handle(attempt, ar);
+      });
+      attemptContext.server(endpoint.address());
+      attempt.context = attemptContext;
+      synchronized (this) {
+        attempts.add(attempt);
+      }
+      attemptContext.prepareRequest(copy, context.contentType(), null);
+    }
+
+    private void handle(Attempt attempt, AsyncResult<HttpResponse<Buffer>> ar) {
+      boolean succeeded = ar.succeeded() && ar.result().statusCode() < 500;
+      List<Attempt> others;
+      synchronized (this) {
+        attempts.remove(attempt);
+        if (done) {
+          return;
+        }
+        pending--;
+        if (!succeeded && pending > 0) {
+          // the other attempt can still succeed
+          return;
+        }
+        done = true;
+        if (timerId != -1) {
+          vertx.cancelTimer(timerId);
+          timerId = -1;
+        }
+        others = new ArrayList<>(attempts);
+        for (Attempt other : others) {
+          other.cancelled = true;
+        }
+      }
+      for (Attempt other : others) {
+        HttpClientRequest clientRequest = other.context.clientRequest();
+        if (clientRequest != null) {
+          clientRequest.reset();
+        }
+      }
+      if (vertxContext != null) {
+        vertxContext.runOnContext(v -> dispatch(ar));
+      } else {
+        dispatch(ar);
+      }
+    }
+
+    private void dispatch(AsyncResult<HttpResponse<Buffer>> ar) {
+      if (ar.succeeded()) {
+        context.dispatchBufferedResponse(ar.result());
+      } else {
+        context.fail(ar.cause());
+      }
+    }
+  }
+}
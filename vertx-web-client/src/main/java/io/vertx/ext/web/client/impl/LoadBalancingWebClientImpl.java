@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.impl;
+
+import io.vertx.core.http.impl.HttpClientImpl;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.web.client.LoadBalancingOptions;
+import io.vertx.ext.web.client.LoadBalancingWebClient;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.spi.Endpoint;
+import io.vertx.ext.web.client.spi.LoadBalancer;
+
+import java.util.List;
+import java.util.Objects;
+
+public class LoadBalancingWebClientImpl extends WebClientBase implements LoadBalancingWebClient {
+
+  private final LoadBalancingInterceptor interceptor;
+
+  public LoadBalancingWebClientImpl(WebClient webClient, LoadBalancingOptions options) {
+    super((WebClientBase) webClient);
+    interceptor = new LoadBalancingInterceptor(((HttpClientImpl) client).getVertx(), options);
+    // last, so the other interceptors see the request once whatever the number of attempts
+    interceptors.add(interceptor);
+  }
+
+  @Override
+  public LoadBalancingWebClient addService(String name, List<SocketAddress> endpoints, LoadBalancer loadBalancer) {
+    Objects.requireNonNull(name, "The service name must be set");
+    Objects.requireNonNull(loadBalancer, "The load balancer must be set");
+    interceptor.addService(name, endpoints, loadBalancer);
+    return this;
+  }
+
+  @Override
+  public LoadBalancingWebClient removeService(String name) {
+    interceptor.removeService(name);
+    return this;
+  }
+
+  @Override
+  public List<Endpoint> endpoints(String name) {
+    return interceptor.endpoints(name);
+  }
+}
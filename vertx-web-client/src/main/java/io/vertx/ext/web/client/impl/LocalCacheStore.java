@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.impl;
+
+import io.vertx.core.Future;
+import io.vertx.ext.web.client.spi.CacheStore;
+import io.vertx.ext.web.client.spi.CachedHttpResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded in memory {@link CacheStore}, the least recently used responses are evicted first.
+ */
+public class LocalCacheStore implements CacheStore {
+
+  private final Map<String, CachedHttpResponse> responses;
+
+  public LocalCacheStore(int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("maxSize must be > 0");
+    }
+    responses = new LinkedHashMap<String, CachedHttpResponse>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CachedHttpResponse> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  @Override
+  public Future<CachedHttpResponse> get(String key) {
+    CachedHttpResponse response;
+    synchronized (responses) {
+      response = responses.get(key);
+    }
+    return Future.succeededFuture(response);
+  }
+
+  @Override
+  public Future<Void> set(String key, CachedHttpResponse response) {
+    synchronized (responses) {
+      responses.put(key, response);
+    }
+    return Future.succeededFuture();
+  }
+
+  @Override
+  public Future<Void> delete(String key) {
+    synchronized (responses) {
+      responses.remove(key);
+    }
+    return Future.succeededFuture();
+  }
+
+  @Override
+  public Future<Void> flush() {
+    synchronized (responses) {
+      responses.clear();
+    }
+    return Future.succeededFuture();
+  }
+}
@@ -28,6 +28,9 @@ import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.impl.headers.HeadersAdaptor;
 import io.vertx.core.streams.ReadStream;
 import io.vertx.core.streams.impl.InboundBuffer;
@@ -35,15 +38,28 @@ import io.vertx.ext.web.multipart.FormDataPart;
 import io.vertx.ext.web.multipart.MultipartForm;
 
 import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * A stream that sends a multipart form.
+ * <p>
+ * A {@code multipart/form-data} body is encoded up front as a list of segments: the boundaries and the part headers
+ * are encoded once as buffers, the file parts are read from an {@link AsyncFile} when the body is sent, honoring the
+ * back-pressure of the request. Since the size of every segment is known, the body length is sent as
+ * {@code Content-Length}.
+ * <p>
+ * A {@code application/x-www-form-urlencoded} body is encoded with Netty's {@link HttpPostRequestEncoder}.
  *
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
  */
 public class MultipartFormUpload implements ReadStream<Buffer> {
 
   private static final UnpooledByteBufAllocator ALLOC = new UnpooledByteBufAllocator(false);
+  private static final int FILE_READ_BUFFER_SIZE = 64 * 1024;
+  private static final Buffer CRLF = Buffer.buffer("\r\n");
 
   private DefaultFullHttpRequest request;
   private HttpPostRequestEncoder encoder;
@@ -53,12 +69,31 @@ public class MultipartFormUpload implements ReadStream<Buffer> {
   private boolean ended;
   private final Context context;
 
+  // multipart/form-data encoding
+  private final List<Object> segments;
+  private final MultiMap headers;
+  private int index;
+  private AsyncFile file;
+  private boolean opening;
+  private long remaining;
+
   public MultipartFormUpload(Context context,
                              MultipartForm parts,
                              boolean multipart,
                              HttpPostRequestEncoder.EncoderMode encoderMode) throws Exception {
     this.context = context;
     this.pending = new InboundBuffer<Buffer>(context).emptyHandler(v -> checkEnd()).drainHandler(v -> run()).pause();
+    if (multipart) {
+      String boundary = boundary();
+      segments = new ArrayList<>();
+      long length = encodeMultipart(parts, boundary, encoderMode == HttpPostRequestEncoder.EncoderMode.RFC1738, segments);
+      headers = MultiMap.caseInsensitiveMultiMap()
+        .set(HttpHeaders.CONTENT_TYPE, "multipart/form-data; boundary=" + boundary)
+        .set(HttpHeaders.CONTENT_LENGTH, Long.toString(length));
+      return;
+    }
+    segments = null;
+    headers = null;
     this.request = new DefaultFullHttpRequest(
       HttpVersion.HTTP_1_1,
       io.netty.handler.codec.http.HttpMethod.POST,
@@ -81,6 +116,105 @@ public class MultipartFormUpload implements ReadStream<Buffer> {
     encoder.finalizeRequest();
   }
 
+  private static String boundary() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    return Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong());
+  }
+
+  /**
+   * Encode the form as segments, a segment is either a {@link Buffer} or a {@link File}.
+   *
+   * @param mixed whether consecutive file uploads sharing the same name are sent as a {@code multipart/mixed} part
+   * @return the length of the body
+   */
+  private static long encodeMultipart(MultipartForm parts, String boundary, boolean mixed, List<Object> segments) throws Exception {
+    List<FormDataPart> list = new ArrayList<>();
+    parts.forEach(list::add);
+    Buffer delimiter = Buffer.buffer("--" + boundary + "\r\n");
+    long length = 0;
+    for (int i = 0; i < list.size(); i++) {
+      FormDataPart part = list.get(i);
+      if (part.isAttribute()) {
+        Buffer value = Buffer.buffer(part.value(), "UTF-8");
+        Buffer head = delimiter.copy()
+          .appendString("content-disposition: form-data; name=\"" + quote(part.name()) + "\"\r\n" +
+            "content-length: " + value.length() + "\r\n" +
+            "content-type: text/plain; charset=UTF-8\r\n\r\n", "UTF-8")
+          .appendBuffer(value)
+          .appendBuffer(CRLF);
+        segments.add(head);
+        length += head.length();
+        continue;
+      }
+      int end = i + 1;
+      if (mixed) {
+        while (end < list.size() && list.get(end).isFileUpload() && list.get(end).name().equals(part.name())) {
+          end++;
+        }
+      }
+      if (end - i == 1) {
+        File file = file(part);
+        Buffer head = delimiter.copy().appendString("content-disposition: form-data; name=\"" + quote(part.name()) +
+          "\"; filename=\"" + quote(part.filename()) + "\"\r\n", "UTF-8");
+        segments.add(appendFileHeaders(head, part, file.length()));
+        segments.add(file);
+        segments.add(CRLF);
+        length += head.length() + file.length() + CRLF.length();
+      } else {
+        String mixedBoundary = boundary();
+        Buffer mixedDelimiter = Buffer.buffer("--" + mixedBoundary + "\r\n");
+        Buffer head = delimiter.copy().appendString("content-disposition: form-data; name=\"" + quote(part.name()) + "\"\r\n" +
+          "content-type: multipart/mixed; boundary=" + mixedBoundary + "\r\n\r\n", "UTF-8");
+        for (int j = i; j < end; j++) {
+          FormDataPart fileUpload = list.get(j);
+          File file = file(fileUpload);
+          head.appendBuffer(mixedDelimiter)
+            .appendString("content-disposition: attachment; filename=\"" + quote(fileUpload.filename()) + "\"\r\n", "UTF-8");
+          segments.add(appendFileHeaders(head, fileUpload, file.length()));
+          segments.add(file);
+          length += head.length() + file.length();
+          head = CRLF.copy();
+        }
+        head.appendString("--" + mixedBoundary + "--\r\n");
+        segments.add(head);
+        length += head.length();
+        i = end - 1;
+      }
+    }
+    Buffer close = Buffer.buffer("--" + boundary + "--\r\n");
+    segments.add(close);
+    length += close.length();
+    return length;
+  }
+
+  private static Buffer appendFileHeaders(Buffer head, FormDataPart part, long length) {
+    head.appendString("content-length: " + length + "\r\n" +
+      "content-type: " + part.mediaType() + "\r\n", "UTF-8");
+    if (!part.isText()) {
+      head.appendString("content-transfer-encoding: binary\r\n");
+    }
+    return head.appendBuffer(CRLF);
+  }
+
+  private static File file(FormDataPart part) throws HttpPostRequestEncoder.ErrorDataEncoderException {
+    File file = new File(part.pathname());
+    if (!file.isFile()) {
+      // same failure than the Netty encoder
+      throw new HttpPostRequestEncoder.ErrorDataEncoderException(new FileNotFoundException(part.pathname()));
+    }
+    return file;
+  }
+
+  /**
+   * Escape a name or a filename as an HTML form does.
+   */
+  private static String quote(String s) {
+    if (s.indexOf('"') == -1 && s.indexOf('\r') == -1 && s.indexOf('\n') == -1) {
+      return s;
+    }
+    return s.replace("\"", "%22").replace("\r", "%0D").replace("\n", "%0A");
+  }
+
   private void checkEnd() {
     Handler<Void> handler;
     synchronized (MultipartFormUpload.this) {
@@ -98,6 +232,10 @@ public class MultipartFormUpload implements ReadStream<Buffer> {
       });
       return;
     }
+    if (segments != null) {
+      runMultipart();
+      return;
+    }
     while (!ended) {
       if (encoder.isChunked()) {
         try {
@@ -138,7 +276,85 @@ public class MultipartFormUpload implements ReadStream<Buffer> {
     }
   }
 
+  private void runMultipart() {
+    if (file != null) {
+      // drained while reading a file
+      file.resume();
+      return;
+    }
+    // the file can be opened synchronously, its content is read before the next segments
+    while (!ended && !opening && file == null) {
+      if (index == segments.size()) {
+        ended = true;
+        if (pending.isEmpty() && endHandler != null) {
+          endHandler.handle(null);
+        }
+        return;
+      }
+      Object segment = segments.get(index++);
+      if (segment instanceof Buffer) {
+        if (!pending.write((Buffer) segment)) {
+          return;
+        }
+      } else {
+        open((File) segment);
+      }
+    }
+  }
+
+  private void open(File segment) {
+    opening = true;
+    remaining = segment.length();
+    context.owner().fileSystem().open(segment.getPath(), new OpenOptions().setRead(true).setWrite(false), ar -> {
+      opening = false;
+      if (ar.failed()) {
+        fail(ar.cause());
+        return;
+      }
+      AsyncFile f = ar.result();
+      if (ended) {
+        f.close();
+        return;
+      }
+      file = f;
+      f.setReadBufferSize(FILE_READ_BUFFER_SIZE);
+      f.exceptionHandler(this::fail);
+      f.endHandler(v -> {
+        file = null;
+        f.close();
+        if (remaining != 0) {
+          fail(new IllegalStateException("File " + segment.getPath() + " changed while being uploaded"));
+        } else {
+          runMultipart();
+        }
+      });
+      f.handler(buff -> {
+        remaining -= buff.length();
+        if (!pending.write(buff)) {
+          f.pause();
+        }
+      });
+    });
+  }
+
+  private void fail(Throwable cause) {
+    if (ended) {
+      return;
+    }
+    ended = true;
+    if (file != null) {
+      file.close();
+      file = null;
+    }
+    if (exceptionHandler != null) {
+      exceptionHandler.handle(cause);
+    }
+  }
+
   public MultiMap headers() {
+    if (headers != null) {
+      return headers;
+    }
     return new HeadersAdaptor(request.headers());
   }
 
@@ -156,20 +372,28 @@ public class MultipartFormUpload implements ReadStream<Buffer> {
 
   @Override
   public synchronized MultipartFormUpload pause() {
-    pending.pause();
+    if (Vertx.currentContext() != context) {
+      // the pending buffer is written on the context, e.g. the request drain handler runs on another event loop
+      context.runOnContext(v -> pending.pause());
+    } else {
+      pending.pause();
+    }
     return this;
   }
 
   @Override
   public ReadStream<Buffer> fetch(long amount) {
-    pending.fetch(amount);
+    if (Vertx.currentContext() != context) {
+      context.runOnContext(v -> pending.fetch(amount));
+    } else {
+      pending.fetch(amount);
+    }
     return this;
   }
 
   @Override
   public synchronized MultipartFormUpload resume() {
-    pending.resume();
-    return this;
+    return (MultipartFormUpload) fetch(Long.MAX_VALUE);
   }
 
   @Override
@@ -0,0 +1,381 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.impl.HttpClientImpl;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.ResilienceMetrics;
+import io.vertx.ext.web.client.ResilienceOptions;
+import io.vertx.ext.web.codec.BodyCodec;
+import io.vertx.ext.web.multipart.MultipartForm;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * An interceptor limiting the concurrent requests sent to a server and retrying the failed idempotent requests.
+ * <p>
+ * The concurrency limit of a server is increased additively while the server responds in time and decreased
+ * multiplicatively when a request fails, when the server responds with a {@code 429} or {@code 503} status code or when
+ * the latency of a response exceeds the long term average latency of the server multiplied by the latency tolerance.
+ * A request holds a permit of the limit until its response is received, the requests exceeding the limit wait in a
+ * bounded queue.
+ * <p>
+ * The retried requests are sent as many attempts going through the interceptors following this one: each attempt
+ * acquires a permit, released when the head of its response is received, and decodes the response as a
+ * {@link Buffer}, the last response is dispatched to the request. A
+ * request adds a fraction of a token to the retry budget of its server and a retry takes a token.
+ */
+public class ResilienceInterceptor implements Handler<HttpContext<?>> {
+
+  private static final String PERMIT_KEY = "_resiliencePermit";
+
+  /**
+   * The weight of a new sample in the long term latency moving average, the first samples are averaged evenly.
+   */
+  private static final double ALPHA = 0.05;
+
+  private final Vertx vertx;
+  private final ResilienceOptions options;
+  private final ConcurrentMap<String, Server> servers = new ConcurrentHashMap<>();
+
+  public ResilienceInterceptor(Vertx vertx, ResilienceOptions options) {
+    if (options.getMinLimit() > options.getInitialLimit() || options.getInitialLimit() > options.getMaxLimit()) {
+      throw new IllegalArgumentException("The initial limit must be between the min limit and the max limit");
+    }
+    this.vertx = vertx;
+    this.options = new ResilienceOptions(options);
+  }
+
+  public ResilienceMetrics metrics(String host, int port) {
+    return servers.get(host + ":" + port);
+  }
+
+  @Override
+  public void handle(HttpContext<?> context) {
+    switch (context.phase()) {
+      case PREPARE_REQUEST:
+        HttpRequestImpl<?> request = (HttpRequestImpl<?>) context.request();
+        Server server = servers.computeIfAbsent(request.host() + ":" + request.port(), key -> new Server());
+        server.deposit();
+        if (isRetryable(context, request)) {
+          new Retry(context, request, server).attempt();
+        } else {
+          server.acquire(permit -> {
+            context.set(PERMIT_KEY, permit);
+            context.next();
+          }, context::fail);
+        }
+        return;
+      case RECEIVE_RESPONSE:
+      case FAILURE:
+        releasePermit(context);
+        break;
+    }
+    context.next();
+  }
+
+  /**
+   * Release the permit of a request when the head of its response is received or when it fails.
+   */
+  private void releasePermit(HttpContext<?> context) {
+    Permit permit = context.get(PERMIT_KEY);
+    if (permit != null) {
+      context.set(PERMIT_KEY, null);
+      permit.release(context.phase() == ClientPhase.FAILURE || isOverload(context.clientResponse().statusCode()));
+    }
+  }
+
+  private boolean isRetryable(HttpContext<?> context, HttpRequestImpl<?> request) {
+    Object body = context.body();
+    return options.getMaxRetries() > 0
+      && isIdempotent(request.method)
+      && !(body instanceof ReadStream<?>)
+      && !(body instanceof MultipartForm);
+  }
+
+  private static boolean isIdempotent(HttpMethod method) {
+    return HttpMethod.GET.equals(method)
+      || HttpMethod.HEAD.equals(method)
+      || HttpMethod.PUT.equals(method)
+      || HttpMethod.DELETE.equals(method)
+      || HttpMethod.OPTIONS.equals(method)
+      || HttpMethod.TRACE.equals(method);
+  }
+
+  private static boolean isOverload(int statusCode) {
+    return statusCode == 429 || statusCode == 503;
+  }
+
+  private static boolean isRetryable(int statusCode) {
+    return statusCode == 429 || statusCode == 502 || statusCode == 503 || statusCode == 504;
+  }
+
+  private static void run(Context context, Runnable action) {
+    if (context != null) {
+      context.runOnContext(v -> action.run());
+    } else {
+      action.run();
+    }
+  }
+
+  /**
+   * The concurrency limit, the queue and the retry budget of a server.
+   */
+  private final class Server implements ResilienceMetrics {
+
+    // guarded by this
+    private final Deque<Waiter> queue = new ArrayDeque<>();
+    private double limit = options.getInitialLimit();
+    private int inFlight;
+    private long latency;
+    private int samples;
+    private double retryTokens = options.getRetryBudgetCapacity();
+    private long rejected;
+    private long retries;
+    private long exhaustedRetryBudget;
+
+    /**
+     * Acquire a permit, the handlers are called on the current context.
+     *
+     * @param onPermit called with the permit
+     * @param onReject called when the request cannot be sent
+     */
+    void acquire(Handler<Permit> onPermit, Handler<Throwable> onReject) {
+      boolean acquired;
+      synchronized (this) {
+        if (inFlight < (int) limit) {
+          inFlight++;
+          acquired = true;
+        } else if (queue.size() < options.getMaxQueueSize()) {
+          Waiter waiter = new Waiter(Vertx.currentContext(), onPermit, onReject);
+          queue.add(waiter);
+          long timeout = options.getQueueTimeout();
+          if (timeout > 0) {
+            waiter.timerId = vertx.setTimer(timeout, id -> expire(waiter));
+          }
+          return;
+        } else {
+          rejected++;
+          acquired = false;
+        }
+      }
+      if (acquired) {
+        onPermit.handle(new Permit(this));
+      } else {
+        onReject.handle(new RejectedExecutionException("Too many concurrent requests"));
+      }
+    }
+
+    private void expire(Waiter waiter) {
+      synchronized (this) {
+        if (!queue.remove(waiter)) {
+          return;
+        }
+        rejected++;
+      }
+      run(waiter.context, () -> waiter.onReject.handle(
+        new TimeoutException("The request was queued for more than " + options.getQueueTimeout() + " ms")));
+    }
+
+    void release(long elapsed, boolean overload) {
+      List<Waiter> granted = null;
+      synchronized (this) {
+        inFlight--;
+        double tolerance = options.getLatencyTolerance();
+        if (!overload && tolerance > 0 && latency > 0 && elapsed > tolerance * latency) {
+          overload = true;
+        }
+        if (overload) {
+          limit = Math.max(options.getMinLimit(), limit * options.getBackoffRatio());
+        } else if ((inFlight + 1) * 2 >= limit) {
+          // only grow a limit which is used
+          limit = Math.min(options.getMaxLimit(), limit + 1 / limit);
+        }
+        if (samples < 1 / ALPHA) {
+          samples++;
+        }
+        double weight = Math.max(ALPHA, 1.0 / samples);
+        latency = Math.max((long) (weight * elapsed + (1 - weight) * latency), 1);
+        while (inFlight < (int) limit && !queue.isEmpty()) {
+          Waiter waiter = queue.poll();
+          if (waiter.timerId != -1) {
+            vertx.cancelTimer(waiter.timerId);
+          }
+          if (granted == null) {
+            granted = new ArrayList<>();
+          }
+          granted.add(waiter);
+          inFlight++;
+        }
+      }
+      if (granted != null) {
+        for (Waiter waiter : granted) {
+          run(waiter.context, () -> waiter.onPermit.handle(new Permit(this)));
+        }
+      }
+    }
+
+    synchronized void deposit() {
+      retryTokens = Math.min(options.getRetryBudgetCapacity(), retryTokens + options.getRetryBudgetRatio());
+    }
+
+    /**
+     * @return whether the retry budget allows a retry
+     */
+    synchronized boolean withdraw() {
+      if (retryTokens >= 1) {
+        retryTokens--;
+        retries++;
+        return true;
+      }
+      exhaustedRetryBudget++;
+      return false;
+    }
+
+    @Override
+    public synchronized int limit() {
+      return (int) limit;
+    }
+
+    @Override
+    public synchronized int inFlightRequests() {
+      return inFlight;
+    }
+
+    @Override
+    public synchronized int queueSize() {
+      return queue.size();
+    }
+
+    @Override
+    public synchronized long rejectedRequests() {
+      return rejected;
+    }
+
+    @Override
+    public synchronized long retries() {
+      return retries;
+    }
+
+    @Override
+    public synchronized long exhaustedRetryBudget() {
+      return exhaustedRetryBudget;
+    }
+  }
+
+  private static final class Waiter {
+
+    private final Context context;
+    private final Handler<Permit> onPermit;
+    private final Handler<Throwable> onReject;
+    private long timerId = -1;
+
+    private Waiter(Context context, Handler<Permit> onPermit, Handler<Throwable> onReject) {
+      this.context = context;
+      this.onPermit = onPermit;
+      this.onReject = onReject;
+    }
+  }
+
+  private static final class Permit {
+
+    private final Server server;
+    private final long start = System.nanoTime();
+
+    private Permit(Server server) {
+      this.server = server;
+    }
+
+    void release(boolean overload) {
+      server.release(System.nanoTime() - start, overload);
+    }
+  }
+
+  private final class Retry {
+
+    private final HttpContext<?> context;
+    private final HttpRequestImpl<?> request;
+    private final Server server;
+    private final Context vertxContext;
+    private final List<Handler<HttpContext<?>>> interceptors;
+    private int retries;
+
+    private Retry(HttpContext<?> context, HttpRequestImpl<?> request, Server server) {
+      this.context = context;
+      this.request = request;
+      this.server = server;
+      this.vertxContext = Vertx.currentContext();
+      // the attempts only go through the interceptors following this one, the request goes through the others
+      List<Handler<HttpContext<?>>> all = ((WebClientBase) request.client).interceptors;
+      int idx = all.indexOf(ResilienceInterceptor.this);
+      this.interceptors = new ArrayList<>(all.subList(idx + 1, all.size()));
+      // the permit of an attempt is released at the same point as the permit of a request which is not retried
+      this.interceptors.add(0, ctx -> {
+        if (ctx.phase() == ClientPhase.RECEIVE_RESPONSE || ctx.phase() == ClientPhase.FAILURE) {
+          releasePermit(ctx);
+        }
+        ctx.next();
+      });
+    }
+
+    void attempt() {
+      server.acquire(this::send, err -> run(vertxContext, () -> context.fail(err)));
+    }
+
+    private void send(Permit permit) {
+      HttpRequestImpl<Buffer> copy = (HttpRequestImpl<Buffer>) request.copy().as(BodyCodec.buffer());
+      HttpContext<Buffer> attemptContext = new HttpContext<>((HttpClientImpl) ((WebClientBase) request.client).client, interceptors, this::handle);
+      attemptContext.set(PERMIT_KEY, permit);
+      attemptContext.prepareRequest(copy, context.contentType(), context.body());
+    }
+
+    private void handle(AsyncResult<HttpResponse<Buffer>> ar) {
+      boolean failed = ar.failed() || isRetryable(ar.result().statusCode());
+      if (failed && retries < options.getMaxRetries() && server.withdraw()) {
+        vertx.setTimer(delay(retries++), id -> attempt());
+      } else {
+        run(vertxContext, () -> {
+          if (ar.succeeded()) {
+            context.dispatchBufferedResponse(ar.result());
+          } else {
+            context.fail(ar.cause());
+          }
+        });
+      }
+    }
+
+    /**
+     * @return the exponential backoff delay of a retry, randomized between half and all of its value
+     */
+    private long delay(int retry) {
+      long delay = options.getInitialRetryDelay() << Math.min(retry, 30);
+      if (delay <= 0 || delay > options.getMaxRetryDelay()) {
+        delay = options.getMaxRetryDelay();
+      }
+      return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.impl;
+
+import io.vertx.core.http.impl.HttpClientImpl;
+import io.vertx.ext.web.client.ResilienceMetrics;
+import io.vertx.ext.web.client.ResilienceOptions;
+import io.vertx.ext.web.client.ResilientWebClient;
+import io.vertx.ext.web.client.WebClient;
+
+public class ResilientWebClientImpl extends WebClientBase implements ResilientWebClient {
+
+  private final ResilienceInterceptor interceptor;
+
+  public ResilientWebClientImpl(WebClient webClient, ResilienceOptions options) {
+    super((WebClientBase) webClient);
+    interceptor = new ResilienceInterceptor(((HttpClientImpl) client).getVertx(), options);
+    // last, so the other interceptors see the request once whatever the number of attempts
+    interceptors.add(interceptor);
+  }
+
+  @Override
+  public ResilienceMetrics metrics(String host, int port) {
+    return interceptor.metrics(host, port);
+  }
+}
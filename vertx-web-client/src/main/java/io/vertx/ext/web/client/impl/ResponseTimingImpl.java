@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.impl;
+
+import io.vertx.ext.web.client.ResponseTiming;
+import io.vertx.ext.web.client.TimingInterval;
+
+/**
+ * The timestamps of the phases of a request.
+ */
+class ResponseTimingImpl implements ResponseTiming {
+
+  static final int START = 0;
+  static final int SEND = 1;
+  static final int WRITTEN = 2;
+  static final int RESPONSE = 3;
+  static final int FIRST_BODY_BYTE = 4;
+  static final int LAST_BODY_BYTE = 5;
+  static final int DISPATCH = 6;
+
+  private final long[] timestamps = new long[7];
+  private int marked;
+
+  void mark(int event) {
+    timestamps[event] = System.nanoTime();
+    marked |= 1 << event;
+  }
+
+  /**
+   * Mark the event unless it is already marked, e.g. the first byte of the body.
+   */
+  void markOnce(int event) {
+    if ((marked & (1 << event)) == 0) {
+      mark(event);
+    }
+  }
+
+  @Override
+  public long duration(TimingInterval interval) {
+    switch (interval) {
+      case PREPARE:
+        return duration(START, SEND);
+      case WRITE:
+        return duration(SEND, WRITTEN);
+      case WAIT:
+        return duration(WRITTEN, RESPONSE);
+      case FIRST_BODY_BYTE:
+        return duration(RESPONSE, FIRST_BODY_BYTE);
+      case BODY:
+        return duration(FIRST_BODY_BYTE, LAST_BODY_BYTE);
+      case DECODE:
+        return duration(LAST_BODY_BYTE, DISPATCH);
+      case TOTAL:
+        return duration(START, DISPATCH);
+      default:
+        throw new IllegalArgumentException("Unknown interval " + interval);
+    }
+  }
+
+  private long duration(int from, int to) {
+    int mask = (1 << from) | (1 << to);
+    return (marked & mask) == mask ? timestamps[to] - timestamps[from] : -1;
+  }
+}
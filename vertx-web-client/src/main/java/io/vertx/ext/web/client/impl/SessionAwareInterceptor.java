@@ -1,6 +1,7 @@
 package io.vertx.ext.web.client.impl;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 
 import io.netty.handler.codec.http.cookie.ClientCookieDecoder;
@@ -58,9 +59,9 @@ public class SessionAwareInterceptor implements Handler<HttpContext<?>> {
       domain = request.host();
     }
 
-    Iterable<Cookie> cookies = webclient.cookieStore().get(request.ssl, domain, request.uri);
-    for (Cookie c : cookies) {
-      request.headers().add("cookie", ClientCookieEncoder.STRICT.encode(c));
+    String cookieHeader = encodeCookies(webclient.cookieStore(), request.ssl, domain, request.uri);
+    if (cookieHeader != null) {
+      request.headers().add(HttpHeaders.COOKIE, cookieHeader);
     }
   }
 
@@ -117,13 +118,30 @@ public class SessionAwareInterceptor implements Handler<HttpContext<?>> {
       domain = redirectHost;
     }
 
-    Iterable<Cookie> cookies = webclient.cookieStore().get(originalRequest.ssl, domain, redirectRequest.path());
-    for (Cookie c : cookies) {
-      redirectRequest.headers().add("cookie", ClientCookieEncoder.STRICT.encode(c));
+    String cookieHeader = encodeCookies(webclient.cookieStore(), originalRequest.ssl, domain, redirectRequest.path());
+    if (cookieHeader != null) {
+      redirectRequest.headers().add(HttpHeaders.COOKIE, cookieHeader);
     }
   }
 
+  /**
+   * @return the value of the {@code Cookie} header or {@code null} when there is no cookie to send
+   */
+  private static String encodeCookies(CookieStore cookieStore, Boolean ssl, String domain, String path) {
+    if (cookieStore.getClass() == CookieStoreImpl.class) {
+      // the header is cached by the store, a subclass may override get
+      return ((CookieStoreImpl) cookieStore).encode(ssl, domain, path);
+    }
+    List<Cookie> cookies = new ArrayList<>();
+    cookieStore.get(ssl, domain, path).forEach(cookies::add);
+    return cookies.isEmpty() ? null : ClientCookieEncoder.STRICT.encode(cookies);
+  }
+
   private void processResponse(HttpContext<?> context) {
+    if (context.clientResponse() == null) {
+      // a response that was not received from the network, e.g.: a cached response
+      return;
+    }
     List<String> cookieHeaders = context.clientResponse().cookies();
     if (cookieHeaders == null) {
       return;
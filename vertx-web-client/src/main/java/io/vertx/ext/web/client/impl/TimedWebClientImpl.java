@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.ext.web.client.TimedWebClient;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.spi.WebClientMetrics;
+
+public class TimedWebClientImpl extends WebClientBase implements TimedWebClient {
+
+  private static final String RECORDED_KEY = "_timingRecorded";
+
+  public TimedWebClientImpl(WebClient webClient, WebClientMetrics metrics) {
+    super((WebClientBase) webClient);
+    timing = true;
+    if (metrics != null) {
+      // first, so the request is reported once whatever the number of attempts
+      interceptors.add(0, recorder(metrics));
+    }
+  }
+
+  private static Handler<HttpContext<?>> recorder(WebClientMetrics metrics) {
+    return context -> {
+      switch (context.phase()) {
+        case DISPATCH_RESPONSE:
+          record(metrics, context, null);
+          break;
+        case FAILURE:
+          record(metrics, context, context.failure());
+          break;
+      }
+      context.next();
+    };
+  }
+
+  private static void record(WebClientMetrics metrics, HttpContext<?> context, Throwable failure) {
+    if (context.get(RECORDED_KEY) == null && context.timing() != null) {
+      context.set(RECORDED_KEY, true);
+      HttpRequestImpl<?> request = (HttpRequestImpl<?>) context.request();
+      metrics.record(request.host(), request.port(), request.routeTemplate(), context.timing(), failure);
+    }
+  }
+}
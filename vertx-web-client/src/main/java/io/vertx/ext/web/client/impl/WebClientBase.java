@@ -42,14 +42,18 @@ public class WebClientBase implements WebClientInternal {
 
   final HttpClient client;
   final WebClientOptions options;
-  private final List<Handler<HttpContext<?>>> interceptors;
+  final List<Handler<HttpContext<?>>> interceptors;
+  boolean timing;
 
   public WebClientBase(HttpClient client, WebClientOptions options) {
     this.client = client;
     this.options = new WebClientOptions(options);
     this.interceptors = new CopyOnWriteArrayList<>();
 
-    // Add base interceptor
+    // Add base interceptors
+    if (this.options.isRequestCoalescing()) {
+      addInterceptor(new CoalescingInterceptor(((HttpClientImpl) client).getVertx(), this.options.getCoalescingHeaders()));
+    }
     addInterceptor(new PredicateInterceptor());
   }
 
@@ -57,6 +61,7 @@ public class WebClientBase implements WebClientInternal {
     this.client = webClient.client;
     this.options = new WebClientOptions(webClient.options);
     this.interceptors = new CopyOnWriteArrayList<>(webClient.interceptors);
+    this.timing = webClient.timing;
   }
 
   @Override
@@ -265,7 +270,11 @@ public class WebClientBase implements WebClientInternal {
   @Override
   public <T> HttpContext<T> createContext(Handler<AsyncResult<HttpResponse<T>>> handler) {
     HttpClientImpl client = (HttpClientImpl) this.client;
-    return new HttpContext<>(client, interceptors, handler);
+    HttpContext<T> context = new HttpContext<>(client, interceptors, handler);
+    if (timing) {
+      context.enableTiming();
+    }
+    return context;
   }
 
   @Override
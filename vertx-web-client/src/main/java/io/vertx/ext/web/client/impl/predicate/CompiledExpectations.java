@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.impl.predicate;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.client.predicate.ResponsePredicate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The expectations of a request compiled once for all its responses.
+ * <p>
+ * The status and content type predicates are evaluated together against the status code and the content type header
+ * without allocation. When they all pass, only the other predicates are applied. Otherwise the expectations are applied
+ * one after the other so the first failing expectation is reported as before.
+ */
+public final class CompiledExpectations {
+
+  private final ResponsePredicate[] all;
+  private final ResponsePredicate[] others;
+  private final int minStatus;
+  private final int maxStatus;
+  private final ContentTypePredicate[] contentTypes;
+
+  public CompiledExpectations(List<ResponsePredicate> expectations) {
+    List<ResponsePredicate> others = new ArrayList<>();
+    List<ContentTypePredicate> contentTypes = new ArrayList<>();
+    int minStatus = Integer.MIN_VALUE;
+    int maxStatus = Integer.MAX_VALUE;
+    for (ResponsePredicate expectation : expectations) {
+      Function<?, ?> predicate = expectation;
+      if (predicate instanceof ResponsePredicateImpl) {
+        // the converter does not matter as long as the predicate passes
+        predicate = ((ResponsePredicateImpl) predicate).predicate;
+      }
+      if (predicate instanceof StatusPredicate) {
+        StatusPredicate status = (StatusPredicate) predicate;
+        minStatus = Math.max(minStatus, status.min);
+        maxStatus = Math.min(maxStatus, status.max);
+      } else if (predicate instanceof ContentTypePredicate) {
+        contentTypes.add((ContentTypePredicate) predicate);
+      } else {
+        others.add(expectation);
+      }
+    }
+    this.all = expectations.toArray(new ResponsePredicate[0]);
+    this.others = others.toArray(new ResponsePredicate[0]);
+    this.minStatus = minStatus;
+    this.maxStatus = maxStatus;
+    this.contentTypes = contentTypes.toArray(new ContentTypePredicate[0]);
+  }
+
+  /**
+   * @return the expectations to apply to a response: none when all the expectations are status and content type
+   *         predicates that pass
+   */
+  ResponsePredicate[] select(int statusCode, MultiMap headers) {
+    if (statusCode < minStatus || statusCode >= maxStatus) {
+      return all;
+    }
+    if (contentTypes.length > 0) {
+      String contentType = headers.get(HttpHeaders.CONTENT_TYPE);
+      for (ContentTypePredicate predicate : contentTypes) {
+        if (!predicate.test(contentType)) {
+          return all;
+        }
+      }
+    }
+    return others;
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.impl.predicate;
+
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.predicate.ResponsePredicate;
+import io.vertx.ext.web.client.predicate.ResponsePredicateResult;
+
+import java.util.List;
+
+/**
+ * A predicate validating the response has a {@code content-type} header matching one of the {@code mimeTypes}.
+ */
+public class ContentTypePredicate implements ResponsePredicate {
+
+  private final String[] mimeTypes;
+
+  public ContentTypePredicate(List<String> mimeTypes) {
+    this.mimeTypes = mimeTypes.toArray(new String[0]);
+  }
+
+  boolean test(String contentType) {
+    if (contentType != null) {
+      for (String mimeType : mimeTypes) {
+        if (contentType.equalsIgnoreCase(mimeType)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public ResponsePredicateResult apply(HttpResponse<Void> response) {
+    String contentType = response.headers().get(HttpHeaders.CONTENT_TYPE);
+    if (contentType == null) {
+      return ResponsePredicateResult.failure("Missing response content type");
+    }
+    if (test(contentType)) {
+      return ResponsePredicateResult.success();
+    }
+    StringBuilder sb = new StringBuilder("Expect content type ").append(contentType).append(" to be one of ");
+    boolean first = true;
+    for (String mimeType : mimeTypes) {
+      if (!first) {
+        sb.append(", ");
+      }
+      first = false;
+      sb.append(mimeType);
+    }
+    return ResponsePredicateResult.failure(sb.toString());
+  }
+}
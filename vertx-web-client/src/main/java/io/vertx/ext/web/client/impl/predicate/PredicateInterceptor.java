@@ -17,8 +17,10 @@ package io.vertx.ext.web.client.impl.predicate;
 
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.impl.NoStackTraceThrowable;
+import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.ext.web.client.impl.ClientPhase;
 import io.vertx.ext.web.client.impl.HttpContext;
 import io.vertx.ext.web.client.impl.HttpRequestImpl;
@@ -27,7 +29,6 @@ import io.vertx.ext.web.client.predicate.ErrorConverter;
 import io.vertx.ext.web.client.predicate.ResponsePredicate;
 
 import java.util.ArrayList;
-import java.util.List;
 
 public class PredicateInterceptor implements Handler<HttpContext<?>> {
 
@@ -37,14 +38,19 @@ public class PredicateInterceptor implements Handler<HttpContext<?>> {
     if (httpContext.phase() == ClientPhase.RECEIVE_RESPONSE) {
 
       // Run expectations
-      HttpRequestImpl request = (HttpRequestImpl) httpContext.request();
+      HttpRequestImpl<?> request = (HttpRequestImpl<?>) httpContext.request();
       HttpClientResponse resp = httpContext.clientResponse();
-      List<ResponsePredicate> expectations = request.expectations;
+      CompiledExpectations expectations = request.compiledExpectations();
       if (expectations != null) {
-        for (ResponsePredicate expectation : expectations) {
+        // the response given to the predicates is copied once for all of them
+        HttpResponse<Void> copy = null;
+        for (ResponsePredicate expectation : expectations.select(resp.statusCode(), resp.headers())) {
+          if (copy == null) {
+            copy = responseCopy(resp, httpContext, null);
+          }
           ResponsePredicateResultImpl predicateResult;
           try {
-            predicateResult = (ResponsePredicateResultImpl) expectation.apply(responseCopy(resp, httpContext,null));
+            predicateResult = (ResponsePredicateResultImpl) expectation.apply(copy);
           } catch (Exception e) {
             httpContext.fail(e);
             return;
@@ -69,7 +75,55 @@ public class PredicateInterceptor implements Handler<HttpContext<?>> {
     httpContext.next();
   }
 
-  private <B> HttpResponseImpl<B> responseCopy(HttpClientResponse resp, HttpContext<?> httpContext, B value) {
+  /**
+   * Run the expectations of the request against a response that was not received from the network, e.g.: a cached
+   * response.
+   *
+   * @return {@code true} if all the expectations are met, otherwise the context has been failed
+   */
+  public static boolean evaluate(HttpContext<?> httpContext, HttpResponse<Buffer> resp) {
+    HttpRequestImpl<?> request = (HttpRequestImpl<?>) httpContext.request();
+    CompiledExpectations expectations = request.compiledExpectations();
+    if (expectations != null) {
+      HttpResponse<Void> copy = null;
+      for (ResponsePredicate expectation : expectations.select(resp.statusCode(), resp.headers())) {
+        if (copy == null) {
+          copy = responseCopy(resp, httpContext, null);
+        }
+        ResponsePredicateResultImpl predicateResult;
+        try {
+          predicateResult = (ResponsePredicateResultImpl) expectation.apply(copy);
+        } catch (Exception e) {
+          httpContext.fail(e);
+          return false;
+        }
+        if (!predicateResult.succeeded()) {
+          ErrorConverter errorConverter = expectation.errorConverter();
+          if (errorConverter.requiresBody()) {
+            predicateResult.setHttpResponse(responseCopy(resp, httpContext, resp.body()));
+          }
+          failOnPredicate(httpContext, errorConverter, predicateResult);
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static <B> HttpResponseImpl<B> responseCopy(HttpResponse<?> resp, HttpContext<?> httpContext, B value) {
+    return new HttpResponseImpl<>(
+      resp.version(),
+      resp.statusCode(),
+      resp.statusMessage(),
+      MultiMap.caseInsensitiveMultiMap().addAll(resp.headers()),
+      null,
+      new ArrayList<>(resp.cookies()),
+      value,
+      httpContext.getRedirectedLocations()
+    );
+  }
+
+  private static <B> HttpResponseImpl<B> responseCopy(HttpClientResponse resp, HttpContext<?> httpContext, B value) {
     return new HttpResponseImpl<>(
       resp.version(),
       resp.statusCode(),
@@ -82,7 +136,7 @@ public class PredicateInterceptor implements Handler<HttpContext<?>> {
     );
   }
 
-  private void failOnPredicate(HttpContext<?> ctx, ErrorConverter converter, ResponsePredicateResultImpl predicateResult) {
+  private static void failOnPredicate(HttpContext<?> ctx, ErrorConverter converter, ResponsePredicateResultImpl predicateResult) {
     Throwable result;
     try {
       result = converter.apply(predicateResult);
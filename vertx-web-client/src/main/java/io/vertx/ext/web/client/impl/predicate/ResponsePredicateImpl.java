@@ -28,7 +28,7 @@ import java.util.function.Function;
  */
 public class ResponsePredicateImpl implements ResponsePredicate {
 
-  private final Function<HttpResponse<Void>, ResponsePredicateResult> predicate;
+  final Function<HttpResponse<Void>, ResponsePredicateResult> predicate;
   private final ErrorConverter errorConverter;
 
   public ResponsePredicateImpl(Function<HttpResponse<Void>, ResponsePredicateResult> predicate, ErrorConverter errorConverter) {
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.impl.predicate;
+
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.predicate.ResponsePredicate;
+import io.vertx.ext.web.client.predicate.ResponsePredicateResult;
+
+/**
+ * A predicate asserting that the status response code is in the {@code [min,max[} range.
+ */
+public class StatusPredicate implements ResponsePredicate {
+
+  final int min;
+  final int max;
+
+  public StatusPredicate(int min, int max) {
+    this.min = min;
+    this.max = max;
+  }
+
+  boolean test(int sc) {
+    return sc >= min && sc < max;
+  }
+
+  @Override
+  public ResponsePredicateResult apply(HttpResponse<Void> response) {
+    int sc = response.statusCode();
+    if (test(sc)) {
+      return ResponsePredicateResult.success();
+    }
+    if (max - min == 1) {
+      return ResponsePredicateResult.failure("Response status code " + sc + " is not equal to " + min);
+    }
+    return ResponsePredicateResult.failure("Response status code " + sc + " is not between " + min + " and " + max);
+  }
+}
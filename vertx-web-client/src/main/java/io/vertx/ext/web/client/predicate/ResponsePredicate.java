@@ -17,10 +17,11 @@
 package io.vertx.ext.web.client.predicate;
 
 import io.vertx.codegen.annotations.VertxGen;
-import io.vertx.core.http.HttpHeaders;
 import io.vertx.ext.web.client.HttpRequest;
 import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.impl.predicate.ContentTypePredicate;
 import io.vertx.ext.web.client.impl.predicate.ResponsePredicateImpl;
+import io.vertx.ext.web.client.impl.predicate.StatusPredicate;
 
 import java.util.Collections;
 import java.util.List;
@@ -376,16 +377,7 @@ public interface ResponsePredicate extends Function<HttpResponse<Void>, Response
    * @param max the highest (exclusive) accepted status code
    */
   static ResponsePredicate status(int min, int max) {
-    return response -> {
-      int sc = response.statusCode();
-      if (sc >= min && sc < max) {
-        return ResponsePredicateResult.success();
-      }
-      if (max - min == 1) {
-        return ResponsePredicateResult.failure("Response status code " + sc + " is not equal to " + min);
-      }
-      return ResponsePredicateResult.failure("Response status code " + sc + " is not between " + min + " and " + max);
-    };
+    return new StatusPredicate(min, max);
   }
 
   /**
@@ -408,27 +400,7 @@ public interface ResponsePredicate extends Function<HttpResponse<Void>, Response
    * @param mimeTypes the list of mime types
    */
   static ResponsePredicate contentType(List<String> mimeTypes) {
-    return response -> {
-      String contentType = response.headers().get(HttpHeaders.CONTENT_TYPE);
-      if (contentType == null) {
-        return ResponsePredicateResult.failure("Missing response content type");
-      }
-      for (String mimeType : mimeTypes) {
-        if (contentType.equalsIgnoreCase(mimeType)) {
-          return ResponsePredicateResult.success();
-        }
-      }
-      StringBuilder sb = new StringBuilder("Expect content type ").append(contentType).append(" to be one of ");
-      boolean first = true;
-      for (String mimeType : mimeTypes) {
-        if (!first) {
-          sb.append(", ");
-        }
-        first = false;
-        sb.append(mimeType);
-      }
-      return ResponsePredicateResult.failure(sb.toString());
-    };
+    return new ContentTypePredicate(mimeTypes);
   }
 
   /**
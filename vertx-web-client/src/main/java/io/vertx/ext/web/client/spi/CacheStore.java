@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.spi;
+
+import io.vertx.core.Future;
+import io.vertx.ext.web.client.impl.LocalCacheStore;
+
+/**
+ * A store of HTTP responses used by a {@link io.vertx.ext.web.client.CachingWebClient}.
+ * <p>
+ * Responses are stored by a key derived from the request, the store does not need to understand HTTP caching
+ * semantics, freshness and validation are handled by the client. Stores that keep responses outside of the JVM can
+ * serialize them with {@link CachedHttpResponse#writeToBuffer(io.vertx.core.buffer.Buffer)}.
+ */
+public interface CacheStore {
+
+  /**
+   * The default maximum amount of responses kept by the in memory store.
+   */
+  int DEFAULT_MAX_SIZE = 1024;
+
+  /**
+   * Builds a bounded in memory cache store, the least recently used responses are evicted first.
+   *
+   * @return the new cache store
+   */
+  static CacheStore build() {
+    return build(DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * Builds a bounded in memory cache store, the least recently used responses are evicted first.
+   *
+   * @param maxSize the maximum amount of responses to keep
+   * @return the new cache store
+   */
+  static CacheStore build(int maxSize) {
+    return new LocalCacheStore(maxSize);
+  }
+
+  /**
+   * Retrieve a cached response.
+   *
+   * @param key the key of the response
+   * @return a future completed with the response or {@code null} when there is none
+   */
+  Future<CachedHttpResponse> get(String key);
+
+  /**
+   * Add or replace a cached response.
+   *
+   * @param key the key of the response
+   * @param response the response to cache
+   * @return a future completed once the response is stored
+   */
+  Future<Void> set(String key, CachedHttpResponse response);
+
+  /**
+   * Remove a cached response.
+   *
+   * @param key the key of the response
+   * @return a future completed once the response is removed
+   */
+  Future<Void> delete(String key);
+
+  /**
+   * Remove all the cached responses.
+   *
+   * @return a future completed once the store is empty
+   */
+  Future<Void> flush();
+}
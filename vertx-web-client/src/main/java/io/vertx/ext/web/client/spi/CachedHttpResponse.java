@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.spi;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.shareddata.impl.ClusterSerializable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A response kept by a {@link CacheStore}.
+ * <p>
+ * Besides the response itself it holds what is needed to decide whether it can be served: the values of the request
+ * headers named by its {@code Vary} header, the time at which its age was {@code 0}, its freshness lifetime and for
+ * how long it can be served stale while it is revalidated.
+ */
+public class CachedHttpResponse implements ClusterSerializable {
+
+  private HttpVersion version;
+  private int statusCode;
+  private String statusMessage;
+  private MultiMap headers;
+  private Buffer body;
+  private MultiMap varyHeaders;
+  private long timestamp;
+  private long maxAge;
+  private long staleWhileRevalidate;
+
+  /**
+   * Create an empty response, to be filled by {@link #readFromBuffer(int, Buffer)}.
+   */
+  public CachedHttpResponse() {
+  }
+
+  public CachedHttpResponse(HttpVersion version, int statusCode, String statusMessage, MultiMap headers, Buffer body,
+                            MultiMap varyHeaders, long timestamp, long maxAge, long staleWhileRevalidate) {
+    this.version = version;
+    this.statusCode = statusCode;
+    this.statusMessage = statusMessage;
+    this.headers = headers;
+    this.body = body;
+    this.varyHeaders = varyHeaders;
+    this.timestamp = timestamp;
+    this.maxAge = maxAge;
+    this.staleWhileRevalidate = staleWhileRevalidate;
+  }
+
+  public HttpVersion version() {
+    return version;
+  }
+
+  public int statusCode() {
+    return statusCode;
+  }
+
+  public String statusMessage() {
+    return statusMessage;
+  }
+
+  /**
+   * @return the response headers
+   */
+  public MultiMap headers() {
+    return headers;
+  }
+
+  public Buffer body() {
+    return body;
+  }
+
+  /**
+   * @return the values of the request headers named by the {@code Vary} response header
+   */
+  public MultiMap varyHeaders() {
+    return varyHeaders;
+  }
+
+  /**
+   * @return the time in milliseconds at which the age of the response was {@code 0}
+   */
+  public long timestamp() {
+    return timestamp;
+  }
+
+  /**
+   * @return the freshness lifetime in milliseconds
+   */
+  public long maxAge() {
+    return maxAge;
+  }
+
+  /**
+   * @return for how long in milliseconds the response can be served once stale, while it is revalidated
+   */
+  public long staleWhileRevalidate() {
+    return staleWhileRevalidate;
+  }
+
+  /**
+   * @return the age of the response in milliseconds
+   */
+  public long age(long now) {
+    return Math.max(0, now - timestamp);
+  }
+
+  /**
+   * @return {@code true} if the response can be served without contacting the server
+   */
+  public boolean isFresh(long now) {
+    return age(now) < maxAge;
+  }
+
+  /**
+   * @return {@code true} if the response is stale but can still be served while it is revalidated
+   */
+  public boolean isStaleWhileRevalidate(long now) {
+    return !isFresh(now) && age(now) < maxAge + staleWhileRevalidate;
+  }
+
+  @Override
+  public void writeToBuffer(Buffer buffer) {
+    buffer
+      .appendByte((byte) version.ordinal())
+      .appendInt(statusCode);
+    writeString(buffer, statusMessage);
+    writeMultiMap(buffer, headers);
+    writeMultiMap(buffer, varyHeaders);
+    buffer
+      .appendLong(timestamp)
+      .appendLong(maxAge)
+      .appendLong(staleWhileRevalidate)
+      .appendInt(body.length())
+      .appendBuffer(body);
+  }
+
+  @Override
+  public int readFromBuffer(int pos, Buffer buffer) {
+    version = HttpVersion.values()[buffer.getByte(pos)];
+    pos += 1;
+    statusCode = buffer.getInt(pos);
+    pos += 4;
+    int len = buffer.getInt(pos);
+    pos += 4;
+    statusMessage = buffer.getString(pos, pos + len, StandardCharsets.UTF_8.name());
+    pos += len;
+    headers = MultiMap.caseInsensitiveMultiMap();
+    pos = readMultiMap(pos, buffer, headers);
+    varyHeaders = MultiMap.caseInsensitiveMultiMap();
+    pos = readMultiMap(pos, buffer, varyHeaders);
+    timestamp = buffer.getLong(pos);
+    pos += 8;
+    maxAge = buffer.getLong(pos);
+    pos += 8;
+    staleWhileRevalidate = buffer.getLong(pos);
+    pos += 8;
+    len = buffer.getInt(pos);
+    pos += 4;
+    body = buffer.getBuffer(pos, pos + len);
+    return pos + len;
+  }
+
+  private static void writeString(Buffer buffer, String s) {
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    buffer.appendInt(bytes.length).appendBytes(bytes);
+  }
+
+  private static void writeMultiMap(Buffer buffer, MultiMap map) {
+    // size() counts the names, not the entries
+    List<Map.Entry<String, String>> entries = map.entries();
+    buffer.appendInt(entries.size());
+    for (Map.Entry<String, String> entry : entries) {
+      writeString(buffer, entry.getKey());
+      writeString(buffer, entry.getValue());
+    }
+  }
+
+  private static int readMultiMap(int pos, Buffer buffer, MultiMap map) {
+    int size = buffer.getInt(pos);
+    pos += 4;
+    for (int i = 0; i < size; i++) {
+      int len = buffer.getInt(pos);
+      pos += 4;
+      String name = buffer.getString(pos, pos + len, StandardCharsets.UTF_8.name());
+      pos += len;
+      len = buffer.getInt(pos);
+      pos += 4;
+      String value = buffer.getString(pos, pos + len, StandardCharsets.UTF_8.name());
+      pos += len;
+      map.add(name, value);
+    }
+    return pos;
+  }
+}
@@ -28,7 +28,18 @@ public interface CookieStore {
   static CookieStore build() {
     return new CookieStoreImpl();
   }
-  
+
+  /**
+   * Builds an in memory cookie store holding at most {@code maxCookiesPerDomain} cookies per domain, the oldest
+   * cookie of a domain is evicted when a new cookie exceeds this bound.
+   *
+   * @param maxCookiesPerDomain the maximum number of cookies per domain
+   * @return the new cookie store
+   */
+  static CookieStore build(int maxCookiesPerDomain) {
+    return new CookieStoreImpl(maxCookiesPerDomain);
+  }
+
   /**
    * Returns and {@link Iterable} of cookies satisfying the filters passed as paraemters.
    * <p>
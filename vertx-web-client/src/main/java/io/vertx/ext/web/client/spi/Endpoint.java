@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.spi;
+
+import io.vertx.core.net.SocketAddress;
+
+/**
+ * An endpoint of a service of a {@link io.vertx.ext.web.client.LoadBalancingWebClient}, with the statistics observed
+ * by the client.
+ */
+public interface Endpoint {
+
+  /**
+   * @return the address of the endpoint
+   */
+  SocketAddress address();
+
+  /**
+   * @return the number of requests sent to the endpoint and not yet completed
+   */
+  int outstandingRequests();
+
+  /**
+   * @return the moving average of the response time of the endpoint in nanoseconds, {@code 0} until a response is
+   *         received
+   */
+  long latency();
+
+  /**
+   * @return {@code true} when the endpoint is ejected from the load balancing because of its failures or its latency
+   */
+  boolean isEjected();
+}
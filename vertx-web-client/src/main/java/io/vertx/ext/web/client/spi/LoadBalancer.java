@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.spi;
+
+import io.vertx.ext.web.client.impl.LoadBalancers;
+
+import java.util.List;
+
+/**
+ * Selects the endpoint a request of a {@link io.vertx.ext.web.client.LoadBalancingWebClient} service is sent to.
+ * <p>
+ * Implementations are called concurrently.
+ */
+public interface LoadBalancer {
+
+  /**
+   * @return a load balancer selecting the endpoints in turn
+   */
+  static LoadBalancer roundRobin() {
+    return new LoadBalancers.RoundRobin();
+  }
+
+  /**
+   * @return a load balancer selecting the endpoint with the least outstanding requests
+   */
+  static LoadBalancer leastRequests() {
+    return new LoadBalancers.LeastRequests();
+  }
+
+  /**
+   * @return a load balancer picking two random endpoints and selecting the one with the lowest latency weighted by its
+   *         outstanding requests
+   */
+  static LoadBalancer powerOfTwoChoices() {
+    return new LoadBalancers.PowerOfTwoChoices();
+  }
+
+  /**
+   * Select an endpoint.
+   *
+   * @param endpoints the available endpoints, never empty
+   * @return the selected endpoint, one of {@code endpoints}
+   */
+  Endpoint select(List<Endpoint> endpoints);
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client.spi;
+
+import io.vertx.ext.web.client.ResponseTiming;
+import io.vertx.ext.web.client.TimingHistograms;
+
+/**
+ * The metrics of the requests sent by a {@link io.vertx.ext.web.client.TimedWebClient}.
+ */
+public interface WebClientMetrics {
+
+  /**
+   * @return metrics aggregating the timings in histograms per host, port and route template
+   */
+  static TimingHistograms histograms() {
+    return new TimingHistograms();
+  }
+
+  /**
+   * Report the timing of a request, this method is called when the response is dispatched or when the request fails.
+   *
+   * @param host the host of the request
+   * @param port the port of the request
+   * @param routeTemplate the route template of the request or {@code null}
+   * @param timing the timing of the request
+   * @param failure the failure of the request or {@code null}
+   */
+  void record(String host, int port, String routeTemplate, ResponseTiming timing, Throwable failure);
+}
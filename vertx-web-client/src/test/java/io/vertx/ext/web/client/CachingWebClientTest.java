@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.parsetools.JsonParser;
+import io.vertx.ext.web.client.predicate.ResponsePredicate;
+import io.vertx.ext.web.client.spi.CachedHttpResponse;
+import io.vertx.ext.web.codec.BodyCodec;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class CachingWebClientTest extends WebClientTestBase {
+
+  private CachingWebClient cachingWebClient;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    cachingWebClient = CachingWebClient.create(webClient);
+  }
+
+  private HttpRequest<Buffer> get() {
+    return cachingWebClient.get(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/somepath");
+  }
+
+  @Test
+  public void testFreshResponseIsCached() throws Exception {
+    AtomicInteger hits = new AtomicInteger();
+    server.requestHandler(req -> {
+      hits.incrementAndGet();
+      req.response().putHeader("cache-control", "public, max-age=60").end("hello");
+    });
+    startServer();
+    get().as(BodyCodec.string()).send(onSuccess(resp1 -> {
+      assertEquals("hello", resp1.body());
+      get().as(BodyCodec.string()).send(onSuccess(resp2 -> {
+        assertEquals(200, resp2.statusCode());
+        assertEquals("hello", resp2.body());
+        assertEquals("0", resp2.getHeader("age"));
+        assertEquals(1, hits.get());
+        testComplete();
+      }));
+    }));
+    await();
+  }
+
+  @Test
+  public void testNoStoreIsNotCached() throws Exception {
+    AtomicInteger hits = new AtomicInteger();
+    server.requestHandler(req -> {
+      hits.incrementAndGet();
+      req.response().putHeader("cache-control", "no-store, max-age=60").end("hello");
+    });
+    startServer();
+    get().send(onSuccess(resp1 -> {
+      get().send(onSuccess(resp2 -> {
+        assertEquals(2, hits.get());
+        testComplete();
+      }));
+    }));
+    await();
+  }
+
+  @Test
+  public void testPrivateIsNotCached() throws Exception {
+    AtomicInteger hits = new AtomicInteger();
+    server.requestHandler(req -> {
+      hits.incrementAndGet();
+      req.response().putHeader("cache-control", "private, max-age=60").end("hello");
+    });
+    startServer();
+    get().send(onSuccess(resp1 -> {
+      get().send(onSuccess(resp2 -> {
+        assertEquals(2, hits.get());
+        testComplete();
+      }));
+    }));
+    await();
+  }
+
+  @Test
+  public void testRevalidate() throws Exception {
+    AtomicInteger hits = new AtomicInteger();
+    server.requestHandler(req -> {
+      hits.incrementAndGet();
+      req.response().putHeader("cache-control", "max-age=0").putHeader("etag", "\"v1\"");
+      if ("\"v1\"".equals(req.getHeader("if-none-match"))) {
+        req.response().setStatusCode(304).end();
+      } else {
+        req.response().end("hello");
+      }
+    });
+    startServer();
+    get().send(onSuccess(resp1 -> {
+      assertEquals("hello", resp1.bodyAsString());
+      // the 304 must not fail the expectation
+      get().expect(ResponsePredicate.SC_SUCCESS).send(onSuccess(resp2 -> {
+        assertEquals(200, resp2.statusCode());
+        assertEquals("hello", resp2.bodyAsString());
+        assertEquals(2, hits.get());
+        testComplete();
+      }));
+    }));
+    await();
+  }
+
+  @Test
+  public void testConditionalRequestServedFromCache() throws Exception {
+    AtomicInteger hits = new AtomicInteger();
+    server.requestHandler(req -> {
+      hits.incrementAndGet();
+      req.response().putHeader("cache-control", "max-age=60").putHeader("etag", "\"v1\"").end("hello");
+    });
+    startServer();
+    get().send(onSuccess(resp1 -> {
+      get().putHeader("if-none-match", "W/\"v1\"").send(onSuccess(resp2 -> {
+        assertEquals(304, resp2.statusCode());
+        assertEquals(1, hits.get());
+        get().putHeader("if-none-match", "\"v2\"").send(onSuccess(resp3 -> {
+          assertEquals(200, resp3.statusCode());
+          assertEquals("hello", resp3.bodyAsString());
+          assertEquals(1, hits.get());
+          testComplete();
+        }));
+      }));
+    }));
+    await();
+  }
+
+  @Test
+  public void testVary() throws Exception {
+    AtomicInteger hits = new AtomicInteger();
+    server.requestHandler(req -> {
+      hits.incrementAndGet();
+      req.response().putHeader("cache-control", "max-age=60").putHeader("vary", "accept").end(req.getHeader("accept"));
+    });
+    startServer();
+    get().putHeader("accept", "text/plain").send(onSuccess(resp1 -> {
+      assertEquals("text/plain", resp1.bodyAsString());
+      get().putHeader("accept", "text/html").send(onSuccess(resp2 -> {
+        assertEquals("text/html", resp2.bodyAsString());
+        assertEquals(2, hits.get());
+        get().putHeader("accept", "text/html").send(onSuccess(resp3 -> {
+          assertEquals("text/html", resp3.bodyAsString());
+          assertEquals(2, hits.get());
+          testComplete();
+        }));
+      }));
+    }));
+    await();
+  }
+
+  @Test
+  public void testStaleWhileRevalidate() throws Exception {
+    AtomicInteger hits = new AtomicInteger();
+    server.requestHandler(req -> {
+      int hit = hits.incrementAndGet();
+      req.response().putHeader("cache-control", "max-age=0, stale-while-revalidate=60").end("hello-" + hit);
+      if (hit == 2) {
+        // the background revalidation, give the client the time to store the response
+        vertx.setTimer(100, id -> {
+          get().send(onSuccess(resp3 -> {
+            assertEquals("hello-2", resp3.bodyAsString());
+            testComplete();
+          }));
+        });
+      }
+    });
+    startServer();
+    get().send(onSuccess(resp1 -> {
+      assertEquals("hello-1", resp1.bodyAsString());
+      get().send(onSuccess(resp2 -> {
+        // served stale
+        assertEquals("hello-1", resp2.bodyAsString());
+      }));
+    }));
+    await();
+  }
+
+  @Test
+  public void testUnsafeMethodInvalidates() throws Exception {
+    AtomicInteger hits = new AtomicInteger();
+    server.requestHandler(req -> {
+      hits.incrementAndGet();
+      req.response().putHeader("cache-control", "max-age=60").end("hello");
+    });
+    startServer();
+    get().send(onSuccess(resp1 -> {
+      cachingWebClient.post(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/somepath").send(onSuccess(resp2 -> {
+        get().send(onSuccess(resp3 -> {
+          assertEquals(3, hits.get());
+          testComplete();
+        }));
+      }));
+    }));
+    await();
+  }
+
+  @Test
+  public void testExpectationOnCachedResponse() throws Exception {
+    server.requestHandler(req -> req.response().setStatusCode(404).putHeader("cache-control", "max-age=60").end());
+    startServer();
+    get().send(onSuccess(resp1 -> {
+      assertEquals(404, resp1.statusCode());
+      get().expect(ResponsePredicate.SC_SUCCESS).send(onFailure(err -> testComplete()));
+    }));
+    await();
+  }
+
+  @Test
+  public void testUnstoredResponseIsStreamed() throws Exception {
+    AtomicReference<HttpServerResponse> response = new AtomicReference<>();
+    server.requestHandler(req -> {
+      // neither fresh nor revalidatable, the response is not stored
+      response.set(req.response().setChunked(true));
+      response.get().write("{\"chunk\":1}");
+    });
+    startServer();
+    JsonParser parser = JsonParser.newParser().objectValueMode();
+    parser.handler(event -> {
+      // the response would be buffered until its end without streaming
+      if (event.objectValue().getInteger("chunk") == 1) {
+        response.get().end("{\"chunk\":2}");
+      }
+    });
+    get().as(BodyCodec.jsonStream(parser)).send(onSuccess(resp -> testComplete()));
+    await();
+  }
+
+  @Test
+  public void testSerialization() {
+    MultiMap headers = MultiMap.caseInsensitiveMultiMap().add("vary", "accept").add("x-multi", "a").add("x-multi", "b");
+    MultiMap varyHeaders = MultiMap.caseInsensitiveMultiMap().add("accept", "text/plain");
+    CachedHttpResponse response = new CachedHttpResponse(HttpVersion.HTTP_1_1, 200, "OK", headers, Buffer.buffer("hello"), varyHeaders, 1000, 2000, 3000);
+    Buffer buffer = Buffer.buffer();
+    response.writeToBuffer(buffer);
+    CachedHttpResponse copy = new CachedHttpResponse();
+    assertEquals(buffer.length(), copy.readFromBuffer(0, buffer));
+    assertEquals(HttpVersion.HTTP_1_1, copy.version());
+    assertEquals(200, copy.statusCode());
+    assertEquals("OK", copy.statusMessage());
+    assertEquals(2, copy.headers().getAll("x-multi").size());
+    assertEquals("text/plain", copy.varyHeaders().get(HttpHeaders.ACCEPT));
+    assertEquals("hello", copy.body().toString());
+    assertEquals(1000, copy.timestamp());
+    assertEquals(2000, copy.maxAge());
+    assertEquals(3000, copy.staleWhileRevalidate());
+  }
+}
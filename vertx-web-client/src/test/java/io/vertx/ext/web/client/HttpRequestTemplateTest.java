@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.predicate.ResponsePredicate;
+import io.vertx.ext.web.client.spi.WebClientMetrics;
+import io.vertx.ext.web.codec.BodyCodec;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class HttpRequestTemplateTest extends WebClientTestBase {
+
+  private void startEchoServer() throws Exception {
+    server.requestHandler(req -> req.response().end(new JsonObject()
+      .put("method", req.method().name())
+      .put("uri", req.uri())
+      .put("static", req.getHeader("x-static"))
+      .put("extra", req.getHeader("x-extra"))
+      .encode()));
+    startServer();
+  }
+
+  @Test
+  public void testTemplate() throws Exception {
+    startEchoServer();
+    HttpRequestTemplate<JsonObject> template = webClient
+      .put(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/users/:id/orders/:order")
+      .addQueryParam("q", "a b")
+      .putHeader("x-static", "static-value")
+      .as(BodyCodec.jsonObject())
+      .template();
+    assertEquals(Arrays.asList("id", "order"), template.variables());
+    template.request("42", "7").send(onSuccess(resp -> {
+      JsonObject json = resp.body();
+      assertEquals("PUT", json.getString("method"));
+      assertEquals("/users/42/orders/7?q=a%20b", json.getString("uri"));
+      assertEquals("static-value", json.getString("static"));
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testVariablesAreEncoded() throws Exception {
+    startEchoServer();
+    HttpRequestTemplate<Buffer> template = webClient.get("/files/:name").template();
+    template.request("a b/c?dé").send(onSuccess(resp -> {
+      assertEquals("/files/a%20b%2Fc%3Fd%C3%A9", resp.bodyAsJsonObject().getString("uri"));
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testValuesByName() throws Exception {
+    startEchoServer();
+    HttpRequestTemplate<Buffer> template = webClient.get("/users/:id/orders?limit=10").template();
+    template.request(Collections.singletonMap("id", "42")).send(onSuccess(resp -> {
+      assertEquals("/users/42/orders?limit=10", resp.bodyAsJsonObject().getString("uri"));
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testInvalidValues() {
+    HttpRequestTemplate<Buffer> template = webClient.get("/users/:id").template();
+    assertIllegalArgument(template::request);
+    assertIllegalArgument(() -> template.request("1", "2"));
+    assertIllegalArgument(() -> template.request(Collections.singletonMap("other", "1")));
+  }
+
+  private void assertIllegalArgument(Runnable runnable) {
+    try {
+      runnable.run();
+      fail();
+    } catch (IllegalArgumentException ignore) {
+    }
+  }
+
+  @Test
+  public void testColonIsNotAlwaysAVariable() {
+    HttpRequestTemplate<Buffer> template = webClient.get("/a:b/:/c").template();
+    assertEquals(Collections.emptyList(), template.variables());
+  }
+
+  @Test
+  public void testHeadersAreCopiedOnWrite() throws Exception {
+    waitFor(2);
+    startEchoServer();
+    HttpRequestTemplate<Buffer> template = webClient.get("/somepath").putHeader("x-static", "static-value").template();
+    HttpRequest<Buffer> first = template.request().putHeader("x-extra", "extra-value");
+    HttpRequest<Buffer> second = template.request();
+    first.send(onSuccess(resp -> {
+      assertEquals("static-value", resp.bodyAsJsonObject().getString("static"));
+      assertEquals("extra-value", resp.bodyAsJsonObject().getString("extra"));
+      complete();
+    }));
+    second.send(onSuccess(resp -> {
+      assertEquals("static-value", resp.bodyAsJsonObject().getString("static"));
+      assertNull(resp.bodyAsJsonObject().getString("extra"));
+      complete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testTemplateIsASnapshot() throws Exception {
+    startEchoServer();
+    HttpRequest<Buffer> request = webClient.get("/somepath").putHeader("x-static", "static-value");
+    HttpRequestTemplate<Buffer> template = request.template();
+    request.putHeader("x-static", "other").uri("/other");
+    template.request().send(onSuccess(resp -> {
+      assertEquals("/somepath", resp.bodyAsJsonObject().getString("uri"));
+      assertEquals("static-value", resp.bodyAsJsonObject().getString("static"));
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testExpectations() throws Exception {
+    server.requestHandler(req -> req.response().setStatusCode(500).end());
+    startServer();
+    HttpRequestTemplate<Buffer> template = webClient.get("/somepath").expect(ResponsePredicate.SC_SUCCESS).template();
+    template.request().send(onFailure(err -> {
+      assertTrue(err.getMessage().contains("500"));
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testRouteTemplate() throws Exception {
+    startEchoServer();
+    TimingHistograms metrics = WebClientMetrics.histograms();
+    HttpRequestTemplate<Buffer> template = TimedWebClient.create(webClient, metrics).get("/users/:id").template();
+    template.request("1").send(onSuccess(resp1 -> {
+      template.request("2").send(onSuccess(resp2 -> {
+        assertEquals(2, metrics.histogram(DEFAULT_HTTP_HOST, DEFAULT_HTTP_PORT, "/users/:id", TimingInterval.TOTAL).count());
+        testComplete();
+      }));
+    }));
+    await();
+  }
+}
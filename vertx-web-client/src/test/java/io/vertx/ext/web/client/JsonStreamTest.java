@@ -1,9 +1,14 @@
 package io.vertx.ext.web.client;
 
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.parsetools.JsonParser;
+import io.vertx.core.streams.WriteStream;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
@@ -13,7 +18,11 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Checks the behavior of the {@link io.vertx.ext.web.codec.impl.JsonStreamBodyCodec}.
@@ -21,8 +30,12 @@ import java.util.concurrent.atomic.AtomicInteger;
 @RunWith(VertxUnitRunner.class)
 public class JsonStreamTest {
 
+  private static final int LINES = 200_000;
+  private static final String DATA = String.join("", Collections.nCopies(100, "x"));
+
   private Vertx vertx;
   private WebClient client;
+  private final AtomicLong written = new AtomicLong();
 
   @Before
   public void setup(TestContext tc) {
@@ -30,6 +43,11 @@ public class JsonStreamTest {
     client = WebClient.create(vertx, new WebClientOptions().setDefaultPort(8080).setDefaultHost("localhost"));
 
     vertx.createHttpServer().requestHandler(req -> {
+      if (req.path().equals("/large")) {
+        req.response().setChunked(true);
+        sendLines(req.response(), Integer.parseInt(req.getParam("count")));
+        return;
+      }
       int count = Integer.valueOf(req.getParam("count"));
       String separator = req.getParam("separator");
       if (separator.equalsIgnoreCase("nl")) {
@@ -51,6 +69,24 @@ public class JsonStreamTest {
     }).listen(8080, tc.asyncAssertSuccess());
   }
 
+  /**
+   * Send NDJSON lines honoring the back-pressure of the response.
+   */
+  private void sendLines(HttpServerResponse response, int remaining) {
+    while (remaining > 0 && !response.writeQueueFull()) {
+      Buffer line = new JsonObject().put("count", LINES - remaining).put("data", DATA).toBuffer().appendString("\n");
+      written.addAndGet(line.length());
+      response.write(line);
+      remaining--;
+    }
+    if (remaining == 0) {
+      response.end();
+    } else {
+      int r = remaining;
+      response.drainHandler(v -> sendLines(response, r));
+    }
+  }
+
   @After
   public void close(TestContext tc) {
     vertx.close(tc.asyncAssertSuccess());
@@ -97,4 +133,178 @@ public class JsonStreamTest {
     });
   }
 
+  @Test
+  public void testParserBackPressure(TestContext tc) {
+    Async async = tc.async();
+    AtomicInteger counter = new AtomicInteger();
+    BodyCodec<Void> codec = BodyCodec.jsonStream(body -> {
+      JsonParser parser = JsonParser.newParser(body).objectValueMode();
+      parser
+        .exceptionHandler(tc::fail)
+        .handler(event -> {
+          tc.assertEquals(counter.getAndIncrement(), event.objectValue().getInteger("count"));
+          if (counter.get() == 1) {
+            // a stalled consumer
+            parser.pause();
+            vertx.setTimer(500, id -> {
+              assertBounded(tc);
+              parser.resume();
+            });
+          }
+        })
+        .endHandler(v -> {
+          tc.assertEquals(LINES, counter.get());
+          async.complete();
+        });
+      return parser;
+    });
+    client.get("/large?count=" + LINES).as(codec).send(tc.asyncAssertSuccess());
+  }
+
+  @Test
+  public void testParserInvalidBody(TestContext tc) {
+    vertx.createHttpServer()
+      .requestHandler(req -> req.response().end("{\"count\":0}\n{\"count\":]"))
+      .listen(8081, tc.asyncAssertSuccess(server -> {
+        AtomicInteger counter = new AtomicInteger();
+        BodyCodec<Void> codec = BodyCodec.jsonStream(body -> JsonParser.newParser(body).objectValueMode()
+          .handler(event -> tc.assertEquals(counter.getAndIncrement(), event.objectValue().getInteger("count"))));
+        client.get(8081, "localhost", "/").as(codec).send(tc.asyncAssertFailure(err -> tc.assertEquals(1, counter.get())));
+      }));
+  }
+
+  @Test
+  public void testJsonLinesBackPressure(TestContext tc) {
+    Async async = tc.async();
+    SlowStream consumer = new SlowStream(tc, async);
+    client.get("/large?count=" + LINES).as(BodyCodec.jsonLines(JsonObject.class, consumer)).send(tc.asyncAssertSuccess());
+  }
+
+  @Test
+  public void testJsonLinesInvalidLine(TestContext tc) {
+    vertx.createHttpServer()
+      .requestHandler(req -> req.response().end("{\"count\":0}\r\n\n{\"count\":1}\nnot-json\n"))
+      .listen(8081, tc.asyncAssertSuccess(server -> {
+        AtomicInteger counter = new AtomicInteger();
+        client.get(8081, "localhost", "/").as(BodyCodec.jsonLines(JsonObject.class, new WriteStreamAdapter() {
+          @Override
+          public Future<Void> write(JsonObject data) {
+            tc.assertEquals(counter.getAndIncrement(), data.getInteger("count"));
+            return Future.succeededFuture();
+          }
+        })).send(tc.asyncAssertFailure(err -> tc.assertEquals(2, counter.get())));
+      }));
+  }
+
+  /**
+   * The server sends lines as long as the client reads them, a stalled client bounds what is in-flight.
+   */
+  private void assertBounded(TestContext tc) {
+    long inflight = written.get();
+    tc.assertTrue(inflight < LINES * 100L / 2, "The server should be paused, " + inflight + " bytes written");
+  }
+
+  /**
+   * A consumer that stalls after the first object, then consumes the objects one at a time.
+   */
+  private class SlowStream extends WriteStreamAdapter {
+
+    private final TestContext tc;
+    private final Async async;
+    private final Deque<JsonObject> queue = new ArrayDeque<>();
+    private int counter;
+    private boolean stalled = true;
+    private Handler<Void> drainHandler;
+
+    SlowStream(TestContext tc, Async async) {
+      this.tc = tc;
+      this.async = async;
+    }
+
+    @Override
+    public Future<Void> write(JsonObject data) {
+      queue.add(data);
+      if (queue.size() == 1 && counter == 0) {
+        vertx.setTimer(500, id -> {
+          assertBounded(tc);
+          stalled = false;
+          consume();
+        });
+      } else if (!stalled) {
+        consume();
+      }
+      return Future.succeededFuture();
+    }
+
+    private void consume() {
+      JsonObject obj;
+      while ((obj = queue.poll()) != null) {
+        tc.assertEquals(counter++, obj.getInteger("count"));
+      }
+      Handler<Void> handler = drainHandler;
+      drainHandler = null;
+      if (handler != null) {
+        handler.handle(null);
+      }
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+      return stalled || queue.size() >= 16;
+    }
+
+    @Override
+    public WriteStream<JsonObject> drainHandler(Handler<Void> handler) {
+      drainHandler = handler;
+      return this;
+    }
+
+    @Override
+    public void end(Handler<AsyncResult<Void>> handler) {
+      tc.assertTrue(queue.isEmpty());
+      tc.assertEquals(LINES, counter);
+      async.complete();
+      if (handler != null) {
+        handler.handle(Future.succeededFuture());
+      }
+    }
+  }
+
+  private static abstract class WriteStreamAdapter implements WriteStream<JsonObject> {
+
+    @Override
+    public WriteStream<JsonObject> exceptionHandler(Handler<Throwable> handler) {
+      return this;
+    }
+
+    @Override
+    public void write(JsonObject data, Handler<AsyncResult<Void>> handler) {
+      Future<Void> fut = write(data);
+      if (handler != null) {
+        handler.handle(fut);
+      }
+    }
+
+    @Override
+    public void end(Handler<AsyncResult<Void>> handler) {
+      if (handler != null) {
+        handler.handle(Future.succeededFuture());
+      }
+    }
+
+    @Override
+    public WriteStream<JsonObject> setWriteQueueMaxSize(int maxSize) {
+      return this;
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+      return false;
+    }
+
+    @Override
+    public WriteStream<JsonObject> drainHandler(Handler<Void> handler) {
+      return this;
+    }
+  }
 }
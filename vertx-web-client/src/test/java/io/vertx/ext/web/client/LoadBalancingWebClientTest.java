@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.web.client.spi.Endpoint;
+import io.vertx.ext.web.client.spi.LoadBalancer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LoadBalancingWebClientTest extends WebClientTestBase {
+
+  private static final String SERVICE = "my-service";
+  private static final int FIRST_PORT = 8081;
+
+  private LoadBalancingWebClient lbClient;
+  private AtomicInteger[] hits;
+
+  private void startServers(LoadBalancingOptions options, LoadBalancer loadBalancer, Handler<HttpServerRequest>... handlers) throws Exception {
+    lbClient = LoadBalancingWebClient.create(webClient, options);
+    hits = new AtomicInteger[handlers.length];
+    List<SocketAddress> endpoints = new ArrayList<>();
+    CountDownLatch latch = new CountDownLatch(handlers.length);
+    for (int i = 0; i < handlers.length; i++) {
+      AtomicInteger count = hits[i] = new AtomicInteger();
+      Handler<HttpServerRequest> handler = handlers[i];
+      HttpServer server = vertx.createHttpServer(new HttpServerOptions().setPort(FIRST_PORT + i).setHost(DEFAULT_HTTP_HOST));
+      server.requestHandler(req -> {
+        count.incrementAndGet();
+        handler.handle(req);
+      }).listen(onSuccess(s -> latch.countDown()));
+      endpoints.add(SocketAddress.inetSocketAddress(FIRST_PORT + i, DEFAULT_HTTP_HOST));
+    }
+    awaitLatch(latch);
+    lbClient.addService(SERVICE, endpoints, loadBalancer);
+  }
+
+  private static Handler<HttpServerRequest> respond(int status) {
+    return req -> req.response().setStatusCode(status).end("" + req.localAddress().port());
+  }
+
+  private HttpRequest<Buffer> get() {
+    return lbClient.get(SERVICE, "/somepath");
+  }
+
+  /**
+   * Send {@code num} requests one after the other.
+   */
+  private void sendSequentially(int num, Runnable done) {
+    if (num == 0) {
+      done.run();
+      return;
+    }
+    get().send(onSuccess(resp -> sendSequentially(num - 1, done)));
+  }
+
+  @Test
+  public void testRoundRobin() throws Exception {
+    startServers(new LoadBalancingOptions(), LoadBalancer.roundRobin(), respond(200), respond(200), respond(200));
+    sendSequentially(6, () -> {
+      for (AtomicInteger count : hits) {
+        assertEquals(2, count.get());
+      }
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testHostHeaderIsTheServiceName() throws Exception {
+    startServers(new LoadBalancingOptions(), LoadBalancer.roundRobin(), req -> req.response().end(req.host()));
+    get().send(onSuccess(resp -> {
+      assertEquals(SERVICE + ":8080", resp.bodyAsString());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testOtherHostsAreNotBalanced() throws Exception {
+    server.requestHandler(req -> req.response().end("default"));
+    startServer();
+    startServers(new LoadBalancingOptions(), LoadBalancer.roundRobin(), respond(200));
+    lbClient.get(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/somepath").send(onSuccess(resp -> {
+      assertEquals("default", resp.bodyAsString());
+      assertEquals(0, hits[0].get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testLeastRequests() throws Exception {
+    List<HttpServerRequest> held = new ArrayList<>();
+    startServers(new LoadBalancingOptions(), LoadBalancer.leastRequests(), req -> {
+      held.add(req);
+      // the first endpoint has an outstanding request, the next ones go to the second endpoint
+      sendSequentially(4, () -> {
+        assertEquals(1, hits[0].get());
+        assertEquals(4, hits[1].get());
+        req.response().end();
+      });
+    }, respond(200));
+    get().send(onSuccess(resp -> {
+      assertEquals(1, held.size());
+      assertEquals(0, lbClient.endpoints(SERVICE).get(0).outstandingRequests());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testEjectionOnConsecutiveFailures() throws Exception {
+    LoadBalancingOptions options = new LoadBalancingOptions().setMaxConsecutiveFailures(2);
+    startServers(options, LoadBalancer.roundRobin(), respond(500), respond(200));
+    sendSequentially(8, () -> {
+      List<Endpoint> endpoints = lbClient.endpoints(SERVICE);
+      assertTrue(endpoints.get(0).isEjected());
+      assertFalse(endpoints.get(1).isEjected());
+      assertEquals(2, hits[0].get());
+      assertEquals(6, hits[1].get());
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testEjectionOnConnectionFailures() throws Exception {
+    LoadBalancingOptions options = new LoadBalancingOptions().setMaxConsecutiveFailures(1);
+    startServers(options, LoadBalancer.roundRobin(), req -> req.connection().close(), respond(200));
+    get().send(onFailure(err -> {
+      assertTrue(lbClient.endpoints(SERVICE).get(0).isEjected());
+      sendSequentially(4, () -> {
+        assertEquals(1, hits[0].get());
+        assertEquals(4, hits[1].get());
+        testComplete();
+      });
+    }));
+    await();
+  }
+
+  @Test
+  public void testLastEndpointIsNotEjected() throws Exception {
+    LoadBalancingOptions options = new LoadBalancingOptions().setMaxConsecutiveFailures(1);
+    startServers(options, LoadBalancer.roundRobin(), respond(500), respond(500));
+    sendSequentially(4, () -> {
+      List<Endpoint> endpoints = lbClient.endpoints(SERVICE);
+      assertTrue(endpoints.get(0).isEjected());
+      assertFalse(endpoints.get(1).isEjected());
+      assertEquals(1, hits[0].get());
+      assertEquals(3, hits[1].get());
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testEjectionTime() throws Exception {
+    LoadBalancingOptions options = new LoadBalancingOptions().setMaxConsecutiveFailures(1).setEjectionTime(200);
+    startServers(options, LoadBalancer.roundRobin(), respond(500), respond(200));
+    sendSequentially(1, () -> {
+      assertTrue(lbClient.endpoints(SERVICE).get(0).isEjected());
+      vertx.setTimer(300, id -> {
+        assertFalse(lbClient.endpoints(SERVICE).get(0).isEjected());
+        testComplete();
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testEjectionOnLatency() throws Exception {
+    LoadBalancingOptions options = new LoadBalancingOptions().setLatencyOutlierFactor(3);
+    startServers(options, LoadBalancer.roundRobin(), req -> vertx.setTimer(100, id -> req.response().end()), respond(200));
+    sendSequentially(10, () -> {
+      assertTrue(lbClient.endpoints(SERVICE).get(0).isEjected());
+      assertEquals(3, hits[0].get());
+      assertEquals(7, hits[1].get());
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testPowerOfTwoChoices() throws Exception {
+    startServers(new LoadBalancingOptions(), LoadBalancer.powerOfTwoChoices(),
+      req -> vertx.setTimer(50, id -> req.response().end()), respond(200));
+    sendSequentially(20, () -> {
+      // only the requests sent before the latency of the slow endpoint is known
+      assertTrue(hits[0].get() <= 2);
+      assertTrue(lbClient.endpoints(SERVICE).get(0).latency() > lbClient.endpoints(SERVICE).get(1).latency());
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testHedging() throws Exception {
+    waitFor(2);
+    LoadBalancingOptions options = new LoadBalancingOptions().setHedgeDelay(50).setMaxConsecutiveFailures(1);
+    startServers(options, LoadBalancer.roundRobin(), req -> {
+      req.connection().closeHandler(v -> vertx.setTimer(100, id -> {
+        // the reset attempt is not a failure of the endpoint
+        Endpoint endpoint = lbClient.endpoints(SERVICE).get(0);
+        assertEquals(0, endpoint.outstandingRequests());
+        assertFalse(endpoint.isEjected());
+        complete();
+      }));
+      vertx.setTimer(5000, id -> req.response().end());
+    }, respond(200));
+    long now = System.currentTimeMillis();
+    get().send(onSuccess(resp -> {
+      assertEquals(200, resp.statusCode());
+      assertEquals("" + (FIRST_PORT + 1), resp.bodyAsString());
+      assertTrue(System.currentTimeMillis() - now < 5000);
+      assertEquals(1, hits[0].get());
+      assertEquals(1, hits[1].get());
+      complete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testHedgingNotNeeded() throws Exception {
+    LoadBalancingOptions options = new LoadBalancingOptions().setHedgeDelay(1000);
+    startServers(options, LoadBalancer.roundRobin(), respond(200), respond(200));
+    get().send(onSuccess(resp -> {
+      assertEquals("" + FIRST_PORT, resp.bodyAsString());
+      vertx.setTimer(1200, id -> {
+        assertEquals(0, hits[1].get());
+        testComplete();
+      });
+    }));
+    await();
+  }
+
+  @Test
+  public void testHedgingFailure() throws Exception {
+    LoadBalancingOptions options = new LoadBalancingOptions().setHedgeDelay(50);
+    startServers(options, LoadBalancer.roundRobin(), req -> vertx.setTimer(200, id -> req.response().setStatusCode(503).end()),
+      respond(500));
+    get().send(onSuccess(resp -> {
+      // the last response
+      assertEquals(503, resp.statusCode());
+      assertEquals(1, hits[0].get());
+      assertEquals(1, hits[1].get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testPostIsNotHedged() throws Exception {
+    LoadBalancingOptions options = new LoadBalancingOptions().setHedgeDelay(50);
+    startServers(options, LoadBalancer.roundRobin(), req -> vertx.setTimer(200, id -> req.response().end()), respond(200));
+    lbClient.post(SERVICE, "/somepath").send(onSuccess(resp -> {
+      assertEquals(1, hits[0].get());
+      assertEquals(0, hits[1].get());
+      testComplete();
+    }));
+    await();
+  }
+}
@@ -123,4 +123,47 @@ public class MultipartFormUploadTest {
       }
     });
   }
+
+  @Test
+  public void testContentLength(TestContext ctx) throws Exception {
+    testContentLength(ctx, HttpPostRequestEncoder.EncoderMode.HTML5);
+  }
+
+  @Test
+  public void testContentLengthMultipartMixed(TestContext ctx) throws Exception {
+    testContentLength(ctx, HttpPostRequestEncoder.EncoderMode.RFC1738);
+  }
+
+  private void testContentLength(TestContext ctx, HttpPostRequestEncoder.EncoderMode mode) throws Exception {
+    File file1 = testFolder.newFile();
+    Files.write(file1.toPath(), TestUtils.randomByteArray(256 * 1024));
+    File file2 = testFolder.newFile();
+    Files.write(file2.toPath(), TestUtils.randomByteArray(1024));
+
+    Async async = ctx.async();
+    Context context = vertx.getOrCreateContext();
+    context.runOnContext(v1 -> {
+      try {
+        MultipartFormUpload upload = new MultipartFormUpload(context, MultipartForm.create()
+          .attribute("toolkit", "vert.x")
+          .binaryFileUpload("files", "file1", file1.getAbsolutePath(), "application/octet-stream")
+          .textFileUpload("files", "file2", file2.getAbsolutePath(), "text/plain"), true, mode);
+        ctx.assertTrue(upload.headers().get("content-type").startsWith("multipart/form-data; boundary="));
+        long length = Long.parseLong(upload.headers().get("content-length"));
+        Buffer result = Buffer.buffer();
+        upload.handler(result::appendBuffer);
+        upload.endHandler(v2 -> {
+          ctx.assertEquals(length, (long) result.length());
+          String body = result.toString("ISO-8859-1");
+          ctx.assertEquals(mode == HttpPostRequestEncoder.EncoderMode.RFC1738, body.contains("multipart/mixed"));
+          ctx.assertTrue(body.endsWith("--\r\n"));
+          async.complete();
+        });
+        upload.run();
+        upload.resume();
+      } catch (Exception e) {
+        ctx.fail(e);
+      }
+    });
+  }
 }
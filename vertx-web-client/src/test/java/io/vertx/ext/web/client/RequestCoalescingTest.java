@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.client.predicate.ResponsePredicate;
+import io.vertx.ext.web.codec.BodyCodec;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RequestCoalescingTest extends WebClientTestBase {
+
+  private WebClient coalescingClient;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    coalescingClient = WebClient.create(vertx, new WebClientOptions().setRequestCoalescing(true));
+  }
+
+  @Override
+  public void tearDown() throws Exception {
+    coalescingClient.close();
+    super.tearDown();
+  }
+
+  private HttpRequest<Buffer> get() {
+    return coalescingClient.get(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/somepath");
+  }
+
+  /**
+   * Hold the requests until {@code expected} of them are received.
+   */
+  private void holdRequests(int expected, AtomicInteger hits, List<HttpServerRequest> pending, Runnable release) {
+    server.requestHandler(req -> {
+      hits.incrementAndGet();
+      pending.add(req);
+      if (pending.size() == expected) {
+        release.run();
+      }
+    });
+  }
+
+  @Test
+  public void testCoalesce() throws Exception {
+    int num = 10;
+    AtomicInteger hits = new AtomicInteger();
+    server.requestHandler(req -> {
+      hits.incrementAndGet();
+      // give the time to the other requests to join the flight
+      vertx.setTimer(100, id -> req.response().end("hello"));
+    });
+    startServer();
+    waitFor(num);
+    for (int i = 0; i < num; i++) {
+      boolean asString = i % 2 == 0;
+      HttpRequest<?> request = asString ? get().as(BodyCodec.string()) : get();
+      request.send(onSuccess(resp -> {
+        assertEquals(200, resp.statusCode());
+        assertEquals("hello", asString ? resp.body() : resp.bodyAsString());
+        assertEquals(1, hits.get());
+        complete();
+      }));
+    }
+    await();
+  }
+
+  @Test
+  public void testDifferentHeadersAreNotCoalesced() throws Exception {
+    AtomicInteger hits = new AtomicInteger();
+    List<HttpServerRequest> pending = new ArrayList<>();
+    holdRequests(2, hits, pending, () -> pending.forEach(req -> req.response().end(req.getHeader("accept"))));
+    startServer();
+    waitFor(2);
+    get().putHeader("accept", "text/plain").send(onSuccess(resp -> {
+      assertEquals("text/plain", resp.bodyAsString());
+      complete();
+    }));
+    get().putHeader("accept", "text/html").send(onSuccess(resp -> {
+      assertEquals("text/html", resp.bodyAsString());
+      complete();
+    }));
+    await();
+    assertEquals(2, hits.get());
+  }
+
+  @Test
+  public void testPostIsNotCoalesced() throws Exception {
+    AtomicInteger hits = new AtomicInteger();
+    List<HttpServerRequest> pending = new ArrayList<>();
+    holdRequests(2, hits, pending, () -> pending.forEach(req -> req.response().end()));
+    startServer();
+    waitFor(2);
+    coalescingClient.post(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/somepath").send(onSuccess(resp -> complete()));
+    coalescingClient.post(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/somepath").send(onSuccess(resp -> complete()));
+    await();
+    assertEquals(2, hits.get());
+  }
+
+  @Test
+  public void testWaiterTimeout() throws Exception {
+    server.requestHandler(req -> vertx.setTimer(500, id -> req.response().end("hello")));
+    startServer();
+    waitFor(2);
+    get().send(onSuccess(resp -> {
+      assertEquals("hello", resp.bodyAsString());
+      complete();
+    }));
+    get().timeout(100).send(onFailure(err -> {
+      assertTrue(err instanceof TimeoutException);
+      complete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testFirstRequestTimeoutDoesNotFailTheFlight() throws Exception {
+    server.requestHandler(req -> vertx.setTimer(500, id -> req.response().end("hello")));
+    startServer();
+    waitFor(2);
+    get().timeout(100).send(onFailure(err -> {
+      assertTrue(err instanceof TimeoutException);
+      complete();
+    }));
+    get().send(onSuccess(resp -> {
+      assertEquals("hello", resp.bodyAsString());
+      complete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testRequestIsResetWhenEveryWaiterTimedOut() throws Exception {
+    server.requestHandler(req -> req.connection().closeHandler(v -> complete()));
+    startServer();
+    waitFor(3);
+    for (int i = 0; i < 2; i++) {
+      get().timeout(100 * (i + 1)).send(onFailure(err -> {
+        assertTrue(err instanceof TimeoutException);
+        complete();
+      }));
+    }
+    await();
+  }
+
+  @Test
+  public void testFailureIsPropagated() throws Exception {
+    server.requestHandler(req -> vertx.setTimer(100, id -> req.connection().close()));
+    startServer();
+    waitFor(3);
+    for (int i = 0; i < 3; i++) {
+      get().send(onFailure(err -> complete()));
+    }
+    await();
+  }
+
+  @Test
+  public void testExpectationPerRequest() throws Exception {
+    server.requestHandler(req -> vertx.setTimer(100, id -> req.response().setStatusCode(404).end()));
+    startServer();
+    waitFor(2);
+    get().send(onSuccess(resp -> {
+      assertEquals(404, resp.statusCode());
+      complete();
+    }));
+    get().expect(ResponsePredicate.SC_SUCCESS).send(onFailure(err -> complete()));
+    await();
+  }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.codec.BodyCodec;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ResilientWebClientTest extends WebClientTestBase {
+
+  private ResilientWebClient resilientClient;
+  private final AtomicInteger hits = new AtomicInteger();
+
+  private void startServer(ResilienceOptions options, Handler<HttpServerRequest> handler) throws Exception {
+    resilientClient = ResilientWebClient.create(webClient, options);
+    server.requestHandler(req -> {
+      hits.incrementAndGet();
+      handler.handle(req);
+    });
+    startServer();
+  }
+
+  private ResilienceMetrics metrics() {
+    return resilientClient.metrics(DEFAULT_HTTP_HOST, DEFAULT_HTTP_PORT);
+  }
+
+  private HttpRequest<Buffer> get() {
+    return resilientClient.get(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/somepath");
+  }
+
+  /**
+   * Send {@code num} requests one after the other.
+   */
+  private void sendSequentially(int num, Runnable done) {
+    if (num == 0) {
+      done.run();
+      return;
+    }
+    get().send(onSuccess(resp -> sendSequentially(num - 1, done)));
+  }
+
+  @Test
+  public void testConcurrencyLimit() throws Exception {
+    waitFor(4);
+    List<HttpServerRequest> held = new ArrayList<>();
+    ResilienceOptions options = new ResilienceOptions().setInitialLimit(2).setMaxLimit(2);
+    startServer(options, req -> {
+      if (held.size() == 2) {
+        // a queued request
+        req.response().end();
+        return;
+      }
+      held.add(req);
+      if (held.size() == 2) {
+        vertx.setTimer(100, id -> {
+          assertEquals(2, hits.get());
+          assertEquals(2, metrics().inFlightRequests());
+          assertEquals(2, metrics().queueSize());
+          held.forEach(r -> r.response().end());
+        });
+      }
+    });
+    for (int i = 0; i < 4; i++) {
+      get().send(onSuccess(resp -> {
+        assertEquals(200, resp.statusCode());
+        complete();
+      }));
+    }
+    await();
+    assertEquals(0, metrics().inFlightRequests());
+    assertEquals(0, metrics().queueSize());
+  }
+
+  @Test
+  public void testRejectWhenQueueIsFull() throws Exception {
+    ResilienceOptions options = new ResilienceOptions().setInitialLimit(1).setMaxLimit(1).setMaxQueueSize(0);
+    startServer(options, req -> {
+      get().send(onFailure(err -> {
+        assertTrue(err instanceof RejectedExecutionException);
+        assertEquals(1, metrics().rejectedRequests());
+        req.response().end();
+      }));
+    });
+    get().send(onSuccess(resp -> {
+      assertEquals(1, hits.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testQueueTimeout() throws Exception {
+    ResilienceOptions options = new ResilienceOptions().setInitialLimit(1).setMaxLimit(1).setQueueTimeout(100);
+    startServer(options, req -> {
+      long now = System.currentTimeMillis();
+      get().send(onFailure(err -> {
+        assertTrue(err instanceof TimeoutException);
+        assertTrue(System.currentTimeMillis() - now >= 100);
+        assertEquals(0, metrics().queueSize());
+        assertEquals(1, metrics().rejectedRequests());
+        req.response().end();
+      }));
+    });
+    get().send(onSuccess(resp -> testComplete()));
+    await();
+  }
+
+  @Test
+  public void testLimitIncreases() throws Exception {
+    ResilienceOptions options = new ResilienceOptions().setInitialLimit(1).setLatencyTolerance(0);
+    startServer(options, req -> req.response().end());
+    sendSequentially(1, () -> {
+      assertEquals(2, metrics().limit());
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testLimitDecreasesOnOverloadStatus() throws Exception {
+    ResilienceOptions options = new ResilienceOptions().setInitialLimit(10).setMaxRetries(0);
+    startServer(options, req -> req.response().setStatusCode(503).end());
+    sendSequentially(5, () -> {
+      // 10 * 0.9 ^ 5
+      assertEquals(5, metrics().limit());
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testLimitDecreasesOnLatency() throws Exception {
+    ResilienceOptions options = new ResilienceOptions().setInitialLimit(10).setLatencyTolerance(2);
+    startServer(options, req -> {
+      if (hits.get() <= 20) {
+        req.response().end();
+      } else {
+        vertx.setTimer(500, id -> req.response().end());
+      }
+    });
+    sendSequentially(20, () -> {
+      int limit = metrics().limit();
+      sendSequentially(1, () -> {
+        assertTrue(metrics().limit() < limit);
+        testComplete();
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testRetry() throws Exception {
+    ResilienceOptions options = new ResilienceOptions().setInitialRetryDelay(10);
+    startServer(options, req -> req.response().setStatusCode(hits.get() < 3 ? 503 : 200).end("" + hits.get()));
+    get().send(onSuccess(resp -> {
+      assertEquals(200, resp.statusCode());
+      assertEquals("3", resp.bodyAsString());
+      assertEquals(2, metrics().retries());
+      assertEquals(0, metrics().inFlightRequests());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testRetryReleasesPermitOnResponseHead() throws Exception {
+    ResilienceOptions options = new ResilienceOptions().setInitialRetryDelay(10);
+    startServer(options, req -> {
+      req.response().setChunked(true).write("hello");
+      vertx.setTimer(100, id -> {
+        // the attempt holds no permit while its body is received, like a request which is not retried
+        assertEquals(0, metrics().inFlightRequests());
+        req.response().end();
+      });
+    });
+    get().send(onSuccess(resp -> {
+      assertEquals("hello", resp.bodyAsString());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testRetryOnConnectionFailure() throws Exception {
+    ResilienceOptions options = new ResilienceOptions().setInitialRetryDelay(10);
+    startServer(options, req -> {
+      if (hits.get() == 1) {
+        req.connection().close();
+      } else {
+        req.response().end("ok");
+      }
+    });
+    get().send(onSuccess(resp -> {
+      assertEquals("ok", resp.bodyAsString());
+      assertEquals(2, hits.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testRetriesExhausted() throws Exception {
+    ResilienceOptions options = new ResilienceOptions().setInitialRetryDelay(10).setMaxRetries(2);
+    startServer(options, req -> req.response().setStatusCode(502).end());
+    get().send(onSuccess(resp -> {
+      // the last response
+      assertEquals(502, resp.statusCode());
+      assertEquals(3, hits.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testRetryBackoff() throws Exception {
+    ResilienceOptions options = new ResilienceOptions().setInitialRetryDelay(200).setMaxRetries(1);
+    List<Long> times = new ArrayList<>();
+    startServer(options, req -> {
+      times.add(System.currentTimeMillis());
+      req.response().setStatusCode(503).end();
+    });
+    get().send(onSuccess(resp -> {
+      assertEquals(2, times.size());
+      assertTrue(times.get(1) - times.get(0) >= 100);
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testRetryBudget() throws Exception {
+    ResilienceOptions options = new ResilienceOptions().setInitialRetryDelay(10).setMaxRetries(3).setRetryBudgetCapacity(1);
+    startServer(options, req -> req.response().setStatusCode(503).end());
+    get().send(onSuccess(resp -> {
+      assertEquals(503, resp.statusCode());
+      assertEquals(2, hits.get());
+      assertEquals(1, metrics().retries());
+      assertEquals(1, metrics().exhaustedRetryBudget());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testRetryWithBody() throws Exception {
+    ResilienceOptions options = new ResilienceOptions().setInitialRetryDelay(10);
+    startServer(options, req -> req.bodyHandler(body -> {
+      assertEquals("the-body", body.toString());
+      req.response().setStatusCode(hits.get() == 1 ? 503 : 200).end();
+    }));
+    resilientClient.put(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/somepath").sendBuffer(Buffer.buffer("the-body"), onSuccess(resp -> {
+      assertEquals(200, resp.statusCode());
+      assertEquals(2, hits.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testPostIsNotRetried() throws Exception {
+    ResilienceOptions options = new ResilienceOptions().setInitialRetryDelay(10);
+    startServer(options, req -> req.response().setStatusCode(503).end());
+    resilientClient.post(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/somepath").send(onSuccess(resp -> {
+      assertEquals(503, resp.statusCode());
+      assertEquals(1, hits.get());
+      assertEquals(0, metrics().retries());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testRetryDecodesWithRequestCodec() throws Exception {
+    ResilienceOptions options = new ResilienceOptions().setInitialRetryDelay(10);
+    startServer(options, req -> req.response().setStatusCode(hits.get() == 1 ? 503 : 200).end("{\"hits\":" + hits.get() + "}"));
+    get().as(BodyCodec.jsonObject()).send(onSuccess(resp -> {
+      assertEquals(2, (int) resp.body().getInteger("hits"));
+      testComplete();
+    }));
+    await();
+  }
+}
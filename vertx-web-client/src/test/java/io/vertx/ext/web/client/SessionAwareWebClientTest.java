@@ -18,6 +18,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.stream.IntStream;
 
@@ -543,6 +544,109 @@ public class SessionAwareWebClientTest {
         new String[] { "1", "2", "5" });
   }
 
+  @Test
+  public void testCookieStoreDomainLabels(TestContext context) {
+    CookieStore store = CookieStore.build();
+    Cookie c = new DefaultCookie("a", "1");
+    c.setDomain(".vertx.io");
+    store.put(c);
+
+    validate(context, store.get(false, "vertx.io", "/"), new String[] { "a" }, new String[] { "1" });
+    validate(context, store.get(false, "www.vertx.io", "/"), new String[] { "a" }, new String[] { "1" });
+    validate(context, store.get(false, "myvertx.io", "/"), new String[0], null);
+    validate(context, store.get(false, "vertx.iot", "/"), new String[0], null);
+  }
+
+  @Test
+  public void testCookieStoreLookupIsUpdated(TestContext context) {
+    CookieStore store = CookieStore.build();
+    Cookie a = new DefaultCookie("a", "1");
+    a.setDomain("vertx.io");
+    store.put(a);
+    validate(context, store.get(false, "www.vertx.io", "/web-client"), new String[] { "a" }, new String[] { "1" });
+
+    Cookie b = new DefaultCookie("b", "2");
+    b.setDomain("www.vertx.io");
+    b.setPath("/web-client");
+    store.put(b);
+    validate(context, store.get(false, "www.vertx.io", "/web-client"), new String[] { "a", "b" }, new String[] { "1", "2" });
+
+    Cookie a2 = new DefaultCookie("a", "10");
+    store.put(a2);
+    validate(context, store.get(false, "www.vertx.io", "/web-client"), new String[] { "a", "b" }, new String[] { "1", "2" });
+
+    store.remove(a);
+    validate(context, store.get(false, "www.vertx.io", "/web-client"), new String[] { "a", "b" }, new String[] { "10", "2" });
+
+    store.remove(b);
+    validate(context, store.get(false, "www.vertx.io", "/web-client"), new String[] { "a" }, new String[] { "10" });
+  }
+
+  @Test
+  public void testCookieStoreMaxAge(TestContext context) {
+    AtomicLong now = new AtomicLong(System.currentTimeMillis());
+    CookieStore store = new CookieStoreImpl() {
+      @Override
+      protected long currentTimeMillis() {
+        return now.get();
+      }
+    };
+    Cookie c = new DefaultCookie("a", "1");
+    c.setDomain("vertx.io");
+    store.put(c);
+    c = new DefaultCookie("b", "2");
+    c.setDomain("vertx.io");
+    c.setMaxAge(1);
+    store.put(c);
+    validate(context, store.get(false, "vertx.io", "/"), new String[] { "a", "b" }, new String[] { "1", "2" });
+
+    // a cookie with a zero max-age removes the cookie
+    c = new DefaultCookie("a", "");
+    c.setDomain("vertx.io");
+    c.setMaxAge(0);
+    store.put(c);
+    validate(context, store.get(false, "vertx.io", "/"), new String[] { "b" }, new String[] { "2" });
+
+    now.addAndGet(1000);
+    validate(context, store.get(false, "vertx.io", "/"), new String[0], null);
+  }
+
+  @Test
+  public void testCookieStoreMaxCookiesPerDomain(TestContext context) {
+    CookieStore store = CookieStore.build(2);
+    for (String name : new String[] { "a", "b", "a", "c" }) {
+      Cookie c = new DefaultCookie(name, name);
+      c.setDomain("vertx.io");
+      store.put(c);
+    }
+    Cookie other = new DefaultCookie("d", "d");
+    other.setDomain("www.vertx.io");
+    store.put(other);
+
+    // b is the oldest cookie of vertx.io since a was replaced
+    validate(context, store.get(false, "vertx.io", "/"), new String[] { "a", "c" }, null);
+    validate(context, store.get(false, "www.vertx.io", "/"), new String[] { "a", "c", "d" }, null);
+  }
+
+  @Test
+  public void testCookiesAreSentInOneHeader(TestContext context) {
+    prepareServer(context, req -> {
+      List<String> headers = req.headers().getAll(HttpHeaders.COOKIE);
+      req.response().end(String.join("|", headers));
+    });
+    Cookie c = new DefaultCookie("a", "1");
+    c.setDomain("localhost");
+    client.cookieStore().put(c);
+    c = new DefaultCookie("b", "2");
+    client.cookieStore().put(c);
+
+    Async async = context.async();
+    client.get("/").send(context.asyncAssertSuccess(resp -> {
+      context.assertEquals("a=1; b=2", resp.bodyAsString());
+      async.complete();
+    }));
+  }
+
   @Test
   public void testCookieStoreIsFluent(TestContext context) {
     CookieStore store = CookieStore.build();
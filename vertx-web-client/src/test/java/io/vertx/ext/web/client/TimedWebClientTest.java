@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.ext.web.client.spi.WebClientMetrics;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+public class TimedWebClientTest extends WebClientTestBase {
+
+  private static long millis(ResponseTiming timing, TimingInterval interval) {
+    return TimeUnit.NANOSECONDS.toMillis(timing.duration(interval));
+  }
+
+  @Test
+  public void testResponseTiming() throws Exception {
+    server.requestHandler(req -> vertx.setTimer(100, id1 -> {
+      req.response().setChunked(true).write("chunk");
+      vertx.setTimer(200, id2 -> req.response().end("last"));
+    }));
+    startServer();
+    TimedWebClient timedClient = TimedWebClient.create(webClient);
+    timedClient.get("/somepath").send(onSuccess(resp -> {
+      ResponseTiming timing = resp.timing();
+      assertNotNull(timing);
+      for (TimingInterval interval : TimingInterval.values()) {
+        assertTrue(interval.name(), timing.duration(interval) >= 0);
+      }
+      assertTrue(millis(timing, TimingInterval.WAIT) >= 100);
+      assertTrue(millis(timing, TimingInterval.FIRST_BODY_BYTE) + millis(timing, TimingInterval.BODY) >= 100);
+      assertTrue(millis(timing, TimingInterval.TOTAL) >= 300);
+      assertTrue(timing.duration(TimingInterval.TOTAL) >= timing.duration(TimingInterval.WAIT) + timing.duration(TimingInterval.BODY));
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testResponseWithoutBody() throws Exception {
+    server.requestHandler(req -> req.response().end());
+    startServer();
+    TimedWebClient timedClient = TimedWebClient.create(webClient);
+    timedClient.get("/somepath").send(onSuccess(resp -> {
+      ResponseTiming timing = resp.timing();
+      assertEquals(-1, timing.duration(TimingInterval.FIRST_BODY_BYTE));
+      assertEquals(-1, timing.duration(TimingInterval.BODY));
+      assertTrue(timing.duration(TimingInterval.DECODE) >= 0);
+      assertTrue(timing.duration(TimingInterval.TOTAL) >= 0);
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testNoTimingByDefault() throws Exception {
+    testResponseBody("hello", onSuccess(resp -> {
+      assertNull(resp.timing());
+      testComplete();
+    }));
+  }
+
+  @Test
+  public void testStreamBodyTiming() throws Exception {
+    server.requestHandler(req -> req.bodyHandler(body -> req.response().end(body)));
+    startServer();
+    File file = testFolder.newFile();
+    Files.write(file.toPath(), "the-body".getBytes());
+    AsyncFile asyncFile = vertx.fileSystem().openBlocking(file.getAbsolutePath(), new OpenOptions());
+    TimedWebClient timedClient = TimedWebClient.create(webClient);
+    timedClient.post("/somepath").sendStream(asyncFile, onSuccess(resp -> {
+      assertEquals("the-body", resp.bodyAsString());
+      assertTrue(resp.timing().duration(TimingInterval.WRITE) >= 0);
+      assertTrue(resp.timing().duration(TimingInterval.WAIT) >= 0);
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testHistograms() throws Exception {
+    server.requestHandler(req -> req.response().end(req.path()));
+    startServer();
+    TimingHistograms metrics = WebClientMetrics.histograms();
+    TimedWebClient timedClient = TimedWebClient.create(webClient, metrics);
+    timedClient.get("/users/1").routeTemplate("/users/:id").send(onSuccess(resp1 -> {
+      timedClient.get("/users/2").routeTemplate("/users/:id").send(onSuccess(resp2 -> {
+        timedClient.get("/other").send(onSuccess(resp3 -> {
+          TimingHistogram users = metrics.histogram(DEFAULT_HTTP_HOST, DEFAULT_HTTP_PORT, "/users/:id", TimingInterval.TOTAL);
+          assertEquals(2, users.count());
+          assertTrue(users.max() >= resp1.timing().duration(TimingInterval.TOTAL));
+          assertTrue(users.valueAtPercentile(50) > 0);
+          TimingHistogram others = metrics.histogram(DEFAULT_HTTP_HOST, DEFAULT_HTTP_PORT, null, TimingInterval.TOTAL);
+          assertEquals(1, others.count());
+          assertNull(metrics.histogram("otherhost", DEFAULT_HTTP_PORT, null, TimingInterval.TOTAL));
+          testComplete();
+        }));
+      }));
+    }));
+    await();
+  }
+
+  @Test
+  public void testFailureIsRecorded() throws Exception {
+    server.requestHandler(req -> req.connection().close());
+    startServer();
+    TimingHistograms metrics = WebClientMetrics.histograms();
+    TimedWebClient timedClient = TimedWebClient.create(webClient, metrics);
+    timedClient.get("/somepath").send(onFailure(err -> {
+      assertEquals(1, metrics.failures(DEFAULT_HTTP_HOST, DEFAULT_HTTP_PORT, null));
+      assertEquals(0, metrics.histogram(DEFAULT_HTTP_HOST, DEFAULT_HTTP_PORT, null, TimingInterval.TOTAL).count());
+      assertEquals(1, metrics.histogram(DEFAULT_HTTP_HOST, DEFAULT_HTTP_PORT, null, TimingInterval.PREPARE).count());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testHistogramPercentiles() {
+    TimingHistogram histogram = new TimingHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000L);
+    }
+    histogram.record(-1);
+    assertEquals(1000, histogram.count());
+    assertEquals(1_000_000, histogram.max());
+    assertEquals(500_500, histogram.mean(), 0.1);
+    assertAccurate(500_000, histogram.valueAtPercentile(50));
+    assertAccurate(990_000, histogram.valueAtPercentile(99));
+    assertEquals(1_000_000, histogram.valueAtPercentile(100));
+    assertAccurate(1000, histogram.valueAtPercentile(0));
+  }
+
+  private void assertAccurate(long expected, long actual) {
+    assertTrue(actual + " is not close to " + expected, Math.abs(actual - expected) <= expected / 8);
+  }
+}
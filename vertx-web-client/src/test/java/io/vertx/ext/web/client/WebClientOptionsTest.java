@@ -17,9 +17,13 @@
 package io.vertx.ext.web.client;
 
 import io.vertx.core.impl.launcher.commands.VersionCommand;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.HashSet;
+
 import static org.junit.Assert.*;
 
 /**
@@ -32,12 +36,16 @@ public class WebClientOptionsTest {
     JsonObject json = new JsonObject()
       .put("defaultPort", 4848)
       .put("userAgentEnabled", false)
-      .put("maxPoolSize", 50);
+      .put("maxPoolSize", 50)
+      .put("requestCoalescing", true)
+      .put("coalescingHeaders", new JsonArray().add("Accept").add("x-tenant"));
     WebClientOptions options = new WebClientOptions(json);
     assertEquals(4848, options.getDefaultPort());
     assertFalse(options.isUserAgentEnabled());
     assertEquals("Vert.x-WebClient/" + VersionCommand.getVersion(), options.getUserAgent());
     assertEquals(50, options.getMaxPoolSize());
+    assertTrue(options.isRequestCoalescing());
+    assertEquals(new HashSet<>(Arrays.asList("accept", "x-tenant")), options.getCoalescingHeaders());
   }
 
   @Test
@@ -45,10 +53,13 @@ public class WebClientOptionsTest {
     WebClientOptions options = new WebClientOptions()
       .setDefaultPort(4848)
       .setMaxPoolSize(50)
-      .setUserAgentEnabled(false);
+      .setUserAgentEnabled(false)
+      .setRequestCoalescing(true);
     JsonObject json = options.toJson();
     assertEquals(4848, (int) json.getInteger("defaultPort"));
     assertEquals(50, (int) json.getInteger("maxPoolSize"));
     assertEquals(false, json.getBoolean("userAgentEnabled"));
+    assertEquals(true, json.getBoolean("requestCoalescing"));
+    assertEquals(WebClientOptions.DEFAULT_COALESCING_HEADERS.size(), json.getJsonArray("coalescingHeaders").size());
   }
 }
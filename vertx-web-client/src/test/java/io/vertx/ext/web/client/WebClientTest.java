@@ -1238,6 +1238,26 @@ public class WebClientTest extends WebClientTestBase {
     });
   }
 
+  @Test
+  public void testConcurrentFileUploadsFormMultipart() throws Exception {
+    int num = 50;
+    Buffer content = Buffer.buffer(TestUtils.randomAlphaString(16));
+    File testFile = testFolder.newFile("test.txt");
+    vertx.fileSystem().writeFileBlocking(testFile.getPath(), content);
+    server.requestHandler(req -> req.body(onSuccess(body -> {
+      assertEquals(req.getHeader("content-length"), "" + body.length());
+      assertTrue(body.toString().contains(content.toString()));
+      req.response().end();
+    })));
+    startServer();
+    waitFor(num);
+    for (int i = 0;i < num;i++) {
+      MultipartForm form = MultipartForm.create().textFileUpload("test", "test.txt", testFile.getPath(), "text/plain");
+      webClient.post("somepath").sendMultipartForm(form, onSuccess(resp -> complete()));
+    }
+    await();
+  }
+
   private void testFileUploadFormMultipart(MultipartForm form, List<Upload> toUpload, boolean multipartMixed, BiConsumer<HttpServerRequest, List<Upload>> checker) throws Exception {
     File[] testFiles = new File[toUpload.size()];
     for (int i = 0;i < testFiles.length;i++) {
@@ -1778,6 +1798,55 @@ public class WebClientTest extends WebClientTestBase {
     });
   }
 
+  @Test
+  public void testExpectFirstFailureIsReported() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    testExpectation(true, req -> req
+        .expect(ResponsePredicate.create(r -> {
+          calls.incrementAndGet();
+          return ResponsePredicateResult.success();
+        }))
+        .expect(ResponsePredicate.SC_SUCCESS)
+        .expect(ResponsePredicate.create(r -> ResponsePredicateResult.failure("boom"))),
+      resp -> resp.setStatusCode(500).end(), ar -> {
+        assertEquals("Response status code 500 is not between 200 and 300", ar.cause().getMessage());
+        assertEquals(1, calls.get());
+      });
+  }
+
+  @Test
+  public void testExpectStatusAndContentTypeOnlyApplyOtherPredicates() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    testExpectation(true, req -> req
+        .expect(ResponsePredicate.SC_SUCCESS)
+        .expect(ResponsePredicate.status(200))
+        .expect(ResponsePredicate.JSON)
+        .expect(ResponsePredicate.create(r -> {
+          calls.incrementAndGet();
+          assertEquals(200, r.statusCode());
+          return ResponsePredicateResult.failure("boom");
+        })),
+      resp -> resp.putHeader("content-type", "application/json").end(), ar -> {
+        assertEquals("boom", ar.cause().getMessage());
+        assertEquals(1, calls.get());
+      });
+  }
+
+  @Test
+  public void testExpectAddedAfterSend() throws Exception {
+    server.requestHandler(req -> req.response().setStatusCode(201).end());
+    startServer();
+    HttpRequest<Buffer> request = webClient.get("/test").expect(ResponsePredicate.SC_SUCCESS);
+    request.send(onSuccess(resp -> {
+      request.expect(ResponsePredicate.SC_OK);
+      request.send(onFailure(err -> {
+        assertEquals("Response status code 201 is not equal to 200", err.getMessage());
+        testComplete();
+      }));
+    }));
+    await();
+  }
+
   private static class CustomException extends Exception {
 
     UUID tag;
@@ -23,8 +23,10 @@ import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.parsetools.JsonParser;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.core.streams.WriteStream;
 import io.vertx.ext.web.codec.impl.BodyCodecImpl;
+import io.vertx.ext.web.codec.impl.JsonLinesBodyCodec;
 import io.vertx.ext.web.codec.impl.JsonStreamBodyCodec;
 import io.vertx.ext.web.codec.impl.StreamingBodyCodec;
 import io.vertx.ext.web.codec.spi.BodyStream;
@@ -137,6 +139,36 @@ public interface BodyCodec<T> {
     return new JsonStreamBodyCodec(parser);
   }
 
+  /**
+   * A body codec that parse the response as a JSON stream with a parser bound to the response body.
+   * <p>
+   * Unlike {@link #jsonStream(JsonParser)}, the parser can be paused: the response is paused until the parser is
+   * resumed, so a slow consumer does not buffer the response. A parse failure fails the response, the exception handler
+   * of the parser is replaced.
+   *
+   * @param parserFactory the function creating the parser for the response body, e.g.
+   *                      {@code body -> JsonParser.newParser(body).objectValueMode().handler(...)}
+   * @return the body codec for a write stream
+   */
+  static BodyCodec<Void> jsonStream(Function<ReadStream<Buffer>, JsonParser> parserFactory) {
+    return new JsonStreamBodyCodec(parserFactory);
+  }
+
+  /**
+   * A body codec that decodes a <a href="http://jsonlines.org">JSON Lines</a> (NDJSON) response, each line is decoded
+   * to an instance of {@code type} and written to the {@code stream}.
+   * <p>
+   * Only the current line is buffered: when the write queue of the stream is full, the response is paused until the
+   * stream is drained. The stream is ended when the response ends.
+   *
+   * @param type the type of the values
+   * @param stream the destination stream
+   * @return the body codec for a write stream
+   */
+  static <T> BodyCodec<Void> jsonLines(Class<T> type, WriteStream<T> stream) {
+    return new JsonLinesBodyCodec<>(type, stream);
+  }
+
   /**
    * Create the {@link BodyStream}.
    * <p>
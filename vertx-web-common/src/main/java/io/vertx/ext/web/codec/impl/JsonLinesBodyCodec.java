@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.codec.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.web.codec.BodyCodec;
+import io.vertx.ext.web.codec.spi.BodyStream;
+
+import java.util.Objects;
+
+/**
+ * A codec decoding a <a href="http://jsonlines.org">JSON Lines</a> (NDJSON) body, each line is decoded to an object
+ * written to a stream.
+ * <p>
+ * Only the current line is buffered: the back-pressure of the destination stream pauses the HTTP response.
+ */
+public class JsonLinesBodyCodec<T> implements BodyCodec<Void> {
+
+  private final Class<T> type;
+  private final WriteStream<T> stream;
+
+  public JsonLinesBodyCodec(Class<T> type, WriteStream<T> stream) {
+    this.type = Objects.requireNonNull(type, "The type must be set");
+    this.stream = Objects.requireNonNull(stream, "The stream must be set");
+  }
+
+  @Override
+  public void create(Handler<AsyncResult<BodyStream<Void>>> handler) {
+    new StreamingBodyCodec(new LineDecoder()).create(handler);
+  }
+
+  private class LineDecoder implements WriteStream<Buffer> {
+
+    private Buffer line;
+    private Handler<Throwable> exceptionHandler;
+    private boolean failed;
+
+    @Override
+    public WriteStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+      exceptionHandler = handler;
+      stream.exceptionHandler(handler);
+      return this;
+    }
+
+    @Override
+    public Future<Void> write(Buffer data) {
+      if (failed) {
+        return Future.failedFuture("Invalid JSON line");
+      }
+      int len = data.length();
+      int start = 0;
+      for (int i = 0; i < len; i++) {
+        if (data.getByte(i) == '\n') {
+          Buffer chunk = data.slice(start, i);
+          if (line != null) {
+            chunk = line.appendBuffer(chunk);
+            line = null;
+          }
+          if (!decode(chunk)) {
+            return Future.failedFuture("Invalid JSON line");
+          }
+          start = i + 1;
+        }
+      }
+      if (start < len) {
+        // copy, the buffer can be reused by the writer
+        Buffer remaining = data.getBuffer(start, len);
+        line = line != null ? line.appendBuffer(remaining) : remaining;
+      }
+      return Future.succeededFuture();
+    }
+
+    @Override
+    public void write(Buffer data, Handler<AsyncResult<Void>> handler) {
+      Future<Void> fut = write(data);
+      if (handler != null) {
+        handler.handle(fut);
+      }
+    }
+
+    @Override
+    public void end(Handler<AsyncResult<Void>> handler) {
+      Buffer last = line;
+      line = null;
+      if (failed || (last != null && !decode(last))) {
+        if (handler != null) {
+          handler.handle(Future.failedFuture("Invalid JSON line"));
+        }
+        return;
+      }
+      stream.end(handler);
+    }
+
+    /**
+     * Decode a line and write the value to the stream, blank lines are ignored.
+     *
+     * @return {@code false} when the line is not valid JSON
+     */
+    private boolean decode(Buffer chunk) {
+      int end = chunk.length();
+      if (end > 0 && chunk.getByte(end - 1) == '\r') {
+        end--;
+      }
+      if (isBlank(chunk, end)) {
+        return true;
+      }
+      T value;
+      try {
+        value = decodeValue(chunk.slice(0, end));
+      } catch (DecodeException e) {
+        failed = true;
+        if (exceptionHandler != null) {
+          exceptionHandler.handle(e);
+        }
+        return false;
+      }
+      stream.write(value);
+      return true;
+    }
+
+    @Override
+    public WriteStream<Buffer> setWriteQueueMaxSize(int maxSize) {
+      stream.setWriteQueueMaxSize(maxSize);
+      return this;
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+      return stream.writeQueueFull();
+    }
+
+    @Override
+    public WriteStream<Buffer> drainHandler(Handler<Void> handler) {
+      stream.drainHandler(handler);
+      return this;
+    }
+  }
+
+  private T decodeValue(Buffer json) {
+    if (type == JsonObject.class) {
+      return type.cast(new JsonObject(json));
+    } else if (type == JsonArray.class) {
+      return type.cast(new JsonArray(json));
+    } else {
+      return Json.decodeValue(json, type);
+    }
+  }
+
+  private static boolean isBlank(Buffer chunk, int end) {
+    for (int i = 0; i < end; i++) {
+      byte b = chunk.getByte(i);
+      if (b != ' ' && b != '\t') {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -6,19 +6,40 @@ import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.parsetools.JsonParser;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.core.streams.WriteStream;
 import io.vertx.ext.web.codec.BodyCodec;
 import io.vertx.ext.web.codec.spi.BodyStream;
 
 import java.util.Objects;
+import java.util.function.Function;
 
 public class JsonStreamBodyCodec implements BodyCodec<Void> {
 
   private final JsonParser parser;
+  private final Function<ReadStream<Buffer>, JsonParser> parserFactory;
   private final StreamingBodyCodec delegate;
 
+  /**
+   * Create a codec parsing the body with a parser bound to the body, the demand of the parser pauses and resumes the
+   * HTTP response. The exception handler of the parser is replaced, a parse failure fails the response.
+   *
+   * @param parserFactory creates the parser for a body
+   */
+  public JsonStreamBodyCodec(Function<ReadStream<Buffer>, JsonParser> parserFactory) {
+    this.parser = null;
+    this.parserFactory = Objects.requireNonNull(parserFactory, "The parser factory must be set");
+    this.delegate = null;
+  }
+
+  /**
+   * Create a codec feeding the body to a parser, the parser must not be paused.
+   *
+   * @param parser the parser
+   */
   public JsonStreamBodyCodec(JsonParser parser) {
     this.parser = Objects.requireNonNull(parser, "The parser must be set");
+    this.parserFactory = null;
     this.delegate = new StreamingBodyCodec(new WriteStream<Buffer>() {
       @Override
       public WriteStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
@@ -75,6 +96,24 @@ public class JsonStreamBodyCodec implements BodyCodec<Void> {
 
   @Override
   public void create(Handler<AsyncResult<BodyStream<Void>>> handler) {
-    delegate.create(handler);
+    if (parserFactory != null) {
+      PipedReadStream body = new PipedReadStream();
+      JsonParser parser;
+      try {
+        parser = parserFactory.apply(body);
+      } catch (Exception e) {
+        handler.handle(Future.failedFuture(e));
+        return;
+      }
+      if (parser == null) {
+        handler.handle(Future.failedFuture(new NullPointerException("The parser factory must return a parser")));
+        return;
+      }
+      // a parse failure fails the response
+      parser.exceptionHandler(body::fail);
+      new StreamingBodyCodec(body.writeStream()).create(handler);
+    } else {
+      delegate.create(handler);
+    }
   }
 }
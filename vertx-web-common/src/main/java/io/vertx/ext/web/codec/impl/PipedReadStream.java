@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.codec.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A {@link ReadStream} emitting the buffers written to its {@link #writeStream() write side}, the demand of the read
+ * stream is reported as back-pressure to the writer.
+ * <p>
+ * Buffers written while the read stream is paused are queued and the write queue is full as soon as a buffer is queued,
+ * so a writer honoring {@link WriteStream#writeQueueFull()} queues at most one buffer. The drain handler is called when
+ * the queue is emptied.
+ * <p>
+ * This class is not thread safe, it is meant to be used from the context of the HTTP response.
+ */
+public class PipedReadStream implements ReadStream<Buffer> {
+
+  private final Deque<Buffer> pending = new ArrayDeque<>();
+  private long demand = Long.MAX_VALUE;
+  private boolean emitting;
+  private boolean ended;
+  private Handler<Buffer> handler;
+  private Handler<Void> endHandler;
+  private Handler<Void> drainHandler;
+  private Handler<Throwable> failureHandler;
+  private Handler<AsyncResult<Void>> endCompletion;
+  private final WriteStream<Buffer> writeStream = new WriteStream<Buffer>() {
+    @Override
+    public WriteStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+      failureHandler = handler;
+      return this;
+    }
+
+    @Override
+    public Future<Void> write(Buffer data) {
+      pending.add(data);
+      drain();
+      return Future.succeededFuture();
+    }
+
+    @Override
+    public void write(Buffer data, Handler<AsyncResult<Void>> handler) {
+      write(data);
+      if (handler != null) {
+        handler.handle(Future.succeededFuture());
+      }
+    }
+
+    @Override
+    public void end(Handler<AsyncResult<Void>> handler) {
+      ended = true;
+      endCompletion = handler;
+      drain();
+    }
+
+    @Override
+    public WriteStream<Buffer> setWriteQueueMaxSize(int maxSize) {
+      return this;
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+      return !pending.isEmpty();
+    }
+
+    @Override
+    public WriteStream<Buffer> drainHandler(Handler<Void> handler) {
+      drainHandler = handler;
+      return this;
+    }
+  };
+
+  /**
+   * @return the stream to write the buffers to
+   */
+  public WriteStream<Buffer> writeStream() {
+    return writeStream;
+  }
+
+  /**
+   * Report a failure of the reader, e.g. a parse error, to the {@link WriteStream#exceptionHandler(Handler) exception
+   * handler} of the write side so the writer stops.
+   *
+   * @param cause the failure
+   */
+  public void fail(Throwable cause) {
+    Handler<Throwable> h = failureHandler;
+    if (h != null) {
+      h.handle(cause);
+    }
+  }
+
+  @Override
+  public PipedReadStream handler(Handler<Buffer> handler) {
+    this.handler = handler;
+    return this;
+  }
+
+  @Override
+  public PipedReadStream endHandler(Handler<Void> endHandler) {
+    this.endHandler = endHandler;
+    return this;
+  }
+
+  @Override
+  public PipedReadStream exceptionHandler(Handler<Throwable> handler) {
+    // the buffers are written by the response pipe, a failure of the response fails the pipe instead
+    return this;
+  }
+
+  @Override
+  public PipedReadStream pause() {
+    demand = 0L;
+    return this;
+  }
+
+  @Override
+  public PipedReadStream resume() {
+    return fetch(Long.MAX_VALUE);
+  }
+
+  @Override
+  public PipedReadStream fetch(long amount) {
+    if (amount < 0L) {
+      throw new IllegalArgumentException("Fetch amount must be >= 0");
+    }
+    demand += amount;
+    if (demand < 0L) {
+      demand = Long.MAX_VALUE;
+    }
+    drain();
+    return this;
+  }
+
+  private void drain() {
+    // the reader can resume the stream while it handles a buffer
+    if (emitting) {
+      return;
+    }
+    emitting = true;
+    try {
+      boolean drained = false;
+      while (demand > 0L && !pending.isEmpty()) {
+        if (demand != Long.MAX_VALUE) {
+          demand--;
+        }
+        Buffer buffer = pending.poll();
+        drained = pending.isEmpty();
+        Handler<Buffer> h = handler;
+        if (h != null) {
+          h.handle(buffer);
+        }
+      }
+      if (drained && drainHandler != null) {
+        Handler<Void> h = drainHandler;
+        drainHandler = null;
+        h.handle(null);
+      }
+      if (ended && pending.isEmpty()) {
+        ended = false;
+        Handler<Void> h = endHandler;
+        if (h != null) {
+          h.handle(null);
+        }
+        Handler<AsyncResult<Void>> completion = endCompletion;
+        endCompletion = null;
+        if (completion != null) {
+          completion.handle(Future.succeededFuture());
+        }
+      }
+    } finally {
+      emitting = false;
+    }
+  }
+}
@@ -20,6 +20,21 @@ public class ApolloWSOptionsConverter {
             obj.setKeepAlive(((Number)member.getValue()).longValue());
           }
           break;
+        case "maxQueuedMessages":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxQueuedMessages(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "maxWebSocketFrameSize":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxWebSocketFrameSize(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "slowConsumerPolicy":
+          if (member.getValue() instanceof String) {
+            obj.setSlowConsumerPolicy(io.vertx.ext.web.handler.graphql.ApolloWSSlowConsumerPolicy.valueOf((String)member.getValue()));
+          }
+          break;
       }
     }
   }
@@ -30,5 +45,10 @@ public class ApolloWSOptionsConverter {
 
   public static void toJson(ApolloWSOptions obj, java.util.Map<String, Object> json) {
     json.put("keepAlive", obj.getKeepAlive());
+    json.put("maxQueuedMessages", obj.getMaxQueuedMessages());
+    json.put("maxWebSocketFrameSize", obj.getMaxWebSocketFrameSize());
+    if (obj.getSlowConsumerPolicy() != null) {
+      json.put("slowConsumerPolicy", obj.getSlowConsumerPolicy().name());
+    }
   }
 }
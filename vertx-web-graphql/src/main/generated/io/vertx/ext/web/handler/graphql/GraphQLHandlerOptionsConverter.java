@@ -15,6 +15,36 @@ public class GraphQLHandlerOptionsConverter {
   public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, GraphQLHandlerOptions obj) {
     for (java.util.Map.Entry<String, Object> member : json) {
       switch (member.getKey()) {
+        case "batchConcurrency":
+          if (member.getValue() instanceof Number) {
+            obj.setBatchConcurrency(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "batchDataLoaderSharingEnabled":
+          if (member.getValue() instanceof Boolean) {
+            obj.setBatchDataLoaderSharingEnabled((Boolean)member.getValue());
+          }
+          break;
+        case "batchStreamingEnabled":
+          if (member.getValue() instanceof Boolean) {
+            obj.setBatchStreamingEnabled((Boolean)member.getValue());
+          }
+          break;
+        case "cacheSize":
+          if (member.getValue() instanceof Number) {
+            obj.setCacheSize(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "parsedDocumentCacheEnabled":
+          if (member.getValue() instanceof Boolean) {
+            obj.setParsedDocumentCacheEnabled((Boolean)member.getValue());
+          }
+          break;
+        case "persistedQueriesEnabled":
+          if (member.getValue() instanceof Boolean) {
+            obj.setPersistedQueriesEnabled((Boolean)member.getValue());
+          }
+          break;
         case "requestBatchingEnabled":
           if (member.getValue() instanceof Boolean) {
             obj.setRequestBatchingEnabled((Boolean)member.getValue());
@@ -25,6 +55,11 @@ public class GraphQLHandlerOptionsConverter {
             obj.setRequestMultipartEnabled((Boolean)member.getValue());
           }
           break;
+        case "responseChunkSize":
+          if (member.getValue() instanceof Number) {
+            obj.setResponseChunkSize(((Number)member.getValue()).intValue());
+          }
+          break;
       }
     }
   }
@@ -34,7 +69,14 @@ public class GraphQLHandlerOptionsConverter {
   }
 
   public static void toJson(GraphQLHandlerOptions obj, java.util.Map<String, Object> json) {
+    json.put("batchConcurrency", obj.getBatchConcurrency());
+    json.put("batchDataLoaderSharingEnabled", obj.isBatchDataLoaderSharingEnabled());
+    json.put("batchStreamingEnabled", obj.isBatchStreamingEnabled());
+    json.put("cacheSize", obj.getCacheSize());
+    json.put("parsedDocumentCacheEnabled", obj.isParsedDocumentCacheEnabled());
+    json.put("persistedQueriesEnabled", obj.isPersistedQueriesEnabled());
     json.put("requestBatchingEnabled", obj.isRequestBatchingEnabled());
     json.put("requestMultipartEnabled", obj.isRequestMultipartEnabled());
+    json.put("responseChunkSize", obj.getResponseChunkSize());
   }
 }
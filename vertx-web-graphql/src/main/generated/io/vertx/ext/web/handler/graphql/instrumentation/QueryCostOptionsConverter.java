@@ -0,0 +1,100 @@
+package io.vertx.ext.web.handler.graphql.instrumentation;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.JsonArray;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Converter and mapper for {@link io.vertx.ext.web.handler.graphql.instrumentation.QueryCostOptions}.
+ * NOTE: This class has been automatically generated from the {@link io.vertx.ext.web.handler.graphql.instrumentation.QueryCostOptions} original class using Vert.x codegen.
+ */
+public class QueryCostOptionsConverter {
+
+
+  public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, QueryCostOptions obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "budgetWindow":
+          if (member.getValue() instanceof Number) {
+            obj.setBudgetWindow(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "cacheSize":
+          if (member.getValue() instanceof Number) {
+            obj.setCacheSize(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "clientBudget":
+          if (member.getValue() instanceof Number) {
+            obj.setClientBudget(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "defaultFieldWeight":
+          if (member.getValue() instanceof Number) {
+            obj.setDefaultFieldWeight(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "defaultListSize":
+          if (member.getValue() instanceof Number) {
+            obj.setDefaultListSize(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "fieldWeights":
+          if (member.getValue() instanceof JsonObject) {
+            java.util.Map<String, java.lang.Integer> map = new java.util.LinkedHashMap<>();
+            ((Iterable<java.util.Map.Entry<String, Object>>)member.getValue()).forEach(entry -> {
+              if (entry.getValue() instanceof Number)
+                map.put(entry.getKey(), ((Number)entry.getValue()).intValue());
+            });
+            obj.setFieldWeights(map);
+          }
+          break;
+        case "listSizeArguments":
+          if (member.getValue() instanceof JsonArray) {
+            java.util.ArrayList<java.lang.String> list =  new java.util.ArrayList<>();
+            ((Iterable<Object>)member.getValue()).forEach( item -> {
+              if (item instanceof String)
+                list.add((String)item);
+            });
+            obj.setListSizeArguments(list);
+          }
+          break;
+        case "maxComplexity":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxComplexity(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "maxDepth":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxDepth(((Number)member.getValue()).intValue());
+          }
+          break;
+      }
+    }
+  }
+
+  public static void toJson(QueryCostOptions obj, JsonObject json) {
+    toJson(obj, json.getMap());
+  }
+
+  public static void toJson(QueryCostOptions obj, java.util.Map<String, Object> json) {
+    json.put("budgetWindow", obj.getBudgetWindow());
+    json.put("cacheSize", obj.getCacheSize());
+    json.put("clientBudget", obj.getClientBudget());
+    json.put("defaultFieldWeight", obj.getDefaultFieldWeight());
+    json.put("defaultListSize", obj.getDefaultListSize());
+    if (obj.getFieldWeights() != null) {
+      JsonObject map = new JsonObject();
+      obj.getFieldWeights().forEach((key, value) -> map.put(key, value));
+      json.put("fieldWeights", map);
+    }
+    if (obj.getListSizeArguments() != null) {
+      JsonArray array = new JsonArray();
+      obj.getListSizeArguments().forEach(item -> array.add(item));
+      json.put("listSizeArguments", array);
+    }
+    json.put("maxComplexity", obj.getMaxComplexity());
+    json.put("maxDepth", obj.getMaxDepth());
+  }
+}
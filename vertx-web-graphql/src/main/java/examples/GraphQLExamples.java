@@ -19,6 +19,7 @@ package examples;
 import graphql.GraphQL;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLSchema;
 import graphql.schema.idl.FieldWiringEnvironment;
 import graphql.schema.idl.RuntimeWiring;
 import graphql.schema.idl.WiringFactory;
@@ -30,11 +31,15 @@ import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.BodyHandler;
 import io.vertx.ext.web.handler.graphql.*;
+import io.vertx.ext.web.handler.graphql.dataloader.VertxBatchLoader;
+import io.vertx.ext.web.handler.graphql.instrumentation.QueryCostInstrumentation;
+import io.vertx.ext.web.handler.graphql.instrumentation.QueryCostOptions;
 import io.vertx.ext.web.handler.graphql.schema.VertxDataFetcher;
 import io.vertx.ext.web.handler.graphql.schema.VertxPropertyDataFetcher;
 import org.dataloader.BatchLoaderEnvironment;
 import org.dataloader.BatchLoaderWithContext;
 import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderOptions;
 import org.dataloader.DataLoaderRegistry;
 
 import java.util.List;
@@ -81,6 +86,46 @@ public class GraphQLExamples {
     GraphQLHandler handler = GraphQLHandler.create(graphQL, options);
   }
 
+  public void handlerSetupBatchExecution(GraphQL graphQL) {
+    GraphQLHandlerOptions options = new GraphQLHandlerOptions()
+      .setRequestBatchingEnabled(true)
+      .setBatchConcurrency(4)
+      .setBatchDataLoaderSharingEnabled(true)
+      .setBatchStreamingEnabled(true);
+
+    GraphQLHandler handler = GraphQLHandler.create(graphQL, options);
+  }
+
+  public void handlerSetupDocumentCache(GraphQL graphQL) {
+    GraphQLHandlerOptions options = new GraphQLHandlerOptions()
+      .setParsedDocumentCacheEnabled(true)
+      .setPersistedQueriesEnabled(true)
+      .setCacheSize(500);
+
+    GraphQLHandler handler = GraphQLHandler.create(graphQL, options);
+  }
+
+  public void handlerSetupResponseChunking(GraphQL graphQL) {
+    GraphQLHandlerOptions options = new GraphQLHandlerOptions()
+      .setResponseChunkSize(64 * 1024);
+
+    GraphQLHandler handler = GraphQLHandler.create(graphQL, options);
+  }
+
+  public void queryCost(GraphQLSchema graphQLSchema) {
+    QueryCostOptions options = new QueryCostOptions()
+      .setMaxComplexity(1000)
+      .setMaxDepth(10)
+      .addFieldWeight("Query.allLinks", 10)
+      .setClientBudget(10000);
+
+    GraphQL graphQL = GraphQL.newGraphQL(graphQLSchema)
+      .instrumentation(QueryCostInstrumentation.create(options))
+      .build();
+
+    GraphQLHandler handler = GraphQLHandler.create(graphQL);
+  }
+
   public void setupGraphQLHandlerMultipart(Vertx vertx) {
     GraphQLHandler graphQLHandler = GraphQLHandler.create(
       setupGraphQLJava(),
@@ -231,12 +276,41 @@ public class GraphQLExamples {
     });
   }
 
+  public void sharedBatchLoader(GraphQL graphQL) {
+    // Merge the keys loaded within 5 ms, or as soon as 100 keys are pending, by the requests of the same tenant
+    VertxBatchLoader<String, Link> linksBatchLoader = VertxBatchLoader.create((keys, environment, promise) -> {
+
+      retrieveLinksFromBackend(keys, environment, promise);
+
+    }, 5, 100, environment -> environment.getContext());
+
+    GraphQLHandler handler = GraphQLHandler.create(graphQL).dataLoaderRegistry(rc -> {
+
+      DataLoader<String, Link> linkDataLoader = DataLoader.newDataLoader(linksBatchLoader,
+        DataLoaderOptions.newOptions().setBatchLoaderContextProvider(() -> rc.request().getHeader("X-Tenant")));
+
+      return new DataLoaderRegistry().register("link", linkDataLoader);
+
+    });
+  }
+
+  private void retrieveLinksFromBackend(List<String> ids, BatchLoaderEnvironment environment, Promise<List<Link>> promise) {
+  }
+
   public void addApolloWsHandlerToRouter(Router router) {
     GraphQL graphQL = setupGraphQLJava();
 
     router.route("/graphql").handler(ApolloWSHandler.create(graphQL));
   }
 
+  public void apolloWsSlowConsumers(Router router, GraphQL graphQL) {
+    ApolloWSOptions options = new ApolloWSOptions()
+      .setSlowConsumerPolicy(ApolloWSSlowConsumerPolicy.CONFLATE)
+      .setMaxQueuedMessages(100);
+
+    router.route("/graphql").handler(ApolloWSHandler.create(graphQL, options));
+  }
+
   public void configureServerForApolloWs(Vertx vertx, Router router) {
     HttpServerOptions httpServerOptions = new HttpServerOptions()
       .addWebSocketSubProtocol("graphql-ws");
@@ -22,6 +22,7 @@ import io.vertx.codegen.annotations.GenIgnore;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.Handler;
 import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.graphql.impl.ApolloWSHandlerImpl;
 import org.dataloader.DataLoaderRegistry;
@@ -114,4 +115,17 @@ public interface ApolloWSHandler extends Handler<RoutingContext> {
   @Fluent
   @GenIgnore(GenIgnore.PERMITTED_TYPE)
   ApolloWSHandler locale(Function<ApolloWSMessage, Locale> factory);
+
+  /**
+   * Get the metrics of a connection handled by this handler:
+   * <ul>
+   * <li>{@code queuedMessages}: the number of messages waiting for the WebSocket to be writable</li>
+   * <li>{@code queuedBytes}: the size of these messages</li>
+   * <li>{@code droppedEvents}: the number of subscription events dropped by the slow consumer policy</li>
+   * </ul>
+   *
+   * @param serverWebSocket the WebSocket of the connection
+   * @return the metrics or {@code null} if the WebSocket is not an open connection of this handler
+   */
+  JsonObject connectionMetrics(ServerWebSocket serverWebSocket);
 }
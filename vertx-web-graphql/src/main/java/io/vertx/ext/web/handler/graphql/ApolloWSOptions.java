@@ -17,6 +17,7 @@
 package io.vertx.ext.web.handler.graphql;
 
 import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.http.HttpServerOptions;
 import io.vertx.core.json.JsonObject;
 
 /**
@@ -32,7 +33,25 @@ public class ApolloWSOptions {
    */
   public static final long DEFAULT_KEEP_ALIVE = 30000L;
 
+  /**
+   * Default policy for slow consumers = {@link ApolloWSSlowConsumerPolicy#BACKPRESSURE}.
+   */
+  public static final ApolloWSSlowConsumerPolicy DEFAULT_SLOW_CONSUMER_POLICY = ApolloWSSlowConsumerPolicy.BACKPRESSURE;
+
+  /**
+   * Default maximum number of subscription events queued for a connection = 1000.
+   */
+  public static final int DEFAULT_MAX_QUEUED_MESSAGES = 1000;
+
+  /**
+   * Default maximum size of the WebSocket frames written = {@link HttpServerOptions#DEFAULT_MAX_WEBSOCKET_FRAME_SIZE}.
+   */
+  public static final int DEFAULT_MAX_WEBSOCKET_FRAME_SIZE = HttpServerOptions.DEFAULT_MAX_WEBSOCKET_FRAME_SIZE;
+
   private long keepAlive = DEFAULT_KEEP_ALIVE;
+  private ApolloWSSlowConsumerPolicy slowConsumerPolicy = DEFAULT_SLOW_CONSUMER_POLICY;
+  private int maxQueuedMessages = DEFAULT_MAX_QUEUED_MESSAGES;
+  private int maxWebSocketFrameSize = DEFAULT_MAX_WEBSOCKET_FRAME_SIZE;
 
   /**
    * Default constructor.
@@ -47,6 +66,9 @@ public class ApolloWSOptions {
    */
   public ApolloWSOptions(ApolloWSOptions other) {
     keepAlive = other.keepAlive;
+    slowConsumerPolicy = other.slowConsumerPolicy;
+    maxQueuedMessages = other.maxQueuedMessages;
+    maxWebSocketFrameSize = other.maxWebSocketFrameSize;
   }
 
   /**
@@ -86,4 +108,72 @@ public class ApolloWSOptions {
     this.keepAlive = keepAlive;
     return this;
   }
+
+  /**
+   * @return the policy applied to clients that do not read the subscription events as fast as they are produced
+   */
+  public ApolloWSSlowConsumerPolicy getSlowConsumerPolicy() {
+    return slowConsumerPolicy;
+  }
+
+  /**
+   * Set the policy applied to clients that do not read the subscription events as fast as they are produced. Defaults
+   * to {@link ApolloWSSlowConsumerPolicy#BACKPRESSURE}.
+   *
+   * @param slowConsumerPolicy the policy
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ApolloWSOptions setSlowConsumerPolicy(ApolloWSSlowConsumerPolicy slowConsumerPolicy) {
+    if (slowConsumerPolicy == null) {
+      throw new IllegalArgumentException("slowConsumerPolicy must not be null");
+    }
+    this.slowConsumerPolicy = slowConsumerPolicy;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of subscription events queued for a connection
+   */
+  public int getMaxQueuedMessages() {
+    return maxQueuedMessages;
+  }
+
+  /**
+   * Set the maximum number of subscription events queued for a connection when the WebSocket cannot be written, above
+   * which the slow consumer policy drops events or closes the WebSocket. Defaults to {@code 1000}.
+   *
+   * @param maxQueuedMessages the maximum number of queued events
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ApolloWSOptions setMaxQueuedMessages(int maxQueuedMessages) {
+    if (maxQueuedMessages < 1) {
+      throw new IllegalArgumentException("maxQueuedMessages must be > 0");
+    }
+    this.maxQueuedMessages = maxQueuedMessages;
+    return this;
+  }
+
+  /**
+   * @return the maximum size of the WebSocket frames written
+   */
+  public int getMaxWebSocketFrameSize() {
+    return maxWebSocketFrameSize;
+  }
+
+  /**
+   * Set the maximum size of the WebSocket frames written, larger messages are fragmented. Defaults to {@code 65536}.
+   *
+   * @param maxWebSocketFrameSize the maximum frame size, in bytes
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ApolloWSOptions setMaxWebSocketFrameSize(int maxWebSocketFrameSize) {
+    if (maxWebSocketFrameSize < 1) {
+      throw new IllegalArgumentException("maxWebSocketFrameSize must be > 0");
+    }
+    this.maxWebSocketFrameSize = maxWebSocketFrameSize;
+    return this;
+  }
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.vertx.ext.web.handler.graphql;
+
+import io.vertx.codegen.annotations.VertxGen;
+
+/**
+ * How an {@link ApolloWSHandler} delivers subscription events to a client that does not read them as fast as they are
+ * produced.
+ */
+@VertxGen
+public enum ApolloWSSlowConsumerPolicy {
+
+  /**
+   * Request the next event of a subscription only when the WebSocket can be written.
+   */
+  BACKPRESSURE,
+  /**
+   * Request the events as they are delivered and drop the oldest queued event when the queue is full.
+   */
+  DROP_OLDEST,
+  /**
+   * Request the events as they are delivered and replace the queued event of a subscription with its latest event,
+   * the oldest queued event is dropped when the queue is full.
+   */
+  CONFLATE,
+  /**
+   * Request the events as they are delivered and close the WebSocket when the queue is full.
+   */
+  DISCONNECT
+}
@@ -37,8 +37,50 @@ public class GraphQLHandlerOptions {
    */
   public static final boolean DEFAULT_REQUEST_MULTIPART_ENABLED = false;
 
+  /**
+   * Whether the parsed document cache should be enabled by default = false.
+   */
+  public static final boolean DEFAULT_PARSED_DOCUMENT_CACHE_ENABLED = false;
+
+  /**
+   * Whether automatic persisted queries should be enabled by default = false.
+   */
+  public static final boolean DEFAULT_PERSISTED_QUERIES_ENABLED = false;
+
+  /**
+   * The default maximum number of cached documents and persisted queries = 1000.
+   */
+  public static final int DEFAULT_CACHE_SIZE = 1000;
+
+  /**
+   * The default response chunk size = 0, the responses are not chunked.
+   */
+  public static final int DEFAULT_RESPONSE_CHUNK_SIZE = 0;
+
+  /**
+   * The default maximum number of queries of a batch executed concurrently = 0, all the queries are executed at once.
+   */
+  public static final int DEFAULT_BATCH_CONCURRENCY = 0;
+
+  /**
+   * Whether the queries of a batch should share a data loader registry by default = false.
+   */
+  public static final boolean DEFAULT_BATCH_DATA_LOADER_SHARING_ENABLED = false;
+
+  /**
+   * Whether the results of a batch can be streamed by default = false.
+   */
+  public static final boolean DEFAULT_BATCH_STREAMING_ENABLED = false;
+
   private boolean requestBatchingEnabled = DEFAULT_REQUEST_BATCHING_ENABLED;
   private boolean requestMultipartEnabled = DEFAULT_REQUEST_MULTIPART_ENABLED;
+  private boolean parsedDocumentCacheEnabled = DEFAULT_PARSED_DOCUMENT_CACHE_ENABLED;
+  private boolean persistedQueriesEnabled = DEFAULT_PERSISTED_QUERIES_ENABLED;
+  private int cacheSize = DEFAULT_CACHE_SIZE;
+  private int responseChunkSize = DEFAULT_RESPONSE_CHUNK_SIZE;
+  private int batchConcurrency = DEFAULT_BATCH_CONCURRENCY;
+  private boolean batchDataLoaderSharingEnabled = DEFAULT_BATCH_DATA_LOADER_SHARING_ENABLED;
+  private boolean batchStreamingEnabled = DEFAULT_BATCH_STREAMING_ENABLED;
 
   /**
    * Default constructor.
@@ -54,6 +96,13 @@ public class GraphQLHandlerOptions {
   public GraphQLHandlerOptions(GraphQLHandlerOptions other) {
     requestBatchingEnabled = other.requestBatchingEnabled;
     requestMultipartEnabled = other.requestMultipartEnabled;
+    parsedDocumentCacheEnabled = other.parsedDocumentCacheEnabled;
+    persistedQueriesEnabled = other.persistedQueriesEnabled;
+    cacheSize = other.cacheSize;
+    responseChunkSize = other.responseChunkSize;
+    batchConcurrency = other.batchConcurrency;
+    batchDataLoaderSharingEnabled = other.batchDataLoaderSharingEnabled;
+    batchStreamingEnabled = other.batchStreamingEnabled;
   }
 
   /**
@@ -112,4 +161,161 @@ public class GraphQLHandlerOptions {
     this.requestMultipartEnabled = requestMultipartEnabled;
     return this;
   }
+
+  /**
+   * @return true if the parsed document cache should be enabled, false otherwise
+   */
+  public boolean isParsedDocumentCacheEnabled() {
+    return parsedDocumentCacheEnabled;
+  }
+
+  /**
+   * Whether the parsed and validated documents should be cached, so the queries sent again are not parsed and
+   * validated again. Defaults to {@code false}.
+   * <p>
+   * The cache is the {@code PreparsedDocumentProvider} of the {@code GraphQL} object used by the handler, it replaces
+   * the provider configured on this object.
+   *
+   * @param parsedDocumentCacheEnabled true to enable the parsed document cache, false otherwise
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public GraphQLHandlerOptions setParsedDocumentCacheEnabled(boolean parsedDocumentCacheEnabled) {
+    this.parsedDocumentCacheEnabled = parsedDocumentCacheEnabled;
+    return this;
+  }
+
+  /**
+   * @return true if automatic persisted queries should be enabled, false otherwise
+   */
+  public boolean isPersistedQueriesEnabled() {
+    return persistedQueriesEnabled;
+  }
+
+  /**
+   * Whether automatic persisted queries should be enabled. Defaults to {@code false}.
+   * <p>
+   * A client can then send the SHA-256 hash of a query in the {@code persistedQuery} extension instead of the query.
+   *
+   * @param persistedQueriesEnabled true to enable automatic persisted queries, false otherwise
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public GraphQLHandlerOptions setPersistedQueriesEnabled(boolean persistedQueriesEnabled) {
+    this.persistedQueriesEnabled = persistedQueriesEnabled;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of cached documents and persisted queries
+   */
+  public int getCacheSize() {
+    return cacheSize;
+  }
+
+  /**
+   * Set the maximum number of entries of the parsed document cache and of the persisted queries store.
+   * Defaults to {@code 1000}.
+   *
+   * @param cacheSize the maximum number of entries
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public GraphQLHandlerOptions setCacheSize(int cacheSize) {
+    if (cacheSize < 1) {
+      throw new IllegalArgumentException("The cache size must be > 0");
+    }
+    this.cacheSize = cacheSize;
+    return this;
+  }
+
+  /**
+   * @return the size above which the responses are chunked, {@code 0} when the responses are not chunked
+   */
+  public int getResponseChunkSize() {
+    return responseChunkSize;
+  }
+
+  /**
+   * Set the size in bytes above which a response is sent in chunks of this size, so the client starts receiving a
+   * large result before it is fully encoded. The result is encoded at once and the chunks are queued regardless of the
+   * write queue of the response: chunking does not bound the memory used by a large result. Defaults to {@code 0}: the
+   * responses are not chunked.
+   *
+   * @param responseChunkSize the chunk size or {@code 0}
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public GraphQLHandlerOptions setResponseChunkSize(int responseChunkSize) {
+    if (responseChunkSize < 0) {
+      throw new IllegalArgumentException("The response chunk size must be >= 0");
+    }
+    this.responseChunkSize = responseChunkSize;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of queries of a batch executed concurrently, {@code 0} when there is no limit
+   */
+  public int getBatchConcurrency() {
+    return batchConcurrency;
+  }
+
+  /**
+   * Set the maximum number of queries of a batch executed concurrently, the next query starts when a query completes.
+   * The results are still sent in the order of the queries. Defaults to {@code 0}: all the queries are executed at once.
+   *
+   * @param batchConcurrency the maximum number of queries executed concurrently or {@code 0}
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public GraphQLHandlerOptions setBatchConcurrency(int batchConcurrency) {
+    if (batchConcurrency < 0) {
+      throw new IllegalArgumentException("The batch concurrency must be >= 0");
+    }
+    this.batchConcurrency = batchConcurrency;
+    return this;
+  }
+
+  /**
+   * @return true if the queries of a batch share a data loader registry, false otherwise
+   */
+  public boolean isBatchDataLoaderSharingEnabled() {
+    return batchDataLoaderSharingEnabled;
+  }
+
+  /**
+   * Whether the queries of a batch should share a data loader registry. When enabled, the data loader registry factory
+   * is invoked once per batch instead of once per query, so the keys loaded by a query are cached for the next ones.
+   * Defaults to {@code false}.
+   *
+   * @param batchDataLoaderSharingEnabled {@code true} to share a data loader registry between the queries of a batch
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public GraphQLHandlerOptions setBatchDataLoaderSharingEnabled(boolean batchDataLoaderSharingEnabled) {
+    this.batchDataLoaderSharingEnabled = batchDataLoaderSharingEnabled;
+    return this;
+  }
+
+  /**
+   * @return true if the results of a batch can be streamed, false otherwise
+   */
+  public boolean isBatchStreamingEnabled() {
+    return batchStreamingEnabled;
+  }
+
+  /**
+   * Whether the results of a batch can be streamed. When enabled and the client accepts {@code application/x-ndjson},
+   * each result is sent as soon as its query completes, as a JSON object on its own line holding the {@code index} of
+   * the query in the batch and the {@code result}. Defaults to {@code false}.
+   *
+   * @param batchStreamingEnabled {@code true} to stream the results of a batch
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public GraphQLHandlerOptions setBatchStreamingEnabled(boolean batchStreamingEnabled) {
+    this.batchStreamingEnabled = batchStreamingEnabled;
+    return this;
+  }
 }
@@ -20,6 +20,7 @@ import io.vertx.codegen.annotations.GenIgnore;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.Promise;
 import io.vertx.ext.web.handler.graphql.TriConsumer;
+import io.vertx.ext.web.handler.graphql.dataloader.impl.SharedBatchLoaderImpl;
 import io.vertx.ext.web.handler.graphql.dataloader.impl.VertxBatchLoaderImpl;
 import org.dataloader.BatchLoaderEnvironment;
 import org.dataloader.BatchLoaderWithContext;
@@ -27,6 +28,7 @@ import org.dataloader.BatchLoaderWithContext;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
 
 import static io.vertx.codegen.annotations.GenIgnore.PERMITTED_TYPE;
 
@@ -51,4 +53,29 @@ public interface VertxBatchLoader<K, V> extends BatchLoaderWithContext<K, V> {
   static <K, V> VertxBatchLoader<K, V> create(TriConsumer<List<K>, BatchLoaderEnvironment, Promise<List<V>>> batchLoader) {
     return new VertxBatchLoaderImpl<>(batchLoader);
   }
+
+  /**
+   * Create a new batch loader merging the keys loaded by concurrent GraphQL executions.
+   * <p>
+   * The keys loaded on the same Vert.x context during {@code batchWindow} milliseconds, by any execution, are
+   * de-duplicated and loaded with a single invocation of the provided function, then the values are dispatched back to
+   * each execution. Keys are only merged when {@code partitionKey} returns equal values for the environments of the
+   * executions, so that the keys of different tenants are never loaded together. The function is invoked with the
+   * context of the first environment of the batch.
+   * <p>
+   * The batch loader must be created once and used by the data loaders created for each request: these data loaders
+   * still cache the values for their own request only.
+   *
+   * @param batchLoader the function loading the data objects, as described in {@link #create(TriConsumer)}
+   * @param batchWindow the time in ms during which the keys are merged, {@code 0} to merge the keys loaded until the
+   *                    context runs its next task
+   * @param maxBatchSize the number of keys that triggers the loading before the end of the window, {@code 0} for no limit
+   * @param partitionKey the function computing the partition of an environment, e.g. a tenant identifier
+   */
+  @GenIgnore
+  static <K, V> VertxBatchLoader<K, V> create(TriConsumer<List<K>, BatchLoaderEnvironment, Promise<List<V>>> batchLoader,
+                                              long batchWindow, int maxBatchSize,
+                                              Function<BatchLoaderEnvironment, Object> partitionKey) {
+    return new SharedBatchLoaderImpl<>(batchLoader, batchWindow, maxBatchSize, partitionKey);
+  }
 }
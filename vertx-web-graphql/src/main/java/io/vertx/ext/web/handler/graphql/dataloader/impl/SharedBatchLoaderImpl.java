@@ -0,0 +1,213 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.vertx.ext.web.handler.graphql.dataloader.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.ext.web.handler.graphql.TriConsumer;
+import io.vertx.ext.web.handler.graphql.dataloader.VertxBatchLoader;
+import org.dataloader.BatchLoaderEnvironment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * A {@link VertxBatchLoader} merging the keys loaded by all the executions on a Vert.x context during a batch window.
+ * <p>
+ * A batch is only modified by tasks of its context, which are never run concurrently.
+ */
+public class SharedBatchLoaderImpl<K, V> implements VertxBatchLoader<K, V> {
+
+  final TriConsumer<List<K>, BatchLoaderEnvironment, Promise<List<V>>> batchLoader;
+  final long batchWindow;
+  final int maxBatchSize;
+  final Function<BatchLoaderEnvironment, Object> partitionKey;
+  private final ConcurrentMap<BatchKey, Batch> batches = new ConcurrentHashMap<>();
+
+  public SharedBatchLoaderImpl(TriConsumer<List<K>, BatchLoaderEnvironment, Promise<List<V>>> batchLoader,
+                               long batchWindow, int maxBatchSize,
+                               Function<BatchLoaderEnvironment, Object> partitionKey) {
+    if (batchWindow < 0) {
+      throw new IllegalArgumentException("batchWindow must be >= 0");
+    }
+    if (maxBatchSize < 0) {
+      throw new IllegalArgumentException("maxBatchSize must be >= 0");
+    }
+    this.batchLoader = Objects.requireNonNull(batchLoader, "batchLoader is null");
+    this.batchWindow = batchWindow;
+    this.maxBatchSize = maxBatchSize;
+    this.partitionKey = Objects.requireNonNull(partitionKey, "partitionKey is null");
+  }
+
+  @Override
+  public CompletionStage<List<V>> load(List<K> keys, BatchLoaderEnvironment environment) {
+    CompletableFuture<List<V>> cf = new CompletableFuture<>();
+    Context context = Vertx.currentContext();
+    if (context == null) {
+      // not on a Vert.x thread, there is no context to share the batch with
+      Batch batch = new Batch(null, environment);
+      batch.add(keys, environment, cf);
+      batch.dispatch();
+      return cf;
+    }
+    BatchKey batchKey = new BatchKey(context, partitionKey.apply(environment));
+    Batch batch = batches.get(batchKey);
+    if (batch == null) {
+      batch = new Batch(batchKey, environment);
+      batches.put(batchKey, batch);
+      Batch created = batch;
+      if (batchWindow > 0) {
+        batch.timerId = context.owner().setTimer(batchWindow, id -> flush(created));
+      } else {
+        context.runOnContext(v -> flush(created));
+      }
+    }
+    batch.add(keys, environment, cf);
+    if (maxBatchSize > 0 && batch.keys.size() >= maxBatchSize) {
+      flush(batch);
+    }
+    return cf;
+  }
+
+  private void flush(Batch batch) {
+    if (batches.remove(batch.batchKey, batch)) {
+      if (batch.timerId != -1) {
+        batch.batchKey.context.owner().cancelTimer(batch.timerId);
+      }
+      batch.dispatch();
+    }
+  }
+
+  private static final class BatchKey {
+
+    final Context context;
+    final Object partition;
+
+    BatchKey(Context context, Object partition) {
+      this.context = context;
+      this.partition = partition;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof BatchKey)) {
+        return false;
+      }
+      BatchKey that = (BatchKey) o;
+      return context == that.context && Objects.equals(partition, that.partition);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(context) + Objects.hashCode(partition);
+    }
+  }
+
+  private final class Batch {
+
+    final BatchKey batchKey;
+    final BatchLoaderEnvironment environment;
+    final Map<K, Integer> indexes = new HashMap<>();
+    final List<K> keys = new ArrayList<>();
+    final List<Object> keyContexts = new ArrayList<>();
+    final List<Request> requests = new ArrayList<>();
+    long timerId = -1;
+
+    Batch(BatchKey batchKey, BatchLoaderEnvironment environment) {
+      this.batchKey = batchKey;
+      this.environment = environment;
+    }
+
+    void add(List<K> requestKeys, BatchLoaderEnvironment requestEnvironment, CompletableFuture<List<V>> cf) {
+      List<Object> requestKeyContexts = requestEnvironment.getKeyContextsList();
+      boolean hasKeyContexts = requestKeyContexts.size() == requestKeys.size();
+      int[] positions = new int[requestKeys.size()];
+      for (int i = 0; i < positions.length; i++) {
+        K key = requestKeys.get(i);
+        Integer index = indexes.get(key);
+        if (index == null) {
+          index = keys.size();
+          indexes.put(key, index);
+          keys.add(key);
+          keyContexts.add(hasKeyContexts ? requestKeyContexts.get(i) : null);
+        }
+        positions[i] = index;
+      }
+      requests.add(new Request(positions, cf));
+    }
+
+    void dispatch() {
+      BatchLoaderEnvironment merged = BatchLoaderEnvironment.newBatchLoaderEnvironment()
+        .context(environment.getContext())
+        .keyContexts(keys, keyContexts)
+        .build();
+      Promise<List<V>> promise = Promise.promise();
+      promise.future().onComplete(ar -> {
+        if (ar.failed()) {
+          for (Request request : requests) {
+            request.cf.completeExceptionally(ar.cause());
+          }
+          return;
+        }
+        List<V> values = ar.result();
+        if (values == null || values.size() != keys.size()) {
+          IllegalStateException e = new IllegalStateException("The batch loader returned "
+            + (values == null ? 0 : values.size()) + " values for " + keys.size() + " keys");
+          for (Request request : requests) {
+            request.cf.completeExceptionally(e);
+          }
+          return;
+        }
+        for (Request request : requests) {
+          List<V> result = new ArrayList<>(request.positions.length);
+          for (int position : request.positions) {
+            result.add(values.get(position));
+          }
+          request.cf.complete(result);
+        }
+      });
+      try {
+        batchLoader.accept(new ArrayList<>(keys), merged, promise);
+      } catch (Exception e) {
+        promise.tryFail(e);
+      }
+    }
+  }
+
+  private final class Request {
+
+    final int[] positions;
+    final CompletableFuture<List<V>> cf;
+
+    Request(int[] positions, CompletableFuture<List<V>> cf) {
+      this.positions = positions;
+      this.cf = cf;
+    }
+  }
+}
@@ -19,7 +19,11 @@ package io.vertx.ext.web.handler.graphql.impl;
 import graphql.ExecutionInput;
 import graphql.ExecutionResult;
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.http.WebSocketFrame;
+import io.vertx.core.http.impl.FrameType;
+import io.vertx.core.http.impl.ws.WebSocketFrameImpl;
 import io.vertx.core.impl.ContextInternal;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
@@ -27,6 +31,7 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.common.WebEnvironment;
 import io.vertx.ext.web.handler.graphql.ApolloWSMessage;
 import io.vertx.ext.web.handler.graphql.ApolloWSMessageType;
+import io.vertx.ext.web.handler.graphql.ApolloWSSlowConsumerPolicy;
 import org.dataloader.DataLoaderRegistry;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
@@ -34,6 +39,12 @@ import org.reactivestreams.Subscription;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
@@ -44,6 +55,13 @@ import java.util.concurrent.atomic.AtomicReference;
 import static io.vertx.ext.web.handler.graphql.ApolloWSMessageType.*;
 
 /**
+ * Handles an Apollo WebSocket connection.
+ * <p>
+ * The messages are written to the WebSocket while it is writable, then queued until it is drained. With the
+ * {@link ApolloWSSlowConsumerPolicy#BACKPRESSURE} policy, the next event of a subscription is only requested when the
+ * WebSocket is writable, otherwise events are requested as they are delivered and the policy applies when too many
+ * events are queued.
+ *
  * @author Rogelio Orts
  */
 class ApolloWSConnectionHandler {
@@ -54,12 +72,26 @@ class ApolloWSConnectionHandler {
   private final ServerWebSocket serverWebSocket;
   private final ContextInternal context;
   private final ConcurrentMap<String, Subscription> subscriptions;
+  private final ApolloWSSlowConsumerPolicy slowConsumerPolicy;
+  private final int maxQueuedMessages;
+  private final int maxFrameSize;
+
+  // guarded by this
+  private final ArrayDeque<Message> queue = new ArrayDeque<>();
+  private final Map<String, Subscription> awaitingDemand = new HashMap<>();
+  private int queuedEvents;
+  private long queuedBytes;
+  private long droppedEvents;
+  private boolean closed;
 
   ApolloWSConnectionHandler(ApolloWSHandlerImpl apolloWSHandler, ContextInternal context, ServerWebSocket serverWebSocket) {
     this.apolloWSHandler = apolloWSHandler;
     this.context = context;
     this.serverWebSocket = serverWebSocket;
     subscriptions = new ConcurrentHashMap<>();
+    slowConsumerPolicy = apolloWSHandler.getSlowConsumerPolicy();
+    maxQueuedMessages = apolloWSHandler.getMaxQueuedMessages();
+    maxFrameSize = apolloWSHandler.getMaxWebSocketFrameSize();
   }
 
   void handleConnection() {
@@ -104,7 +136,17 @@ class ApolloWSConnectionHandler {
       }
     });
 
+    serverWebSocket.drainHandler(v -> drain());
+
     serverWebSocket.closeHandler(v -> {
+      synchronized (this) {
+        closed = true;
+        queue.clear();
+        queuedEvents = 0;
+        queuedBytes = 0;
+        awaitingDemand.clear();
+      }
+      apolloWSHandler.removeConnection(serverWebSocket);
       subscriptions.values().forEach(Subscription::cancel);
 
       Handler<ServerWebSocket> eh = apolloWSHandler.getEndHandler();
@@ -168,7 +210,7 @@ class ApolloWSConnectionHandler {
         if (executionResult.getData() instanceof Publisher) {
           subscribe(opId, executionResult);
         } else {
-          sendMessage(opId, DATA, new JsonObject(executionResult.toSpecification()));
+          sendMessage(opId, DATA, executionResult.toSpecification());
           sendMessage(opId, COMPLETE, null);
         }
       } else {
@@ -194,8 +236,10 @@ class ApolloWSConnectionHandler {
 
       @Override
       public void onNext(ExecutionResult er) {
-        sendMessage(opId, DATA, new JsonObject(er.toSpecification()));
-        subscriptionRef.get().request(1);
+        Subscription subscription = subscriptionRef.get();
+        if (sendEvent(opId, er.toSpecification(), subscription)) {
+          subscription.request(1);
+        }
       }
 
       @Override
@@ -205,12 +249,14 @@ class ApolloWSConnectionHandler {
         }
         sendMessage(opId, ERROR, toJsonObject(t));
         subscriptions.remove(opId);
+        removeAwaitingDemand(opId);
       }
 
       @Override
       public void onComplete() {
         sendMessage(opId, COMPLETE, null);
         subscriptions.remove(opId);
+        removeAwaitingDemand(opId);
       }
     });
   }
@@ -220,6 +266,7 @@ class ApolloWSConnectionHandler {
     if (subscription != null) {
       subscription.cancel();
       subscriptions.remove(opId);
+      removeAwaitingDemand(opId);
     }
   }
 
@@ -239,8 +286,154 @@ class ApolloWSConnectionHandler {
   }
 
   private void sendMessage(String opId, ApolloWSMessageType type, Object payload) {
+    Buffer buffer = encode(opId, type, payload);
+    if (buffer == null) {
+      return;
+    }
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      if (isWritable()) {
+        write(buffer);
+      } else {
+        enqueue(new Message(opId, buffer, false));
+      }
+    }
+  }
+
+  /**
+   * Send a subscription event.
+   *
+   * @return whether the next event of the subscription can be requested
+   */
+  private boolean sendEvent(String opId, Object payload, Subscription subscription) {
+    Buffer buffer = encode(opId, DATA, payload);
+    if (buffer == null) {
+      return true;
+    }
+    synchronized (this) {
+      if (closed) {
+        return false;
+      }
+      if (isWritable()) {
+        write(buffer);
+      } else if (!enqueueEvent(opId, buffer)) {
+        return false;
+      }
+      if (slowConsumerPolicy != ApolloWSSlowConsumerPolicy.BACKPRESSURE || isWritable()) {
+        return true;
+      }
+      // requested by drain
+      awaitingDemand.put(opId, subscription);
+      return false;
+    }
+  }
+
+  /**
+   * Queue an event, applying the slow consumer policy.
+   *
+   * @return {@code false} when the WebSocket has been closed
+   */
+  private boolean enqueueEvent(String opId, Buffer buffer) {
+    if (slowConsumerPolicy == ApolloWSSlowConsumerPolicy.CONFLATE) {
+      for (Message message : queue) {
+        if (message.event && opId.equals(message.opId)) {
+          queuedBytes += buffer.length() - message.buffer.length();
+          message.buffer = buffer;
+          droppedEvents++;
+          return true;
+        }
+      }
+    }
+    if (slowConsumerPolicy != ApolloWSSlowConsumerPolicy.BACKPRESSURE && queuedEvents >= maxQueuedMessages) {
+      if (slowConsumerPolicy == ApolloWSSlowConsumerPolicy.DISCONNECT) {
+        if (log.isDebugEnabled()) {
+          log.debug("Closing slow Apollo WebSocket connection, queued events=" + queuedEvents);
+        }
+        closed = true;
+        droppedEvents += queuedEvents + 1;
+        queue.clear();
+        queuedEvents = 0;
+        queuedBytes = 0;
+        serverWebSocket.close((short) 1008, "Slow consumer");
+        return false;
+      }
+      for (Iterator<Message> it = queue.iterator(); it.hasNext(); ) {
+        Message message = it.next();
+        if (message.event) {
+          it.remove();
+          queuedEvents--;
+          queuedBytes -= message.buffer.length();
+          droppedEvents++;
+          break;
+        }
+      }
+    }
+    enqueue(new Message(opId, buffer, true));
+    return true;
+  }
+
+  private void enqueue(Message message) {
+    queue.add(message);
+    queuedBytes += message.buffer.length();
+    if (message.event) {
+      queuedEvents++;
+    }
+  }
+
+  private boolean isWritable() {
+    return queue.isEmpty() && !serverWebSocket.writeQueueFull();
+  }
+
+  // the buffer is UTF-8 encoded JSON, so it is written as text without decoding it
+  private void write(Buffer buffer) {
+    int length = buffer.length();
+    int end = Math.min(maxFrameSize, length);
+    serverWebSocket.writeFrame(new WebSocketFrameImpl(FrameType.TEXT, buffer.slice(0, end).getByteBuf(), end == length));
+    while (end < length) {
+      int start = end;
+      end = Math.min(start + maxFrameSize, length);
+      serverWebSocket.writeFrame(WebSocketFrame.continuationFrame(buffer.slice(start, end), end == length));
+    }
+  }
+
+  private void drain() {
+    List<Subscription> demand;
+    synchronized (this) {
+      while (!queue.isEmpty() && !serverWebSocket.writeQueueFull()) {
+        Message message = queue.poll();
+        queuedBytes -= message.buffer.length();
+        if (message.event) {
+          queuedEvents--;
+        }
+        write(message.buffer);
+      }
+      if (!queue.isEmpty() || awaitingDemand.isEmpty()) {
+        return;
+      }
+      demand = new ArrayList<>(awaitingDemand.values());
+      awaitingDemand.clear();
+    }
+    for (Subscription subscription : demand) {
+      subscription.request(1);
+    }
+  }
+
+  private synchronized void removeAwaitingDemand(String opId) {
+    awaitingDemand.remove(opId);
+  }
+
+  synchronized JsonObject metrics() {
+    return new JsonObject()
+      .put("queuedMessages", queue.size())
+      .put("queuedBytes", queuedBytes)
+      .put("droppedEvents", droppedEvents);
+  }
+
+  private Buffer encode(String opId, ApolloWSMessageType type, Object payload) {
     Objects.requireNonNull(type, "type is null");
-    JsonObject message = new JsonObject();
+    Map<String, Object> message = new LinkedHashMap<>();
     if (opId != null) {
       message.put("id", opId);
     }
@@ -248,6 +441,24 @@ class ApolloWSConnectionHandler {
     if (payload != null) {
       message.put("payload", payload);
     }
-    serverWebSocket.writeTextMessage(message.toString());
+    try {
+      return ResultWriter.encode(message);
+    } catch (Exception e) {
+      log.error("Failed to encode Apollo WebSocket message, opId=" + opId, e);
+      return null;
+    }
+  }
+
+  private static final class Message {
+
+    final String opId;
+    final boolean event;
+    Buffer buffer;
+
+    Message(String opId, Buffer buffer, boolean event) {
+      this.opId = opId;
+      this.buffer = buffer;
+      this.event = event;
+    }
   }
 }
@@ -21,14 +21,18 @@ import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.http.ServerWebSocket;
 import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.graphql.ApolloWSHandler;
 import io.vertx.ext.web.handler.graphql.ApolloWSMessage;
 import io.vertx.ext.web.handler.graphql.ApolloWSOptions;
+import io.vertx.ext.web.handler.graphql.ApolloWSSlowConsumerPolicy;
 import org.dataloader.DataLoaderRegistry;
 
 import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 
 import static io.vertx.core.http.HttpHeaders.*;
@@ -44,6 +48,10 @@ public class ApolloWSHandlerImpl implements ApolloWSHandler {
 
   private final GraphQL graphQL;
   private final long keepAlive;
+  private final ApolloWSSlowConsumerPolicy slowConsumerPolicy;
+  private final int maxQueuedMessages;
+  private final int maxWebSocketFrameSize;
+  private final ConcurrentMap<ServerWebSocket, ApolloWSConnectionHandler> connections = new ConcurrentHashMap<>();
 
   private Function<ApolloWSMessage, Object> queryContextFactory = DEFAULT_QUERY_CONTEXT_FACTORY;
   private Function<ApolloWSMessage, DataLoaderRegistry> dataLoaderRegistryFactory = DEFAULT_DATA_LOADER_REGISTRY_FACTORY;
@@ -57,6 +65,9 @@ public class ApolloWSHandlerImpl implements ApolloWSHandler {
     Objects.requireNonNull(options, "options");
     this.graphQL = graphQL;
     this.keepAlive = options.getKeepAlive();
+    this.slowConsumerPolicy = options.getSlowConsumerPolicy();
+    this.maxQueuedMessages = options.getMaxQueuedMessages();
+    this.maxWebSocketFrameSize = options.getMaxWebSocketFrameSize();
   }
 
   GraphQL getGraphQL() {
@@ -67,6 +78,28 @@ public class ApolloWSHandlerImpl implements ApolloWSHandler {
     return keepAlive;
   }
 
+  ApolloWSSlowConsumerPolicy getSlowConsumerPolicy() {
+    return slowConsumerPolicy;
+  }
+
+  int getMaxQueuedMessages() {
+    return maxQueuedMessages;
+  }
+
+  int getMaxWebSocketFrameSize() {
+    return maxWebSocketFrameSize;
+  }
+
+  void removeConnection(ServerWebSocket serverWebSocket) {
+    connections.remove(serverWebSocket);
+  }
+
+  @Override
+  public JsonObject connectionMetrics(ServerWebSocket serverWebSocket) {
+    ApolloWSConnectionHandler connectionHandler = connections.get(serverWebSocket);
+    return connectionHandler != null ? connectionHandler.metrics() : null;
+  }
+
   @Override
   public synchronized ApolloWSHandler connectionHandler(Handler<ServerWebSocket> connectionHandler) {
     this.connectionHandler = connectionHandler;
@@ -134,6 +167,7 @@ public class ApolloWSHandlerImpl implements ApolloWSHandler {
       ContextInternal context = (ContextInternal) routingContext.vertx().getOrCreateContext();
       ServerWebSocket serverWebSocket = routingContext.request().upgrade();
       ApolloWSConnectionHandler connectionHandler = new ApolloWSConnectionHandler(this, context, serverWebSocket);
+      connections.put(serverWebSocket, connectionHandler);
       connectionHandler.handleConnection();
     } else {
       routingContext.next();
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.vertx.ext.web.handler.graphql.impl;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import io.vertx.ext.web.impl.ConcurrentLRUCache;
+
+import java.util.function.Function;
+
+/**
+ * A bounded cache of parsed and validated documents, keyed by query.
+ */
+public class DocumentCache implements PreparsedDocumentProvider {
+
+  private final ConcurrentLRUCache<String, PreparsedDocumentEntry> entries;
+
+  public DocumentCache(int maxSize) {
+    entries = new ConcurrentLRUCache<>(maxSize);
+  }
+
+  @Override
+  public PreparsedDocumentEntry getDocument(ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+    String query = executionInput.getQuery();
+    PreparsedDocumentEntry entry = entries.get(query);
+    if (entry == null) {
+      // parsed outside of the map, concurrent requests for a new query may parse it more than once
+      entry = parseAndValidateFunction.apply(executionInput);
+      entries.putIfAbsent(query, entry);
+    }
+    return entry;
+  }
+}
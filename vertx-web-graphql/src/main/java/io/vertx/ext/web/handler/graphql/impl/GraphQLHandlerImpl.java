@@ -17,14 +17,15 @@
 package io.vertx.ext.web.handler.graphql.impl;
 
 import graphql.ExecutionInput;
+import graphql.ExecutionResult;
 import graphql.GraphQL;
 import io.vertx.core.AsyncResult;
-import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.MultiMap;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.impl.NoStackTraceThrowable;
 import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonArray;
@@ -33,22 +34,24 @@ import io.vertx.ext.web.FileUpload;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.graphql.GraphQLHandler;
 import io.vertx.ext.web.handler.graphql.GraphQLHandlerOptions;
+import io.vertx.ext.web.impl.ConcurrentLRUCache;
 import org.dataloader.DataLoaderRegistry;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.function.Function;
 import java.util.regex.Pattern;
-import java.util.stream.StreamSupport;
 
 import static io.vertx.core.http.HttpMethod.GET;
 import static io.vertx.core.http.HttpMethod.POST;
-import static java.util.stream.Collectors.collectingAndThen;
-import static java.util.stream.Collectors.toList;
 
 /**
  * @author Thomas Segismont
  */
 public class GraphQLHandlerImpl implements GraphQLHandler {
+  private static final String NDJSON = "application/x-ndjson";
   private static final Pattern IS_NUMBER = Pattern.compile("\\d+");
 
   private static final Function<RoutingContext, Object> DEFAULT_QUERY_CONTEXT_FACTORY = rc -> rc;
@@ -57,6 +60,7 @@ public class GraphQLHandlerImpl implements GraphQLHandler {
 
   private final GraphQL graphQL;
   private final GraphQLHandlerOptions options;
+  private final ConcurrentLRUCache<String, String> persistedQueries;
 
   private Function<RoutingContext, Object> queryContextFactory = DEFAULT_QUERY_CONTEXT_FACTORY;
   private Function<RoutingContext, DataLoaderRegistry> dataLoaderRegistryFactory = DEFAULT_DATA_LOADER_REGISTRY_FACTORY;
@@ -65,8 +69,14 @@ public class GraphQLHandlerImpl implements GraphQLHandler {
   public GraphQLHandlerImpl(GraphQL graphQL, GraphQLHandlerOptions options) {
     Objects.requireNonNull(graphQL, "graphQL");
     Objects.requireNonNull(options, "options");
-    this.graphQL = graphQL;
+    if (options.isParsedDocumentCacheEnabled()) {
+      DocumentCache documentCache = new DocumentCache(options.getCacheSize());
+      this.graphQL = graphQL.transform(builder -> builder.preparsedDocumentProvider(documentCache));
+    } else {
+      this.graphQL = graphQL;
+    }
     this.options = options;
+    this.persistedQueries = options.isPersistedQueriesEnabled() ? new ConcurrentLRUCache<>(options.getCacheSize()) : null;
   }
 
   @Override
@@ -105,19 +115,22 @@ public class GraphQLHandlerImpl implements GraphQLHandler {
   }
 
   private void handleGet(RoutingContext rc) {
-    String query = rc.queryParams().get("query");
-    if (query == null) {
-      failQueryMissing(rc);
-      return;
-    }
     Map<String, Object> variables;
+    JsonObject extensions;
     try {
       variables = getVariablesFromQueryParam(rc);
+      extensions = getExtensionsFromQueryParam(rc);
     } catch (Exception e) {
       rc.fail(400, e);
       return;
     }
-    executeOne(rc, new GraphQLQuery(query, rc.queryParams().get("operationName"), variables));
+    GraphQLQuery query = new GraphQLQuery(rc.queryParams().get("query"), rc.queryParams().get("operationName"), variables)
+      .setExtensions(extensions);
+    if (isQueryMissing(query)) {
+      failQueryMissing(rc);
+      return;
+    }
+    executeOne(rc, query);
   }
 
   private void handlePost(RoutingContext rc, Buffer body) {
@@ -173,7 +186,7 @@ public class GraphQLHandlerImpl implements GraphQLHandler {
       return;
     }
     for (GraphQLQuery query : batch) {
-      if (query.getQuery() == null) {
+      if (isQueryMissing(query)) {
         failQueryMissing(rc);
         return;
       }
@@ -188,16 +201,20 @@ public class GraphQLHandlerImpl implements GraphQLHandler {
   }
 
   private void executeBatch(RoutingContext rc, GraphQLBatch batch) {
-    @SuppressWarnings("rawtypes")
-    CompositeFuture all = StreamSupport.stream(batch.spliterator(), false)
-      .map(q -> (Future) execute(rc, q))
-      .collect(collectingAndThen(toList(), CompositeFuture::all));
-    all.map(cf -> new JsonArray(cf.list()).toBuffer())
-      .onComplete(ar -> sendResponse(rc, ar));
+    List<GraphQLQuery> queries = new ArrayList<>();
+    batch.forEach(queries::add);
+    DataLoaderRegistry registry = options.isBatchDataLoaderSharingEnabled() ? dataLoaderRegistry(rc) : null;
+    boolean streaming = options.isBatchStreamingEnabled() && acceptsNdjson(rc);
+    new BatchExecution(rc, queries, registry, streaming).start();
+  }
+
+  private boolean acceptsNdjson(RoutingContext rc) {
+    String accept = rc.request().getHeader(HttpHeaders.ACCEPT);
+    return accept != null && accept.contains(NDJSON);
   }
 
   private void handlePostQuery(RoutingContext rc, GraphQLQuery query, String operationName, Map<String, Object> variables) {
-    if (query.getQuery() == null) {
+    if (isQueryMissing(query)) {
       failQueryMissing(rc);
       return;
     }
@@ -313,12 +330,27 @@ public class GraphQLHandlerImpl implements GraphQLHandler {
   }
 
   private void executeOne(RoutingContext rc, GraphQLQuery query) {
-    execute(rc, query)
-      .map(JsonObject::toBuffer)
+    execute(rc, query, dataLoaderRegistry(rc))
       .onComplete(ar -> sendResponse(rc, ar));
   }
 
-  private Future<JsonObject> execute(RoutingContext rc, GraphQLQuery query) {
+  private DataLoaderRegistry dataLoaderRegistry(RoutingContext rc) {
+    Function<RoutingContext, DataLoaderRegistry> dlr;
+    synchronized (this) {
+      dlr = dataLoaderRegistryFactory;
+    }
+    return dlr.apply(rc);
+  }
+
+  private Future<Map<String, Object>> execute(RoutingContext rc, GraphQLQuery query, DataLoaderRegistry registry) {
+    String hash = query.getPersistedQueryHash();
+    if (hash != null) {
+      Map<String, Object> error = resolvePersistedQuery(query, hash);
+      if (error != null) {
+        return Future.succeededFuture(error);
+      }
+    }
+
     ExecutionInput.Builder builder = ExecutionInput.newExecutionInput();
 
     builder.query(query.getQuery());
@@ -337,11 +369,6 @@ public class GraphQLHandlerImpl implements GraphQLHandler {
     }
     builder.context(qc.apply(rc));
 
-    Function<RoutingContext, DataLoaderRegistry> dlr;
-    synchronized (this) {
-      dlr = dataLoaderRegistryFactory;
-    }
-    DataLoaderRegistry registry = dlr.apply(rc);
     if (registry != null) {
       builder.dataLoaderRegistry(registry);
     }
@@ -356,7 +383,55 @@ public class GraphQLHandlerImpl implements GraphQLHandler {
     }
 
     return Future.fromCompletionStage(graphQL.executeAsync(builder.build()), rc.vertx().getOrCreateContext())
-      .map(executionResult -> new JsonObject(executionResult.toSpecification()));
+      .map(ExecutionResult::toSpecification);
+  }
+
+  /**
+   * Resolve the query of an automatic persisted query or register the query sent with its hash. When persisted queries
+   * are disabled, only the requests without the query fail.
+   *
+   * @return the result to send when the query cannot be resolved, otherwise {@code null}
+   */
+  private Map<String, Object> resolvePersistedQuery(GraphQLQuery query, String hash) {
+    if (persistedQueries == null) {
+      // the extension is ignored when the request carries the query
+      return query.getQuery() == null ? persistedQueryError("PersistedQueryNotSupported", "PERSISTED_QUERY_NOT_SUPPORTED") : null;
+    }
+    if (query.getQuery() == null) {
+      String persisted = persistedQueries.get(hash);
+      if (persisted == null) {
+        // the client sends the query with its hash afterwards
+        return persistedQueryError("PersistedQueryNotFound", "PERSISTED_QUERY_NOT_FOUND");
+      }
+      query.setQuery(persisted);
+    } else if (hash.equalsIgnoreCase(sha256(query.getQuery()))) {
+      persistedQueries.put(hash, query.getQuery());
+    } else {
+      return persistedQueryError("provided sha does not match query", "BAD_REQUEST");
+    }
+    return null;
+  }
+
+  private static Map<String, Object> persistedQueryError(String message, String code) {
+    JsonObject error = new JsonObject()
+      .put("message", message)
+      .put("extensions", new JsonObject().put("code", code));
+    return new JsonObject().put("errors", new JsonArray().add(error)).getMap();
+  }
+
+  private static String sha256(String query) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    byte[] bytes = digest.digest(query.getBytes(StandardCharsets.UTF_8));
+    StringBuilder sb = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return sb.toString();
   }
 
   private String getContentType(RoutingContext rc) {
@@ -373,15 +448,129 @@ public class GraphQLHandlerImpl implements GraphQLHandler {
     }
   }
 
-  private void sendResponse(RoutingContext rc, AsyncResult<Buffer> ar) {
+  private JsonObject getExtensionsFromQueryParam(RoutingContext rc) {
+    String extensionsParam = rc.queryParams().get("extensions");
+    return extensionsParam != null ? new JsonObject(extensionsParam) : null;
+  }
+
+  private void sendResponse(RoutingContext rc, AsyncResult<?> ar) {
     if (ar.succeeded()) {
-      rc.response().putHeader(HttpHeaders.CONTENT_TYPE, "application/json").end(ar.result());
+      try {
+        ResultWriter.send(rc.response(), ar.result(), options.getResponseChunkSize());
+      } catch (Exception e) {
+        rc.fail(e);
+      }
     } else {
       rc.fail(ar.cause());
     }
   }
 
+  private boolean isQueryMissing(GraphQLQuery query) {
+    return query.getQuery() == null && query.getPersistedQueryHash() == null;
+  }
+
   private void failQueryMissing(RoutingContext rc) {
     rc.fail(400, new NoStackTraceThrowable("Query is missing"));
   }
+
+  /**
+   * Executes the queries of a batch, at most {@link GraphQLHandlerOptions#getBatchConcurrency()} at a time.
+   * <p>
+   * The results are either collected and sent in the order of the queries, or streamed as newline-delimited JSON in
+   * the order of completion, each with the index of its query. The callbacks run on the context of the request.
+   */
+  private class BatchExecution {
+
+    final RoutingContext rc;
+    final List<GraphQLQuery> queries;
+    final DataLoaderRegistry registry;
+    final boolean streaming;
+    final Object[] results;
+    final int concurrency;
+    int next;
+    int inFlight;
+    int completed;
+    boolean started;
+    boolean failed;
+
+    BatchExecution(RoutingContext rc, List<GraphQLQuery> queries, DataLoaderRegistry registry, boolean streaming) {
+      this.rc = rc;
+      this.queries = queries;
+      this.registry = registry;
+      this.streaming = streaming;
+      this.results = streaming ? null : new Object[queries.size()];
+      int max = options.getBatchConcurrency();
+      this.concurrency = max > 0 ? max : Integer.MAX_VALUE;
+    }
+
+    void start() {
+      if (queries.isEmpty()) {
+        sendResponse(rc, Future.succeededFuture(Collections.emptyList()));
+        return;
+      }
+      executeNext();
+    }
+
+    void executeNext() {
+      while (!failed && next < queries.size() && inFlight < concurrency) {
+        int index = next++;
+        inFlight++;
+        DataLoaderRegistry dlr = registry != null ? registry : dataLoaderRegistry(rc);
+        execute(rc, queries.get(index), dlr).onComplete(ar -> complete(index, ar));
+      }
+    }
+
+    void complete(int index, AsyncResult<Map<String, Object>> ar) {
+      inFlight--;
+      if (failed) {
+        return;
+      }
+      if (ar.failed()) {
+        fail(ar.cause());
+        return;
+      }
+      if (streaming) {
+        try {
+          write(index, ar.result());
+        } catch (Exception e) {
+          fail(e);
+          return;
+        }
+      } else {
+        results[index] = ar.result();
+      }
+      if (++completed == queries.size()) {
+        if (streaming) {
+          rc.response().end();
+        } else {
+          sendResponse(rc, Future.succeededFuture(Arrays.asList(results)));
+        }
+      } else {
+        executeNext();
+      }
+    }
+
+    void write(int index, Map<String, Object> result) throws Exception {
+      Map<String, Object> line = new LinkedHashMap<>();
+      line.put("index", index);
+      line.put("result", result);
+      Buffer buffer = ResultWriter.encode(line).appendByte((byte) '\n');
+      HttpServerResponse response = rc.response();
+      if (!started) {
+        started = true;
+        response.setChunked(true).putHeader(HttpHeaders.CONTENT_TYPE, NDJSON);
+      }
+      response.write(buffer);
+    }
+
+    void fail(Throwable cause) {
+      failed = true;
+      if (started) {
+        // the status has been sent, the response can only be interrupted
+        rc.response().reset();
+      } else {
+        rc.fail(cause);
+      }
+    }
+  }
 }
@@ -28,12 +28,14 @@ public class GraphQLQuery implements GraphQLInput {
   private String query;
   private String operationName;
   private Map<String, Object> variables;
+  private JsonObject extensions;
 
   public GraphQLQuery(JsonObject value) {
     query = value.getString("query");
     operationName = value.getString("operationName");
     JsonObject vars = value.getJsonObject("variables");
     this.variables = vars != null ? vars.getMap() : null;
+    extensions = value.getJsonObject("extensions");
   }
 
   public GraphQLQuery(String query, String operationName, Map<String, Object> variables) {
@@ -69,12 +71,30 @@ public class GraphQLQuery implements GraphQLInput {
     return this;
   }
 
+  public JsonObject getExtensions() {
+    return extensions;
+  }
+
+  public GraphQLQuery setExtensions(JsonObject extensions) {
+    this.extensions = extensions;
+    return this;
+  }
+
+  /**
+   * @return the SHA-256 hash of the automatic persisted query extension or {@code null}
+   */
+  public String getPersistedQueryHash() {
+    JsonObject persistedQuery = extensions != null ? extensions.getJsonObject("persistedQuery") : null;
+    return persistedQuery != null ? persistedQuery.getString("sha256Hash") : null;
+  }
+
   @Override
   public String toString() {
     return "GraphQLQuery{" +
       "query='" + query + '\'' +
       ", operationName='" + operationName + '\'' +
       ", variables=" + variables +
+      ", extensions=" + extensions +
       '}';
   }
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.vertx.ext.web.handler.graphql.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonObject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+
+/**
+ * Writes the specification of execution results to an HTTP response or a buffer, without converting it to
+ * {@link JsonObject} first.
+ * <p>
+ * The JSON is generated into a {@link Buffer} sent when the generation is over. When a chunk size is set and the JSON
+ * is larger than the chunk size, the response is chunked and a chunk is sent each time the buffer reaches the chunk
+ * size. The generation walks a result held in memory and cannot be suspended, so the chunks are written without
+ * waiting for the write queue of the response to drain.
+ */
+class ResultWriter extends OutputStream {
+
+  private static final JsonFactory FACTORY = new JsonFactory();
+
+  private final HttpServerResponse response;
+  private final int chunkSize;
+  private Buffer buffer = Buffer.buffer();
+  private boolean chunked;
+
+  private ResultWriter(HttpServerResponse response, int chunkSize) {
+    this.response = response;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Send a result, the specification of an execution result or a list of specifications for a batch.
+   *
+   * @throws Exception when the result cannot be encoded and the response has not been sent yet
+   */
+  static void send(HttpServerResponse response, Object result, int chunkSize) throws Exception {
+    ResultWriter writer = new ResultWriter(response, chunkSize);
+    try (JsonGenerator generator = FACTORY.createGenerator(writer, JsonEncoding.UTF8)) {
+      writeValue(generator, result);
+    } catch (Exception e) {
+      if (!writer.chunked) {
+        throw e;
+      }
+      // the status has been sent, the response can only be interrupted
+      response.reset();
+      return;
+    }
+    writer.end();
+  }
+
+  /**
+   * Encode a value to a buffer.
+   */
+  static Buffer encode(Object value) throws IOException {
+    ResultWriter writer = new ResultWriter(null, 0);
+    try (JsonGenerator generator = FACTORY.createGenerator(writer, JsonEncoding.UTF8)) {
+      writeValue(generator, value);
+    }
+    return writer.buffer;
+  }
+
+  private static void writeValue(JsonGenerator generator, Object value) throws IOException {
+    if (value == null) {
+      generator.writeNull();
+    } else if (value instanceof CharSequence) {
+      generator.writeString(value.toString());
+    } else if (value instanceof Boolean) {
+      generator.writeBoolean((Boolean) value);
+    } else if (value instanceof Number) {
+      writeNumber(generator, (Number) value);
+    } else if (value instanceof Map) {
+      generator.writeStartObject();
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        generator.writeFieldName(String.valueOf(entry.getKey()));
+        writeValue(generator, entry.getValue());
+      }
+      generator.writeEndObject();
+    } else if (value instanceof Iterable && !(value instanceof JsonObject)) {
+      generator.writeStartArray();
+      for (Object item : (Iterable<?>) value) {
+        writeValue(generator, item);
+      }
+      generator.writeEndArray();
+    } else if (value instanceof JsonObject) {
+      writeValue(generator, ((JsonObject) value).getMap());
+    } else if (value instanceof Enum) {
+      generator.writeString(((Enum<?>) value).name());
+    } else {
+      // any other value is encoded like Vert.x does it
+      generator.writeRawValue(Json.encode(value));
+    }
+  }
+
+  private static void writeNumber(JsonGenerator generator, Number number) throws IOException {
+    if (number instanceof Integer || number instanceof Short || number instanceof Byte) {
+      generator.writeNumber(number.intValue());
+    } else if (number instanceof Long) {
+      generator.writeNumber(number.longValue());
+    } else if (number instanceof Double) {
+      generator.writeNumber(number.doubleValue());
+    } else if (number instanceof Float) {
+      generator.writeNumber(number.floatValue());
+    } else if (number instanceof BigDecimal) {
+      generator.writeNumber((BigDecimal) number);
+    } else if (number instanceof BigInteger) {
+      generator.writeNumber((BigInteger) number);
+    } else {
+      generator.writeNumber(number.toString());
+    }
+  }
+
+  @Override
+  public void write(int b) {
+    buffer.appendByte((byte) b);
+    checkChunk();
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) {
+    buffer.appendBytes(b, off, len);
+    checkChunk();
+  }
+
+  private void checkChunk() {
+    if (chunkSize > 0 && buffer.length() >= chunkSize) {
+      if (!chunked) {
+        chunked = true;
+        response.setChunked(true).putHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+      }
+      response.write(buffer);
+      buffer = Buffer.buffer();
+    }
+  }
+
+  private void end() {
+    if (!chunked) {
+      response.putHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+    }
+    response.end(buffer);
+  }
+}
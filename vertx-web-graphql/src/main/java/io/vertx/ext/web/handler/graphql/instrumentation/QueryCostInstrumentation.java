@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.vertx.ext.web.handler.graphql.instrumentation;
+
+import graphql.ExecutionInput;
+import graphql.execution.instrumentation.Instrumentation;
+import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.GenIgnore;
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.handler.graphql.instrumentation.impl.QueryCostInstrumentationImpl;
+
+import java.util.function.Function;
+
+import static io.vertx.codegen.annotations.GenIgnore.PERMITTED_TYPE;
+
+/**
+ * An {@link Instrumentation} computing the cost and the depth of queries before they are executed, and rejecting the
+ * queries over the limits of its {@link QueryCostOptions}.
+ * <p>
+ * The cost of a query is cached by query text and operation name, unless the size of a list is given by a variable.
+ */
+@VertxGen
+public interface QueryCostInstrumentation extends Instrumentation {
+
+  /**
+   * Create a new instrumentation configured with the given {@code options}.
+   */
+  @GenIgnore(PERMITTED_TYPE)
+  static QueryCostInstrumentation create(QueryCostOptions options) {
+    return new QueryCostInstrumentationImpl(options);
+  }
+
+  /**
+   * Customize how the client of a query is identified, to enforce the client budget.
+   * <p>
+   * By default, the client is the remote host of the HTTP request or of the WebSocket, when the query context is a
+   * {@link io.vertx.ext.web.RoutingContext} or an {@link io.vertx.ext.web.handler.graphql.ApolloWSMessage}. A query
+   * without client is not subject to the client budget.
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  @GenIgnore(PERMITTED_TYPE)
+  QueryCostInstrumentation clientKey(Function<ExecutionInput, Object> factory);
+
+  /**
+   * Get the metrics of this instrumentation:
+   * <ul>
+   * <li>{@code queries}: the number of queries checked</li>
+   * <li>{@code totalCost}: the sum of the costs of the queries</li>
+   * <li>{@code maxCost}: the highest cost of a query</li>
+   * <li>{@code maxDepth}: the highest depth of a query</li>
+   * <li>{@code rejectedComplexity}: the number of queries rejected because of their cost</li>
+   * <li>{@code rejectedDepth}: the number of queries rejected because of their depth</li>
+   * <li>{@code rejectedBudget}: the number of queries rejected because of the budget of their client</li>
+   * </ul>
+   *
+   * @return the metrics
+   */
+  JsonObject metrics();
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.vertx.ext.web.handler.graphql.instrumentation;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options for configuring the {@link QueryCostInstrumentation}.
+ * <p>
+ * The cost of a field is its weight plus the cost of its sub-selection, multiplied by the size of the list when the
+ * field returns a list.
+ */
+@DataObject(generateConverter = true)
+public class QueryCostOptions {
+
+  /**
+   * Default maximum cost of a query = 0 (no limit).
+   */
+  public static final int DEFAULT_MAX_COMPLEXITY = 0;
+
+  /**
+   * Default maximum depth of a query = 0 (no limit).
+   */
+  public static final int DEFAULT_MAX_DEPTH = 0;
+
+  /**
+   * Default weight of a field = 1.
+   */
+  public static final int DEFAULT_FIELD_WEIGHT = 1;
+
+  /**
+   * Default size assumed for a list field without size argument = 10.
+   */
+  public static final int DEFAULT_LIST_SIZE = 10;
+
+  /**
+   * Default names of the arguments giving the size of a list field = {@code [first, last, limit]}.
+   */
+  public static final List<String> DEFAULT_LIST_SIZE_ARGUMENTS = Arrays.asList("first", "last", "limit");
+
+  /**
+   * Default cost a client can spend during the budget window = 0 (no budget).
+   */
+  public static final int DEFAULT_CLIENT_BUDGET = 0;
+
+  /**
+   * Default budget window in milliseconds = 60000.
+   */
+  public static final long DEFAULT_BUDGET_WINDOW = 60000L;
+
+  /**
+   * Default maximum number of query costs and client budgets kept in memory = 1000.
+   */
+  public static final int DEFAULT_CACHE_SIZE = 1000;
+
+  private int maxComplexity = DEFAULT_MAX_COMPLEXITY;
+  private int maxDepth = DEFAULT_MAX_DEPTH;
+  private int defaultFieldWeight = DEFAULT_FIELD_WEIGHT;
+  private Map<String, Integer> fieldWeights = new LinkedHashMap<>();
+  private int defaultListSize = DEFAULT_LIST_SIZE;
+  private List<String> listSizeArguments = new ArrayList<>(DEFAULT_LIST_SIZE_ARGUMENTS);
+  private int clientBudget = DEFAULT_CLIENT_BUDGET;
+  private long budgetWindow = DEFAULT_BUDGET_WINDOW;
+  private int cacheSize = DEFAULT_CACHE_SIZE;
+
+  /**
+   * Default constructor.
+   */
+  public QueryCostOptions() {
+  }
+
+  /**
+   * Copy constructor.
+   *
+   * @param other the options to copy
+   */
+  public QueryCostOptions(QueryCostOptions other) {
+    maxComplexity = other.maxComplexity;
+    maxDepth = other.maxDepth;
+    defaultFieldWeight = other.defaultFieldWeight;
+    fieldWeights = new LinkedHashMap<>(other.fieldWeights);
+    defaultListSize = other.defaultListSize;
+    listSizeArguments = new ArrayList<>(other.listSizeArguments);
+    clientBudget = other.clientBudget;
+    budgetWindow = other.budgetWindow;
+    cacheSize = other.cacheSize;
+  }
+
+  /**
+   * Constructor to create options from JSON.
+   *
+   * @param json the JSON
+   */
+  public QueryCostOptions(JsonObject json) {
+    this();
+    QueryCostOptionsConverter.fromJson(json, this);
+  }
+
+  /**
+   * @return a JSON representation of these options
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    QueryCostOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * @return the maximum cost of a query, {@code 0} for no limit
+   */
+  public int getMaxComplexity() {
+    return maxComplexity;
+  }
+
+  /**
+   * Set the maximum cost of a query, queries with a higher cost are rejected before execution. Defaults to {@code 0}:
+   * no limit.
+   *
+   * @param maxComplexity the maximum cost
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public QueryCostOptions setMaxComplexity(int maxComplexity) {
+    if (maxComplexity < 0) {
+      throw new IllegalArgumentException("maxComplexity must be >= 0");
+    }
+    this.maxComplexity = maxComplexity;
+    return this;
+  }
+
+  /**
+   * @return the maximum depth of a query, {@code 0} for no limit
+   */
+  public int getMaxDepth() {
+    return maxDepth;
+  }
+
+  /**
+   * Set the maximum depth of a query, queries with deeper fields are rejected before execution. Defaults to {@code 0}:
+   * no limit.
+   *
+   * @param maxDepth the maximum depth
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public QueryCostOptions setMaxDepth(int maxDepth) {
+    if (maxDepth < 0) {
+      throw new IllegalArgumentException("maxDepth must be >= 0");
+    }
+    this.maxDepth = maxDepth;
+    return this;
+  }
+
+  /**
+   * @return the weight of the fields without weight
+   */
+  public int getDefaultFieldWeight() {
+    return defaultFieldWeight;
+  }
+
+  /**
+   * Set the weight of the fields without weight. Defaults to {@code 1}.
+   *
+   * @param defaultFieldWeight the default weight
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public QueryCostOptions setDefaultFieldWeight(int defaultFieldWeight) {
+    if (defaultFieldWeight < 0) {
+      throw new IllegalArgumentException("defaultFieldWeight must be >= 0");
+    }
+    this.defaultFieldWeight = defaultFieldWeight;
+    return this;
+  }
+
+  /**
+   * @return the weights of the fields, by {@code Type.field} name
+   */
+  public Map<String, Integer> getFieldWeights() {
+    return fieldWeights;
+  }
+
+  /**
+   * Set the weights of the fields, by {@code Type.field} name, e.g. {@code Query.allLinks}.
+   *
+   * @param fieldWeights the weights of the fields
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public QueryCostOptions setFieldWeights(Map<String, Integer> fieldWeights) {
+    this.fieldWeights = fieldWeights != null ? fieldWeights : new LinkedHashMap<>();
+    return this;
+  }
+
+  /**
+   * Set the weight of a field.
+   *
+   * @param field the field {@code Type.field} name
+   * @param weight the weight
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public QueryCostOptions addFieldWeight(String field, int weight) {
+    fieldWeights.put(field, weight);
+    return this;
+  }
+
+  /**
+   * @return the size assumed for a list field without size argument
+   */
+  public int getDefaultListSize() {
+    return defaultListSize;
+  }
+
+  /**
+   * Set the size assumed for a list field without size argument, the cost of its sub-selection is multiplied by this
+   * size. Defaults to {@code 10}.
+   *
+   * @param defaultListSize the default list size
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public QueryCostOptions setDefaultListSize(int defaultListSize) {
+    if (defaultListSize < 0) {
+      throw new IllegalArgumentException("defaultListSize must be >= 0");
+    }
+    this.defaultListSize = defaultListSize;
+    return this;
+  }
+
+  /**
+   * @return the names of the arguments giving the size of a list field
+   */
+  public List<String> getListSizeArguments() {
+    return listSizeArguments;
+  }
+
+  /**
+   * Set the names of the arguments giving the size of a list field. Defaults to {@code first}, {@code last} and
+   * {@code limit}.
+   *
+   * @param listSizeArguments the argument names
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public QueryCostOptions setListSizeArguments(List<String> listSizeArguments) {
+    this.listSizeArguments = listSizeArguments != null ? listSizeArguments : new ArrayList<>();
+    return this;
+  }
+
+  /**
+   * @return the cost a client can spend during the budget window, {@code 0} for no budget
+   */
+  public int getClientBudget() {
+    return clientBudget;
+  }
+
+  /**
+   * Set the cost a client can spend during the budget window, queries exceeding the remaining budget of their client
+   * are rejected. Defaults to {@code 0}: no budget.
+   *
+   * @param clientBudget the budget of a client
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public QueryCostOptions setClientBudget(int clientBudget) {
+    if (clientBudget < 0) {
+      throw new IllegalArgumentException("clientBudget must be >= 0");
+    }
+    this.clientBudget = clientBudget;
+    return this;
+  }
+
+  /**
+   * @return the duration in milliseconds of the rolling window of client budgets
+   */
+  public long getBudgetWindow() {
+    return budgetWindow;
+  }
+
+  /**
+   * Set the duration in milliseconds of the rolling window of client budgets. Defaults to {@code 60000}.
+   *
+   * @param budgetWindow the budget window
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public QueryCostOptions setBudgetWindow(long budgetWindow) {
+    if (budgetWindow < 1) {
+      throw new IllegalArgumentException("budgetWindow must be > 0");
+    }
+    this.budgetWindow = budgetWindow;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of query costs and client budgets kept in memory
+   */
+  public int getCacheSize() {
+    return cacheSize;
+  }
+
+  /**
+   * Set the maximum number of query costs and client budgets kept in memory. Defaults to {@code 1000}.
+   *
+   * @param cacheSize the cache size
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public QueryCostOptions setCacheSize(int cacheSize) {
+    if (cacheSize < 1) {
+      throw new IllegalArgumentException("cacheSize must be > 0");
+    }
+    this.cacheSize = cacheSize;
+    return this;
+  }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.vertx.ext.web.handler.graphql.instrumentation.impl;
+
+import graphql.ExecutionInput;
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.language.Argument;
+import graphql.language.Directive;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.Node;
+import graphql.language.NodeTraverser;
+import graphql.language.NodeVisitorStub;
+import graphql.language.VariableReference;
+import graphql.schema.GraphQLTypeUtil;
+import graphql.util.TraversalControl;
+import graphql.util.TraverserContext;
+import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.graphql.ApolloWSMessage;
+import io.vertx.ext.web.handler.graphql.instrumentation.QueryCostInstrumentation;
+import io.vertx.ext.web.handler.graphql.instrumentation.QueryCostOptions;
+import io.vertx.ext.web.impl.ConcurrentLRUCache;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+public class QueryCostInstrumentationImpl extends SimpleInstrumentation implements QueryCostInstrumentation {
+
+  private static final Function<ExecutionInput, Object> DEFAULT_CLIENT_KEY_FACTORY = QueryCostInstrumentationImpl::remoteHost;
+
+  private final int maxComplexity;
+  private final int maxDepth;
+  private final int defaultFieldWeight;
+  private final Map<String, Integer> fieldWeights;
+  private final int defaultListSize;
+  private final Set<String> listSizeArguments;
+  private final int clientBudget;
+  private final long budgetWindow;
+  private final ConcurrentLRUCache<String, Cost> costs;
+  private final ConcurrentLRUCache<Object, Budget> budgets;
+
+  private final LongAdder queries = new LongAdder();
+  private final LongAdder totalCost = new LongAdder();
+  private final AtomicLong maxCost = new AtomicLong();
+  private final AtomicLong maxQueryDepth = new AtomicLong();
+  private final LongAdder rejectedComplexity = new LongAdder();
+  private final LongAdder rejectedDepth = new LongAdder();
+  private final LongAdder rejectedBudget = new LongAdder();
+
+  private volatile Function<ExecutionInput, Object> clientKeyFactory = DEFAULT_CLIENT_KEY_FACTORY;
+
+  public QueryCostInstrumentationImpl(QueryCostOptions options) {
+    maxComplexity = options.getMaxComplexity();
+    maxDepth = options.getMaxDepth();
+    defaultFieldWeight = options.getDefaultFieldWeight();
+    fieldWeights = new HashMap<>(options.getFieldWeights());
+    defaultListSize = options.getDefaultListSize();
+    listSizeArguments = new HashSet<>(options.getListSizeArguments());
+    clientBudget = options.getClientBudget();
+    budgetWindow = options.getBudgetWindow();
+    costs = new ConcurrentLRUCache<>(options.getCacheSize());
+    budgets = new ConcurrentLRUCache<>(options.getCacheSize());
+  }
+
+  @Override
+  public QueryCostInstrumentation clientKey(Function<ExecutionInput, Object> factory) {
+    clientKeyFactory = factory != null ? factory : DEFAULT_CLIENT_KEY_FACTORY;
+    return this;
+  }
+
+  @Override
+  public JsonObject metrics() {
+    return new JsonObject()
+      .put("queries", queries.sum())
+      .put("totalCost", totalCost.sum())
+      .put("maxCost", maxCost.get())
+      .put("maxDepth", maxQueryDepth.get())
+      .put("rejectedComplexity", rejectedComplexity.sum())
+      .put("rejectedDepth", rejectedDepth.sum())
+      .put("rejectedBudget", rejectedBudget.sum());
+  }
+
+  @Override
+  public ExecutionContext instrumentExecutionContext(ExecutionContext executionContext, InstrumentationExecutionParameters parameters) {
+    Cost cost = cost(executionContext, parameters);
+    queries.increment();
+    totalCost.add(cost.complexity);
+    maxCost.accumulateAndGet(cost.complexity, Math::max);
+    maxQueryDepth.accumulateAndGet(cost.depth, Math::max);
+    if (maxDepth > 0 && cost.depth > maxDepth) {
+      rejectedDepth.increment();
+      throw new AbortExecutionException("Query depth " + cost.depth + " exceeds the maximum depth " + maxDepth);
+    }
+    if (maxComplexity > 0 && cost.complexity > maxComplexity) {
+      rejectedComplexity.increment();
+      throw new AbortExecutionException("Query cost " + cost.complexity + " exceeds the maximum cost " + maxComplexity);
+    }
+    if (clientBudget > 0) {
+      Object clientKey = clientKeyFactory.apply(parameters.getExecutionInput());
+      if (clientKey != null && !budget(clientKey).acquire(cost.complexity, System.currentTimeMillis())) {
+        rejectedBudget.increment();
+        throw new AbortExecutionException("Query cost " + cost.complexity + " exceeds the remaining budget of the client");
+      }
+    }
+    return executionContext;
+  }
+
+  private Cost cost(ExecutionContext executionContext, InstrumentationExecutionParameters parameters) {
+    String cacheKey = parameters.getQuery() + '\u0000' + parameters.getOperation();
+    Cost cost = costs.get(cacheKey);
+    if (cost == null) {
+      cost = computeCost(executionContext);
+      if (cost.cacheable) {
+        costs.put(cacheKey, cost);
+      }
+    }
+    return cost;
+  }
+
+  private Cost computeCost(ExecutionContext executionContext) {
+    QueryTraverser queryTraverser = QueryTraverser.newQueryTraverser()
+      .schema(executionContext.getGraphQLSchema())
+      .document(executionContext.getDocument())
+      .operationName(executionContext.getOperationDefinition().getName())
+      .variables(executionContext.getVariables())
+      .build();
+    // the cost of the sub-selections, by parent field (null for the operation)
+    Map<QueryVisitorFieldEnvironment, Long> costsByParent = new HashMap<>();
+    Cost cost = new Cost();
+    // the fields skipped by a directive are not visited
+    cost.cacheable = !hasConditionalVariables(executionContext.getDocument());
+    queryTraverser.visitPostOrder(new QueryVisitorStub() {
+      @Override
+      public void visitField(QueryVisitorFieldEnvironment env) {
+        if (isIntrospection(env)) {
+          return;
+        }
+        long childrenCost = costsByParent.getOrDefault(env, 0L);
+        long fieldCost = saturatedAdd(weight(env), saturatedMultiply(childrenCost, multiplier(env, cost)));
+        costsByParent.merge(env.getParentEnvironment(), fieldCost, QueryCostInstrumentationImpl::saturatedAdd);
+        cost.depth = Math.max(cost.depth, depth(env));
+      }
+    });
+    cost.complexity = costsByParent.getOrDefault(null, 0L);
+    return cost;
+  }
+
+  private static boolean hasConditionalVariables(Document document) {
+    boolean[] found = new boolean[1];
+    new NodeTraverser().preOrder(new NodeVisitorStub() {
+      @Override
+      public TraversalControl visitDirective(Directive node, TraverserContext<Node> context) {
+        if (node.getName().equals("skip") || node.getName().equals("include")) {
+          Argument argument = node.getArgument("if");
+          if (argument != null && argument.getValue() instanceof VariableReference) {
+            found[0] = true;
+            return TraversalControl.QUIT;
+          }
+        }
+        return TraversalControl.CONTINUE;
+      }
+    }, document);
+    return found[0];
+  }
+
+  private static boolean isIntrospection(QueryVisitorFieldEnvironment env) {
+    return env.getField().getName().startsWith("__") || env.getFieldsContainer().getName().startsWith("__");
+  }
+
+  private long weight(QueryVisitorFieldEnvironment env) {
+    Integer weight = fieldWeights.get(env.getFieldsContainer().getName() + "." + env.getField().getName());
+    return weight != null ? weight : defaultFieldWeight;
+  }
+
+  private long multiplier(QueryVisitorFieldEnvironment env, Cost cost) {
+    if (!GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(env.getFieldDefinition().getType()))) {
+      return 1;
+    }
+    Field field = env.getField();
+    List<Argument> arguments = field.getArguments();
+    for (Argument argument : arguments) {
+      if (listSizeArguments.contains(argument.getName())) {
+        if (argument.getValue() instanceof VariableReference) {
+          // the cost depends on the variables, even when the default list size applies
+          cost.cacheable = false;
+        }
+        Object size = env.getArguments().get(argument.getName());
+        if (size instanceof Number) {
+          return Math.max(0, ((Number) size).longValue());
+        }
+      }
+    }
+    return defaultListSize;
+  }
+
+  private static int depth(QueryVisitorFieldEnvironment env) {
+    int depth = 0;
+    for (QueryVisitorFieldEnvironment current = env; current != null; current = current.getParentEnvironment()) {
+      depth++;
+    }
+    return depth;
+  }
+
+  private static long saturatedAdd(long a, long b) {
+    long r = a + b;
+    return r < 0 ? Long.MAX_VALUE : r;
+  }
+
+  private static long saturatedMultiply(long a, long b) {
+    if (a != 0 && b > Long.MAX_VALUE / a) {
+      return Long.MAX_VALUE;
+    }
+    return a * b;
+  }
+
+  private Budget budget(Object clientKey) {
+    Budget budget = budgets.get(clientKey);
+    if (budget == null) {
+      Budget created = new Budget(System.currentTimeMillis());
+      budget = budgets.putIfAbsent(clientKey, created);
+      if (budget == null) {
+        budget = created;
+      }
+    }
+    return budget;
+  }
+
+  private static Object remoteHost(ExecutionInput executionInput) {
+    Object context = executionInput.getContext();
+    SocketAddress address;
+    if (context instanceof RoutingContext) {
+      address = ((RoutingContext) context).request().remoteAddress();
+    } else if (context instanceof ApolloWSMessage) {
+      ServerWebSocket serverWebSocket = ((ApolloWSMessage) context).serverWebSocket();
+      address = serverWebSocket.remoteAddress();
+    } else {
+      address = null;
+    }
+    return address != null ? address.host() : null;
+  }
+
+  private static final class Cost {
+    long complexity;
+    int depth;
+    boolean cacheable = true;
+  }
+
+  /**
+   * The cost spent by a client in the current and in the previous windows, the cost spent during the last window
+   * duration is estimated assuming the cost of the previous window was spent evenly.
+   */
+  private final class Budget {
+
+    long windowStart;
+    long current;
+    long previous;
+
+    Budget(long now) {
+      windowStart = now;
+    }
+
+    synchronized boolean acquire(long cost, long now) {
+      long elapsed = now - windowStart;
+      if (elapsed >= budgetWindow) {
+        long windows = elapsed / budgetWindow;
+        previous = windows == 1 ? current : 0;
+        current = 0;
+        windowStart += windows * budgetWindow;
+        elapsed = now - windowStart;
+      }
+      double spent = previous * (double) (budgetWindow - elapsed) / budgetWindow + current;
+      if (spent + cost > clientBudget) {
+        return false;
+      }
+      current += cost;
+      return true;
+    }
+  }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.vertx.ext.web.handler.graphql;
+
+import graphql.GraphQL;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.http.WebSocket;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.WebTestBase;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static graphql.schema.idl.RuntimeWiring.newRuntimeWiring;
+import static io.vertx.ext.web.handler.graphql.ApolloWSMessageType.COMPLETE;
+import static io.vertx.ext.web.handler.graphql.ApolloWSMessageType.DATA;
+
+public class ApolloWSSlowConsumerTest extends WebTestBase {
+
+  private static final int COUNT = 1000;
+  private static final int SIZE = 32 * 1024;
+
+  private final ApolloWSOptions apolloWSOptions = new ApolloWSOptions();
+  private final AtomicInteger requested = new AtomicInteger();
+  private final AtomicReference<ServerWebSocket> serverWebSocket = new AtomicReference<>();
+  private ApolloWSHandler apolloWSHandler;
+
+  @Override
+  protected HttpServerOptions getHttpServerOptions() {
+    // small socket buffers, so that the client does not need to read much to become slow
+    return super.getHttpServerOptions().setSendBufferSize(16 * 1024);
+  }
+
+  @Override
+  protected HttpClientOptions getHttpClientOptions() {
+    return super.getHttpClientOptions().setReceiveBufferSize(16 * 1024);
+  }
+
+  private GraphQL graphQL() {
+    String schema = vertx.fileSystem().readFileBlocking("events.graphqls").toString();
+
+    SchemaParser schemaParser = new SchemaParser();
+    TypeDefinitionRegistry typeDefinitionRegistry = schemaParser.parse(schema);
+
+    RuntimeWiring runtimeWiring = newRuntimeWiring()
+      .type("Subscription", builder -> builder.dataFetcher("events", this::getEvents))
+      .build();
+
+    SchemaGenerator schemaGenerator = new SchemaGenerator();
+    GraphQLSchema graphQLSchema = schemaGenerator.makeExecutableSchema(typeDefinitionRegistry, runtimeWiring);
+
+    return GraphQL.newGraphQL(graphQLSchema)
+      .build();
+  }
+
+  private Publisher<Map<String, Object>> getEvents(DataFetchingEnvironment env) {
+    int count = env.getArgument("count");
+    char[] chars = new char[env.<Integer>getArgument("size")];
+    Arrays.fill(chars, 'a');
+    String data = new String(chars);
+    return subscriber -> subscriber.onSubscribe(new Subscription() {
+      long demand;
+      int next;
+      boolean emitting;
+      boolean cancelled;
+
+      @Override
+      public void request(long n) {
+        requested.addAndGet((int) n);
+        demand += n;
+        if (emitting) {
+          return;
+        }
+        emitting = true;
+        while (demand > 0 && next < count && !cancelled) {
+          demand--;
+          Map<String, Object> event = new HashMap<>();
+          event.put("id", next++);
+          event.put("data", data);
+          subscriber.onNext(event);
+        }
+        emitting = false;
+        if (next == count && !cancelled) {
+          cancelled = true;
+          subscriber.onComplete();
+        }
+      }
+
+      @Override
+      public void cancel() {
+        cancelled = true;
+      }
+    });
+  }
+
+  private void subscribe(Consumer<WebSocket> paused) {
+    apolloWSHandler = ApolloWSHandler.create(graphQL(), apolloWSOptions).connectionHandler(serverWebSocket::set);
+    router.route("/graphql").handler(apolloWSHandler);
+    client.webSocket("/graphql", onSuccess(websocket -> {
+      websocket.pause();
+      JsonObject message = new JsonObject()
+        .put("payload", new JsonObject()
+          .put("query", "subscription { events(count: " + COUNT + ", size: " + SIZE + ") { id data } }"))
+        .put("type", "start")
+        .put("id", "1");
+      websocket.write(message.toBuffer());
+      vertx.setTimer(500, id -> paused.accept(websocket));
+    }));
+  }
+
+  private void receiveAll(WebSocket websocket, int expectedDropped) {
+    AtomicInteger received = new AtomicInteger();
+    AtomicInteger last = new AtomicInteger(-1);
+    websocket.handler(buffer -> {
+      JsonObject obj = buffer.toJsonObject();
+      ApolloWSMessageType type = ApolloWSMessageType.from(obj.getString("type"));
+      if (type == DATA) {
+        int id = obj.getJsonObject("payload").getJsonObject("data").getJsonObject("events").getInteger("id");
+        assertTrue(id > last.get());
+        last.set(id);
+        received.incrementAndGet();
+      } else if (type == COMPLETE) {
+        assertEquals(COUNT - 1, last.get());
+        assertEquals(COUNT, received.get() + expectedDropped);
+        testComplete();
+      } else {
+        fail(obj.toString());
+      }
+    });
+    websocket.resume();
+  }
+
+  @Test
+  public void testLargeEventIsFragmented() {
+    int size = 4096;
+    apolloWSOptions.setMaxWebSocketFrameSize(1024);
+    router.route("/graphql").handler(ApolloWSHandler.create(graphQL(), apolloWSOptions));
+    client.webSocket("/graphql", onSuccess(websocket -> {
+      AtomicReference<Buffer> message = new AtomicReference<>(Buffer.buffer());
+      websocket.frameHandler(frame -> {
+        assertTrue(frame.binaryData().length() <= 1024);
+        message.get().appendBuffer(frame.binaryData());
+        if (!frame.isFinal()) {
+          return;
+        }
+        JsonObject obj = message.getAndSet(Buffer.buffer()).toJsonObject();
+        ApolloWSMessageType type = ApolloWSMessageType.from(obj.getString("type"));
+        if (type == DATA) {
+          String data = obj.getJsonObject("payload").getJsonObject("data").getJsonObject("events").getString("data");
+          assertEquals(size, data.length());
+        } else if (type == COMPLETE) {
+          testComplete();
+        } else {
+          fail(obj.toString());
+        }
+      });
+      JsonObject start = new JsonObject()
+        .put("payload", new JsonObject()
+          .put("query", "subscription { events(count: 1, size: " + size + ") { id data } }"))
+        .put("type", "start")
+        .put("id", "1");
+      websocket.write(start.toBuffer());
+    }));
+    await();
+  }
+
+  @Test
+  public void testBackpressure() {
+    subscribe(websocket -> {
+      JsonObject metrics = apolloWSHandler.connectionMetrics(serverWebSocket.get());
+      assertTrue(requested.get() < COUNT);
+      assertTrue(metrics.getInteger("queuedMessages") <= 1);
+      assertEquals(0L, (long) metrics.getLong("droppedEvents"));
+      receiveAll(websocket, 0);
+    });
+    await();
+  }
+
+  @Test
+  public void testDropOldest() {
+    apolloWSOptions.setSlowConsumerPolicy(ApolloWSSlowConsumerPolicy.DROP_OLDEST).setMaxQueuedMessages(10);
+    subscribe(websocket -> {
+      JsonObject metrics = apolloWSHandler.connectionMetrics(serverWebSocket.get());
+      assertTrue(requested.get() >= COUNT);
+      // at most ten events and the completion
+      assertTrue(metrics.getInteger("queuedMessages") <= 11);
+      long dropped = metrics.getLong("droppedEvents");
+      assertTrue(dropped > 0);
+      receiveAll(websocket, (int) dropped);
+    });
+    await();
+  }
+
+  @Test
+  public void testConflate() {
+    apolloWSOptions.setSlowConsumerPolicy(ApolloWSSlowConsumerPolicy.CONFLATE).setMaxQueuedMessages(10);
+    subscribe(websocket -> {
+      JsonObject metrics = apolloWSHandler.connectionMetrics(serverWebSocket.get());
+      assertTrue(requested.get() >= COUNT);
+      // at most the latest event and the completion
+      assertTrue(metrics.getInteger("queuedMessages") <= 2);
+      long dropped = metrics.getLong("droppedEvents");
+      assertTrue(dropped > 0);
+      receiveAll(websocket, (int) dropped);
+    });
+    await();
+  }
+
+  @Test
+  public void testDisconnect() {
+    apolloWSOptions.setSlowConsumerPolicy(ApolloWSSlowConsumerPolicy.DISCONNECT).setMaxQueuedMessages(10);
+    subscribe(websocket -> {
+      assertTrue(serverWebSocket.get().isClosed());
+      assertTrue(requested.get() < COUNT);
+      testComplete();
+    });
+    await();
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.vertx.ext.web.handler.graphql;
+
+import graphql.schema.DataFetchingEnvironment;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static io.vertx.core.http.HttpMethod.POST;
+import static java.util.stream.Collectors.toList;
+
+public class BatchExecutionTest extends GraphQLTestBase {
+
+  private static final String NDJSON = "application/x-ndjson";
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+  private final AtomicInteger registries = new AtomicInteger();
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    router.route("/limited").order(99).handler(GraphQLHandler.create(graphQL(), new GraphQLHandlerOptions()
+      .setRequestBatchingEnabled(true)
+      .setBatchConcurrency(2)));
+    router.route("/shared").order(99).handler(GraphQLHandler.create(graphQL(), new GraphQLHandlerOptions()
+      .setRequestBatchingEnabled(true)
+      .setBatchDataLoaderSharingEnabled(true))
+      .dataLoaderRegistry(rc -> {
+        registries.incrementAndGet();
+        return new DataLoaderRegistry();
+      }));
+    router.route("/streaming").order(99).handler(GraphQLHandler.create(graphQL(), new GraphQLHandlerOptions()
+      .setRequestBatchingEnabled(true)
+      .setBatchStreamingEnabled(true)));
+  }
+
+  @Override
+  protected GraphQLHandlerOptions createOptions() {
+    return super.createOptions().setRequestBatchingEnabled(true);
+  }
+
+  @Override
+  protected Object getAllLinks(DataFetchingEnvironment env) {
+    int current = inFlight.incrementAndGet();
+    maxInFlight.accumulateAndGet(current, Math::max);
+    Object links = super.getAllLinks(env);
+    // the secure links are slower to fetch, so the first query of a batch completes last
+    boolean secureOnly = env.getArgument("secureOnly");
+    CompletableFuture<Object> future = new CompletableFuture<>();
+    vertx.setTimer(secureOnly ? 200 : 20, id -> {
+      inFlight.decrementAndGet();
+      future.complete(links);
+    });
+    return future;
+  }
+
+  private JsonArray batch(int size) {
+    JsonArray batch = new JsonArray();
+    batch.add(new JsonObject().put("query", "query { allLinks(secureOnly: true) { url } }"));
+    for (int i = 1; i < size; i++) {
+      batch.add(new JsonObject().put("query", "query { allLinks { url } }"));
+    }
+    return batch;
+  }
+
+  private List<String> secureUrls() {
+    return testData.urls().stream().filter(url -> url.startsWith("https://")).collect(toList());
+  }
+
+  private void send(String uri, JsonArray batch, String accept, Consumer<Buffer> checker) {
+    HttpClientRequest request = client.request(POST, 8080, "localhost", uri);
+    if (accept != null) {
+      request.putHeader(HttpHeaders.ACCEPT, accept);
+    }
+    request.onComplete(onSuccess(response -> {
+      assertEquals(200, response.statusCode());
+      response.bodyHandler(buffer -> {
+        checker.accept(buffer);
+        testComplete();
+      });
+    })).exceptionHandler(this::fail).end(batch.toBuffer());
+  }
+
+  private void checkResults(int size, Buffer buffer) {
+    JsonArray results = buffer.toJsonArray();
+    assertEquals(size, results.size());
+    assertTrue(testData.checkLinkUrls(secureUrls(), results.getJsonObject(0)));
+    for (int i = 1; i < size; i++) {
+      assertTrue(testData.checkLinkUrls(testData.urls(), results.getJsonObject(i)));
+    }
+  }
+
+  @Test
+  public void testResultsInQueryOrder() {
+    send("/graphql", batch(3), null, buffer -> {
+      checkResults(3, buffer);
+      assertEquals(3, maxInFlight.get());
+    });
+    await();
+  }
+
+  @Test
+  public void testConcurrencyLimit() {
+    send("/limited", batch(6), null, buffer -> {
+      checkResults(6, buffer);
+      assertEquals(2, maxInFlight.get());
+    });
+    await();
+  }
+
+  @Test
+  public void testSharedDataLoaderRegistry() {
+    send("/shared", batch(4), null, buffer -> {
+      checkResults(4, buffer);
+      assertEquals(1, registries.get());
+    });
+    await();
+  }
+
+  @Test
+  public void testStreaming() {
+    HttpClientRequest request = client.request(POST, 8080, "localhost", "/streaming");
+    request.putHeader(HttpHeaders.ACCEPT, NDJSON);
+    request.onComplete(onSuccess(response -> {
+      assertEquals(200, response.statusCode());
+      assertEquals(NDJSON, response.getHeader(HttpHeaders.CONTENT_TYPE));
+      response.bodyHandler(buffer -> {
+        String[] lines = buffer.toString().split("\n");
+        assertEquals(2, lines.length);
+        // the fast query is sent first
+        JsonObject first = new JsonObject(lines[0]);
+        assertEquals(1, (int) first.getInteger("index"));
+        assertTrue(testData.checkLinkUrls(testData.urls(), first.getJsonObject("result")));
+        JsonObject second = new JsonObject(lines[1]);
+        assertEquals(0, (int) second.getInteger("index"));
+        assertTrue(testData.checkLinkUrls(secureUrls(), second.getJsonObject("result")));
+        testComplete();
+      });
+    })).exceptionHandler(this::fail).end(batch(2).toBuffer());
+    await();
+  }
+
+  @Test
+  public void testStreamingNotAccepted() {
+    send("/streaming", batch(2), "application/json", buffer -> checkResults(2, buffer));
+    await();
+  }
+}
@@ -48,6 +48,7 @@ public class GraphQLRequest {
   private boolean operationNameAsParam;
   private JsonObject variables = new JsonObject();
   private boolean variablesAsParam;
+  private JsonObject extensions;
   private String contentType = JSON;
   private Buffer requestBody;
   private String locale;
@@ -100,6 +101,11 @@ public class GraphQLRequest {
     return this;
   }
 
+  GraphQLRequest setExtensions(JsonObject extensions) {
+    this.extensions = extensions;
+    return this;
+  }
+
   GraphQLRequest setContentType(String contentType) {
     this.contentType = contentType;
     return this;
@@ -173,6 +179,9 @@ public class GraphQLRequest {
     if (variablesAsParam && !variables.isEmpty()) {
       params.put("variables", variables.toString());
     }
+    if (method == GET && extensions != null) {
+      params.put("extensions", extensions.toString());
+    }
     if (!params.isEmpty()) {
       uri.append("?");
       uri.append(params.entrySet().stream()
@@ -198,6 +207,9 @@ public class GraphQLRequest {
     if (!variables.isEmpty()) {
       json.put("variables", variables);
     }
+    if (extensions != null) {
+      json.put("extensions", extensions);
+    }
     return json.isEmpty() ? null : json.toBuffer();
   }
 
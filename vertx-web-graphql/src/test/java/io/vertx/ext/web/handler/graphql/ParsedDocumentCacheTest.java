@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.vertx.ext.web.handler.graphql;
+
+import graphql.GraphQL;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.language.Document;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.vertx.core.http.HttpMethod.GET;
+import static io.vertx.core.http.HttpMethod.POST;
+
+public class ParsedDocumentCacheTest extends GraphQLTestBase {
+
+  private final AtomicInteger parsed = new AtomicInteger();
+
+  @Override
+  protected GraphQLHandlerOptions createOptions() {
+    return new GraphQLHandlerOptions().setParsedDocumentCacheEnabled(true).setCacheSize(1);
+  }
+
+  @Override
+  protected GraphQL graphQL() {
+    return super.graphQL().transform(builder -> builder.instrumentation(new SimpleInstrumentation() {
+      @Override
+      public InstrumentationContext<Document> beginParse(InstrumentationExecutionParameters parameters) {
+        parsed.incrementAndGet();
+        return super.beginParse(parameters);
+      }
+    }));
+  }
+
+  private void send(String query, int expectedParsed, Runnable next) throws Exception {
+    GraphQLRequest request = new GraphQLRequest()
+      .setMethod(GET)
+      .setGraphQLQuery(query);
+    request.send(client, onSuccess(body -> {
+      assertEquals(expectedParsed, parsed.get());
+      next.run();
+    }));
+  }
+
+  @Test
+  public void testDocumentIsParsedOnce() throws Exception {
+    String query = "query { allLinks { url } }";
+    send(query, 1, () -> {
+      try {
+        GraphQLRequest request = new GraphQLRequest()
+          .setMethod(POST)
+          .setGraphQLQuery(query);
+        request.send(client, onSuccess(body -> {
+          assertEquals(1, parsed.get());
+          assertTrue(testData.checkLinkUrls(testData.urls(), body));
+          testComplete();
+        }));
+      } catch (Exception e) {
+        fail(e);
+      }
+    });
+    await();
+  }
+
+  @Test
+  public void testInvalidDocumentIsCached() throws Exception {
+    String query = "query { unknownField }";
+    send(query, 1, () -> {
+      try {
+        GraphQLRequest request = new GraphQLRequest()
+          .setMethod(GET)
+          .setGraphQLQuery(query);
+        request.send(client, onSuccess(body -> {
+          assertEquals(1, parsed.get());
+          assertFalse(body.getJsonArray("errors").isEmpty());
+          testComplete();
+        }));
+      } catch (Exception e) {
+        fail(e);
+      }
+    });
+    await();
+  }
+
+  @Test
+  public void testCacheIsBounded() throws Exception {
+    String first = "query { allLinks { url } }";
+    String second = "query { allLinks { url postedBy { name } } }";
+    send(first, 1, () -> {
+      try {
+        send(second, 2, () -> {
+          try {
+            send(first, 3, this::testComplete);
+          } catch (Exception e) {
+            fail(e);
+          }
+        });
+      } catch (Exception e) {
+        fail(e);
+      }
+    });
+    await();
+  }
+}
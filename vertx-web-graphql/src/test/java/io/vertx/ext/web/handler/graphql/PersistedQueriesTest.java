@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.vertx.ext.web.handler.graphql;
+
+import io.vertx.core.json.JsonObject;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import static io.vertx.core.http.HttpMethod.GET;
+import static io.vertx.core.http.HttpMethod.POST;
+
+public class PersistedQueriesTest extends GraphQLTestBase {
+
+  private static final String QUERY = "query { allLinks { url } }";
+
+  @Override
+  protected GraphQLHandlerOptions createOptions() {
+    return new GraphQLHandlerOptions().setPersistedQueriesEnabled(true);
+  }
+
+  private static JsonObject persistedQuery(String hash) {
+    return new JsonObject().put("persistedQuery", new JsonObject().put("version", 1).put("sha256Hash", hash));
+  }
+
+  private static String sha256(String query) throws Exception {
+    byte[] bytes = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+    StringBuilder sb = new StringBuilder();
+    for (byte b : bytes) {
+      sb.append(String.format("%02x", b));
+    }
+    return sb.toString();
+  }
+
+  private static String errorCode(JsonObject body) {
+    return body.getJsonArray("errors").getJsonObject(0).getJsonObject("extensions").getString("code");
+  }
+
+  @Test
+  public void testUnknownHash() throws Exception {
+    GraphQLRequest request = new GraphQLRequest()
+      .setMethod(GET)
+      .setExtensions(persistedQuery(sha256(QUERY)));
+    request.send(client, onSuccess(body -> {
+      assertEquals("PERSISTED_QUERY_NOT_FOUND", errorCode(body));
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testRegisterThenSendHash() throws Exception {
+    String hash = sha256(QUERY);
+    GraphQLRequest register = new GraphQLRequest()
+      .setMethod(POST)
+      .setGraphQLQuery(QUERY)
+      .setExtensions(persistedQuery(hash));
+    register.send(client, onSuccess(body -> {
+      assertTrue(body.toString(), testData.checkLinkUrls(testData.urls(), body));
+      GraphQLRequest request = new GraphQLRequest()
+        .setMethod(GET)
+        .setExtensions(persistedQuery(hash));
+      try {
+        request.send(client, onSuccess(result -> {
+          assertTrue(result.toString(), testData.checkLinkUrls(testData.urls(), result));
+          testComplete();
+        }));
+      } catch (Exception e) {
+        fail(e);
+      }
+    }));
+    await();
+  }
+
+  @Test
+  public void testHashMismatch() throws Exception {
+    GraphQLRequest request = new GraphQLRequest()
+      .setMethod(POST)
+      .setGraphQLQuery(QUERY)
+      .setExtensions(persistedQuery(sha256("query { other }")));
+    request.send(client, onSuccess(body -> {
+      assertEquals("BAD_REQUEST", errorCode(body));
+      assertNull(body.getValue("data"));
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testNotSupported() throws Exception {
+    router.clear();
+    router.route("/graphql").handler(GraphQLHandler.create(graphQL()));
+    GraphQLRequest request = new GraphQLRequest()
+      .setMethod(GET)
+      .setExtensions(persistedQuery(sha256(QUERY)));
+    request.send(client, onSuccess(body -> {
+      assertEquals("PERSISTED_QUERY_NOT_SUPPORTED", errorCode(body));
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testQueryWithHashWhenNotSupported() throws Exception {
+    router.clear();
+    router.route("/graphql").handler(GraphQLHandler.create(graphQL()));
+    GraphQLRequest request = new GraphQLRequest()
+      .setMethod(POST)
+      .setGraphQLQuery(QUERY)
+      .setExtensions(persistedQuery(sha256(QUERY)));
+    request.send(client, onSuccess(body -> {
+      assertTrue(body.toString(), testData.checkLinkUrls(testData.urls(), body));
+      testComplete();
+    }));
+    await();
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.vertx.ext.web.handler.graphql;
+
+import graphql.GraphQL;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.handler.graphql.instrumentation.QueryCostInstrumentation;
+import io.vertx.ext.web.handler.graphql.instrumentation.QueryCostOptions;
+import org.junit.Test;
+
+import java.util.function.Consumer;
+
+import static io.vertx.core.http.HttpMethod.POST;
+
+public class QueryCostInstrumentationTest extends GraphQLTestBase {
+
+  // allLinks = 1 + 10 * url
+  private static final String SIMPLE_QUERY = "query { allLinks { url } }";
+  // allLinks = 1 + 10 * (url + postedBy), postedBy = 1 + name
+  private static final String NESTED_QUERY = "query { allLinks { url postedBy { name } } }";
+
+  private QueryCostOptions options = new QueryCostOptions();
+  private QueryCostInstrumentation instrumentation;
+
+  @Override
+  protected GraphQL graphQL() {
+    instrumentation = QueryCostInstrumentation.create(options);
+    return super.graphQL().transform(builder -> builder.instrumentation(instrumentation));
+  }
+
+  private void setUp(QueryCostOptions options) throws Exception {
+    this.options = options;
+    graphQLHandler = GraphQLHandler.create(graphQL());
+    router.route("/graphql").order(99).handler(graphQLHandler);
+  }
+
+  private void send(String query, Consumer<JsonObject> check) throws Exception {
+    send(query, new JsonObject(), check);
+  }
+
+  private void send(String query, JsonObject variables, Consumer<JsonObject> check) throws Exception {
+    GraphQLRequest request = new GraphQLRequest()
+      .setMethod(POST)
+      .setGraphQLQuery(query);
+    variables.forEach(variable -> request.addVariable(variable.getKey(), variable.getValue()));
+    request.send(client, onSuccess(check::accept));
+  }
+
+  private void assertRejected(JsonObject body, String message) {
+    assertNull(body.getValue("data"));
+    String error = body.getJsonArray("errors").getJsonObject(0).getString("message");
+    assertTrue(error, error.contains(message));
+  }
+
+  @Test
+  public void testMaxComplexity() throws Exception {
+    setUp(new QueryCostOptions().setMaxComplexity(20));
+    send(SIMPLE_QUERY, simple -> {
+      assertTrue(testData.checkLinkUrls(testData.urls(), simple));
+      try {
+        send(NESTED_QUERY, nested -> {
+          assertRejected(nested, "Query cost 31 exceeds the maximum cost 20");
+          JsonObject metrics = instrumentation.metrics();
+          assertEquals(2L, (long) metrics.getLong("queries"));
+          assertEquals(42L, (long) metrics.getLong("totalCost"));
+          assertEquals(31L, (long) metrics.getLong("maxCost"));
+          assertEquals(3L, (long) metrics.getLong("maxDepth"));
+          assertEquals(1L, (long) metrics.getLong("rejectedComplexity"));
+          testComplete();
+        });
+      } catch (Exception e) {
+        fail(e);
+      }
+    });
+    await();
+  }
+
+  @Test
+  public void testConditionalFieldsAreNotCached() throws Exception {
+    setUp(new QueryCostOptions().setMaxComplexity(20));
+    String query = "query($skip: Boolean!) { allLinks { url postedBy @skip(if: $skip) { name } } }";
+    send(query, new JsonObject().put("skip", true), skipped -> {
+      assertTrue(testData.checkLinkUrls(testData.urls(), skipped));
+      try {
+        send(query, new JsonObject().put("skip", false), included -> {
+          assertRejected(included, "Query cost 31 exceeds the maximum cost 20");
+          testComplete();
+        });
+      } catch (Exception e) {
+        fail(e);
+      }
+    });
+    await();
+  }
+
+  @Test
+  public void testMaxDepth() throws Exception {
+    setUp(new QueryCostOptions().setMaxDepth(2));
+    send(NESTED_QUERY, body -> {
+      assertRejected(body, "Query depth 3 exceeds the maximum depth 2");
+      assertEquals(1L, (long) instrumentation.metrics().getLong("rejectedDepth"));
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testFieldWeights() throws Exception {
+    setUp(new QueryCostOptions().setMaxComplexity(50).addFieldWeight("Query.allLinks", 100));
+    send(SIMPLE_QUERY, body -> {
+      assertRejected(body, "Query cost 110 exceeds the maximum cost 50");
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testIntrospectionIsFree() throws Exception {
+    setUp(new QueryCostOptions().setMaxComplexity(1).setMaxDepth(1));
+    send("query { __schema { types { name fields { name type { name ofType { name } } } } } }", body -> {
+      assertNotNull(body.getJsonObject("data").getJsonObject("__schema"));
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testClientBudget() throws Exception {
+    setUp(new QueryCostOptions().setClientBudget(25));
+    send(SIMPLE_QUERY, first -> {
+      assertTrue(testData.checkLinkUrls(testData.urls(), first));
+      try {
+        send(SIMPLE_QUERY, second -> {
+          assertTrue(testData.checkLinkUrls(testData.urls(), second));
+          try {
+            send(SIMPLE_QUERY, third -> {
+              assertRejected(third, "Query cost 11 exceeds the remaining budget of the client");
+              assertEquals(1L, (long) instrumentation.metrics().getLong("rejectedBudget"));
+              testComplete();
+            });
+          } catch (Exception e) {
+            fail(e);
+          }
+        });
+      } catch (Exception e) {
+        fail(e);
+      }
+    });
+    await();
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.vertx.ext.web.handler.graphql;
+
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.Test;
+
+import static io.vertx.core.http.HttpMethod.GET;
+import static io.vertx.core.http.HttpMethod.POST;
+
+public class ResponseChunkingTest extends GraphQLTestBase {
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    router.route("/chunked").order(99).handler(GraphQLHandler.create(graphQL(), new GraphQLHandlerOptions()
+      .setRequestBatchingEnabled(true)
+      .setResponseChunkSize(64)));
+  }
+
+  private void send(String uri, String query, boolean expectChunked) {
+    HttpClientRequest request = client.request(GET, 8080, "localhost", uri + "?query=" + query);
+    request.onComplete(onSuccess(response -> {
+      assertEquals(200, response.statusCode());
+      assertEquals("application/json", response.getHeader(HttpHeaders.CONTENT_TYPE));
+      if (expectChunked) {
+        assertEquals("chunked", response.getHeader(HttpHeaders.TRANSFER_ENCODING));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_LENGTH));
+      } else {
+        assertNull(response.getHeader(HttpHeaders.TRANSFER_ENCODING));
+        assertNotNull(response.getHeader(HttpHeaders.CONTENT_LENGTH));
+      }
+      response.bodyHandler(buffer -> {
+        assertTrue(testData.checkLinkUrls(testData.urls(), new JsonObject(buffer)));
+        testComplete();
+      });
+    })).end();
+  }
+
+  @Test
+  public void testNotChunkedByDefault() {
+    send("/graphql", "query+%7B+allLinks+%7B+url+%7D+%7D", false);
+    await();
+  }
+
+  @Test
+  public void testChunked() {
+    send("/chunked", "query+%7B+allLinks+%7B+url+%7D+%7D", true);
+    await();
+  }
+
+  @Test
+  public void testSmallResultNotChunked() {
+    HttpClientRequest request = client.request(GET, 8080, "localhost", "/chunked?query=query+%7B+__typename+%7D");
+    request.onComplete(onSuccess(response -> {
+      assertNull(response.getHeader(HttpHeaders.TRANSFER_ENCODING));
+      response.bodyHandler(buffer -> {
+        assertEquals(new JsonObject().put("data", new JsonObject().put("__typename", "Query")), new JsonObject(buffer));
+        testComplete();
+      });
+    })).end();
+    await();
+  }
+
+  @Test
+  public void testChunkedBatch() {
+    JsonObject query = new JsonObject().put("query", "query { allLinks { url } }");
+    HttpClientRequest request = client.request(POST, 8080, "localhost", "/chunked");
+    request.onComplete(onSuccess(response -> {
+      assertEquals("chunked", response.getHeader(HttpHeaders.TRANSFER_ENCODING));
+      response.bodyHandler(buffer -> {
+        JsonArray results = new JsonArray(buffer);
+        assertEquals(2, results.size());
+        for (int i = 0; i < results.size(); i++) {
+          assertTrue(testData.checkLinkUrls(testData.urls(), results.getJsonObject(i)));
+        }
+        testComplete();
+      });
+    }));
+    request.putHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+    request.end(new JsonArray().add(query).add(query).toBuffer());
+    await();
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.vertx.ext.web.handler.graphql;
+
+import graphql.GraphQL;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import io.vertx.core.Promise;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.handler.graphql.dataloader.VertxBatchLoader;
+import org.dataloader.BatchLoaderEnvironment;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static graphql.schema.idl.RuntimeWiring.newRuntimeWiring;
+import static io.vertx.core.http.HttpMethod.POST;
+import static java.util.stream.Collectors.toList;
+
+public class SharedBatchLoaderTest extends GraphQLTestBase {
+
+  private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+  @Override
+  protected GraphQLHandlerOptions createOptions() {
+    return new GraphQLHandlerOptions().setRequestBatchingEnabled(true);
+  }
+
+  @Override
+  protected GraphQL graphQL() {
+    String schema = vertx.fileSystem().readFileBlocking("links.graphqls").toString();
+
+    SchemaParser schemaParser = new SchemaParser();
+    TypeDefinitionRegistry typeDefinitionRegistry = schemaParser.parse(schema);
+
+    RuntimeWiring runtimeWiring = newRuntimeWiring()
+      .type("Query", builder -> builder.dataFetcher("allLinks", this::getAllLinks))
+      .type("Link", builder -> builder.dataFetcher("postedBy", this::getLinkPostedBy))
+      .build();
+
+    SchemaGenerator schemaGenerator = new SchemaGenerator();
+    GraphQLSchema graphQLSchema = schemaGenerator.makeExecutableSchema(typeDefinitionRegistry, runtimeWiring);
+
+    return GraphQL.newGraphQL(graphQLSchema)
+      .instrumentation(new DataLoaderDispatcherInstrumentation())
+      .build();
+  }
+
+  private Object getLinkPostedBy(DataFetchingEnvironment env) {
+    Link link = env.getSource();
+    DataLoader<String, User> user = env.getDataLoader("user");
+    return user.load(link.getUserId());
+  }
+
+  private void loadUsers(List<String> keys, BatchLoaderEnvironment environment, Promise<List<User>> promise) {
+    batches.add(keys);
+    promise.complete(keys.stream().map(testData.users::get).collect(toList()));
+  }
+
+  @Test
+  public void testExecutionsShareBatch() {
+    VertxBatchLoader<String, User> userBatchLoader = VertxBatchLoader.create(this::loadUsers, 50, 0, env -> null);
+    graphQLHandler.dataLoaderRegistry(rc -> {
+      DataLoader<String, User> userDataLoader = DataLoader.newDataLoader(userBatchLoader);
+      return new DataLoaderRegistry().register("user", userDataLoader);
+    });
+
+    JsonObject query = new JsonObject().put("query", "query { allLinks { url, postedBy { name } } }");
+    HttpClientRequest request = client.request(POST, 8080, "localhost", "/graphql");
+    request.onComplete(onSuccess(response -> response.bodyHandler(buffer -> {
+      JsonArray results = new JsonArray(buffer);
+      assertEquals(2, results.size());
+      for (int i = 0; i < results.size(); i++) {
+        assertTrue(testData.checkLinkPosters(testData.posters(), results.getJsonObject(i)));
+      }
+      assertEquals(1, batches.size());
+      assertEquals(testData.users.size(), batches.get(0).size());
+      testComplete();
+    })));
+    request.putHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+    request.end(new JsonArray().add(query).add(query).toBuffer());
+    await();
+  }
+
+  @Test
+  public void testKeysAreDeduplicated() {
+    VertxBatchLoader<String, String> loader = VertxBatchLoader.create((keys, env, promise) -> {
+      batches.add(keys);
+      promise.complete(keys.stream().map(String::toUpperCase).collect(toList()));
+    }, 0, 0, env -> null);
+    vertx.runOnContext(v -> {
+      CompletableFuture<List<String>> first = loader.load(Arrays.asList("a", "b"), env(null)).toCompletableFuture();
+      CompletableFuture<List<String>> second = loader.load(Arrays.asList("b", "c", "a"), env(null)).toCompletableFuture();
+      CompletableFuture.allOf(first, second).thenRun(() -> {
+        assertEquals(Collections.singletonList(Arrays.asList("a", "b", "c")), batches);
+        assertEquals(Arrays.asList("A", "B"), first.join());
+        assertEquals(Arrays.asList("B", "C", "A"), second.join());
+        testComplete();
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testPartitionsAreIsolated() {
+    List<Object> tenants = new CopyOnWriteArrayList<>();
+    VertxBatchLoader<String, String> loader = VertxBatchLoader.create((keys, env, promise) -> {
+      batches.add(keys);
+      tenants.add(env.getContext());
+      promise.complete(keys.stream().map(key -> env.getContext() + ":" + key).collect(toList()));
+    }, 0, 0, BatchLoaderEnvironment::getContext);
+    vertx.runOnContext(v -> {
+      CompletableFuture<List<String>> first = loader.load(Collections.singletonList("a"), env("foo")).toCompletableFuture();
+      CompletableFuture<List<String>> second = loader.load(Collections.singletonList("a"), env("bar")).toCompletableFuture();
+      CompletableFuture<List<String>> third = loader.load(Collections.singletonList("b"), env("foo")).toCompletableFuture();
+      CompletableFuture.allOf(first, second, third).thenRun(() -> {
+        assertEquals(2, batches.size());
+        assertEquals(Arrays.asList("foo", "bar"), new ArrayList<>(tenants));
+        assertEquals(Collections.singletonList("foo:a"), first.join());
+        assertEquals(Collections.singletonList("bar:a"), second.join());
+        assertEquals(Collections.singletonList("foo:b"), third.join());
+        testComplete();
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testMaxBatchSize() {
+    VertxBatchLoader<String, String> loader = VertxBatchLoader.create((keys, env, promise) -> {
+      batches.add(keys);
+      promise.complete(keys);
+    }, 10_000, 2, env -> null);
+    vertx.runOnContext(v -> {
+      CompletableFuture<List<String>> first = loader.load(Collections.singletonList("a"), env(null)).toCompletableFuture();
+      CompletableFuture<List<String>> second = loader.load(Collections.singletonList("b"), env(null)).toCompletableFuture();
+      assertTrue(first.isDone());
+      assertTrue(second.isDone());
+      assertEquals(Collections.singletonList(Arrays.asList("a", "b")), batches);
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testFailureIsDispatched() {
+    VertxBatchLoader<String, String> loader = VertxBatchLoader.create((keys, env, promise) -> {
+      promise.fail(new IllegalStateException("boom"));
+    }, 0, 0, env -> null);
+    vertx.runOnContext(v -> {
+      CompletableFuture<List<String>> first = loader.load(Collections.singletonList("a"), env(null)).toCompletableFuture();
+      CompletableFuture<List<String>> second = loader.load(Collections.singletonList("b"), env(null)).toCompletableFuture();
+      CompletableFuture.allOf(first, second).whenComplete((res, err) -> {
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        testComplete();
+      });
+    });
+    await();
+  }
+
+  private static BatchLoaderEnvironment env(Object context) {
+    return BatchLoaderEnvironment.newBatchLoaderEnvironment().context(context).build();
+  }
+}
@@ -27,6 +27,9 @@ import io.vertx.ext.web.sstore.cookie.impl.CookieSessionStoreImpl;
  * The signature ensures that the cookie payload is not tampered when returning from
  * the user agent (browser) back to the server.
  *
+ * Optionally the payload can be encrypted (AES-GCM), in this case the data is not visible
+ * to the user agent and the authentication tag replaces the signature.
+ *
  * @author <a href="mailto:plopes@redhat.com">Paulo Lopes</a>
  */
 @VertxGen
@@ -46,4 +49,19 @@ public interface CookieSessionStore extends SessionStore {
   static CookieSessionStore create(Vertx vertx, String secret) {
     return new CookieSessionStoreImpl(vertx, secret);
   }
+
+  /**
+   * Creates a CookieSessionStore.
+   *
+   * Cookie data will be signed using the given secret, or when {@code encrypt} is
+   * {@code true}, encrypted with a key derived from the secret.
+   *
+   * @param vertx a vert.x instance
+   * @param secret a secret to feed the HMAC algorithm
+   * @param encrypt should the payload be encrypted
+   * @return the store
+   */
+  static CookieSessionStore create(Vertx vertx, String secret, boolean encrypt) {
+    return new CookieSessionStoreImpl(vertx, secret, encrypt);
+  }
 }
@@ -18,50 +18,59 @@ package io.vertx.ext.web.sstore.cookie.impl;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.VertxContextPRNG;
-import io.vertx.ext.web.sstore.AbstractSession;
-
-import javax.crypto.Mac;
-import java.util.Base64;
+import io.vertx.ext.web.sstore.impl.SharedDataSessionImpl;
 
 /**
+ * A session which state is fully kept in the cookie value. The state is serialized using the same compact binary
+ * format as the clustered session store.
+ *
  * @author <a href="mailto:plopes@redhat.com">Paulo Lopes</a>
  */
-public class CookieSession extends AbstractSession {
+public class CookieSession extends SharedDataSessionImpl {
 
-  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
-  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+  // marks the binary payload format, legacy payloads are JSON text and start with '{'
+  private static final byte BINARY = 1;
 
-  private final Mac mac;
+  private final CookieSessionCodec codec;
   // track the original version
   private int oldVersion = 0;
   // track the original crc
   private int oldCrc = 0;
 
-  public CookieSession(Mac mac, VertxContextPRNG prng, long timeout, int length) {
+  // the last encoded value and the state it was computed from
+  private String value;
+  private String valueId;
+  private int valueCrc;
+  private int valueVersion;
+
+  CookieSession(CookieSessionCodec codec, VertxContextPRNG prng, long timeout, int length) {
     super(prng, timeout, length);
-    this.mac = mac;
+    this.codec = codec;
   }
 
-  public CookieSession(Mac mac, VertxContextPRNG prng) {
+  CookieSession(CookieSessionCodec codec, VertxContextPRNG prng) {
     super(prng);
-    this.mac = mac;
+    this.codec = codec;
   }
 
   @Override
   public String value() {
+    final int crc = checksum();
+    // the last accessed time is deliberately not considered, otherwise an untouched session
+    // would be re-encoded, re-signed and re-sent on every request
+    if (value != null && crc == valueCrc && version() == valueVersion && id().equals(valueId)) {
+      return value;
+    }
 
-    Buffer payload = new JsonObject()
-      .put("id", id())
-      .put("timeout", timeout())
-      .put("lastAccessed", lastAccessed())
-      .put("version", version())
-      .put("data", data())
-      .toBuffer();
+    Buffer payload = Buffer.buffer().appendByte(BINARY);
+    writeToBuffer(payload);
 
-    String b64 = ENCODER.encodeToString(payload.getBytes());
-    String signature = ENCODER.encodeToString(mac.doFinal(b64.getBytes()));
+    value = codec.encode(payload);
+    valueId = id();
+    valueCrc = crc;
+    valueVersion = version();
 
-    return b64 + "." + signature;
+    return value;
   }
 
   @Override
@@ -81,32 +90,37 @@ public class CookieSession extends AbstractSession {
       throw new NullPointerException();
     }
 
-    String[] tokens = payload.split("\\.");
-    if (tokens.length != 2) {
-      // no signature present, force a regeneration
+    Buffer decoded = codec.decode(payload);
+    if (decoded == null || decoded.length() == 0) {
+      // not in the expected format, force a regeneration
       // by claiming this session as invalid
       return null;
     }
 
-    String signature = ENCODER.encodeToString(mac.doFinal(tokens[0].getBytes()));
-
-    if(!signature.equals(tokens[1])) {
-      throw new RuntimeException("Session data was Tampered!");
-    }
-
     // reconstruct the session
-    JsonObject decoded = new JsonObject(Buffer.buffer(DECODER.decode(tokens[0])));
-
-    setId(decoded.getString("id"));
-    setTimeout(decoded.getLong("timeout"));
-    setLastAccessed(decoded.getLong("lastAccessed"));
-    setVersion(decoded.getInteger("version"));
-    setData(decoded.getJsonObject("data"));
+    if (decoded.getByte(0) == BINARY) {
+      readFromBuffer(1, decoded);
+    } else {
+      // sessions encoded by previous versions of this store
+      JsonObject json = new JsonObject(decoded);
+
+      setId(json.getString("id"));
+      setTimeout(json.getLong("timeout"));
+      setLastAccessed(json.getLong("lastAccessed"));
+      setVersion(json.getInteger("version"));
+      setData(json.getJsonObject("data"));
+    }
 
     // defaults
     oldVersion = version();
     oldCrc = crc();
 
+    // the cookie already holds the current state
+    value = payload;
+    valueId = id();
+    valueCrc = oldCrc;
+    valueVersion = oldVersion;
+
     return this;
   }
 
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2018 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.sstore.cookie.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.auth.VertxContextPRNG;
+import io.vertx.ext.web.impl.ConcurrentLRUCache;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Encodes and decodes the cookie value of a session.
+ *
+ * Payloads are either signed ({@code base64(payload).base64(hmac)}) or, when encryption is enabled, encrypted and
+ * authenticated with AES-GCM ({@code base64(iv || ciphertext || tag)}). {@link Mac} and {@link Cipher} instances are
+ * not thread safe, so each thread gets its own copy instead of sharing (and locking) a single instance.
+ *
+ * Values that were already verified are kept in a bounded cache so a client re-sending the same cookie does not pay
+ * for the signature verification (or decryption) again.
+ */
+class CookieSessionCodec {
+
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private static final String HMAC_ALGORITHM = "HmacSHA256";
+  private static final String CIPHER_ALGORITHM = "AES/GCM/NoPadding";
+  private static final int IV_LENGTH = 12;
+  private static final int TAG_LENGTH = 128;
+
+  private final VertxContextPRNG random;
+  private final ThreadLocal<Mac> mac;
+  private final ThreadLocal<Cipher> cipher;
+  private final SecretKeySpec cipherKey;
+  private final Map<String, Buffer> verified;
+
+  CookieSessionCodec(VertxContextPRNG random, String secret, boolean encrypt, int cacheSize) {
+    this.random = random;
+
+    final SecretKeySpec macKey = new SecretKeySpec(secret.getBytes(), HMAC_ALGORITHM);
+    this.mac = ThreadLocal.withInitial(() -> {
+      try {
+        Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        mac.init(macKey);
+        return mac;
+      } catch (GeneralSecurityException e) {
+        throw new RuntimeException(e);
+      }
+    });
+
+    if (encrypt) {
+      // derive a dedicated key for the cipher, so the same key is never used by both algorithms
+      cipherKey = new SecretKeySpec(mac.get().doFinal("vertx-web.sstore.cookie".getBytes(StandardCharsets.US_ASCII)), "AES");
+      cipher = ThreadLocal.withInitial(() -> {
+        try {
+          return Cipher.getInstance(CIPHER_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+          throw new RuntimeException(e);
+        }
+      });
+      // fail fast if the runtime does not support the algorithm
+      cipher.get();
+    } else {
+      cipherKey = null;
+      cipher = null;
+      // fail fast if the runtime does not support the algorithm
+      mac.get();
+    }
+
+    verified = cacheSize > 0 ? new ConcurrentLRUCache<>(cacheSize) : null;
+  }
+
+  /**
+   * Encode a payload into a cookie value.
+   */
+  String encode(Buffer payload) {
+    final String value;
+
+    if (cipher != null) {
+      final byte[] iv = new byte[IV_LENGTH];
+      random.nextBytes(iv);
+      try {
+        final Cipher cipher = this.cipher.get();
+        cipher.init(Cipher.ENCRYPT_MODE, cipherKey, new GCMParameterSpec(TAG_LENGTH, iv));
+        final byte[] plain = payload.getBytes();
+        final byte[] out = new byte[IV_LENGTH + cipher.getOutputSize(plain.length)];
+        System.arraycopy(iv, 0, out, 0, IV_LENGTH);
+        cipher.doFinal(plain, 0, plain.length, out, IV_LENGTH);
+        value = ENCODER.encodeToString(out);
+      } catch (GeneralSecurityException e) {
+        throw new RuntimeException(e);
+      }
+    } else {
+      final byte[] b64 = ENCODER.encode(payload.getBytes());
+      final byte[] signature = ENCODER.encode(mac.get().doFinal(b64));
+
+      final byte[] out = new byte[b64.length + 1 + signature.length];
+      System.arraycopy(b64, 0, out, 0, b64.length);
+      out[b64.length] = '.';
+      System.arraycopy(signature, 0, out, b64.length + 1, signature.length);
+      value = new String(out, StandardCharsets.US_ASCII);
+    }
+
+    if (verified != null) {
+      // we produced it, so it can be trusted when it comes back
+      verified.put(value, payload);
+    }
+
+    return value;
+  }
+
+  /**
+   * Decode and verify a cookie value.
+   *
+   * @return the payload or {@code null} if the value is not in the expected format.
+   * @throws RuntimeException if the value has been tampered with.
+   */
+  Buffer decode(String value) {
+    if (verified != null) {
+      final Buffer payload = verified.get(value);
+      if (payload != null) {
+        return payload;
+      }
+    }
+
+    final int sep = value.indexOf('.');
+    final Buffer payload;
+
+    try {
+      if (cipher != null) {
+        if (sep != -1) {
+          // a signed value, not produced by this store
+          return null;
+        }
+        final byte[] in = DECODER.decode(value);
+        if (in.length <= IV_LENGTH + TAG_LENGTH / 8) {
+          // too short to be an encrypted value
+          return null;
+        }
+        final Cipher cipher = this.cipher.get();
+        cipher.init(Cipher.DECRYPT_MODE, cipherKey, new GCMParameterSpec(TAG_LENGTH, in, 0, IV_LENGTH));
+        payload = Buffer.buffer(cipher.doFinal(in, IV_LENGTH, in.length - IV_LENGTH));
+      } else {
+        if (sep == -1 || value.indexOf('.', sep + 1) != -1) {
+          // no signature present, force a regeneration
+          // by claiming this session as invalid
+          return null;
+        }
+        final byte[] b64 = value.substring(0, sep).getBytes(StandardCharsets.US_ASCII);
+        final byte[] signature = DECODER.decode(value.substring(sep + 1));
+
+        if (!MessageDigest.isEqual(mac.get().doFinal(b64), signature)) {
+          throw new RuntimeException("Session data was Tampered!");
+        }
+        payload = Buffer.buffer(DECODER.decode(b64));
+      }
+    } catch (GeneralSecurityException | IllegalArgumentException e) {
+      throw new RuntimeException("Session data was Tampered!", e);
+    }
+
+    if (verified != null) {
+      verified.put(value, payload);
+    }
+
+    return payload;
+  }
+}
@@ -26,16 +26,16 @@ import io.vertx.ext.web.Session;
 import io.vertx.ext.web.sstore.SessionStore;
 import io.vertx.ext.web.sstore.cookie.CookieSessionStore;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-
 /**
  * @author <a href="mailto:plopes@redhat.com">Paulo Lopes</a>
  */
 public class CookieSessionStoreImpl implements CookieSessionStore {
 
+  /**
+   * Default amount of verified cookie values to remember.
+   */
+  private static final int DEFAULT_CACHE_SIZE = 1024;
+
   public CookieSessionStoreImpl() {
     // required for the service loader
   }
@@ -44,7 +44,11 @@ public class CookieSessionStoreImpl implements CookieSessionStore {
     init(vertx, new JsonObject().put("secret", secret));
   }
 
-  private Mac mac;
+  public CookieSessionStoreImpl(Vertx vertx, String secret, boolean encrypt) {
+    init(vertx, new JsonObject().put("secret", secret).put("encrypt", encrypt));
+  }
+
+  private CookieSessionCodec codec;
   private VertxContextPRNG random;
 
   @Override
@@ -52,12 +56,11 @@ public class CookieSessionStoreImpl implements CookieSessionStore {
     // initialize a secure random
     this.random = VertxContextPRNG.current(vertx);
 
-    try {
-      mac = Mac.getInstance("HmacSHA256");
-      mac.init(new SecretKeySpec(options.getString("secret").getBytes(), "HmacSHA256"));
-    } catch (NoSuchAlgorithmException | InvalidKeyException e) {
-      throw new RuntimeException(e);
-    }
+    codec = new CookieSessionCodec(
+      random,
+      options.getString("secret"),
+      options.getBoolean("encrypt", false),
+      options.getInteger("cacheSize", DEFAULT_CACHE_SIZE));
 
     return this;
   }
@@ -69,18 +72,18 @@ public class CookieSessionStoreImpl implements CookieSessionStore {
 
   @Override
   public Session createSession(long timeout) {
-    return new CookieSession(mac, random, timeout, DEFAULT_SESSIONID_LENGTH);
+    return new CookieSession(codec, random, timeout, DEFAULT_SESSIONID_LENGTH);
   }
 
   @Override
   public Session createSession(long timeout, int length) {
-    return new CookieSession(mac, random, timeout, length);
+    return new CookieSession(codec, random, timeout, length);
   }
 
   @Override
   public void get(String cookieValue, Handler<AsyncResult<@Nullable Session>> resultHandler) {
     try {
-      Session session = new CookieSession(mac, random).setValue(cookieValue);
+      Session session = new CookieSession(codec, random).setValue(cookieValue);
 
       if (session == null) {
         resultHandler.handle(Future.succeededFuture());
@@ -17,6 +17,7 @@
 package io.vertx.ext.web.sstore.cookie;
 
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Session;
 import io.vertx.ext.web.handler.SessionHandler;
 import io.vertx.ext.web.handler.SessionHandlerTestBase;
@@ -65,6 +66,60 @@ public class CookieSessionHandlerTest extends SessionHandlerTestBase {
     await();
   }
 
+  @Test
+  public void testUnchangedSessionIsNotResigned() {
+    Session session = store.createSession(30_000);
+    session.put("foo", "bar");
+    String cookieValue = session.value();
+    // only the access time changes
+    session.setAccessed();
+    assertSame(cookieValue, session.value());
+    // content changes must be reflected
+    session.put("foo", "baz");
+    assertFalse(cookieValue.equals(session.value()));
+  }
+
+  @Test
+  public void testParseData() {
+    Session session = store.createSession(30_000);
+    session.put("string", "bar");
+    session.put("int", 1);
+    session.put("long", 2L);
+    session.put("boolean", true);
+    session.put("json", new JsonObject().put("a", 1));
+    String cookieValue = session.value();
+
+    store.get(cookieValue, get -> {
+      Session result = get.result();
+      assertEquals(session.id(), result.id());
+      assertEquals("bar", result.get("string"));
+      assertEquals(1, (int) result.get("int"));
+      assertEquals(2L, (long) result.get("long"));
+      assertTrue(result.get("boolean"));
+      assertEquals(new JsonObject().put("a", 1), result.get("json"));
+      testComplete();
+    });
+
+    await();
+  }
+
+  @Test
+  public void testTampered() {
+    Session session = store.createSession(30_000);
+    session.put("foo", "bar");
+    String cookieValue = session.value();
+    // flip a char of the payload
+    char c = cookieValue.charAt(2);
+    String tampered = cookieValue.substring(0, 2) + (c == 'A' ? 'B' : 'A') + cookieValue.substring(3);
+
+    store.get(tampered, get -> {
+      assertTrue(get.failed());
+      testComplete();
+    });
+
+    await();
+  }
+
   /**
    * This test overrides the original as at the end there is no way to guarantee that the session cannot be
    * reused as Cookies do not preserve state across clients
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2014 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.sstore.cookie;
+
+import io.vertx.ext.web.Session;
+import org.junit.Test;
+
+public class EncryptedCookieSessionHandlerTest extends CookieSessionHandlerTest {
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    store = CookieSessionStore.create(vertx, "KeyboardCat!", true);
+  }
+
+  @Test
+  public void testSignedValueIsRejected() {
+    Session session = CookieSessionStore.create(vertx, "KeyboardCat!").createSession(30_000);
+    String cookieValue = session.value();
+
+    store.get(cookieValue, get -> {
+      assertTrue(get.succeeded());
+      assertNull(get.result());
+      testComplete();
+    });
+
+    await();
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2014 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler;
+
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.web.handler.impl.AuthenticationCacheImpl;
+
+/**
+ * A bounded cache of authentication results that can be shared by authentication handlers.
+ *
+ * Clients re-sending the same credentials (or token) will not be verified again by the
+ * {@link io.vertx.ext.auth.authentication.AuthenticationProvider} until the entry expires. Entries are keyed by a
+ * hash of the credentials, the credentials themselves are never stored. The time to live of a successful
+ * authentication is capped by the expiration of the user (e.g.: the {@code exp} claim of a token).
+ */
+@VertxGen
+public interface AuthenticationCache {
+
+  /**
+   * Create a cache that only remembers successful authentications.
+   *
+   * @param maxSize the maximum amount of entries to keep
+   * @param ttl the time to live of a successful authentication in milliseconds
+   * @return the cache
+   */
+  static AuthenticationCache create(int maxSize, long ttl) {
+    return new AuthenticationCacheImpl(maxSize, ttl, 0);
+  }
+
+  /**
+   * Create a cache that also remembers failed authentications.
+   *
+   * @param maxSize the maximum amount of entries to keep
+   * @param ttl the time to live of a successful authentication in milliseconds
+   * @param negativeTtl the time to live of a failed authentication in milliseconds, {@code 0} disables it
+   * @return the cache
+   */
+  static AuthenticationCache create(int maxSize, long ttl, long negativeTtl) {
+    return new AuthenticationCacheImpl(maxSize, ttl, negativeTtl);
+  }
+
+  /**
+   * Remove all the entries that authenticated the given user, e.g.: after a password change.
+   *
+   * @param user the user to invalidate, matched by its principal
+   */
+  void invalidate(User user);
+
+  /**
+   * Remove all entries.
+   */
+  void invalidateAll();
+
+  /**
+   * @return the amount of entries currently cached
+   */
+  int size();
+
+  /**
+   * @return the amount of lookups that were served from the cache
+   */
+  long hits();
+
+  /**
+   * @return the amount of lookups that required the authentication provider
+   */
+  long misses();
+}
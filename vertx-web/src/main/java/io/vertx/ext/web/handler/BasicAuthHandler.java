@@ -16,6 +16,7 @@
 
 package io.vertx.ext.web.handler;
 
+import io.vertx.codegen.annotations.Fluent;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.ext.auth.authentication.AuthenticationProvider;
 import io.vertx.ext.web.handler.impl.BasicAuthHandlerImpl;
@@ -53,4 +54,14 @@ public interface BasicAuthHandler extends AuthenticationHandler {
   static BasicAuthHandler create(AuthenticationProvider authProvider, String realm) {
     return new BasicAuthHandlerImpl(authProvider, realm);
   }
+
+  /**
+   * Set a cache for the authentication results, so clients re-sending the same credentials are not verified by the
+   * auth provider on every request.
+   *
+   * @param cache the cache to use, {@code null} disables caching
+   * @return a reference to this for fluency
+   */
+  @Fluent
+  BasicAuthHandler setAuthenticationCache(AuthenticationCache cache);
 }
@@ -99,4 +99,14 @@ public interface CSRFHandler extends Handler<RoutingContext> {
    */
   @Fluent
   CSRFHandler setTimeout(long timeout);
+
+  /**
+   * Remember in the session the last token that passed the signature check. Requests presenting the same token again
+   * will skip the signature verification, token expiration is still enforced. This requires a session handler.
+   *
+   * @param cache true to cache the verified token
+   * @return fluent
+   */
+  @Fluent
+  CSRFHandler setCacheVerifiedToken(boolean cache);
 }
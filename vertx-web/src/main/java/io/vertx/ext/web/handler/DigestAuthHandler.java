@@ -34,6 +34,11 @@ public interface DigestAuthHandler extends AuthenticationHandler {
    */
   long DEFAULT_NONCE_EXPIRE_TIMEOUT = 3600000;
 
+  /**
+   * The default maximum amount of nonces to keep.
+   */
+  int DEFAULT_NONCE_MAX_SIZE = 65536;
+
   /**
    * Create a digest auth handler
    *
@@ -56,4 +61,19 @@ public interface DigestAuthHandler extends AuthenticationHandler {
   static DigestAuthHandler create(Vertx vertx, HtdigestAuth authProvider, long nonceExpireTimeout) {
     return new DigestAuthHandlerImpl(vertx, authProvider, nonceExpireTimeout);
   }
+
+  /**
+   * Create a digest auth handler, specifying the expire timeout and the maximum amount of nonces to keep. Once the
+   * limit is reached the nonces closest to their expiration are discarded. Nonces are shared by all the handlers of
+   * a Vert.x instance, which keep as many nonces as the largest {@code nonceMaxSize} they were given.
+   *
+   * @param vertx              the vertx instance
+   * @param authProvider       the auth service to use
+   * @param nonceExpireTimeout the nonce expire timeout in milliseconds.
+   * @param nonceMaxSize       the maximum amount of nonces to keep.
+   * @return the auth handler
+   */
+  static DigestAuthHandler create(Vertx vertx, HtdigestAuth authProvider, long nonceExpireTimeout, int nonceMaxSize) {
+    return new DigestAuthHandlerImpl(vertx, authProvider, nonceExpireTimeout, nonceMaxSize);
+  }
 }
@@ -64,4 +64,14 @@ public interface JWTAuthHandler extends AuthenticationHandler {
    */
   @Fluent
   JWTAuthHandler setIgnoreExpiration(boolean ignoreExpiration);
+
+  /**
+   * Set a cache for the authentication results, so clients re-sending the same credentials are not verified by the
+   * auth provider on every request.
+   *
+   * @param cache the cache to use, {@code null} disables caching
+   * @return a reference to this for fluency
+   */
+  @Fluent
+  JWTAuthHandler setAuthenticationCache(AuthenticationCache cache);
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2014 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.auth.authentication.AuthenticationProvider;
+import io.vertx.ext.web.handler.AuthenticationCache;
+import io.vertx.ext.web.impl.ConcurrentLRUCache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public class AuthenticationCacheImpl implements AuthenticationCache {
+
+  private static final Base64.Encoder BASE64 = Base64.getEncoder().withoutPadding();
+
+  private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+  });
+
+  /**
+   * A cached authentication result. The provider is kept so a cache shared by handlers with
+   * different providers never returns the result of the wrong one.
+   */
+  static final class Entry {
+    final AuthenticationProvider provider;
+    final User user;
+    final Throwable failure;
+    final long expires;
+
+    private Entry(AuthenticationProvider provider, User user, Throwable failure, long expires) {
+      this.provider = provider;
+      this.user = user;
+      this.failure = failure;
+      this.expires = expires;
+    }
+  }
+
+  private final Map<String, Entry> entries;
+  private final long ttl;
+  private final long negativeTtl;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public AuthenticationCacheImpl(int maxSize, long ttl, long negativeTtl) {
+    if (ttl <= 0) {
+      throw new IllegalArgumentException("ttl must be > 0");
+    }
+    if (negativeTtl < 0) {
+      throw new IllegalArgumentException("negativeTtl must be >= 0");
+    }
+    this.entries = new ConcurrentLRUCache<>(maxSize);
+    this.ttl = ttl;
+    this.negativeTtl = negativeTtl;
+  }
+
+  /**
+   * Compute the cache key for the given credentials.
+   */
+  String key(JsonObject credentials) {
+    return key(credentials.encode());
+  }
+
+  /**
+   * Compute the cache key for an opaque credential, e.g.: a token.
+   */
+  String key(String credential) {
+    final MessageDigest digest = SHA256.get();
+    return BASE64.encodeToString(digest.digest(credential.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  /**
+   * Lookup a non expired entry.
+   *
+   * @return the entry or {@code null}
+   */
+  Entry get(String key, AuthenticationProvider provider) {
+    final Entry entry = entries.get(key);
+    if (entry != null && entry.provider == provider && entry.expires > System.currentTimeMillis()) {
+      if (entry.user == null || !entry.user.expired()) {
+        hits.increment();
+        return entry;
+      }
+    }
+    // expired entries are not removed, they are replaced once the provider answers
+    misses.increment();
+    return null;
+  }
+
+  void put(String key, AuthenticationProvider provider, AsyncResult<User> result) {
+    final long now = System.currentTimeMillis();
+
+    if (result.succeeded()) {
+      final User user = result.result();
+      long expires = now + ttl;
+      // never trust a user after its own expiration
+      final long exp = expiration(user);
+      if (exp != -1 && exp < expires) {
+        expires = exp;
+      }
+      if (expires > now) {
+        // the request authenticating the user may modify it
+        entries.put(key, new Entry(provider, copy(user), null, expires));
+      }
+    } else if (negativeTtl > 0) {
+      entries.put(key, new Entry(provider, null, result.cause(), now + negativeTtl));
+    }
+  }
+
+  @Override
+  public void invalidate(User user) {
+    final JsonObject principal = user.principal();
+    // the remove must go through the cache itself so the eviction queue stays in sync
+    final List<String> keys = new ArrayList<>();
+    entries.forEach((key, entry) -> {
+      if (entry.user != null && principal.equals(entry.user.principal())) {
+        keys.add(key);
+      }
+    });
+    keys.forEach(entries::remove);
+  }
+
+  @Override
+  public void invalidateAll() {
+    entries.clear();
+  }
+
+  @Override
+  public int size() {
+    return entries.size();
+  }
+
+  @Override
+  public long hits() {
+    return hits.sum();
+  }
+
+  @Override
+  public long misses() {
+    return misses.sum();
+  }
+
+  /**
+   * Copy a cached user, the users are mutable and each request gets its own.
+   */
+  static User copy(User user) {
+    final JsonObject principal = user.principal();
+    final JsonObject attributes = user.attributes();
+    return User.create(
+      principal != null ? principal.copy() : new JsonObject(),
+      attributes != null ? attributes.copy() : new JsonObject());
+  }
+
+  /**
+   * @return the expiration of the user in milliseconds, {@code -1} if unknown.
+   */
+  private static long expiration(User user) {
+    if (user == null) {
+      return -1;
+    }
+    Object exp = null;
+    if (user.attributes() != null) {
+      exp = user.attributes().getValue("exp");
+    }
+    if (exp == null && user.principal() != null) {
+      exp = user.principal().getValue("exp");
+    }
+    // exp is expressed in seconds
+    return exp instanceof Number ? ((Number) exp).longValue() * 1000 : -1;
+  }
+}
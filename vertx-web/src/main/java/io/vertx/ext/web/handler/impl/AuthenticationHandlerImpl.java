@@ -16,9 +16,12 @@
 
 package io.vertx.ext.web.handler.impl;
 
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
 import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.User;
 import io.vertx.ext.auth.authentication.AuthenticationProvider;
 import io.vertx.ext.web.RoutingContext;
@@ -37,6 +40,8 @@ public abstract class AuthenticationHandlerImpl implements AuthenticationHandler
 
   protected final String realm;
   protected final AuthenticationProvider authProvider;
+  // optional, remembers the outcome of previous authentications
+  protected AuthenticationCacheImpl authenticationCache;
 
   public AuthenticationHandlerImpl(AuthenticationProvider authProvider) {
     this(authProvider, "");
@@ -85,36 +90,67 @@ public abstract class AuthenticationHandlerImpl implements AuthenticationHandler
         return;
       }
 
+      final AuthenticationProvider provider = getAuthProvider(ctx);
+      final AuthenticationCacheImpl cache = authenticationCache;
+
+      if (cache == null) {
+        // proceed to authN
+        provider.authenticate(res.result(), authN -> authenticated(ctx, authN));
+        return;
+      }
+
+      final String key = cacheKey(cache, res.result());
+      final AuthenticationCacheImpl.Entry entry = cache.get(key, provider);
+
+      if (entry != null) {
+        // these credentials have been verified recently
+        authenticated(ctx, entry.failure == null ? Future.succeededFuture(AuthenticationCacheImpl.copy(entry.user)) : Future.failedFuture(entry.failure));
+        return;
+      }
+
       // proceed to authN
-      getAuthProvider(ctx).authenticate(res.result(), authN -> {
-        if (authN.succeeded()) {
-          User authenticated = authN.result();
-          ctx.setUser(authenticated);
-          Session session = ctx.session();
-          if (session != null) {
-            // the user has upgraded from unauthenticated to authenticated
-            // session should be upgraded as recommended by owasp
-            session.regenerateId();
-          }
-          // proceed with the router
-          ctx.next();
-        } else {
-          String header = authenticateHeader(ctx);
-          if (header != null) {
-            ctx.response()
-              .putHeader("WWW-Authenticate", header);
-          }
-          // to allow further processing if needed
-          if (authN.cause() instanceof HttpStatusException) {
-            processException(ctx, authN.cause());
-          } else {
-            processException(ctx, new HttpStatusException(401, authN.cause()));
-          }
-        }
+      provider.authenticate(res.result(), authN -> {
+        cache.put(key, provider, authN);
+        authenticated(ctx, authN);
       });
     });
   }
 
+  /**
+   * Compute the authentication cache key for the parsed credentials. Handlers which credentials are a single opaque
+   * value can override this to avoid hashing the whole credentials object.
+   */
+  protected String cacheKey(AuthenticationCacheImpl cache, JsonObject credentials) {
+    return cache.key(credentials);
+  }
+
+  private void authenticated(RoutingContext ctx, AsyncResult<User> authN) {
+    if (authN.succeeded()) {
+      User authenticated = authN.result();
+      ctx.setUser(authenticated);
+      Session session = ctx.session();
+      if (session != null) {
+        // the user has upgraded from unauthenticated to authenticated
+        // session should be upgraded as recommended by owasp
+        session.regenerateId();
+      }
+      // proceed with the router
+      ctx.next();
+    } else {
+      String header = authenticateHeader(ctx);
+      if (header != null) {
+        ctx.response()
+          .putHeader("WWW-Authenticate", header);
+      }
+      // to allow further processing if needed
+      if (authN.cause() instanceof HttpStatusException) {
+        processException(ctx, authN.cause());
+      } else {
+        processException(ctx, new HttpStatusException(401, authN.cause()));
+      }
+    }
+  }
+
   /**
    * This method is protected so custom auth handlers can override the default
    * error handling
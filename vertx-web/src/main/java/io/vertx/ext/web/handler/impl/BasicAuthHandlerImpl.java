@@ -22,6 +22,7 @@ import io.vertx.core.Handler;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.authentication.AuthenticationProvider;
 import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.AuthenticationCache;
 import io.vertx.ext.web.handler.BasicAuthHandler;
 
 import java.util.Base64;
@@ -70,6 +71,12 @@ public class BasicAuthHandlerImpl extends AuthorizationAuthHandler implements Ba
     });
   }
 
+  @Override
+  public BasicAuthHandler setAuthenticationCache(AuthenticationCache cache) {
+    this.authenticationCache = (AuthenticationCacheImpl) cache;
+    return this;
+  }
+
   @Override
   protected String authenticateHeader(RoutingContext context) {
     return "Basic realm=\"" + realm + "\"";
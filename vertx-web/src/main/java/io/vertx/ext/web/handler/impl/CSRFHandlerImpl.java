@@ -27,7 +27,9 @@ import io.vertx.ext.web.handler.CSRFHandler;
 import io.vertx.ext.web.handler.SessionHandler;
 
 import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
@@ -40,10 +42,20 @@ public class CSRFHandlerImpl implements CSRFHandler {
 
   private static final Logger log = LoggerFactory.getLogger(CSRFHandlerImpl.class);
 
-  private static final Base64.Encoder BASE64 = Base64.getMimeEncoder();
+  private static final String SESSION_VERIFIED_KEY = "__vertx.csrf.verified";
+
+  // tokens are always shorter than 76 chars so the output is the same as the MIME encoder used before
+  private static final Base64.Encoder BASE64 = Base64.getEncoder();
+
+  private static final int SALT_LENGTH = 32;
+  private static final int MAC_LENGTH = 32;
+  // base64 length of the salt and mac
+  private static final int ENCODED_LENGTH = 44;
+  // salt + '.' + timestamp + '.' + signature
+  private static final int MAX_TOKEN_LENGTH = ENCODED_LENGTH + 1 + 19 + 1 + ENCODED_LENGTH;
 
   private final VertxContextPRNG random;
-  private final Mac mac;
+  private final ThreadLocal<Signer> signer;
 
   private boolean nagHttps;
   private String cookieName = DEFAULT_COOKIE_NAME;
@@ -51,15 +63,15 @@ public class CSRFHandlerImpl implements CSRFHandler {
   private String headerName = DEFAULT_HEADER_NAME;
   private String responseBody = DEFAULT_RESPONSE_BODY;
   private long timeout = SessionHandler.DEFAULT_SESSION_TIMEOUT;
+  private boolean cacheVerifiedToken;
 
   public CSRFHandlerImpl(final Vertx vertx, final String secret) {
-    try {
-      random = VertxContextPRNG.current(vertx);
-      mac = Mac.getInstance("HmacSHA256");
-      mac.init(new SecretKeySpec(secret.getBytes(), "HmacSHA256"));
-    } catch (NoSuchAlgorithmException | InvalidKeyException e) {
-      throw new RuntimeException(e);
-    }
+    random = VertxContextPRNG.current(vertx);
+    final SecretKeySpec key = new SecretKeySpec(secret.getBytes(), "HmacSHA256");
+    // Mac instances are not thread safe, instead of locking a shared instance each thread gets its own
+    signer = ThreadLocal.withInitial(() -> new Signer(key));
+    // fail fast on invalid keys
+    signer.get();
   }
 
   @Override
@@ -98,14 +110,14 @@ public class CSRFHandlerImpl implements CSRFHandler {
     return this;
   }
 
-  private String generateAndStoreToken(RoutingContext ctx) {
-    byte[] salt = new byte[32];
-    random.nextBytes(salt);
-
-    String saltPlusToken = BASE64.encodeToString(salt) + "." + System.currentTimeMillis();
-    String signature = BASE64.encodeToString(mac.doFinal(saltPlusToken.getBytes()));
+  @Override
+  public CSRFHandler setCacheVerifiedToken(boolean cache) {
+    this.cacheVerifiedToken = cache;
+    return this;
+  }
 
-    final String token = saltPlusToken + "." + signature;
+  private String generateAndStoreToken(RoutingContext ctx) {
+    final String token = signer.get().generate(random, System.currentTimeMillis());
     // a new token was generated add it to the cookie
     ctx.addCookie(Cookie.cookie(cookieName, token).setPath(cookiePath));
 
@@ -142,39 +154,71 @@ public class CSRFHandlerImpl implements CSRFHandler {
     }
 
     // both the challenge and the cookie must be present, not null and equal
-    if (challenge == null || !challenge.equals(cookie.getValue())) {
+    if (challenge == null || !constantTimeEquals(challenge, cookie.getValue())) {
+      return false;
+    }
+
+    final int sep1 = challenge.indexOf('.');
+    final int sep2 = sep1 == -1 ? -1 : challenge.indexOf('.', sep1 + 1);
+    if (sep2 == -1 || challenge.indexOf('.', sep2 + 1) != -1) {
       return false;
     }
 
-    String[] tokens = challenge.split("\\.");
-    if (tokens.length != 3) {
+    final long timestamp = parseTimestamp(challenge, sep1 + 1, sep2);
+    if (timestamp == -1) {
       return false;
     }
 
-    byte[] saltPlusToken = (tokens[0] + "." + tokens[1]).getBytes();
-    synchronized (mac) {
-      saltPlusToken = mac.doFinal(saltPlusToken);
+    final Session session = ctx.session();
+    // tokens coming from the session are single use, so caching them makes no sense
+    final boolean useCache = cacheVerifiedToken && session != null && !invalidateSessionToken;
+
+    if (!useCache || !challenge.equals(session.get(SESSION_VERIFIED_KEY))) {
+      if (!signer.get().verify(challenge, sep2)) {
+        return false;
+      }
+      if (useCache) {
+        session.put(SESSION_VERIFIED_KEY, challenge);
+      }
     }
-    String signature = BASE64.encodeToString(saltPlusToken);
 
-    if(!signature.equals(tokens[2])) {
+    // validate validity
+    if (!(System.currentTimeMillis() > timestamp + timeout)) {
+      if (invalidateSessionToken) {
+        // this token has been used and we discard it to avoid replay attacks
+        ctx.session().remove(headerName);
+      }
+      return true;
+    } else {
       return false;
     }
+  }
 
-    try {
-      // validate validity
-      if (!(System.currentTimeMillis() > Long.parseLong(tokens[1]) + timeout)) {
-        if (invalidateSessionToken) {
-          // this token has been used and we discard it to avoid replay attacks
-          ctx.session().remove(headerName);
-        }
-        return true;
-      } else {
-        return false;
+  private static long parseTimestamp(String token, int start, int end) {
+    // at most 18 digits, so it never overflows
+    if (start == end || end - start > 18) {
+      return -1;
+    }
+    long value = 0;
+    for (int i = start; i < end; i++) {
+      final char c = token.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
       }
-    } catch (NumberFormatException e) {
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
+  private static boolean constantTimeEquals(String a, String b) {
+    if (b == null || a.length() != b.length()) {
       return false;
     }
+    int result = 0;
+    for (int i = 0; i < a.length(); i++) {
+      result |= a.charAt(i) ^ b.charAt(i);
+    }
+    return result == 0;
   }
 
   protected void forbidden(RoutingContext ctx) {
@@ -264,4 +308,90 @@ public class CSRFHandlerImpl implements CSRFHandler {
         break;
     }
   }
+
+  /**
+   * Per thread signing state, the scratch buffers allow tokens to be issued and verified without intermediate
+   * allocations.
+   */
+  private static final class Signer {
+
+    private final Mac mac;
+    private final byte[] salt = new byte[SALT_LENGTH];
+    private final byte[] digest = new byte[MAC_LENGTH];
+    private final byte[] encoded = new byte[ENCODED_LENGTH];
+    private final byte[] token = new byte[MAX_TOKEN_LENGTH];
+
+    Signer(SecretKeySpec key) {
+      try {
+        mac = Mac.getInstance("HmacSHA256");
+        mac.init(key);
+      } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    String generate(VertxContextPRNG random, long timestamp) {
+      random.nextBytes(salt);
+
+      int len = BASE64.encode(salt, token);
+      token[len++] = '.';
+      // the timestamp digits
+      final int start = len;
+      do {
+        token[len++] = (byte) ('0' + (timestamp % 10));
+        timestamp /= 10;
+      } while (timestamp > 0);
+      reverse(token, start, len - 1);
+
+      sign(token, len);
+      token[len++] = '.';
+      System.arraycopy(encoded, 0, token, len, ENCODED_LENGTH);
+      len += ENCODED_LENGTH;
+
+      return new String(token, 0, len, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Verify the signature of the token, the signed content ends at {@code end} and the signature follows.
+     */
+    boolean verify(String challenge, int end) {
+      if (end > MAX_TOKEN_LENGTH || challenge.length() - end - 1 != ENCODED_LENGTH) {
+        return false;
+      }
+      for (int i = 0; i < end; i++) {
+        final char c = challenge.charAt(i);
+        if (c > 0x7f) {
+          return false;
+        }
+        token[i] = (byte) c;
+      }
+
+      sign(token, end);
+
+      int result = 0;
+      for (int i = 0; i < ENCODED_LENGTH; i++) {
+        result |= encoded[i] ^ challenge.charAt(end + 1 + i);
+      }
+      return result == 0;
+    }
+
+    private void sign(byte[] content, int len) {
+      try {
+        mac.update(content, 0, len);
+        mac.doFinal(digest, 0);
+      } catch (ShortBufferException e) {
+        // digest is always large enough
+        throw new IllegalStateException(e);
+      }
+      BASE64.encode(digest, encoded);
+    }
+
+    private static void reverse(byte[] bytes, int from, int to) {
+      while (from < to) {
+        byte tmp = bytes[from];
+        bytes[from++] = bytes[to];
+        bytes[to--] = tmp;
+      }
+    }
+  }
 }
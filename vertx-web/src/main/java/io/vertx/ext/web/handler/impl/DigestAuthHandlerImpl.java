@@ -22,7 +22,6 @@ import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.shareddata.LocalMap;
-import io.vertx.core.shareddata.Shareable;
 import io.vertx.ext.auth.VertxContextPRNG;
 import io.vertx.ext.auth.htdigest.HtdigestAuth;
 import io.vertx.ext.web.RoutingContext;
@@ -31,10 +30,8 @@ import io.vertx.ext.web.handler.DigestAuthHandler;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.HashSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.Set;
 
 /**
  * @author <a href="mailto:plopes@redhat.com">Paulo Lopes</a>
@@ -45,69 +42,47 @@ public class DigestAuthHandlerImpl extends AuthorizationAuthHandler implements D
    * Default name for map used to store nonces
    */
   private static final String DEFAULT_NONCE_MAP_NAME = "htdigest.nonces";
-
-  /**
-   * Shareable objects should be immutable.
-   */
-  private static class Nonce implements Shareable {
-    private final long createdAt;
-    private final int count;
-
-    Nonce(int count) {
-      this(System.currentTimeMillis(), count);
-    }
-
-    Nonce(long createdAt, int count) {
-      this.createdAt = createdAt;
-      this.count = count;
-    }
-  }
+  private static final String NONCE_STORE_KEY = "store";
 
   private static final Pattern PARSER = Pattern.compile("(\\w+)=[\"]?([^\"]*)[\"]?$");
   private static final Pattern SPLITTER = Pattern.compile(",(?=(?:[^\"]|\"[^\"]*\")*$)");
 
-  private static final MessageDigest MD5;
-
-  static {
+  private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(() -> {
     try {
-      MD5 = MessageDigest.getInstance("MD5");
+      return MessageDigest.getInstance("MD5");
     } catch (NoSuchAlgorithmException e) {
       throw new RuntimeException(e);
     }
-  }
+  });
 
   private final VertxContextPRNG random;
-  private final LocalMap<String, Nonce> nonces;
+  private final DigestNonceStore nonces;
 
   private final long nonceExpireTimeout;
 
-  private long lastExpireRun;
-
   public DigestAuthHandlerImpl(Vertx vertx, HtdigestAuth authProvider, long nonceExpireTimeout) {
+    this(vertx, authProvider, nonceExpireTimeout, DEFAULT_NONCE_MAX_SIZE);
+  }
+
+  public DigestAuthHandlerImpl(Vertx vertx, HtdigestAuth authProvider, long nonceExpireTimeout, int nonceMaxSize) {
     super(authProvider, authProvider.realm(), Type.DIGEST);
     random = VertxContextPRNG.current(vertx);
-    nonces = vertx.sharedData().getLocalMap(DEFAULT_NONCE_MAP_NAME);
+    // the store is shared by all the handlers of the vert.x instance, so a nonce issued by one verticle instance
+    // can be verified by any other
+    final LocalMap<String, DigestNonceStore> map = vertx.sharedData().getLocalMap(DEFAULT_NONCE_MAP_NAME);
+    final DigestNonceStore store = new DigestNonceStore(nonceMaxSize);
+    final DigestNonceStore existing = map.putIfAbsent(NONCE_STORE_KEY, store);
+    if (existing != null) {
+      existing.ensureCapacity(nonceMaxSize);
+      nonces = existing;
+    } else {
+      nonces = store;
+    }
     this.nonceExpireTimeout = nonceExpireTimeout;
   }
 
   @Override
   public void parseCredentials(RoutingContext context, Handler<AsyncResult<JsonObject>> handler) {
-    // clean up nonce
-    long now = System.currentTimeMillis();
-    if (now - lastExpireRun > nonceExpireTimeout / 2) {
-      Set<String> toRemove = new HashSet<>();
-      nonces.forEach((String key, Nonce n) -> {
-        if (n != null && n.createdAt + nonceExpireTimeout < now) {
-          toRemove.add(key);
-        }
-      });
-
-      for (String n : toRemove) {
-        nonces.remove(n);
-      }
-      lastExpireRun = now;
-    }
-
     parseAuthorization(context, false, parseAuthorization -> {
       if (parseAuthorization.failed()) {
         handler.handle(Future.failedFuture(parseAuthorization.cause()));
@@ -136,7 +111,8 @@ public class DigestAuthHandlerImpl extends AuthorizationAuthHandler implements D
         final String nonce = authInfo.getString("nonce");
 
         // check for expiration
-        if (!nonces.containsKey(nonce)) {
+        final DigestNonceStore.Nonce n = nonce == null ? null : nonces.get(nonce);
+        if (n == null) {
           handler.handle(Future.failedFuture(UNAUTHORIZED));
           return;
         }
@@ -144,13 +120,10 @@ public class DigestAuthHandlerImpl extends AuthorizationAuthHandler implements D
         // check for nonce counter (prevent replay attack)
         if (authInfo.containsKey("qop")) {
           int nc = Integer.parseInt(authInfo.getString("nc"), 16);
-          final Nonce n = nonces.get(nonce);
-          if (nc <= n.count) {
+          if (!n.count(nc)) {
             handler.handle(Future.failedFuture(UNAUTHORIZED));
             return;
           }
-          // update the nounce count
-          nonces.put(nonce, new Nonce(n.createdAt, nc));
         }
 
         final String uri = authInfo.getString("uri");
@@ -161,6 +134,7 @@ public class DigestAuthHandlerImpl extends AuthorizationAuthHandler implements D
         }
       } catch (RuntimeException e) {
         handler.handle(Future.failedFuture(e));
+        return;
       }
 
       // validate the opaque value
@@ -187,7 +161,7 @@ public class DigestAuthHandlerImpl extends AuthorizationAuthHandler implements D
     // generate nonce
     String nonce = md5(bytes);
     // save it
-    nonces.put(nonce, new Nonce(0));
+    nonces.add(nonce, nonceExpireTimeout);
 
     // generate opaque
     String opaque = null;
@@ -217,8 +191,8 @@ public class DigestAuthHandlerImpl extends AuthorizationAuthHandler implements D
     return new String(hexChars);
   }
 
-  private static synchronized String md5(byte[] payload) {
-    MD5.reset();
-    return bytesToHex(MD5.digest(payload));
+  private static String md5(byte[] payload) {
+    // digest() resets the instance once done
+    return bytesToHex(MD5.get().digest(payload));
   }
 }
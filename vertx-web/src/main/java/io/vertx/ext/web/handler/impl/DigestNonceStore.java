@@ -0,0 +1,232 @@
+/*
+ * Copyright 2014 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.impl;
+
+import io.vertx.core.shareddata.Shareable;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded store of the nonces issued by the digest auth handlers of a Vert.x instance.
+ *
+ * Nonces are scheduled on hashed timing wheels, one per nonce timeout, whose tick is derived from the timeout so that
+ * every nonce is due within the current round of its wheel. Expiring nonces only visits the slots of the ticks
+ * elapsed since the last run instead of scanning all the nonces. The nonces of a slot are queued in issue order,
+ * which is also their expiration order since they share the same timeout, so when the store is full the nonce closest
+ * to its expiration is found at the head of the first non empty slot of a wheel. Each nonce holds its own counter so
+ * replay checks of different nonces never contend with each other.
+ */
+public class DigestNonceStore implements Shareable {
+
+  private static final int WHEEL_SIZE = 512;
+  private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+  static final class Nonce {
+    private final String value;
+    private final long expiresAt;
+    private final AtomicInteger count = new AtomicInteger();
+
+    private Nonce(String value, long expiresAt) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Record the given nonce count.
+     *
+     * @return {@code false} if the count was already seen (a replay).
+     */
+    boolean count(int nc) {
+      for (;;) {
+        final int current = count.get();
+        if (nc <= current) {
+          return false;
+        }
+        if (count.compareAndSet(current, nc)) {
+          return true;
+        }
+      }
+    }
+  }
+
+  private final ConcurrentMap<String, Nonce> nonces = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Long, Wheel> wheels = new ConcurrentHashMap<>();
+  private final AtomicBoolean expiring = new AtomicBoolean();
+
+  private volatile int maxSize;
+
+  DigestNonceStore(int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("maxSize must be > 0");
+    }
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Grow the capacity of the store, a store shared by several handlers is as large as the largest of them requires.
+   */
+  void ensureCapacity(int maxSize) {
+    synchronized (this) {
+      if (maxSize > this.maxSize) {
+        this.maxSize = maxSize;
+      }
+    }
+  }
+
+  /**
+   * Store a new nonce.
+   */
+  void add(String value, long timeout) {
+    final long now = System.currentTimeMillis();
+    expire(now);
+
+    while (nonces.size() >= maxSize) {
+      if (!evict()) {
+        break;
+      }
+    }
+
+    final Nonce nonce = new Nonce(value, now + timeout);
+    nonces.put(value, nonce);
+    wheels.computeIfAbsent(timeout, t -> new Wheel(t, now)).add(nonce);
+  }
+
+  /**
+   * Lookup a non expired nonce.
+   *
+   * @return the nonce or {@code null}
+   */
+  Nonce get(String value) {
+    final long now = System.currentTimeMillis();
+    expire(now);
+
+    final Nonce nonce = nonces.get(value);
+    if (nonce == null || nonce.expiresAt <= now) {
+      return null;
+    }
+    return nonce;
+  }
+
+  /**
+   * @return the amount of nonces currently stored
+   */
+  public int size() {
+    return nonces.size();
+  }
+
+  private void expire(long now) {
+    // only one thread advances the wheels, the others will find them up to date
+    if (!expiring.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      for (Wheel wheel : wheels.values()) {
+        wheel.expire(now);
+      }
+    } finally {
+      expiring.set(false);
+    }
+  }
+
+  /**
+   * Evict the nonce closest to its expiration.
+   *
+   * @return {@code false} if there was nothing to evict.
+   */
+  private boolean evict() {
+    for (;;) {
+      Queue<Nonce> slot = null;
+      Nonce candidate = null;
+      // there is one wheel per timeout in use, i.e a handful of them
+      for (Wheel wheel : wheels.values()) {
+        final Queue<Nonce> first = wheel.first();
+        final Nonce head = first != null ? first.peek() : null;
+        if (head != null && (candidate == null || head.expiresAt < candidate.expiresAt)) {
+          slot = first;
+          candidate = head;
+        }
+      }
+      if (candidate == null) {
+        return false;
+      }
+      // a concurrent expiration or eviction may have taken it first
+      if (slot.remove(candidate)) {
+        nonces.remove(candidate.value, candidate);
+        return true;
+      }
+    }
+  }
+
+  /**
+   * The nonces of a timeout, the tick is such that a nonce is always due less than half a round ahead.
+   */
+  private final class Wheel {
+
+    private final long tick;
+    private final Queue<Nonce>[] slots;
+    // the last tick visited by the expiration, guarded by the expiring flag
+    private volatile long lastTick;
+
+    @SuppressWarnings("unchecked")
+    private Wheel(long timeout, long now) {
+      tick = Math.max(1000, timeout / (WHEEL_SIZE / 2) + 1);
+      slots = new Queue[WHEEL_SIZE];
+      for (int i = 0; i < WHEEL_SIZE; i++) {
+        slots[i] = new ConcurrentLinkedQueue<>();
+      }
+      lastTick = now / tick;
+    }
+
+    private void add(Nonce nonce) {
+      // a nonce is never scheduled behind the expiration, even if the clock went back
+      slots[(int) Math.max(nonce.expiresAt / tick, lastTick) & WHEEL_MASK].add(nonce);
+    }
+
+    private void expire(long now) {
+      final long current = now / tick;
+      // the last tick is visited again as it may have received nonces since
+      for (long t = Math.max(lastTick, current - WHEEL_MASK); t <= current; t++) {
+        final Queue<Nonce> slot = slots[(int) t & WHEEL_MASK];
+        for (Nonce nonce = slot.peek(); nonce != null && nonce.expiresAt <= now; nonce = slot.peek()) {
+          if (slot.remove(nonce)) {
+            nonces.remove(nonce.value, nonce);
+          }
+        }
+      }
+      lastTick = current;
+    }
+
+    /**
+     * @return the first non empty slot from the last expiration or {@code null}
+     */
+    private Queue<Nonce> first() {
+      final long from = lastTick;
+      for (long t = from; t <= from + WHEEL_MASK; t++) {
+        final Queue<Nonce> slot = slots[(int) t & WHEEL_MASK];
+        if (!slot.isEmpty()) {
+          return slot;
+        }
+      }
+      return null;
+    }
+  }
+}
@@ -23,6 +23,7 @@ import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.jwt.JWTAuth;
 import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.AuthenticationCache;
 import io.vertx.ext.web.handler.JWTAuthHandler;
 
 import java.util.List;
@@ -33,30 +34,41 @@ import java.util.List;
 public class JWTAuthHandlerImpl extends AuthorizationAuthHandler implements JWTAuthHandler {
 
   private final JsonObject options;
+  // the encoded options, a cache can be shared by handlers verifying tokens with different options
+  private volatile String cacheKeyPrefix;
 
   public JWTAuthHandlerImpl(JWTAuth authProvider) {
     super(authProvider, Type.BEARER);
     options = new JsonObject();
+    optionsChanged();
   }
 
   @Override
   public JWTAuthHandler setAudience(List<String> audience) {
     options.put("audience", new JsonArray(audience));
+    optionsChanged();
     return this;
   }
 
   @Override
   public JWTAuthHandler setIssuer(String issuer) {
     options.put("issuer", issuer);
+    optionsChanged();
     return this;
   }
 
   @Override
   public JWTAuthHandler setIgnoreExpiration(boolean ignoreExpiration) {
     options.put("ignoreExpiration", ignoreExpiration);
+    optionsChanged();
     return this;
   }
 
+  private void optionsChanged() {
+    // entries verified with the previous options are not found anymore and expire from the cache
+    cacheKeyPrefix = options.encode();
+  }
+
   @Override
   public void parseCredentials(RoutingContext context, Handler<AsyncResult<JsonObject>> handler) {
 
@@ -70,6 +82,18 @@ public class JWTAuthHandlerImpl extends AuthorizationAuthHandler implements JWTA
     });
   }
 
+  @Override
+  public JWTAuthHandler setAuthenticationCache(AuthenticationCache cache) {
+    this.authenticationCache = (AuthenticationCacheImpl) cache;
+    return this;
+  }
+
+  @Override
+  protected String cacheKey(AuthenticationCacheImpl cache, JsonObject credentials) {
+    // the options are the same for every request of this handler, so they are encoded once
+    return cache.key(cacheKeyPrefix + credentials.getString("jwt"));
+  }
+
   @Override
   protected String authenticateHeader(RoutingContext context) {
     return "Bearer";
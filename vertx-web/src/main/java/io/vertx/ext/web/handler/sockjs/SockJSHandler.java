@@ -19,6 +19,7 @@ package io.vertx.ext.web.handler.sockjs;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.authorization.AuthorizationProvider;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
@@ -101,6 +102,20 @@ public interface SockJSHandler extends Handler<RoutingContext> {
     return bridge(null, bridgeOptions, bridgeEventHandler);
   }
 
+  /**
+   * The heartbeats and the timeouts of the SockJS sessions are scheduled on a timing wheel per event-loop context.
+   * The metrics cover the sessions of the Vert.x instance:
+   * <ul>
+   *   <li>{@code sessions}: the number of active sessions</li>
+   *   <li>{@code timeouts}: the number of pending session timeouts</li>
+   *   <li>{@code timerLag}: the lag of the last tick of the wheels, in milliseconds</li>
+   *   <li>{@code maxTimerLag}: the maximum lag of a tick of the wheels, in milliseconds</li>
+   * </ul>
+   *
+   * @return the metrics of the SockJS sessions
+   */
+  JsonObject metrics();
+
   /**
    * @deprecated mount the router as a sub-router instead. This method will not properly handle errors.
    * @param routingContext the rounting context
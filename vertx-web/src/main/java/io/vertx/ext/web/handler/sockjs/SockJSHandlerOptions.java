@@ -16,6 +16,7 @@
 package io.vertx.ext.web.handler.sockjs;
 
 import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.http.HttpServerOptions;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
@@ -36,6 +37,8 @@ public class SockJSHandlerOptions {
   public static final long DEFAULT_HEARTBEAT_INTERVAL = 25L * 1000;
   public static final int DEFAULT_MAX_BYTES_STREAMING = 128 * 1024;
   public static final String DEFAULT_LIBRARY_URL = "//cdn.jsdelivr.net/npm/sockjs-client@1/dist/sockjs.min.js";
+  public static final boolean DEFAULT_CLUSTERED = false;
+  public static final int DEFAULT_MAX_WEBSOCKET_FRAME_SIZE = HttpServerOptions.DEFAULT_MAX_WEBSOCKET_FRAME_SIZE;
 
   private long sessionTimeout;
   private boolean insertJSESSIONID;
@@ -43,6 +46,8 @@ public class SockJSHandlerOptions {
   private int maxBytesStreaming;
   private String libraryURL;
   private Set<String> disabledTransports = new HashSet<>();
+  private boolean clustered;
+  private int maxWebSocketFrameSize;
 
   public SockJSHandlerOptions(SockJSHandlerOptions other) {
     throw new UnsupportedOperationException("todo");
@@ -54,6 +59,8 @@ public class SockJSHandlerOptions {
     this.heartbeatInterval = DEFAULT_HEARTBEAT_INTERVAL;
     this.maxBytesStreaming = DEFAULT_MAX_BYTES_STREAMING;
     this.libraryURL = DEFAULT_LIBRARY_URL;
+    this.clustered = DEFAULT_CLUSTERED;
+    this.maxWebSocketFrameSize = DEFAULT_MAX_WEBSOCKET_FRAME_SIZE;
   }
 
   public SockJSHandlerOptions(JsonObject json) {
@@ -62,6 +69,8 @@ public class SockJSHandlerOptions {
     this.heartbeatInterval = json.getLong("heartbeatInterval", DEFAULT_HEARTBEAT_INTERVAL);
     this.maxBytesStreaming = json.getInteger("maxBytesStreaming", DEFAULT_MAX_BYTES_STREAMING);
     this.libraryURL = json.getString("libraryURL", DEFAULT_LIBRARY_URL);
+    this.clustered = json.getBoolean("clustered", DEFAULT_CLUSTERED);
+    this.maxWebSocketFrameSize = json.getInteger("maxWebSocketFrameSize", DEFAULT_MAX_WEBSOCKET_FRAME_SIZE);
     JsonArray arr = json.getJsonArray("disabledTransports");
     if (arr != null) {
       for (Object str : arr) {
@@ -138,4 +147,40 @@ public class SockJSHandlerOptions {
     return disabledTransports;
   }
 
+  public boolean isClustered() {
+    return clustered;
+  }
+
+  /**
+   * Set whether the sessions are shared by the Vert.x nodes of a cluster: the polling and streaming requests and the
+   * messages sent for a session created by another node are forwarded to this node over the event bus, so a load
+   * balancer does not need to route the requests of a session to the same node.
+   *
+   * @param clustered {@code true} to share the sessions
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SockJSHandlerOptions setClustered(boolean clustered) {
+    this.clustered = clustered;
+    return this;
+  }
+
+  public int getMaxWebSocketFrameSize() {
+    return maxWebSocketFrameSize;
+  }
+
+  /**
+   * Set the maximum size of the frames written by the WebSocket transport, larger messages are fragmented. It should
+   * not exceed the max WebSocket frame size of the HTTP server and of the clients.
+   *
+   * @param maxWebSocketFrameSize the max frame size, in bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SockJSHandlerOptions setMaxWebSocketFrameSize(int maxWebSocketFrameSize) {
+    if (maxWebSocketFrameSize < 1) {
+      throw new IllegalArgumentException("maxWebSocketFrameSize must be > 0");
+    }
+    this.maxWebSocketFrameSize = maxWebSocketFrameSize;
+    return this;
+  }
+
 }
@@ -35,6 +35,8 @@ package io.vertx.ext.web.handler.sockjs.impl;
 import io.netty.handler.codec.http.cookie.Cookie;
 import io.netty.handler.codec.http.cookie.ServerCookieDecoder;
 import io.netty.handler.codec.http.cookie.ServerCookieEncoder;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
@@ -56,6 +58,7 @@ import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Random;
 import java.util.Set;
+import java.util.function.Function;
 
 import static io.vertx.core.http.HttpHeaders.*;
 
@@ -70,23 +73,82 @@ class BaseTransport {
   protected final Vertx vertx;
   protected final LocalMap<String, SockJSSession> sessions;
   protected SockJSHandlerOptions options;
+  protected final ClusteredSessions clustered;
 
   static final String COMMON_PATH_ELEMENT_RE = "\\/[^\\/\\.]+\\/([^\\/\\.]+)\\/";
 
   private static final long RAND_OFFSET = 2L << 30;
 
   public BaseTransport(Vertx vertx, LocalMap<String, SockJSSession> sessions, SockJSHandlerOptions options) {
+    this(vertx, sessions, null, options);
+  }
+
+  public BaseTransport(Vertx vertx, LocalMap<String, SockJSSession> sessions, ClusteredSessions clustered,
+                       SockJSHandlerOptions options) {
     this.vertx = vertx;
     this.sessions = sessions;
+    this.clustered = clustered;
     this.options = options;
   }
 
   protected SockJSSession getSession(RoutingContext rc, long timeout, long heartbeatInterval, String sessionID,
                                      Handler<SockJSSocket> sockHandler) {
-    SockJSSession session = sessions.computeIfAbsent(sessionID, s -> new SockJSSession(vertx, sessions, rc, s, timeout, heartbeatInterval, sockHandler));
+    SockJSSession session = sessions.computeIfAbsent(sessionID, s -> {
+      SockJSSession created = new SockJSSession(vertx, sessions, rc, s, timeout, heartbeatInterval, sockHandler);
+      if (clustered != null) {
+        created.shutdownHook(() -> clustered.unregister(s));
+      }
+      return created;
+    });
     return session;
   }
 
+  /**
+   * Register the listener of a receiving request to its session: the local session, the session owned by another node
+   * of the cluster or a new session.
+   *
+   * @param polling whether the request ends after a frame
+   * @param factory create the listener of the request for a session
+   */
+  protected void register(RoutingContext rc, String sessionID, boolean polling, Handler<SockJSSocket> sockHandler,
+                          Function<TransportSession, TransportListener> factory) {
+    SockJSSession session = sessions.get(sessionID);
+    if (session == null && clustered != null) {
+      clustered.register(rc, sessionID, polling, factory, v -> register(rc, sessionID, sockHandler, factory));
+    } else {
+      register(rc, sessionID, sockHandler, factory);
+    }
+  }
+
+  private void register(RoutingContext rc, String sessionID, Handler<SockJSSocket> sockHandler,
+                        Function<TransportSession, TransportListener> factory) {
+    SockJSSession session = getSession(rc, options.getSessionTimeout(), options.getHeartbeatInterval(), sessionID, sockHandler);
+    session.register(rc.request(), factory.apply(session));
+  }
+
+  /**
+   * Deliver the messages sent by a client to its session, the handler is called with {@code false} when the messages
+   * are not valid JSON and fails when the session is unknown.
+   *
+   * @param session the local session or {@code null} when the session is not a local session
+   */
+  protected void handleMessages(String sessionID, SockJSSession session, String messages,
+                                Handler<AsyncResult<Boolean>> handler) {
+    if (session != null) {
+      handler.handle(Future.succeededFuture(session.handleMessages(messages)));
+    } else if (clustered != null) {
+      clustered.handleMessages(sessionID, messages, handler);
+    } else {
+      handler.handle(Future.failedFuture("Unknown session " + sessionID));
+    }
+  }
+
+  protected void sendNotFound(RoutingContext rc) {
+    rc.response().setStatusCode(404);
+    setJSESSIONID(options, rc);
+    rc.response().end();
+  }
+
   protected void sendInvalidJSON(HttpServerResponse response) {
     if (log.isTraceEnabled()) log.trace("Broken JSON");
     response.setStatusCode(500);
@@ -105,14 +167,14 @@ class BaseTransport {
 
   protected static abstract class BaseListener implements TransportListener {
     protected final RoutingContext rc;
-    protected final SockJSSession session;
+    protected final TransportSession session;
     protected boolean closed;
 
-    protected BaseListener(RoutingContext rc, SockJSSession session) {
+    protected BaseListener(RoutingContext rc, TransportSession session) {
       this.rc = rc;
       this.session = session;
     }
-    protected void addCloseHandler(HttpServerResponse resp, final SockJSSession session) {
+    protected void addCloseHandler(HttpServerResponse resp, final TransportSession session) {
       resp.closeHandler(v -> {
           if (log.isTraceEnabled()) log.trace("Connection closed (from client?), closing session");
           // Connection has been closed from the client or network error so
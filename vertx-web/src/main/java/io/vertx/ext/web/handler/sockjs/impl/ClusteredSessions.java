@@ -0,0 +1,504 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Closeable;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.core.net.impl.ConnectionBase;
+import io.vertx.core.shareddata.AsyncMap;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.impl.ConcurrentLRUCache;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * The SockJS sessions of a cluster of Vert.x nodes.
+ * <p>
+ * A session is owned by the node that created it and the owners of the sessions are registered in a cluster wide map.
+ * A receiving request or a send request for a session owned by another node is forwarded to the owner over the event
+ * bus: the frames of the session are sent back to the node of the receiving request and written to its response.
+ * The owners of the forwarded sessions are cached in a bounded routing table, so the cluster wide map is only queried
+ * when a node sees a session for the first time. The owners are registered with a time to live that the owner refreshes,
+ * so the sessions of a crashed node are eventually removed from the cluster wide map.
+ * <p>
+ * When the owner of a session is gone or does not know the session anymore, the node of the next receiving request
+ * takes the session over and creates a new session.
+ * <p>
+ * The handlers of a Vert.x instance share the sessions, so they share a single instance with a single node address:
+ * each handler registers a consumer of the node address bound to its context.
+ */
+class ClusteredSessions implements Shareable {
+
+  private static final Logger log = LoggerFactory.getLogger(ClusteredSessions.class);
+
+  private static final String LOCAL_MAP_NAME = "_vertx.sockjssessions.clustered";
+  private static final String LOCAL_MAP_KEY = "sessions";
+  private static final String OWNERS_MAP_NAME = "_vertx.sockjssessions.owners";
+  private static final String NODE_ADDRESS_PREFIX = "__vertx.sockjs.node.";
+  private static final String LISTENER_ADDRESS_PREFIX = "__vertx.sockjs.listener.";
+
+  /**
+   * The maximum number of entries of the routing table.
+   */
+  static final int ROUTING_TABLE_SIZE = 10_000;
+
+  /**
+   * The time to live in ms of the owner of a session in the cluster wide map, the owner refreshes it about every third
+   * of it.
+   */
+  static final long OWNER_TTL = 60_000;
+
+  /**
+   * The timeout in ms of the requests forwarded to the owner of a session and of the frames sent back.
+   */
+  static final long FORWARD_TIMEOUT = 5_000;
+
+  private static final String ACTION = "action";
+  private static final String SESSION = "session";
+  private static final String LISTENER = "listener";
+  private static final String POLLING = "polling";
+  private static final String SEND = "send";
+  private static final String RECEIVE = "receive";
+  private static final String RESET = "reset";
+  private static final String SHUTDOWN = "shutdown";
+  private static final String CLOSE = "close";
+
+  private final LocalMap<String, SockJSSession> sessions;
+  private final EventBus eventBus;
+  private final String address;
+  private final Future<AsyncMap<String, String>> owners;
+  private final Map<String, String> routes = new ConcurrentLRUCache<>(ROUTING_TABLE_SIZE);
+  private final Map<String, RemoteListener> remotes = new ConcurrentHashMap<>();
+  private final Set<String> owned = ConcurrentHashMap.newKeySet();
+  private final AtomicLong lastRefresh = new AtomicLong(System.currentTimeMillis());
+  // guarded by the class, the close hooks of the handlers are weakly referenced by their contexts
+  private final Set<Closeable> handlers = new HashSet<>();
+
+  private ClusteredSessions(Vertx vertx, LocalMap<String, SockJSSession> sessions) {
+    this.sessions = sessions;
+    this.eventBus = vertx.eventBus();
+    this.address = NODE_ADDRESS_PREFIX + UUID.randomUUID();
+    this.owners = vertx.sharedData().getAsyncMap(OWNERS_MAP_NAME);
+  }
+
+  /**
+   * Get the clustered sessions of the Vert.x instance, the first handler creates them. Each handler registers a
+   * consumer of the node address and a timer refreshing the owners on its context, they are removed when the context
+   * is closed.
+   */
+  static ClusteredSessions get(Vertx vertx, LocalMap<String, SockJSSession> sessions) {
+    LocalMap<String, ClusteredSessions> map = vertx.sharedData().getLocalMap(LOCAL_MAP_NAME);
+    ClusteredSessions clustered;
+    synchronized (ClusteredSessions.class) {
+      clustered = map.get(LOCAL_MAP_KEY);
+      if (clustered == null) {
+        clustered = new ClusteredSessions(vertx, sessions);
+        map.put(LOCAL_MAP_KEY, clustered);
+      }
+    }
+    clustered.start(vertx, map);
+    return clustered;
+  }
+
+  private void start(Vertx vertx, LocalMap<String, ClusteredSessions> map) {
+    ContextInternal context = (ContextInternal) vertx.getOrCreateContext();
+    MessageConsumer<Object> consumer = eventBus.consumer(address, this::handle);
+    long timerID = vertx.setPeriodic(OWNER_TTL / 3, id -> refresh());
+    Closeable hook = new Closeable() {
+      @Override
+      public void close(Promise<Void> completion) {
+        vertx.cancelTimer(timerID);
+        release(map, this);
+        consumer.unregister(completion);
+      }
+    };
+    synchronized (ClusteredSessions.class) {
+      handlers.add(hook);
+    }
+    context.addCloseHook(hook);
+  }
+
+  private void release(LocalMap<String, ClusteredSessions> map, Closeable hook) {
+    synchronized (ClusteredSessions.class) {
+      handlers.remove(hook);
+      if (handlers.isEmpty()) {
+        map.removeIfPresent(LOCAL_MAP_KEY, this);
+      }
+    }
+  }
+
+  /**
+   * Refresh the time to live of the owners of the local sessions, the timers of all the handlers call it but only
+   * one refreshes per period.
+   */
+  private void refresh() {
+    long now = System.currentTimeMillis();
+    long last = lastRefresh.get();
+    if (now - last < OWNER_TTL / 4 || !lastRefresh.compareAndSet(last, now)) {
+      return;
+    }
+    owners.onSuccess(map -> {
+      for (String sessionID : owned) {
+        map.put(sessionID, address, OWNER_TTL).onFailure(err -> {
+          log.error("Could not refresh the owner of the SockJS session " + sessionID, err);
+        });
+      }
+    });
+  }
+
+  /**
+   * Register the listener of a receiving request for a session that is not a local session.
+   *
+   * @param factory create the listener of the request for a session
+   * @param local called when the session shall be created by this node
+   */
+  void register(RoutingContext rc, String sessionID, boolean polling,
+                Function<TransportSession, TransportListener> factory, Handler<Void> local) {
+    String owner = routes.get(sessionID);
+    if (owner != null) {
+      forward(rc, sessionID, owner, polling, factory, local);
+      return;
+    }
+    owners.compose(map -> map.putIfAbsent(sessionID, address, OWNER_TTL)).onComplete(ar -> {
+      if (ar.failed()) {
+        rc.fail(ar.cause());
+        return;
+      }
+      String o = ar.result();
+      if (o == null || o.equals(address)) {
+        owned.add(sessionID);
+        local.handle(null);
+      } else {
+        routes.put(sessionID, o);
+        forward(rc, sessionID, o, polling, factory, local);
+      }
+    });
+  }
+
+  /**
+   * Remove the ownership of a local session, called when the session is removed from the sessions.
+   */
+  void unregister(String sessionID) {
+    owned.remove(sessionID);
+    owners.compose(map -> map.removeIfPresent(sessionID, address)).onComplete(ar -> {
+      if (ar.failed()) {
+        log.error("Could not remove the owner of the SockJS session " + sessionID, ar.cause());
+      }
+    });
+  }
+
+  /**
+   * Deliver the messages sent by a client to a session owned by another node, the handler is called with {@code false}
+   * when the messages are not valid JSON and fails when the session is unknown.
+   */
+  void handleMessages(String sessionID, String messages, Handler<AsyncResult<Boolean>> handler) {
+    String owner = routes.get(sessionID);
+    Future<String> fut = owner != null ? Future.succeededFuture(owner) : owners.compose(map -> map.get(sessionID));
+    fut.onComplete(ar -> {
+      String o = ar.succeeded() ? ar.result() : null;
+      if (o == null || o.equals(address)) {
+        handler.handle(Future.failedFuture("Unknown session " + sessionID));
+        return;
+      }
+      routes.put(sessionID, o);
+      eventBus.<Boolean>request(o, messages, options(SEND, sessionID), reply -> {
+        if (reply.succeeded()) {
+          handler.handle(Future.succeededFuture(reply.result().body()));
+        } else {
+          handleOwnerFailure(sessionID, o).onComplete(v -> handler.handle(Future.failedFuture(reply.cause())));
+        }
+      });
+    });
+  }
+
+  private void forward(RoutingContext rc, String sessionID, String owner, boolean polling,
+                       Function<TransportSession, TransportListener> factory, Handler<Void> local) {
+    ForwardedSession session = new ForwardedSession(sessionID, owner, LISTENER_ADDRESS_PREFIX + UUID.randomUUID());
+    TransportListener listener = factory.apply(session);
+    session.consumer = eventBus.consumer(session.listener, msg -> {
+      if (CLOSE.equals(msg.headers().get(ACTION))) {
+        listener.close();
+      } else {
+        listener.sendFrame(msg.body(), ar -> {
+          if (ar.succeeded()) {
+            msg.reply(null);
+          } else {
+            msg.fail(0, ar.cause().getMessage());
+          }
+        });
+      }
+    });
+    // The owner sends the frames as soon as the listener is registered
+    session.consumer.completionHandler(ar -> {
+      DeliveryOptions options = options(RECEIVE, sessionID)
+        .addHeader(LISTENER, session.listener)
+        .addHeader(POLLING, String.valueOf(polling));
+      eventBus.request(owner, requestInfo(rc.request()), options, reply -> {
+        if (reply.failed()) {
+          if (log.isTraceEnabled()) log.trace("Could not forward to the owner of the SockJS session " + sessionID, reply.cause());
+          session.detach();
+          // Take the session over
+          handleOwnerFailure(sessionID, owner).onComplete(v -> {
+            if (v.succeeded()) {
+              register(rc, sessionID, polling, factory, local);
+            } else {
+              rc.fail(v.cause());
+            }
+          });
+        }
+      });
+    });
+  }
+
+  private Future<Boolean> handleOwnerFailure(String sessionID, String owner) {
+    routes.remove(sessionID);
+    return owners.compose(map -> map.removeIfPresent(sessionID, owner));
+  }
+
+  private void handle(Message<Object> msg) {
+    MultiMap headers = msg.headers();
+    String sessionID = headers.get(SESSION);
+    String action = headers.get(ACTION);
+    if (action == null) {
+      msg.fail(400, "Missing action");
+      return;
+    }
+    switch (action) {
+      case SEND: {
+        SockJSSession session = sessions.get(sessionID);
+        if (session == null || session.isClosed()) {
+          msg.fail(404, "Unknown session " + sessionID);
+        } else {
+          msg.reply(session.handleMessages((String) msg.body()));
+        }
+        break;
+      }
+      case RECEIVE: {
+        SockJSSession session = sessions.get(sessionID);
+        if (session == null) {
+          msg.fail(404, "Unknown session " + sessionID);
+          break;
+        }
+        String listener = headers.get(LISTENER);
+        RemoteListener remote = new RemoteListener(session, listener, Boolean.parseBoolean(headers.get(POLLING)));
+        remotes.put(listener, remote);
+        JsonObject info = (JsonObject) msg.body();
+        session.register(
+          socketAddress(info.getJsonObject("localAddress")),
+          socketAddress(info.getJsonObject("remoteAddress")),
+          info.getString("uri"),
+          headers(info.getJsonObject("headers")),
+          remote);
+        msg.reply(null);
+        break;
+      }
+      case RESET: {
+        RemoteListener remote = remotes.get(headers.get(LISTENER));
+        if (remote != null) {
+          remote.detach();
+        }
+        break;
+      }
+      case SHUTDOWN: {
+        RemoteListener remote = remotes.remove(headers.get(LISTENER));
+        if (remote != null) {
+          remote.closed = true;
+        }
+        SockJSSession session = sessions.get(sessionID);
+        if (session != null) {
+          session.shutdown();
+        }
+        break;
+      }
+      default:
+        msg.fail(400, "Invalid action " + action);
+    }
+  }
+
+  private static DeliveryOptions options(String action, String sessionID) {
+    return new DeliveryOptions().setSendTimeout(FORWARD_TIMEOUT).addHeader(ACTION, action).addHeader(SESSION, sessionID);
+  }
+
+  private static JsonObject requestInfo(HttpServerRequest req) {
+    JsonObject headers = new JsonObject();
+    for (Map.Entry<String, String> header : BaseTransport.removeCookieHeaders(req.headers())) {
+      JsonArray values = headers.getJsonArray(header.getKey());
+      if (values == null) {
+        values = new JsonArray();
+        headers.put(header.getKey(), values);
+      }
+      values.add(header.getValue());
+    }
+    return new JsonObject()
+      .put("uri", req.uri())
+      .put("localAddress", toJson(req.localAddress()))
+      .put("remoteAddress", toJson(req.remoteAddress()))
+      .put("headers", headers);
+  }
+
+  private static JsonObject toJson(SocketAddress address) {
+    return address != null ? new JsonObject().put("host", address.host()).put("port", address.port()) : null;
+  }
+
+  private static SocketAddress socketAddress(JsonObject json) {
+    return json != null ? SocketAddress.inetSocketAddress(json.getInteger("port"), json.getString("host")) : null;
+  }
+
+  private static MultiMap headers(JsonObject json) {
+    MultiMap headers = MultiMap.caseInsensitiveMultiMap();
+    for (Map.Entry<String, Object> header : json) {
+      for (Object value : (JsonArray) header.getValue()) {
+        headers.add(header.getKey(), (String) value);
+      }
+    }
+    return headers;
+  }
+
+  /**
+   * The session of a receiving request forwarded to the owner of the session.
+   */
+  private final class ForwardedSession implements TransportSession {
+
+    private final String sessionID;
+    private final String owner;
+    private final String listener;
+    private MessageConsumer<Buffer> consumer;
+    private boolean detached;
+
+    private ForwardedSession(String sessionID, String owner, String listener) {
+      this.sessionID = sessionID;
+      this.owner = owner;
+      this.listener = listener;
+    }
+
+    /**
+     * @return whether the listener was attached
+     */
+    synchronized boolean detach() {
+      if (detached) {
+        return false;
+      }
+      detached = true;
+      consumer.unregister();
+      return true;
+    }
+
+    @Override
+    public void resetListener() {
+      if (detach()) {
+        eventBus.send(owner, null, options(RESET, sessionID).addHeader(LISTENER, listener));
+      }
+    }
+
+    @Override
+    public void shutdown() {
+      detach();
+      eventBus.send(owner, null, options(SHUTDOWN, sessionID).addHeader(LISTENER, listener));
+    }
+
+    @Override
+    public void writeClosed(TransportListener lst) {
+      SockJSSession.writeClosed(lst, 3000, "Go away!");
+    }
+  }
+
+  /**
+   * The listener of a session for a receiving request forwarded by another node, the frames are sent to the node of
+   * the request.
+   */
+  private final class RemoteListener implements TransportListener {
+
+    private final SockJSSession session;
+    private final String listener;
+    private final boolean polling;
+    private boolean closed;
+
+    private RemoteListener(SockJSSession session, String listener, boolean polling) {
+      this.session = session;
+      this.listener = listener;
+      this.polling = polling;
+    }
+
+    @Override
+    public void sendFrame(Buffer body, Handler<AsyncResult<Void>> handler) {
+      synchronized (this) {
+        if (closed) {
+          if (handler != null) {
+            handler.handle(Future.failedFuture(ConnectionBase.CLOSED_EXCEPTION));
+          }
+          return;
+        }
+      }
+      if (handler != null) {
+        eventBus.request(listener, body, new DeliveryOptions().setSendTimeout(FORWARD_TIMEOUT), ar -> handler.handle(ar.mapEmpty()));
+      } else {
+        eventBus.send(listener, body);
+      }
+      if (polling) {
+        // The polling request ends after a frame
+        detach();
+      }
+    }
+
+    @Override
+    public void close() {
+      if (detach()) {
+        eventBus.send(listener, null, new DeliveryOptions().addHeader(ACTION, CLOSE));
+      }
+    }
+
+    @Override
+    public void sessionClosed() {
+      session.writeClosed(this);
+      close();
+    }
+
+    /**
+     * @return whether the listener was attached
+     */
+    boolean detach() {
+      synchronized (this) {
+        if (closed) {
+          return false;
+        }
+        closed = true;
+      }
+      remotes.remove(listener, this);
+      session.resetListener();
+      return true;
+    }
+  }
+}
@@ -37,7 +37,6 @@ import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
-import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
 import io.vertx.core.shareddata.LocalMap;
@@ -56,18 +55,16 @@ class EventSourceTransport extends BaseTransport {
 
   private static final Logger log = LoggerFactory.getLogger(EventSourceTransport.class);
 
-  EventSourceTransport(Vertx vertx, Router router, LocalMap<String, SockJSSession> sessions, SockJSHandlerOptions options,
-                       Handler<SockJSSocket> sockHandler) {
-    super(vertx, sessions, options);
+  EventSourceTransport(Vertx vertx, Router router, LocalMap<String, SockJSSession> sessions, ClusteredSessions clustered,
+                       SockJSHandlerOptions options, Handler<SockJSSocket> sockHandler) {
+    super(vertx, sessions, clustered, options);
 
     String eventSourceRE = COMMON_PATH_ELEMENT_RE + "eventsource";
 
     router.getWithRegex(eventSourceRE).handler(rc -> {
       if (log.isTraceEnabled()) log.trace("EventSource transport, get: " + rc.request().uri());
       String sessionID = rc.request().getParam("param0");
-      SockJSSession session = getSession(rc, options.getSessionTimeout(), options.getHeartbeatInterval(), sessionID, sockHandler);
-      HttpServerRequest req = rc.request();
-      session.register(req, new EventSourceListener(options.getMaxBytesStreaming(), rc, session));
+      register(rc, sessionID, false, sockHandler, session -> new EventSourceListener(options.getMaxBytesStreaming(), rc, session));
     });
   }
 
@@ -78,14 +75,14 @@ class EventSourceTransport extends BaseTransport {
     int bytesSent;
     boolean closed;
 
-    EventSourceListener(int maxBytesStreaming, RoutingContext rc, SockJSSession session) {
+    EventSourceListener(int maxBytesStreaming, RoutingContext rc, TransportSession session) {
       super(rc, session);
       this.maxBytesStreaming = maxBytesStreaming;
       addCloseHandler(rc.response(), session);
     }
 
     @Override
-    public void sendFrame(String body, Handler<AsyncResult<Void>> handler) {
+    public void sendFrame(Buffer body, Handler<AsyncResult<Void>> handler) {
       if (log.isTraceEnabled()) log.trace("EventSource, sending frame");
       if (!headersWritten) {
         // event stream data is always UTF8
@@ -97,10 +94,10 @@ class EventSourceTransport extends BaseTransport {
         rc.response().setChunked(true).write("\r\n");
         headersWritten = true;
       }
-      String sb = "data: " +
-        body +
-        "\r\n\r\n";
-      Buffer buff = buffer(sb);
+      Buffer buff = buffer(body.length() + 10)
+        .appendString("data: ")
+        .appendBuffer(body)
+        .appendString("\r\n\r\n");
       rc.response().write(buff, handler);
       bytesSent += buff.length();
       if (bytesSent >= maxBytesStreaming) {
@@ -37,7 +37,6 @@ import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
-import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
 import io.vertx.core.shareddata.LocalMap;
@@ -87,9 +86,9 @@ class HtmlFileTransport extends BaseTransport {
     HTML_FILE_TEMPLATE = sb.toString();
   }
 
-  HtmlFileTransport(Vertx vertx, Router router, LocalMap<String, SockJSSession> sessions, SockJSHandlerOptions options,
-                    Handler<SockJSSocket> sockHandler) {
-    super(vertx, sessions, options);
+  HtmlFileTransport(Vertx vertx, Router router, LocalMap<String, SockJSSession> sessions, ClusteredSessions clustered,
+                    SockJSHandlerOptions options, Handler<SockJSSocket> sockHandler) {
+    super(vertx, sessions, clustered, options);
     String htmlFileRE = COMMON_PATH_ELEMENT_RE + "htmlfile.*";
 
     router.getWithRegex(htmlFileRE).handler(rc -> {
@@ -109,10 +108,9 @@ class HtmlFileTransport extends BaseTransport {
         return;
       }
 
-      HttpServerRequest req = rc.request();
-      String sessionID = req.params().get("param0");
-      SockJSSession session = getSession(rc, options.getSessionTimeout(), options.getHeartbeatInterval(), sessionID, sockHandler);
-      session.register(req, new HtmlFileListener(options.getMaxBytesStreaming(), rc, callback, session));
+      String sessionID = rc.request().params().get("param0");
+      String cb = callback;
+      register(rc, sessionID, false, sockHandler, session -> new HtmlFileListener(options.getMaxBytesStreaming(), rc, cb, session));
     });
   }
 
@@ -124,7 +122,7 @@ class HtmlFileTransport extends BaseTransport {
     int bytesSent;
     boolean closed;
 
-    HtmlFileListener(int maxBytesStreaming, RoutingContext rc, String callback, SockJSSession session) {
+    HtmlFileListener(int maxBytesStreaming, RoutingContext rc, String callback, TransportSession session) {
       super(rc, session);
       this.maxBytesStreaming = maxBytesStreaming;
       this.callback = callback;
@@ -132,7 +130,7 @@ class HtmlFileTransport extends BaseTransport {
     }
 
     @Override
-    public void sendFrame(String body, Handler<AsyncResult<Void>> handler) {
+    public void sendFrame(Buffer body, Handler<AsyncResult<Void>> handler) {
       if (log.isTraceEnabled()) log.trace("HtmlFile, sending frame");
       if (!headersWritten) {
         String htmlFile = HTML_FILE_TEMPLATE.replace("{{ callback }}", callback);
@@ -143,9 +141,8 @@ class HtmlFileTransport extends BaseTransport {
         rc.response().write(htmlFile);
         headersWritten = true;
       }
-      body = escapeForJavaScript(body);
       String sb = "<script>\np(\"" +
-        body +
+        escapeForJavaScript(body.toString()) +
         "\");\n</script>\r\n";
       Buffer buff = buffer(sb);
       rc.response().write(buff, handler);
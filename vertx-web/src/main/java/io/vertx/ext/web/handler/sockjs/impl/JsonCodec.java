@@ -37,11 +37,14 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.io.CharTypes;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.EncodeException;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -117,6 +120,81 @@ public class JsonCodec {
     }
   }
 
+  /**
+   * Encode messages as a SockJS array frame, {@code a["message1","message2"]}.
+   * <p>
+   * The bytes of the messages are escaped straight into the frame, the pure ASCII messages are not decoded. Only the
+   * part of a message following its first non ASCII byte is decoded to escape its characters.
+   *
+   * @param messages the UTF-8 encoded messages
+   * @return the frame
+   */
+  public static Buffer encodeFrame(Collection<Buffer> messages) {
+    int size = 3;
+    for (Buffer message : messages) {
+      size += message.length() + 3;
+    }
+    Buffer frame = Buffer.buffer(size);
+    frame.appendByte((byte) 'a').appendByte((byte) '[');
+    boolean first = true;
+    for (Buffer message : messages) {
+      if (first) {
+        first = false;
+      } else {
+        frame.appendByte((byte) ',');
+      }
+      frame.appendByte((byte) '"');
+      escape(frame, message);
+      frame.appendByte((byte) '"');
+    }
+    frame.appendByte((byte) ']');
+    return frame;
+  }
+
+  private static void escape(Buffer frame, Buffer message) {
+    int length = message.length();
+    for (int i = 0; i < length; i++) {
+      byte b = message.getByte(i);
+      if (b < 0) {
+        // a multi-byte character starts here
+        escape(frame, message.getString(i, length, StandardCharsets.UTF_8.name()));
+        return;
+      }
+      escape(frame, (char) b);
+    }
+  }
+
+  private static void escape(Buffer frame, String str) {
+    for (int i = 0; i < str.length(); i++) {
+      char c = str.charAt(i);
+      if (c >= 0x80) {
+        writeUnicodeEscape(frame, c);
+      } else {
+        escape(frame, c);
+      }
+    }
+  }
+
+  private static void escape(Buffer frame, char c) {
+    int code = ESCAPE_CODES[c];
+    if (code == 0) {
+      frame.appendByte((byte) c);
+    } else if (code == -1) {
+      writeUnicodeEscape(frame, c);
+    } else {
+      frame.appendByte((byte) '\\').appendByte((byte) code);
+    }
+  }
+
+  private static void writeUnicodeEscape(Buffer frame, char c) {
+    frame.appendByte((byte) '\\')
+      .appendByte((byte) 'u')
+      .appendByte((byte) HEX_CHARS[(c >> 12) & 0xF])
+      .appendByte((byte) HEX_CHARS[(c >> 8) & 0xF])
+      .appendByte((byte) HEX_CHARS[(c >> 4) & 0xF])
+      .appendByte((byte) HEX_CHARS[c & 0xF]);
+  }
+
   public static List<String> decodeValues(String messages) {
     List<String> result = null;
     try (JsonParser parser = factory.createParser(messages)) {
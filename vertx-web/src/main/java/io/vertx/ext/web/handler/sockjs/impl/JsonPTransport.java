@@ -35,8 +35,8 @@ package io.vertx.ext.web.handler.sockjs.impl;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
-import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
 import io.vertx.core.net.impl.URIDecoder;
@@ -58,9 +58,9 @@ class JsonPTransport extends BaseTransport {
 
   private static final Pattern CALLBACK_VALIDATION = Pattern.compile("[^a-zA-Z0-9-_.]");
 
-  JsonPTransport(Vertx vertx, Router router, LocalMap<String, SockJSSession> sessions, SockJSHandlerOptions options,
-                 Handler<SockJSSocket> sockHandler) {
-    super(vertx, sessions, options);
+  JsonPTransport(Vertx vertx, Router router, LocalMap<String, SockJSSession> sessions, ClusteredSessions clustered,
+                 SockJSHandlerOptions options, Handler<SockJSSocket> sockHandler) {
+    super(vertx, sessions, clustered, options);
 
     String jsonpRE = COMMON_PATH_ELEMENT_RE + "jsonp";
 
@@ -83,10 +83,9 @@ class JsonPTransport extends BaseTransport {
         return;
       }
 
-      HttpServerRequest req = rc.request();
-      String sessionID = req.params().get("param0");
-      SockJSSession session = getSession(rc, options.getSessionTimeout(), options.getHeartbeatInterval(), sessionID, sockHandler);
-      session.register(req, new JsonPListener(rc, session, callback));
+      String sessionID = rc.request().params().get("param0");
+      String cb = callback;
+      register(rc, sessionID, true, sockHandler, session -> new JsonPListener(rc, session, cb));
     });
 
     String jsonpSendRE = COMMON_PATH_ELEMENT_RE + "jsonp_send";
@@ -96,16 +95,16 @@ class JsonPTransport extends BaseTransport {
       String sessionID = rc.request().getParam("param0");
       final SockJSSession session = sessions.get(sessionID);
       if (session != null && !session.isClosed()) {
-        handleSend(rc, session);
+        handleSend(rc, sessionID, session);
+      } else if (clustered != null) {
+        handleSend(rc, sessionID, null);
       } else {
-        rc.response().setStatusCode(404);
-        setJSESSIONID(options, rc);
-        rc.response().end();
+        sendNotFound(rc);
       }
     });
   }
 
-  private void handleSend(RoutingContext rc, SockJSSession session) {
+  private void handleSend(RoutingContext rc, String sessionID, SockJSSession session) {
     rc.request().bodyHandler(buff -> {
       String body = buff.toString();
 
@@ -130,15 +129,19 @@ class JsonPTransport extends BaseTransport {
         body = URIDecoder.decodeURIComponent(body, true).substring(2);
       }
 
-      if (!session.handleMessages(body)) {
-        sendInvalidJSON(rc.response());
-      } else {
-        setJSESSIONID(options, rc);
-        rc.response().putHeader(HttpHeaders.CONTENT_TYPE, "text/plain; charset=UTF-8");
-        setNoCacheHeaders(rc);
-        rc.response().end("ok");
-        if (log.isTraceEnabled()) log.trace("send handled ok");
-      }
+      handleMessages(sessionID, session, body, ar -> {
+        if (ar.failed()) {
+          sendNotFound(rc);
+        } else if (!ar.result()) {
+          sendInvalidJSON(rc.response());
+        } else {
+          setJSESSIONID(options, rc);
+          rc.response().putHeader(HttpHeaders.CONTENT_TYPE, "text/plain; charset=UTF-8");
+          setNoCacheHeaders(rc);
+          rc.response().end("ok");
+          if (log.isTraceEnabled()) log.trace("send handled ok");
+        }
+      });
     });
   }
 
@@ -148,14 +151,14 @@ class JsonPTransport extends BaseTransport {
     boolean headersWritten;
     boolean closed;
 
-    JsonPListener(RoutingContext rc, SockJSSession session, String callback) {
+    JsonPListener(RoutingContext rc, TransportSession session, String callback) {
       super(rc, session);
       this.callback = callback;
       addCloseHandler(rc.response(), session);
     }
 
     @Override
-    public void sendFrame(String body, Handler<AsyncResult<Void>> handler) {
+    public void sendFrame(Buffer body, Handler<AsyncResult<Void>> handler) {
       if (log.isTraceEnabled()) log.trace("JsonP, sending frame");
 
       if (!headersWritten) {
@@ -169,11 +172,9 @@ class JsonPTransport extends BaseTransport {
         headersWritten = true;
       }
 
-      body = escapeForJavaScript(body);
-
       // prepend comment to avoid SWF exploit https://github.com/sockjs/sockjs-node/issues/163
       String sb = "/**/" + callback + "(\"" +
-        body +
+        escapeForJavaScript(body.toString()) +
         "\");\r\n";
 
       //End the response and close the HTTP connection
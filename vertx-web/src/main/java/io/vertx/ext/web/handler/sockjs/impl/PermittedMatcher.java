@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.authorization.Authorization;
+import io.vertx.ext.auth.authorization.PermissionBasedAuthorization;
+import io.vertx.ext.bridge.PermittedOptions;
+import io.vertx.ext.web.impl.ConcurrentLRUCache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * The permitted options of a direction of the event bus bridge compiled into an index.
+ * <p>
+ * The options with an address are indexed by address, the regexes are compiled once and the {@code match} structures
+ * are compiled into body matchers. The options that can match an address are resolved once per address and cached:
+ * when the first of them does not match the body, the verdict for the address is cached too, so checking a message
+ * is a lookup followed by the evaluation of the body matchers of the options of its address.
+ * <p>
+ * The options keep their order: a message is matched by the first option matching its address and its body.
+ */
+class PermittedMatcher {
+
+  static final Match NO_MATCH = new Match(false);
+
+  /**
+   * The maximum number of addresses cached, the addresses are chosen by the clients.
+   */
+  static final int CACHE_SIZE = 1024;
+
+  private static final Rule[] NO_RULES = new Rule[0];
+
+  private final Map<String, Rule[]> byAddress = new HashMap<>();
+  private final Rule[] byPattern;
+  private final Map<String, Rule[]> cache = new ConcurrentLRUCache<>(CACHE_SIZE);
+
+  PermittedMatcher(List<PermittedOptions> permitted) {
+    Map<String, List<Rule>> exact = new HashMap<>();
+    List<Rule> patterns = new ArrayList<>();
+    Map<String, Pattern> compiledREs = new HashMap<>();
+    for (int i = 0; i < permitted.size(); i++) {
+      PermittedOptions options = permitted.get(i);
+      String address = options.getAddress();
+      String regex = options.getAddressRegex();
+      Pattern pattern = address == null && regex != null ? compiledREs.computeIfAbsent(regex, Pattern::compile) : null;
+      Rule rule = new Rule(i, pattern, BodyMatcher.compile(options.getMatch()), new Match(true, options.getRequiredAuthority()));
+      if (address != null) {
+        exact.computeIfAbsent(address, a -> new ArrayList<>()).add(rule);
+      } else {
+        // A rule without address nor regex matches any address
+        patterns.add(rule);
+      }
+    }
+    exact.forEach((address, rules) -> byAddress.put(address, rules.toArray(NO_RULES)));
+    byPattern = patterns.toArray(NO_RULES);
+  }
+
+  /**
+   * @param body the body of the message or {@code null} to check the address only
+   * @return the match of the first option matching the address and the body
+   */
+  Match match(String address, Object body) {
+    Rule[] rules = cache.get(address);
+    if (rules == null) {
+      rules = resolve(address);
+      cache.put(address, rules);
+    }
+    for (Rule rule : rules) {
+      if (rule.body == null || rule.body.matches(body)) {
+        return rule.match;
+      }
+    }
+    return NO_MATCH;
+  }
+
+  /**
+   * @return the rules that can match the address, in order and up to the first rule that does not depend on the body
+   */
+  private Rule[] resolve(String address) {
+    Rule[] exact = byAddress.getOrDefault(address, NO_RULES);
+    List<Rule> rules = new ArrayList<>();
+    int i = 0;
+    int j = 0;
+    while (i < exact.length || j < byPattern.length) {
+      Rule rule;
+      if (j == byPattern.length || (i < exact.length && exact[i].index < byPattern[j].index)) {
+        rule = exact[i++];
+      } else {
+        rule = byPattern[j++];
+        if (rule.pattern != null && !rule.pattern.matcher(address).matches()) {
+          continue;
+        }
+      }
+      rules.add(rule);
+      if (rule.body == null) {
+        break;
+      }
+    }
+    return rules.toArray(NO_RULES);
+  }
+
+  private static final class Rule {
+
+    private final int index;
+    private final Pattern pattern;
+    private final BodyMatcher body;
+    private final Match match;
+
+    private Rule(int index, Pattern pattern, BodyMatcher body, Match match) {
+      this.index = index;
+      this.pattern = pattern;
+      this.body = body;
+      this.match = match;
+    }
+  }
+
+  /**
+   * A compiled {@code match} structure: the body must be a JSON object with the fields of the structure, the nested
+   * structures are matched deeply.
+   */
+  private static final class BodyMatcher {
+
+    private final String[] names;
+    private final Object[] values;
+    private final BodyMatcher[] nested;
+
+    /**
+     * @return the matcher or {@code null} when the structure matches any body
+     */
+    static BodyMatcher compile(JsonObject match) {
+      if (match == null) {
+        return null;
+      }
+      int size = match.size();
+      String[] names = new String[size];
+      Object[] values = new Object[size];
+      BodyMatcher[] nested = new BodyMatcher[size];
+      int i = 0;
+      for (String name : match.fieldNames()) {
+        Object value = match.getValue(name);
+        names[i] = name;
+        if (value instanceof JsonObject) {
+          nested[i] = compile((JsonObject) value);
+        } else {
+          values[i] = value;
+        }
+        i++;
+      }
+      return new BodyMatcher(names, values, nested);
+    }
+
+    private BodyMatcher(String[] names, Object[] values, BodyMatcher[] nested) {
+      this.names = names;
+      this.values = values;
+      this.nested = nested;
+    }
+
+    boolean matches(Object body) {
+      if (body == null) {
+        return true;
+      }
+      // Can send message other than JSON too - in which case we can't do deep matching on structure of message
+      if (!(body instanceof JsonObject)) {
+        return false;
+      }
+      JsonObject json = (JsonObject) body;
+      for (int i = 0; i < names.length; i++) {
+        Object value = json.getValue(names[i]);
+        if (nested[i] != null) {
+          if (!nested[i].matches(value)) {
+            return false;
+          }
+        } else if (!Objects.equals(values[i], value)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  static final class Match {
+
+    final boolean doesMatch;
+    final Authorization requiredAuthority;
+
+    Match(boolean doesMatch, String requiredAuthority) {
+      this.doesMatch = doesMatch;
+      this.requiredAuthority = requiredAuthority == null ? null : PermissionBasedAuthorization.create(requiredAuthority);
+    }
+
+    Match(boolean doesMatch) {
+      this.doesMatch = doesMatch;
+      this.requiredAuthority = null;
+    }
+  }
+}
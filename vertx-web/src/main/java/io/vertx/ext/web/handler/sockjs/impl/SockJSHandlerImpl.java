@@ -39,6 +39,7 @@ import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.core.json.JsonObject;
 import io.vertx.core.shareddata.LocalMap;
 import io.vertx.ext.auth.authorization.AuthorizationProvider;
 import io.vertx.ext.web.Router;
@@ -74,7 +75,6 @@ public class SockJSHandlerImpl implements SockJSHandler {
 
   public SockJSHandlerImpl(Vertx vertx, SockJSHandlerOptions options) {
     this.vertx = vertx;
-    // TODO use clustered map
     this.sessions = vertx.sharedData().getLocalMap("_vertx.sockjssessions");
     this.router = Router.router(vertx);
     this.options = options;
@@ -94,6 +94,11 @@ public class SockJSHandlerImpl implements SockJSHandler {
     return socketHandler(new EventBusBridgeImpl(vertx, authorizationProvider, bridgeOptions, bridgeEventHandler));
   }
 
+  @Override
+  public JsonObject metrics() {
+    return TimingWheel.metrics(vertx);
+  }
+
   @Override
   public Router socketHandler(Handler<SockJSSocket> sockHandler) {
     router.route("/").useNormalizedPath(false).handler(rc -> {
@@ -133,17 +138,19 @@ public class SockJSHandlerImpl implements SockJSHandler {
     }
     enabledTransports.removeAll(disabledTransports);
 
+    ClusteredSessions clustered = options.isClustered() ? ClusteredSessions.get(vertx, sessions) : null;
+
     if (enabledTransports.contains(Transport.XHR.toString())) {
-      new XhrTransport(vertx, router, sessions, options, sockHandler);
+      new XhrTransport(vertx, router, sessions, clustered, options, sockHandler);
     }
     if (enabledTransports.contains(Transport.EVENT_SOURCE.toString())) {
-      new EventSourceTransport(vertx, router, sessions, options, sockHandler);
+      new EventSourceTransport(vertx, router, sessions, clustered, options, sockHandler);
     }
     if (enabledTransports.contains(Transport.HTML_FILE.toString())) {
-      new HtmlFileTransport(vertx, router, sessions, options, sockHandler);
+      new HtmlFileTransport(vertx, router, sessions, clustered, options, sockHandler);
     }
     if (enabledTransports.contains(Transport.JSON_P.toString())) {
-      new JsonPTransport(vertx, router, sessions, options, sockHandler);
+      new JsonPTransport(vertx, router, sessions, clustered, options, sockHandler);
     }
     if (enabledTransports.contains(Transport.WEBSOCKET.toString())) {
       new WebSocketTransport(vertx, router, sessions, options, sockHandler);
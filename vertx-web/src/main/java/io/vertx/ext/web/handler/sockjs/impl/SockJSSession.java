@@ -46,9 +46,8 @@ import io.vertx.core.streams.impl.InboundBuffer;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.sockjs.SockJSSocket;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
-import java.util.LinkedList;
 import java.util.List;
 
 import static io.vertx.core.buffer.Buffer.buffer;
@@ -63,11 +62,11 @@ import static io.vertx.core.buffer.Buffer.buffer;
  * @author <a href="http://tfox.org">Tim Fox</a>
  * @author <a href="mailto:plopes@redhat.com">Paulo Lopes</a>
  */
-class SockJSSession extends SockJSSocketBase implements Shareable {
+class SockJSSession extends SockJSSocketBase implements TransportSession, Shareable {
 
   private static final Logger log = LoggerFactory.getLogger(SockJSSession.class);
   private final LocalMap<String, SockJSSession> sessions;
-  private final Deque<String> pendingWrites = new LinkedList<>();
+  private final ArrayDeque<Buffer> pendingWrites = new ArrayDeque<>();
   private List<Handler<AsyncResult<Void>>> writeAcks;
   private final Context context;
   private final InboundBuffer<Buffer> pendingReads;
@@ -77,9 +76,10 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
   private final String id;
   private final long timeout;
   private final Handler<SockJSSocket> sockHandler;
-  private long heartbeatID;
-  private long timeoutTimerID = -1;
-  private int maxQueueSize = 64 * 1024; // Message queue size is measured in *characters* (not bytes)
+  private final TimingWheel timers;
+  private final TimingWheel.Timeout heartbeat;
+  private TimingWheel.Timeout timeoutTimer;
+  private int maxQueueSize = 64 * 1024; // Message queue size is measured in bytes
   private int messagesSize;
   private Handler<Void> drainHandler;
   private Handler<Void> endHandler;
@@ -90,6 +90,7 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
   private String uri;
   private MultiMap headers;
   private Context transportCtx;
+  private Runnable shutdownHook;
 
   SockJSSession(Vertx vertx, LocalMap<String, SockJSSession> sessions, RoutingContext rc, long heartbeatInterval,
                 Handler<SockJSSocket> sockHandler) {
@@ -105,10 +106,11 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
     this.sockHandler = sockHandler;
     context = vertx.getOrCreateContext();
     pendingReads = new InboundBuffer<>(context);
+    timers = TimingWheel.get(context);
 
     // Start a heartbeat
 
-    heartbeatID = vertx.setPeriodic(heartbeatInterval, tid -> {
+    heartbeat = timers.schedule(heartbeatInterval, heartbeatInterval, () -> {
       if (listener != null) {
         listener.sendFrame("h", null);
       }
@@ -124,9 +126,9 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
         }
         return;
       }
-      String msgStr = buffer.toString();
-      pendingWrites.add(msgStr);
-      messagesSize += msgStr.length();
+      // the buffer is encoded later, the caller can modify it once write returns
+      pendingWrites.add(buffer.copy());
+      messagesSize += buffer.length();
       if (handler != null) {
         if (writeAcks == null) {
           writeAcks = new ArrayList<>();
@@ -249,7 +251,8 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
     return closed;
   }
 
-  synchronized void resetListener() {
+  @Override
+  public synchronized void resetListener() {
     listener = null;
     // We set a timer that will kick in and close the session if the client doesn't come back
     // We MUST ALWAYS do this or we can get a memory leak on the server
@@ -257,16 +260,16 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
   }
 
   private void cancelTimer() {
-    if (timeoutTimerID != -1) {
-      vertx.cancelTimer(timeoutTimerID);
+    if (timeoutTimer != null) {
+      timeoutTimer.cancel();
     }
   }
 
   private void setTimer() {
     if (timeout != -1) {
       cancelTimer();
-      timeoutTimerID = vertx.setTimer(timeout, id1 -> {
-        vertx.cancelTimer(heartbeatID);
+      timeoutTimer = timers.schedule(timeout, 0, () -> {
+        heartbeat.cancel();
         if (listener == null) {
           shutdown();
         }
@@ -279,16 +282,16 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
 
   private synchronized void writePendingMessages() {
     if (listener != null) {
-      String json = JsonCodec.encode(pendingWrites.toArray(new String[0]));
+      Buffer frame = JsonCodec.encodeFrame(pendingWrites);
       pendingWrites.clear();
       if (writeAcks != null) {
         List<Handler<AsyncResult<Void>>> acks = this.writeAcks;
         this.writeAcks = null;
-        listener.sendFrame("a" + json, ar -> {
+        listener.sendFrame(frame, ar -> {
           acks.forEach(a -> a.handle(ar));
         });
       } else {
-        listener.sendFrame("a" + json, null);
+        listener.sendFrame(frame, null);
       }
       messagesSize = 0;
       if (drainHandler != null) {
@@ -304,11 +307,19 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
   }
 
   synchronized void register(HttpServerRequest req, TransportListener lst) {
+    register(req.localAddress(), req.remoteAddress(), req.uri(), BaseTransport.removeCookieHeaders(req.headers()), lst);
+  }
+
+  /**
+   * Register the listener of a receiving request, the request can have been received by another node of the cluster.
+   */
+  synchronized void register(SocketAddress localAddress, SocketAddress remoteAddress, String uri, MultiMap headers,
+                             TransportListener lst) {
     this.transportCtx = vertx.getOrCreateContext();
-    this.localAddress = req.localAddress();
-    this.remoteAddress = req.remoteAddress();
-    this.uri = req.uri();
-    this.headers = BaseTransport.removeCookieHeaders(req.headers());
+    this.localAddress = localAddress;
+    this.remoteAddress = remoteAddress;
+    this.uri = uri;
+    this.headers = headers;
     if (closed) {
       // Closed by the application
       writeClosed(lst);
@@ -347,17 +358,22 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
 
   // Actually close the session - when the user calls close() the session actually continues to exist until timeout
   // Yes, I know it's weird but that's the way SockJS likes it.
-  void shutdown() {
+  @Override
+  public void shutdown() {
     super.close(); // We must call this or handlers don't get unregistered and we get a leak
-    if (heartbeatID != -1) {
-      vertx.cancelTimer(heartbeatID);
-    }
-    if (timeoutTimerID != -1) {
-      vertx.cancelTimer(timeoutTimerID);
-    }
+    heartbeat.cancel();
+    cancelTimer();
     if (id != null) {
       // Can be null if websocket session
       sessions.remove(id);
+      Runnable hook;
+      synchronized (this) {
+        hook = shutdownHook;
+        shutdownHook = null;
+      }
+      if (hook != null) {
+        hook.run();
+      }
     }
 
     if (!closed) {
@@ -417,11 +433,19 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
     }
   }
 
-  void writeClosed(TransportListener lst) {
+  /**
+   * Set a hook called once when the session is removed from the sessions.
+   */
+  synchronized void shutdownHook(Runnable hook) {
+    shutdownHook = hook;
+  }
+
+  @Override
+  public void writeClosed(TransportListener lst) {
     writeClosed(lst, 3000, "Go away!");
   }
 
-  private void writeClosed(TransportListener lst, int code, String msg) {
+  static void writeClosed(TransportListener lst, int code, String msg) {
     String sb = "c[" + code + ",\"" + msg + "\"]";
     lst.sendFrame(sb, null);
   }
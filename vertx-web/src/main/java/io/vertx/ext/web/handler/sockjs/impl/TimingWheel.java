@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.core.Closeable;
+import io.vertx.core.Context;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A hashed timing wheel scheduling the heartbeats and the timeouts of the SockJS sessions created on an event-loop
+ * context, instead of a Vert.x timer per session.
+ * <p>
+ * The wheel has {@link #WHEEL_SIZE} buckets of {@link #TICK_DURATION} milliseconds. While timeouts are pending, a
+ * single Vert.x periodic timer advances the wheel and runs together all the timeouts expired during a tick, so the
+ * heartbeat frames of the sessions are written in batches. The timeouts are accurate to a tick.
+ */
+class TimingWheel implements Shareable, Closeable {
+
+  /**
+   * The duration of a tick in milliseconds.
+   */
+  static final long TICK_DURATION = 100;
+
+  /**
+   * The number of buckets of a wheel, a power of two.
+   */
+  static final int WHEEL_SIZE = 512;
+
+  private static final String WHEELS_MAP_NAME = "_vertx.sockjstimingwheels";
+  private static final AtomicLong IDS = new AtomicLong();
+
+  private final ContextInternal context;
+  private final String id;
+  private final long start = System.nanoTime();
+  private final long tickNanos = MILLISECONDS.toNanos(TICK_DURATION);
+  // guarded by this
+  private final Timeout[] buckets = new Timeout[WHEEL_SIZE];
+  private long tick;
+  private int pending;
+  private int periodic;
+  private long timerId = -1;
+  private long lag;
+  private long maxLag;
+
+  private TimingWheel(ContextInternal context) {
+    this.context = context;
+    this.id = String.valueOf(IDS.incrementAndGet());
+  }
+
+  /**
+   * @return the wheel of the context, created on first use
+   */
+  static TimingWheel get(Context context) {
+    ContextInternal ctx = (ContextInternal) context;
+    return (TimingWheel) ctx.contextData().computeIfAbsent(TimingWheel.class, k -> {
+      TimingWheel wheel = new TimingWheel(ctx);
+      wheels(ctx.owner()).put(wheel.id, wheel);
+      ctx.addCloseHook(wheel);
+      return wheel;
+    });
+  }
+
+  /**
+   * @return the metrics of the wheels of a Vert.x instance
+   */
+  static JsonObject metrics(Vertx vertx) {
+    int sessions = 0;
+    int timeouts = 0;
+    long lag = 0;
+    long maxLag = 0;
+    for (TimingWheel wheel : wheels(vertx).values()) {
+      synchronized (wheel) {
+        sessions += wheel.periodic;
+        timeouts += wheel.pending - wheel.periodic;
+        lag = Math.max(lag, wheel.lag);
+        maxLag = Math.max(maxLag, wheel.maxLag);
+      }
+    }
+    return new JsonObject()
+      .put("sessions", sessions)
+      .put("timeouts", timeouts)
+      .put("timerLag", lag)
+      .put("maxTimerLag", maxLag);
+  }
+
+  private static LocalMap<String, TimingWheel> wheels(Vertx vertx) {
+    return vertx.sharedData().getLocalMap(WHEELS_MAP_NAME);
+  }
+
+  /**
+   * Schedule a task on the context of the wheel.
+   *
+   * @param delay the delay in milliseconds
+   * @param period the period in milliseconds of a periodic task, {@code 0} for a task run once
+   * @param task the task
+   * @return the timeout to cancel
+   */
+  synchronized Timeout schedule(long delay, long period, Runnable task) {
+    Timeout timeout = new Timeout(period, task);
+    if (timerId == -1) {
+      tick = (System.nanoTime() - start) / tickNanos;
+      timerId = context.setPeriodic(TICK_DURATION, this::advance);
+    }
+    insert(timeout, delay);
+    pending++;
+    if (period > 0) {
+      periodic++;
+    }
+    return timeout;
+  }
+
+  private void insert(Timeout timeout, long delay) {
+    // round up so a timeout never expires early
+    long deadline = (System.nanoTime() - start + MILLISECONDS.toNanos(delay) + tickNanos - 1) / tickNanos;
+    timeout.deadline = Math.max(deadline, tick + 1);
+    timeout.bucket = (int) (timeout.deadline & (WHEEL_SIZE - 1));
+    Timeout head = buckets[timeout.bucket];
+    timeout.next = head;
+    if (head != null) {
+      head.prev = timeout;
+    }
+    buckets[timeout.bucket] = timeout;
+  }
+
+  private void remove(Timeout timeout) {
+    if (timeout.prev != null) {
+      timeout.prev.next = timeout.next;
+    } else {
+      buckets[timeout.bucket] = timeout.next;
+    }
+    if (timeout.next != null) {
+      timeout.next.prev = timeout.prev;
+    }
+    timeout.prev = null;
+    timeout.next = null;
+    timeout.bucket = -1;
+  }
+
+  private void advance(long tid) {
+    List<Timeout> expired = new ArrayList<>();
+    synchronized (this) {
+      long elapsed = System.nanoTime() - start;
+      long target = elapsed / tickNanos;
+      lag = Math.max(0, NANOSECONDS.toMillis(elapsed - (tick + 1) * tickNanos));
+      maxLag = Math.max(maxLag, lag);
+      // when the wheel is late by more than a round, each bucket is visited once
+      long last = Math.min(target, tick + WHEEL_SIZE);
+      for (long t = tick + 1; t <= last; t++) {
+        Timeout timeout = buckets[(int) (t & (WHEEL_SIZE - 1))];
+        while (timeout != null) {
+          Timeout next = timeout.next;
+          if (timeout.deadline <= target) {
+            remove(timeout);
+            expired.add(timeout);
+          }
+          timeout = next;
+        }
+      }
+      tick = Math.max(tick, target);
+      for (Timeout timeout : expired) {
+        if (timeout.period > 0) {
+          insert(timeout, timeout.period);
+        } else {
+          pending--;
+        }
+      }
+      if (pending == 0) {
+        context.owner().cancelTimer(timerId);
+        timerId = -1;
+      }
+    }
+    for (Timeout timeout : expired) {
+      if (!timeout.cancelled) {
+        try {
+          timeout.task.run();
+        } catch (Throwable t) {
+          context.reportException(t);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void close(Promise<Void> completion) {
+    synchronized (this) {
+      if (timerId != -1) {
+        context.owner().cancelTimer(timerId);
+        timerId = -1;
+      }
+      for (int i = 0; i < WHEEL_SIZE; i++) {
+        while (buckets[i] != null) {
+          remove(buckets[i]);
+        }
+      }
+      pending = 0;
+      periodic = 0;
+    }
+    wheels(context.owner()).remove(id);
+    completion.complete();
+  }
+
+  /**
+   * A task scheduled on the wheel.
+   */
+  final class Timeout {
+
+    private final long period;
+    private final Runnable task;
+    private volatile boolean cancelled;
+    // guarded by the wheel
+    private long deadline;
+    private int bucket = -1;
+    private Timeout prev;
+    private Timeout next;
+
+    private Timeout(long period, Runnable task) {
+      this.period = period;
+      this.task = task;
+    }
+
+    /**
+     * Cancel the task, it is not run afterwards.
+     */
+    void cancel() {
+      synchronized (TimingWheel.this) {
+        if (cancelled) {
+          return;
+        }
+        cancelled = true;
+        if (bucket != -1) {
+          remove(this);
+          pending--;
+          if (period > 0) {
+            periodic--;
+          }
+        }
+      }
+    }
+  }
+}
@@ -34,13 +34,21 @@ package io.vertx.ext.web.handler.sockjs.impl;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
 
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
  */
 interface TransportListener {
 
-  void sendFrame(String body, Handler<AsyncResult<Void>> handler);
+  /**
+   * Send a frame, the listener owns the buffer.
+   */
+  void sendFrame(Buffer body, Handler<AsyncResult<Void>> handler);
+
+  default void sendFrame(String body, Handler<AsyncResult<Void>> handler) {
+    sendFrame(Buffer.buffer(body), handler);
+  }
 
   void close();
 
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.handler.sockjs.impl;
+
+/**
+ * The session seen by the listener of a receiving request: a local session or a session owned by another node of the
+ * cluster.
+ */
+interface TransportSession {
+
+  /**
+   * Detach the listener from the session, the session times out unless another receiving request comes back.
+   */
+  void resetListener();
+
+  /**
+   * Close the session, the connection of the receiving request has been closed.
+   */
+  void shutdown();
+
+  /**
+   * Write the close frame of the session.
+   */
+  void writeClosed(TransportListener lst);
+}
@@ -36,9 +36,13 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.http.WebSocketFrame;
+import io.vertx.core.http.impl.FrameType;
+import io.vertx.core.http.impl.ws.WebSocketFrameImpl;
 import io.vertx.core.net.impl.ConnectionBase;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
@@ -72,7 +76,7 @@ class WebSocketTransport extends BaseTransport {
         ServerWebSocket ws = rc.request().upgrade();
         if (log.isTraceEnabled()) log.trace("WS, handler");
         SockJSSession session = new SockJSSession(vertx, sessions, rc, options.getHeartbeatInterval(), sockHandler);
-        session.register(req, new WebSocketListener(ws, session));
+        session.register(req, new WebSocketListener(ws, session, options.getMaxWebSocketFrameSize()));
       }
     });
 
@@ -92,11 +96,13 @@ class WebSocketTransport extends BaseTransport {
 
     final ServerWebSocket ws;
     final SockJSSession session;
+    final int maxFrameSize;
     boolean closed;
 
-    WebSocketListener(ServerWebSocket ws, SockJSSession session) {
+    WebSocketListener(ServerWebSocket ws, SockJSSession session, int maxFrameSize) {
       this.ws = ws;
       this.session = session;
+      this.maxFrameSize = maxFrameSize;
       ws.textMessageHandler(this::handleMessages);
       ws.closeHandler(v -> {
         closed = true;
@@ -124,10 +130,10 @@ class WebSocketTransport extends BaseTransport {
     }
 
     @Override
-    public void sendFrame(String body, Handler<AsyncResult<Void>> handler) {
+    public void sendFrame(Buffer body, Handler<AsyncResult<Void>> handler) {
       if (log.isTraceEnabled()) log.trace("WS, sending frame");
       if (!closed) {
-        ws.writeTextMessage(body, handler);
+        writeTextMessage(body, handler);
       } else {
         if (handler != null) {
           handler.handle(Future.failedFuture(ConnectionBase.CLOSED_EXCEPTION));
@@ -135,6 +141,20 @@ class WebSocketTransport extends BaseTransport {
       }
     }
 
+    // the frames are pure ASCII, so they are written as text without decoding them
+    private void writeTextMessage(Buffer body, Handler<AsyncResult<Void>> handler) {
+      int length = body.length();
+      int end = Math.min(maxFrameSize, length);
+      WebSocketFrame frame = new WebSocketFrameImpl(FrameType.TEXT, body.slice(0, end).getByteBuf(), end == length);
+      while (end < length) {
+        ws.writeFrame(frame);
+        int start = end;
+        end = Math.min(start + maxFrameSize, length);
+        frame = WebSocketFrame.continuationFrame(body.slice(start, end), end == length);
+      }
+      ws.writeFrame(frame, handler);
+    }
+
     public void close() {
       if (!closed) {
         ws.close();
@@ -39,7 +39,6 @@ import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
-import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.http.HttpVersion;
 import io.vertx.core.impl.logging.Logger;
@@ -69,10 +68,10 @@ class XhrTransport extends BaseTransport {
     H_BLOCK = buffer(bytes);
   }
 
-  XhrTransport(Vertx vertx, Router router, LocalMap<String, SockJSSession> sessions, SockJSHandlerOptions options,
-               Handler<SockJSSocket> sockHandler) {
+  XhrTransport(Vertx vertx, Router router, LocalMap<String, SockJSSession> sessions, ClusteredSessions clustered,
+               SockJSHandlerOptions options, Handler<SockJSSocket> sockHandler) {
 
-    super(vertx, sessions, options);
+    super(vertx, sessions, clustered, options);
 
     String xhrBase = COMMON_PATH_ELEMENT_RE;
     String xhrRE = xhrBase + "xhr";
@@ -95,11 +94,11 @@ class XhrTransport extends BaseTransport {
       String sessionID = rc.request().getParam("param0");
       final SockJSSession session = sessions.get(sessionID);
       if (session != null && !session.isClosed()) {
-        handleSend(rc, session);
+        handleSend(rc, sessionID, session);
+      } else if (clustered != null) {
+        handleSend(rc, sessionID, null);
       } else {
-        rc.response().setStatusCode(404);
-        setJSESSIONID(options, rc);
-        rc.response().end();
+        sendNotFound(rc);
       }
     });
   }
@@ -110,51 +109,53 @@ class XhrTransport extends BaseTransport {
       if (log.isTraceEnabled()) log.trace("XHR, post, " + rc.request().uri());
       setNoCacheHeaders(rc);
       String sessionID = rc.request().getParam("param0");
-      SockJSSession session = getSession(rc, options.getSessionTimeout(), options.getHeartbeatInterval(), sessionID, sockHandler);
-      HttpServerRequest req = rc.request();
-      session.register(req, streaming? new XhrStreamingListener(options.getMaxBytesStreaming(), rc, session) : new XhrPollingListener(rc, session));
+      register(rc, sessionID, !streaming, sockHandler, session -> streaming ? new XhrStreamingListener(options.getMaxBytesStreaming(), rc, session) : new XhrPollingListener(rc, session));
     });
   }
 
-  private void handleSend(RoutingContext rc, SockJSSession session) {
+  private void handleSend(RoutingContext rc, String sessionID, SockJSSession session) {
     Buffer body = rc.getBody();
     if (body != null) {
-      handleSendMessage(rc, session, body);
+      handleSendMessage(rc, sessionID, session, body);
     } else if (rc.request().isEnded()) {
       log.error("Request ended before SockJS handler could read the body. Do you have an asynchronous request "
           + "handler before the SockJS handler? If so, add a BodyHandler before the SockJS handler "
           + "(see the docs).");
       rc.fail(500);
     } else {
-      rc.request().bodyHandler(buff -> handleSendMessage(rc, session, buff));
+      rc.request().bodyHandler(buff -> handleSendMessage(rc, sessionID, session, buff));
     }
   }
 
-  private void handleSendMessage(RoutingContext rc, SockJSSession session, Buffer body) {
+  private void handleSendMessage(RoutingContext rc, String sessionID, SockJSSession session, Buffer body) {
     String msgs = body.toString();
     if (msgs.equals("")) {
       rc.response().setStatusCode(500);
       rc.response().end("Payload expected.");
       return;
     }
-    if (!session.handleMessages(msgs)) {
-      sendInvalidJSON(rc.response());
-    } else {
-      rc.response().putHeader(HttpHeaders.CONTENT_TYPE, "text/plain; charset=UTF-8");
-      setNoCacheHeaders(rc);
-      setJSESSIONID(options, rc);
-      setCORS(rc);
-      rc.response().setStatusCode(204);
-      rc.response().end();
-    }
-    if (log.isTraceEnabled()) log.trace("XHR send processed ok");
+    handleMessages(sessionID, session, msgs, ar -> {
+      if (ar.failed()) {
+        sendNotFound(rc);
+      } else if (!ar.result()) {
+        sendInvalidJSON(rc.response());
+      } else {
+        rc.response().putHeader(HttpHeaders.CONTENT_TYPE, "text/plain; charset=UTF-8");
+        setNoCacheHeaders(rc);
+        setJSESSIONID(options, rc);
+        setCORS(rc);
+        rc.response().setStatusCode(204);
+        rc.response().end();
+        if (log.isTraceEnabled()) log.trace("XHR send processed ok");
+      }
+    });
   }
 
   private abstract class BaseXhrListener extends BaseListener {
 
     boolean headersWritten;
 
-    BaseXhrListener(RoutingContext rc, SockJSSession session) {
+    BaseXhrListener(RoutingContext rc, TransportSession session) {
       super(rc, session);
     }
 
@@ -180,15 +181,15 @@ class XhrTransport extends BaseTransport {
 
   private class XhrPollingListener extends BaseXhrListener {
 
-    XhrPollingListener(RoutingContext rc, SockJSSession session) {
+    XhrPollingListener(RoutingContext rc, TransportSession session) {
       super(rc, session);
       addCloseHandler(rc.response(), session);
     }
 
     @Override
-    public void sendFrame(String body, Handler<AsyncResult<Void>> handler) {
+    public void sendFrame(Buffer body, Handler<AsyncResult<Void>> handler) {
       super.beforeSend();
-      rc.response().write(body + "\n", handler);
+      rc.response().write(body.appendByte((byte) '\n'), handler);
       close();
     }
 
@@ -212,21 +213,20 @@ class XhrTransport extends BaseTransport {
     int bytesSent;
     int maxBytesStreaming;
 
-    XhrStreamingListener(int maxBytesStreaming, RoutingContext rc, SockJSSession session) {
+    XhrStreamingListener(int maxBytesStreaming, RoutingContext rc, TransportSession session) {
       super(rc, session);
       this.maxBytesStreaming = maxBytesStreaming;
       addCloseHandler(rc.response(), session);
     }
 
     @Override
-    public void sendFrame(String body, Handler<AsyncResult<Void>> handler) {
+    public void sendFrame(Buffer body, Handler<AsyncResult<Void>> handler) {
       boolean hr = headersWritten;
       super.beforeSend();
       if (!hr) {
         rc.response().write(H_BLOCK);
       }
-      String sbody = body + "\n";
-      Buffer buff = buffer(sbody);
+      Buffer buff = body.appendByte((byte) '\n');
       rc.response().write(buff, handler);
       bytesSent += buff.length();
       if (bytesSent >= maxBytesStreaming) {
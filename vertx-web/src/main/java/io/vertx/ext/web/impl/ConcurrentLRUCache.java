@@ -16,23 +16,26 @@
 
 package io.vertx.ext.web.impl;
 
-import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 
 /**
- * Concurrent LRU cache.
+ * Concurrent bounded cache.
  *
- * Note that remove operation on this structure is SLOW! Avoid using it.
+ * Reads are not synchronized and do not change the eviction order: when the cache is full the entries are evicted in
+ * insertion order. Writes update the map and the eviction order under the same lock.
  *
  * @author <a href="http://tfox.org">Tim Fox</a>
  */
 public class ConcurrentLRUCache<K, V> extends ConcurrentHashMap<K, V> {
 
   private int maxSize;
-  private final Queue<K> queue = new ArrayDeque<>();
+  // the keys in insertion order, guarded by itself
+  private final Set<K> order = new LinkedHashSet<>();
 
   public ConcurrentLRUCache(int maxSize) {
     this.maxSize = maxSize;
@@ -46,13 +49,9 @@ public class ConcurrentLRUCache<K, V> extends ConcurrentHashMap<K, V> {
   }
 
   public ConcurrentLRUCache(Map<? extends K, ? extends V> m, int maxSize) {
-    super(m);
     this.maxSize = maxSize;
     checkSize();
-    for (K k: m.keySet()) {
-      entryAdded(k);
-    }
-    checkRemoveOldest();
+    putAll(m);
   }
 
   public ConcurrentLRUCache(int initialCapacity, float loadFactor, int maxSize) {
@@ -68,63 +67,73 @@ public class ConcurrentLRUCache<K, V> extends ConcurrentHashMap<K, V> {
   }
 
   public void setMaxSize(int maxSize) {
-    this.maxSize = maxSize;
-    checkRemoveOldest();
+    synchronized (order) {
+      this.maxSize = maxSize;
+      checkRemoveOldest();
+    }
   }
 
   @Override
   public V put(K key, V value) {
-    V v = super.put(key, value);
-    if (v == null) {
-      entryAdded(key);
+    synchronized (order) {
+      V v = super.put(key, value);
+      if (v == null) {
+        order.add(key);
+        checkRemoveOldest();
+      }
+      return v;
     }
-    checkRemoveOldest();
-    return v;
   }
 
   @Override
   public void putAll(Map<? extends K, ? extends V> m) {
-    for (K k: m.keySet()) {
-      if (!super.containsKey(k)) {
-        entryAdded(k);
+    synchronized (order) {
+      for (Map.Entry<? extends K, ? extends V> entry : m.entrySet()) {
+        put(entry.getKey(), entry.getValue());
       }
     }
-    super.putAll(m);
-    checkRemoveOldest();
   }
 
   @Override
   public V remove(Object key) {
-    V v = super.remove(key);
-    if (v != null) {
-      entryRemoved(key);
+    synchronized (order) {
+      V v = super.remove(key);
+      if (v != null) {
+        order.remove(key);
+      }
+      return v;
     }
-    return v;
   }
 
   @Override
   public void clear() {
-    super.clear();
-    queue.clear();
+    synchronized (order) {
+      super.clear();
+      order.clear();
+    }
   }
 
   @Override
   public V putIfAbsent(K key, V value) {
-    V v = super.putIfAbsent(key, value);
-    if (v == null) {
-      entryAdded(key);
+    synchronized (order) {
+      V v = super.putIfAbsent(key, value);
+      if (v == null) {
+        order.add(key);
+        checkRemoveOldest();
+      }
+      return v;
     }
-    checkRemoveOldest();
-    return v;
   }
 
   @Override
   public boolean remove(Object key, Object value) {
-    boolean removed = super.remove(key, value);
-    if (removed) {
-      entryRemoved(value);
+    synchronized (order) {
+      boolean removed = super.remove(key, value);
+      if (removed) {
+        order.remove(key);
+      }
+      return removed;
     }
-    return removed;
   }
 
   @Override
@@ -132,22 +141,12 @@ public class ConcurrentLRUCache<K, V> extends ConcurrentHashMap<K, V> {
     throw new UnsupportedOperationException();
   }
 
-  private void entryAdded(K k) {
-    queue.add(k);
-  }
-
-  private void entryRemoved(Object o) {
-    if (!queue.remove(o)) {
-      throw new IllegalStateException("Failed to remove");
-    }
-  }
-  
   private void checkRemoveOldest() {
-    while (queue.size() > maxSize) {
-      K k = queue.poll();
-      if (k != null) {
-        super.remove(k);
-      }
+    Iterator<K> it = order.iterator();
+    while (order.size() > maxSize) {
+      K k = it.next();
+      it.remove();
+      super.remove(k);
     }
   }
 
@@ -158,6 +157,8 @@ public class ConcurrentLRUCache<K, V> extends ConcurrentHashMap<K, V> {
   }
 
   public int queueSize() {
-    return queue.size();
+    synchronized (order) {
+      return order.size();
+    }
   }
 }
@@ -20,6 +20,7 @@ import io.vertx.ext.web.impl.ConcurrentLRUCache;
 import org.junit.Test;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.*;
 
@@ -69,4 +70,31 @@ public class ConcurrentLRUCacheTest extends LRUCacheTestBase {
     assertEquals(maxSize + 10, cache.size());
   }
 
+  @Test
+  public void testConcurrentRemoveOfEvictedEntries() throws Exception {
+    ConcurrentLRUCache<String, String> ccache = (ConcurrentLRUCache<String, String>)cache;
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      threads[t] = new Thread(() -> {
+        try {
+          for (int i = 0; i < 100_000; i++) {
+            String key = "key" + (i % (maxSize * 2));
+            ccache.put(key, "value" + i);
+            ccache.remove(key);
+            ccache.putIfAbsent(key, "value" + i);
+          }
+        } catch (Throwable e) {
+          failure.set(e);
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertNull(failure.get());
+    assertTrue(ccache.size() <= maxSize);
+    assertEquals(ccache.size(), ccache.queueSize());
+  }
 }
@@ -280,4 +280,49 @@ public class CSRFHandlerTest extends WebTestBase {
     // POST shall be OK as the token is on the session
     testRequest(HttpMethod.POST, "/", req -> req.putHeader("cookie", cookieJar.get()), null, 200, "OK", null);
   }
+
+  @Test
+  public void testPostWithHeaderAndCachedToken() throws Exception {
+
+    final AtomicReference<String> cookieJar = new AtomicReference<>();
+    final AtomicReference<String> token = new AtomicReference<>();
+
+    router.route().handler(SessionHandler.create(LocalSessionStore.create(vertx)));
+    router.route().handler(CSRFHandler.create(vertx, "Abracadabra").setCacheVerifiedToken(true));
+    router.route().handler(rc -> rc.response().end());
+
+    testRequest(HttpMethod.GET, "/", null, resp -> {
+      List<String> cookies = resp.headers().getAll("set-cookie");
+      assertEquals(2, cookies.size());
+      String encodedCookie = "";
+      // save the cookies
+      for (String cookie : cookies) {
+        encodedCookie += cookie.substring(0, cookie.indexOf(';'));
+        encodedCookie += "; ";
+        if (cookie.startsWith(CSRFHandler.DEFAULT_COOKIE_NAME + "=")) {
+          token.set(cookie.substring(cookie.indexOf('=') + 1, cookie.indexOf(';')));
+        }
+      }
+      cookieJar.set(encodedCookie);
+    }, 200, "OK", null);
+
+    // POST shall be OK as the token is on the session
+    testRequest(HttpMethod.POST, "/", req -> req.putHeader("cookie", cookieJar.get()), null, 200, "OK", null);
+    // the session token is gone, the header is verified and cached
+    testRequest(HttpMethod.POST, "/", req -> {
+      req.putHeader("cookie", cookieJar.get());
+      req.putHeader(CSRFHandler.DEFAULT_HEADER_NAME, token.get());
+    }, null, 200, "OK", null);
+    // served from the cache
+    testRequest(HttpMethod.POST, "/", req -> {
+      req.putHeader("cookie", cookieJar.get());
+      req.putHeader(CSRFHandler.DEFAULT_HEADER_NAME, token.get());
+    }, null, 200, "OK", null);
+    // a different token is still verified
+    final String forged = token.get().substring(0, token.get().lastIndexOf('.') + 1) + "41jwU0FPl/n7ZNZAZEA07GyIUnpKSTKQ8Eju7Nicb34=";
+    testRequest(HttpMethod.POST, "/", req -> {
+      req.putHeader("cookie", CSRFHandler.DEFAULT_COOKIE_NAME + "=" + forged);
+      req.putHeader(CSRFHandler.DEFAULT_HEADER_NAME, forged);
+    }, null, 403, "Forbidden", null);
+  }
 }
@@ -21,11 +21,11 @@ import io.vertx.core.http.HttpMethod;
 import io.vertx.ext.auth.htdigest.HtdigestAuth;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.WebTestBase;
+import io.vertx.ext.web.handler.impl.DigestNonceStore;
 import org.junit.Test;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author <a href="mailto:plopes@redhat.com">Paulo Lopes</a>
@@ -56,7 +56,7 @@ public class DigestAuthHandlerTest extends WebTestBase {
      * is done
      */
     router.route("/dir/*").handler(DigestAuthHandler.create(vertx, authProvider, -100));
-    int initialNoncesSize = vertx.sharedData().getLocalMap(DEFAULT_NONCE_MAP_NAME).size();
+    int initialNoncesSize = nonces().size();
     /* Now make some new requests without authentication: for each new request a new nonce is generated
      * and the old one is expired so the final nonces size must be equal to the initial one + 1
      */
@@ -64,11 +64,51 @@ public class DigestAuthHandlerTest extends WebTestBase {
     for (int i = 0; i < numRequests; ++i) {
       testRequest(HttpMethod.GET, "/dir/index.html", null, null, 401, "Unauthorized", null);
     }
-    int finalNoncesSize = vertx.sharedData().getLocalMap(DEFAULT_NONCE_MAP_NAME).size();
+    int finalNoncesSize = nonces().size();
     assertEquals(initialNoncesSize + 1, finalNoncesSize);
   }
 
-  private void doLogin(String realm) throws Exception {
+  @Test
+  public void checkNoncesMaxSize() throws Exception {
+    router.clear();
+    HtdigestAuth authProvider = HtdigestAuth.create(vertx);
+    router.route("/dir/*").handler(DigestAuthHandler.create(vertx, authProvider, DigestAuthHandler.DEFAULT_NONCE_EXPIRE_TIMEOUT, 3));
+    for (int i = 0; i < 10; ++i) {
+      testRequest(HttpMethod.GET, "/dir/index.html", null, null, 401, "Unauthorized", null);
+    }
+    assertEquals(3, nonces().size());
+  }
+
+  @Test
+  public void checkNoncesEvictionByDeadline() throws Exception {
+    router.clear();
+    HtdigestAuth authProvider = HtdigestAuth.create(vertx);
+    // the nonces of each timeout are scheduled on their own wheel
+    router.route("/dir/*").handler(DigestAuthHandler.create(vertx, authProvider, 600_000, 2));
+    router.route("/dir/index.html").handler(rc -> rc.response().end("Welcome to the protected resource!"));
+    router.route("/other/*").handler(DigestAuthHandler.create(vertx, authProvider, 100_000, 2));
+
+    final String[] challenge = challenge("testrealm@host.com", "/dir/index.html");
+    challenge("testrealm@host.com", "/other/index.html");
+    // the store is full, the short lived nonce is evicted first
+    challenge("testrealm@host.com", "/other/index.html");
+    assertEquals(2, nonces().size());
+
+    testRequest(HttpMethod.GET, "/dir/index.html", req -> req.putHeader("Authorization", authorization(challenge[0], challenge[1])), null, 200, "OK", "Welcome to the protected resource!");
+  }
+
+  @Test
+  public void testReplayIsRejected() throws Exception {
+    String authorization = doLogin("testrealm@host.com");
+    // the same nonce count cannot be used twice
+    testRequest(HttpMethod.GET, "/dir/index.html", req -> req.putHeader("Authorization", authorization), null, 401, "Unauthorized", null);
+  }
+
+  private DigestNonceStore nonces() {
+    return (DigestNonceStore) vertx.sharedData().getLocalMap(DEFAULT_NONCE_MAP_NAME).get("store");
+  }
+
+  private String doLogin(String realm) throws Exception {
     router.clear();
     Handler<RoutingContext> handler = rc -> {
       assertNotNull(rc.user());
@@ -81,30 +121,43 @@ public class DigestAuthHandlerTest extends WebTestBase {
 
     router.route("/dir/index.html").handler(handler);
 
-    final AtomicReference<String> nonce = new AtomicReference<>();
-    final AtomicReference<String> opaque = new AtomicReference<>();
+    final String[] challenge = challenge(realm, "/dir/index.html");
+    final String authorization = authorization(challenge[0], challenge[1]);
 
-    testRequest(HttpMethod.GET, "/dir/index.html", null, resp -> {
+    // Now try again with credentials
+    testRequest(HttpMethod.GET, "/dir/index.html", req -> req.putHeader("Authorization", authorization), resp -> {
+      String wwwAuth = resp.headers().get("WWW-Authenticate");
+      assertNull(wwwAuth);
+    }, 200, "OK", "Welcome to the protected resource!");
+
+    return authorization;
+  }
+
+  /**
+   * @return the nonce and opaque of the challenge sent for an unauthenticated request
+   */
+  private String[] challenge(String realm, String path) throws Exception {
+    final String[] challenge = new String[2];
+
+    testRequest(HttpMethod.GET, path, null, resp -> {
       String wwwAuth = resp.headers().get("WWW-Authenticate");
       assertNotNull(wwwAuth);
       assertTrue(wwwAuth.startsWith("Digest realm=\"" + realm + "\", qop=\"auth\", nonce=\""));
       // extract nonce + opaque from the response
       int pos = wwwAuth.indexOf("nonce=\"") + 7;
-      nonce.set(wwwAuth.substring(pos, endOfVariable(wwwAuth, pos, '\"')));
+      challenge[0] = wwwAuth.substring(pos, endOfVariable(wwwAuth, pos, '\"'));
       pos = wwwAuth.indexOf("opaque=\"") + 8;
-      opaque.set(wwwAuth.substring(pos, endOfVariable(wwwAuth, pos, '\"')));
+      challenge[1] = wwwAuth.substring(pos, endOfVariable(wwwAuth, pos, '\"'));
     }, 401, "Unauthorized", null);
 
-    // Now try again with credentials
-    testRequest(HttpMethod.GET, "/dir/index.html", req -> {
-      // rebuild the response value
-      String response = md5("939e7578ed9e3c518a452acee763bce9:" + nonce.get() + ":00000001:0a4f113b:auth:39aff3a2bab6126f332b942af96d3366");
-      // create the browser header
-      req.putHeader("Authorization", "Digest username=\"Mufasa\", realm=\"testrealm@host.com\", nonce=\"" + nonce.get() + "\", uri=\"/dir/index.html\", qop=auth, nc=00000001, cnonce=\"0a4f113b\", response=\"" + response + "\", opaque=\"" + opaque.get() + "\"");
-    }, resp -> {
-      String wwwAuth = resp.headers().get("WWW-Authenticate");
-      assertNull(wwwAuth);
-    }, 200, "OK", "Welcome to the protected resource!");
+    return challenge;
+  }
+
+  private static String authorization(String nonce, String opaque) {
+    // rebuild the response value
+    String response = md5("939e7578ed9e3c518a452acee763bce9:" + nonce + ":00000001:0a4f113b:auth:39aff3a2bab6126f332b942af96d3366");
+    // create the browser header
+    return "Digest username=\"Mufasa\", realm=\"testrealm@host.com\", nonce=\"" + nonce + "\", uri=\"/dir/index.html\", qop=auth, nc=00000001, cnonce=\"0a4f113b\", response=\"" + response + "\", opaque=\"" + opaque + "\"";
   }
 
   private static int endOfVariable(String header, int pos, char delim) {
@@ -27,6 +27,8 @@ import io.vertx.ext.web.WebTestBase;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Collections;
+
 /**
  * @author Paulo Lopes
  */
@@ -87,4 +89,57 @@ public class JWTAuthHandlerTest extends WebTestBase {
     testRequest(HttpMethod.GET, "/protected/somepage", req -> req.putHeader("Authorization", "Basic " + token), 401, "Unauthorized", null);
 
   }
+
+  @Test
+  public void testLoginCached() throws Exception {
+
+    AuthenticationCache cache = AuthenticationCache.create(100, 60_000);
+
+    router.route("/protected/*").handler(JWTAuthHandler.create(authProvider).setAuthenticationCache(cache));
+
+    router.route("/protected/somepage").handler(rc -> rc.response().end(rc.user().principal().getString("sub")));
+
+    final String token = authProvider.generateToken(new JsonObject().put("sub", "paulo"), new JWTOptions());
+
+    for (int i = 0; i < 3; i++) {
+      testRequest(HttpMethod.GET, "/protected/somepage", req -> req.putHeader("Authorization", "Bearer " + token), 200, "OK", "paulo");
+    }
+    // the token was only verified once
+    assertEquals(1, cache.misses());
+    assertEquals(2, cache.hits());
+
+    // a bad token is not served from the cache
+    testRequest(HttpMethod.GET, "/protected/somepage", req -> req.putHeader("Authorization", "Bearer x" + token), 401, "Unauthorized", null);
+    assertEquals(2, cache.misses());
+  }
+
+  @Test
+  public void testLoginCachedSharedCache() throws Exception {
+
+    AuthenticationCache cache = AuthenticationCache.create(100, 60_000);
+
+    JWTAuthHandler strict = JWTAuthHandler.create(authProvider).setAudience(Collections.singletonList("strict"));
+    router.route("/lax/*").handler(JWTAuthHandler.create(authProvider).setAuthenticationCache(cache));
+    router.route("/strict/*").handler(strict.setAuthenticationCache(cache));
+
+    router.route().handler(rc -> rc.response().end(rc.user().principal().getString("sub")));
+
+    final String token = authProvider.generateToken(new JsonObject().put("sub", "paulo"), new JWTOptions().addAudience("strict"));
+
+    testRequest(HttpMethod.GET, "/lax/somepage", req -> req.putHeader("Authorization", "Bearer " + token), 200, "OK", "paulo");
+    // the token verified by the lax handler is not served from the cache to the strict handler
+    testRequest(HttpMethod.GET, "/strict/somepage", req -> req.putHeader("Authorization", "Bearer " + token), 200, "OK", "paulo");
+    assertEquals(2, cache.misses());
+    assertEquals(0, cache.hits());
+    testRequest(HttpMethod.GET, "/lax/somepage", req -> req.putHeader("Authorization", "Bearer " + token), 200, "OK", "paulo");
+    testRequest(HttpMethod.GET, "/strict/somepage", req -> req.putHeader("Authorization", "Bearer " + token), 200, "OK", "paulo");
+    assertEquals(2, cache.hits());
+
+    // changing the options of a handler does not evict the entries of the other handlers
+    strict.setIgnoreExpiration(false);
+    testRequest(HttpMethod.GET, "/lax/somepage", req -> req.putHeader("Authorization", "Bearer " + token), 200, "OK", "paulo");
+    assertEquals(3, cache.hits());
+    testRequest(HttpMethod.GET, "/strict/somepage", req -> req.putHeader("Authorization", "Bearer " + token), 200, "OK", "paulo");
+    assertEquals(3, cache.misses());
+  }
 }
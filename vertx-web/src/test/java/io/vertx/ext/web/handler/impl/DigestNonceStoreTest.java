@@ -0,0 +1,54 @@
+/*
+ * Copyright 2014 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.impl;
+
+import io.vertx.ext.web.handler.DigestAuthHandler;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DigestNonceStoreTest {
+
+  @Test(timeout = 30_000)
+  public void testEvictionAtCapacityWithDefaultTimeout() {
+    int maxSize = DigestAuthHandler.DEFAULT_NONCE_MAX_SIZE;
+    long timeout = DigestAuthHandler.DEFAULT_NONCE_EXPIRE_TIMEOUT;
+    DigestNonceStore store = new DigestNonceStore(maxSize);
+    for (int i = 0; i < maxSize; i++) {
+      store.add("nonce" + i, timeout);
+    }
+    // each new nonce evicts the oldest one without scanning the store
+    for (int i = maxSize; i < 3 * maxSize; i++) {
+      store.add("nonce" + i, timeout);
+    }
+    assertEquals(maxSize, store.size());
+    assertNull(store.get("nonce" + (2 * maxSize - 1)));
+    assertNotNull(store.get("nonce" + 2 * maxSize));
+    assertNotNull(store.get("nonce" + (3 * maxSize - 1)));
+  }
+
+  @Test
+  public void testEvictionByDeadline() {
+    DigestNonceStore store = new DigestNonceStore(2);
+    store.add("long", DigestAuthHandler.DEFAULT_NONCE_EXPIRE_TIMEOUT);
+    store.add("short", 1000);
+    store.add("other", 1000);
+    assertNotNull(store.get("long"));
+    assertNull(store.get("short"));
+    assertNotNull(store.get("other"));
+  }
+}
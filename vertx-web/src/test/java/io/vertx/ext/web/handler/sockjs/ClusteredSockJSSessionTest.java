@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.handler.sockjs;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Promise;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.spi.cluster.ClusterManager;
+import io.vertx.ext.web.Router;
+import io.vertx.test.core.VertxTestBase;
+import io.vertx.test.fakecluster.FakeClusterManager;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ClusteredSockJSSessionTest extends VertxTestBase {
+
+  private static final int PORT = 8081;
+
+  private AtomicInteger[] sockets;
+  private String[] deployments;
+  private HttpClient client;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    startNodes(2, new VertxOptions().setClusterManager(getClusterManager()));
+    sockets = new AtomicInteger[vertices.length];
+    deployments = new String[vertices.length];
+    CountDownLatch latch = new CountDownLatch(vertices.length);
+    for (int i = 0; i < vertices.length; i++) {
+      AtomicInteger count = sockets[i] = new AtomicInteger();
+      int port = PORT + i;
+      int idx = i;
+      vertices[i].deployVerticle(verticle(port, count), onSuccess(id -> {
+        deployments[idx] = id;
+        latch.countDown();
+      }));
+    }
+    awaitLatch(latch);
+    client = vertx.createHttpClient(new HttpClientOptions().setKeepAlive(false));
+  }
+
+  private static AbstractVerticle verticle(int port, AtomicInteger count) {
+    return new AbstractVerticle() {
+      @Override
+      public void start(Promise<Void> startPromise) {
+        Router router = Router.router(vertx);
+        router.mountSubRouter("/test", SockJSHandler.create(vertx, new SockJSHandlerOptions().setClustered(true))
+          .socketHandler(sock -> {
+            count.incrementAndGet();
+            sock.handler(sock::write);
+          }));
+        vertx.createHttpServer(new HttpServerOptions().setPort(port).setHost("localhost"))
+          .requestHandler(router)
+          .listen(ar -> startPromise.handle(ar.mapEmpty()));
+      }
+    };
+  }
+
+  @Override
+  protected ClusterManager getClusterManager() {
+    return new FakeClusterManager();
+  }
+
+  private Future<Buffer> post(int node, String uri, String body, int expectedStatus) {
+    return client.post(PORT + node, "localhost", uri, MultiMap.caseInsensitiveMultiMap(), Buffer.buffer(body))
+      .compose(resp -> {
+        assertEquals(expectedStatus, resp.statusCode());
+        return resp.body();
+      });
+  }
+
+  @Test
+  public void testForwardToOwner() {
+    post(0, "/test/400/8ne8e94a/xhr", "", 200)
+      .compose(body -> {
+        assertEquals("o\n", body.toString());
+        return post(1, "/test/400/8ne8e94a/xhr_send", "[\"hello\"]", 204);
+      })
+      .compose(body -> post(1, "/test/400/8ne8e94a/xhr", "", 200))
+      .compose(body -> {
+        assertEquals("a[\"hello\"]\n", body.toString());
+        // The routing table of node 1 knows the owner now
+        return post(1, "/test/400/8ne8e94a/xhr_send", "[\"world\"]", 204);
+      })
+      .compose(body -> post(0, "/test/400/8ne8e94a/xhr", "", 200))
+      .onComplete(onSuccess(body -> {
+        assertEquals("a[\"world\"]\n", body.toString());
+        assertEquals(1, sockets[0].get());
+        assertEquals(0, sockets[1].get());
+        testComplete();
+      }));
+    await();
+  }
+
+  @Test
+  public void testForwardStreaming() {
+    post(1, "/test/400/8ne8e94a/xhr", "", 200)
+      .onComplete(onSuccess(open -> {
+        assertEquals("o\n", open.toString());
+        client.post(PORT, "localhost", "/test/400/8ne8e94a/xhr_streaming", MultiMap.caseInsensitiveMultiMap(), Buffer.buffer())
+          .onComplete(onSuccess(resp -> {
+            assertEquals(200, resp.statusCode());
+            Buffer received = Buffer.buffer();
+            resp.handler(buff -> {
+              received.appendBuffer(buff);
+              if (received.toString().endsWith("a[\"hello\"]\n")) {
+                assertEquals(0, sockets[0].get());
+                assertEquals(1, sockets[1].get());
+                testComplete();
+              }
+            });
+            post(0, "/test/400/8ne8e94a/xhr_send", "[\"hello\"]", 204).onComplete(onSuccess(v -> {}));
+          }));
+      }));
+    await();
+  }
+
+  @Test
+  public void testHandlersOfANodeShareTheNodeAddress() throws Exception {
+    // A second handler on the owner node
+    CountDownLatch latch = new CountDownLatch(1);
+    vertices[1].deployVerticle(verticle(PORT + 2, sockets[1]), onSuccess(id -> latch.countDown()));
+    awaitLatch(latch);
+    char[] chars = new char[SockJSHandlerOptions.DEFAULT_MAX_BYTES_STREAMING];
+    Arrays.fill(chars, 'a');
+    post(1, "/test/400/8ne8e94a/xhr", "", 200)
+      .onComplete(onSuccess(open -> {
+        assertEquals("o\n", open.toString());
+        client.post(PORT, "localhost", "/test/400/8ne8e94a/xhr_streaming", MultiMap.caseInsensitiveMultiMap(), Buffer.buffer())
+          .onComplete(onSuccess(resp -> {
+            assertEquals(200, resp.statusCode());
+            // The streaming request ends after the echo and resets its listener on the owner
+            resp.endHandler(v -> vertx.setTimer(100, id -> {
+              post(1, "/test/400/8ne8e94a/xhr_send", "[\"hello\"]", 204)
+                .compose(body -> post(0, "/test/400/8ne8e94a/xhr", "", 200))
+                .onComplete(onSuccess(body -> {
+                  assertEquals("a[\"hello\"]\n", body.toString());
+                  testComplete();
+                }));
+            }));
+            post(1, "/test/400/8ne8e94a/xhr_send", "[\"" + new String(chars) + "\"]", 204).onComplete(onSuccess(v -> {}));
+          }));
+      }));
+    await();
+  }
+
+  @Test
+  public void testSendToUnknownSession() {
+    post(1, "/test/400/8ne8e94a/xhr_send", "[\"hello\"]", 404).onComplete(onSuccess(v -> testComplete()));
+    await();
+  }
+
+  @Test
+  public void testTakeOverWhenOwnerIsGone() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    post(0, "/test/400/8ne8e94a/xhr", "", 200).onComplete(onSuccess(body -> {
+      assertEquals("o\n", body.toString());
+      latch.countDown();
+    }));
+    awaitLatch(latch);
+    // The node address consumer of node 0 is unregistered
+    CountDownLatch undeployLatch = new CountDownLatch(1);
+    vertices[0].undeploy(deployments[0], onSuccess(v -> undeployLatch.countDown()));
+    awaitLatch(undeployLatch);
+    post(1, "/test/400/8ne8e94a/xhr", "", 200)
+      .compose(body -> {
+        assertEquals("o\n", body.toString());
+        // The socket handler is called after the open frame is written
+        return post(1, "/test/400/8ne8e94a/xhr_send", "[\"hello\"]", 204);
+      })
+      .onComplete(onSuccess(body -> {
+        assertEquals(1, sockets[1].get());
+        testComplete();
+      }));
+    await();
+  }
+}
@@ -39,11 +39,13 @@ public class SockJSAsyncHandlerTest extends SockJSTestBase {
 
   @Test
   public void testHandleMessageFromXhrTransportWithAsyncHandler() throws Exception {
+    // the message can be handled before the send response is received
+    waitFor(2);
     socketHandler = () -> {
       return socket -> {
         socket.handler(buf -> {
           assertEquals("Hello World", buf.toString());
-          testComplete();
+          complete();
         });
       };
     };
@@ -53,7 +55,10 @@ public class SockJSAsyncHandlerTest extends SockJSTestBase {
     client.post("/test/400/8ne8e94a/xhr", Buffer.buffer(), onSuccess(resp -> {
       assertEquals(200, resp.statusCode());
 
-      client.post("/test/400/8ne8e94a/xhr_send", Buffer.buffer("\"Hello World\""), onSuccess(respSend -> assertEquals(204, respSend.statusCode())));
+      client.post("/test/400/8ne8e94a/xhr_send", Buffer.buffer("\"Hello World\""), onSuccess(respSend -> {
+        assertEquals(204, respSend.statusCode());
+        complete();
+      }));
     }));
 
     await();
@@ -16,6 +16,7 @@
 package io.vertx.ext.web.handler.sockjs;
 
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
 import io.vertx.test.core.TestUtils;
 import org.junit.Test;
 
@@ -109,4 +110,23 @@ public class SockJSSessionTest extends SockJSTestBase {
     }));
     await();
   }
+
+  @Test
+  public void testHeartbeatAndMetrics() throws Exception {
+    socketHandler = () -> socket -> {
+      JsonObject metrics = SockJSHandler.create(vertx).metrics();
+      assertEquals(1, (int) metrics.getInteger("sessions"));
+    };
+    startServers();
+    client.get("/test/400/8ne8e94a/eventsource", onSuccess(resp -> {
+      resp.handler(msg -> {
+        // the heartbeat interval is 2 seconds
+        if (msg.toString().contains("data: h\r\n")) {
+          resp.request().connection().close();
+          testComplete();
+        }
+      });
+    }));
+    await();
+  }
 }
@@ -41,6 +41,7 @@ abstract class SockJSTestBase extends VertxTestBase {
   HttpClient client;
   Consumer<Router> preSockJSHandlerSetup;
   Supplier<Handler<SockJSSocket>> socketHandler;
+  int maxWebSocketFrameSize = HttpServerOptions.DEFAULT_MAX_WEBSOCKET_FRAME_SIZE;
 
   @Override
   public void setUp() throws Exception {
@@ -64,12 +65,12 @@ abstract class SockJSTestBase extends VertxTestBase {
           preSockJSHandlerSetup.accept(router);
         }
 
-        SockJSHandlerOptions options = new SockJSHandlerOptions().setHeartbeatInterval(2000);
+        SockJSHandlerOptions options = new SockJSHandlerOptions().setHeartbeatInterval(2000).setMaxWebSocketFrameSize(maxWebSocketFrameSize);
         SockJSHandler sockJSHandler = SockJSHandler.create(vertx, options);
         sockJSHandler.socketHandler(socketHandler.get());
         router.route("/test/*").handler(sockJSHandler);
 
-        vertx.createHttpServer(new HttpServerOptions().setPort(8080).setHost("localhost"))
+        vertx.createHttpServer(new HttpServerOptions().setPort(8080).setHost("localhost").setMaxWebSocketFrameSize(maxWebSocketFrameSize))
           .requestHandler(router)
           .listen(ar -> {
             if (ar.succeeded()) {
@@ -80,6 +80,81 @@ public class SockJSWriteTest extends SockJSTestBase {
     await();
   }
 
+  @Test
+  public void testWebSocketLargeMessage() throws Exception {
+    waitFor(2);
+    // larger than a WebSocket frame and not pure ASCII
+    String expected = TestUtils.randomAlphaString(100 * 1024) + "\u00e9";
+    socketHandler = () -> socket -> {
+      socket.write(Buffer.buffer(expected), onSuccess(v -> {
+        complete();
+      }));
+    };
+    startServers();
+    client.webSocket("/test/400/8ne8e94a/websocket", onSuccess(ws -> {
+      ws.textMessageHandler(msg -> {
+        if (msg.equals("a[\"" + expected.substring(0, expected.length() - 1) + "\\u00e9\"]")) {
+          complete();
+        }
+      });
+    }));
+    await();
+  }
+
+  @Test
+  public void testWebSocketServerMaxFrameSize() throws Exception {
+    waitFor(2);
+    maxWebSocketFrameSize = 1024;
+    String expected = TestUtils.randomAlphaString(4096);
+    socketHandler = () -> socket -> {
+      socket.write(Buffer.buffer(expected), onSuccess(v -> {
+        complete();
+      }));
+    };
+    startServers();
+    client.webSocket("/test/400/8ne8e94a/websocket", onSuccess(ws -> {
+      Buffer message = Buffer.buffer();
+      ws.frameHandler(frame -> {
+        if (!frame.isText() && !frame.isContinuation() || frame.binaryData().toString().equals("o")) {
+          return;
+        }
+        assertTrue(frame.binaryData().length() <= 1024);
+        message.appendBuffer(frame.binaryData());
+        if (frame.isFinal()) {
+          assertEquals("a[\"" + expected + "\"]", message.toString());
+          complete();
+        }
+      });
+    }));
+    await();
+  }
+
+  @Test
+  public void testWriteBufferModifiedAfterWrite() throws Exception {
+    waitFor(2);
+    String expected = TestUtils.randomAlphaString(64);
+    socketHandler = () -> socket -> {
+      new Thread(() -> {
+        Buffer buffer = Buffer.buffer(expected);
+        socket.write(buffer, onSuccess(v -> {
+          complete();
+        }));
+        // the buffer is owned by the caller again once written
+        buffer.setString(0, TestUtils.randomAlphaString(64));
+      }).start();
+    };
+    startServers();
+    client.webSocket("/test/400/8ne8e94a/websocket", onSuccess(ws -> {
+      ws.handler(buffer -> {
+        if (buffer.toString().startsWith("a[")) {
+          assertEquals("a[\"" + expected + "\"]", buffer.toString());
+          complete();
+        }
+      });
+    }));
+    await();
+  }
+
   @Test
   public void testWebSocketFailure() throws Exception {
     String expected = TestUtils.randomAlphaString(64);
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.core.buffer.Buffer;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+
+public class JsonCodecTest {
+
+  private void checkFrame(String... messages) {
+    List<Buffer> buffers = Arrays.stream(messages).map(Buffer::buffer).collect(toList());
+    String frame = JsonCodec.encodeFrame(buffers).toString();
+    assertEquals("a" + JsonCodec.encode(messages), frame);
+    assertEquals(Arrays.asList(messages), JsonCodec.decodeValues(frame.substring(1)));
+  }
+
+  @Test
+  public void testEmpty() {
+    assertEquals("a[]", JsonCodec.encodeFrame(Collections.emptyList()).toString());
+    checkFrame("");
+  }
+
+  @Test
+  public void testAscii() {
+    checkFrame("hello", "world");
+  }
+
+  @Test
+  public void testEscapes() {
+    checkFrame("quote \" backslash \\ newline \n tab \t control \u0001 \u001f");
+  }
+
+  @Test
+  public void testNonAscii() {
+    checkFrame("café", "你好", "emoji 😀 after", "mixed \" é \n");
+  }
+}
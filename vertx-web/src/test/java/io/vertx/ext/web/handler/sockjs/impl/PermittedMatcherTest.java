@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.authorization.PermissionBasedAuthorization;
+import io.vertx.ext.bridge.PermittedOptions;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PermittedMatcherTest {
+
+  private static PermittedMatcher matcher(PermittedOptions... permitted) {
+    return new PermittedMatcher(Arrays.asList(permitted));
+  }
+
+  private static String authority(PermittedMatcher.Match match) {
+    assertTrue(match.doesMatch);
+    return match.requiredAuthority == null ? null : ((PermissionBasedAuthorization) match.requiredAuthority).getPermission();
+  }
+
+  @Test
+  public void testNoPermitted() {
+    PermittedMatcher matcher = new PermittedMatcher(Collections.emptyList());
+    assertFalse(matcher.match("foo", null).doesMatch);
+    assertFalse(matcher.match("foo", new JsonObject()).doesMatch);
+  }
+
+  @Test
+  public void testAddress() {
+    PermittedMatcher matcher = matcher(new PermittedOptions().setAddress("foo"));
+    for (int i = 0; i < 2; i++) {
+      assertTrue(matcher.match("foo", null).doesMatch);
+      assertTrue(matcher.match("foo", "body").doesMatch);
+      assertFalse(matcher.match("bar", null).doesMatch);
+    }
+  }
+
+  @Test
+  public void testAddressRegex() {
+    PermittedMatcher matcher = matcher(new PermittedOptions().setAddressRegex("news\\..+"));
+    assertTrue(matcher.match("news.sport", null).doesMatch);
+    assertFalse(matcher.match("news.", null).doesMatch);
+    assertFalse(matcher.match("xnews.sport", null).doesMatch);
+  }
+
+  @Test
+  public void testAnyAddress() {
+    PermittedMatcher matcher = matcher(new PermittedOptions());
+    assertTrue(matcher.match("foo", null).doesMatch);
+    assertTrue(matcher.match("bar", 3).doesMatch);
+  }
+
+  @Test
+  public void testFirstMatchWins() {
+    PermittedMatcher matcher = matcher(
+      new PermittedOptions().setAddressRegex("foo.*").setRequiredAuthority("regex"),
+      new PermittedOptions().setAddress("foo").setRequiredAuthority("exact"),
+      new PermittedOptions().setAddress("bar").setRequiredAuthority("bar"),
+      new PermittedOptions().setRequiredAuthority("any"));
+    assertEquals("regex", authority(matcher.match("foo", null)));
+    assertEquals("regex", authority(matcher.match("foobar", null)));
+    assertEquals("bar", authority(matcher.match("bar", null)));
+    assertEquals("any", authority(matcher.match("baz", null)));
+  }
+
+  @Test
+  public void testBodyMatch() {
+    PermittedMatcher matcher = matcher(
+      new PermittedOptions().setAddress("foo").setRequiredAuthority("wibble")
+        .setMatch(new JsonObject().put("fruit", "apple").put("size", new JsonObject().put("weight", 3))),
+      new PermittedOptions().setAddressRegex("f.*").setRequiredAuthority("eek")
+        .setMatch(new JsonObject().put("fruit", "pear")));
+    // The address check does not depend on the body
+    assertEquals("wibble", authority(matcher.match("foo", null)));
+    assertEquals("wibble", authority(matcher.match("foo", new JsonObject().put("fruit", "apple").put("size", new JsonObject().put("weight", 3).put("color", "red")))));
+    assertEquals("wibble", authority(matcher.match("foo", new JsonObject().put("fruit", "apple"))));
+    assertFalse(matcher.match("foo", new JsonObject().put("fruit", "apple").put("size", new JsonObject().put("weight", 4))).doesMatch);
+    assertFalse(matcher.match("foo", new JsonObject().put("fruit", "apple").put("size", 3)).doesMatch);
+    assertEquals("eek", authority(matcher.match("foo", new JsonObject().put("fruit", "pear"))));
+    assertFalse(matcher.match("foo", new JsonObject().put("fruit", "banana")).doesMatch);
+    // Message other than JSON cannot match a structure
+    assertFalse(matcher.match("foo", "apple").doesMatch);
+    assertFalse(matcher.match("bar", new JsonObject().put("fruit", "pear")).doesMatch);
+  }
+
+  @Test
+  public void testEmptyBodyMatch() {
+    PermittedMatcher matcher = matcher(new PermittedOptions().setAddress("foo").setMatch(new JsonObject()));
+    assertTrue(matcher.match("foo", new JsonObject().put("fruit", "apple")).doesMatch);
+    assertFalse(matcher.match("foo", "apple").doesMatch);
+  }
+
+  @Test
+  public void testMatchIsShared() {
+    PermittedMatcher matcher = matcher(new PermittedOptions().setAddress("foo"));
+    PermittedMatcher.Match match = matcher.match("foo", null);
+    assertNull(match.requiredAuthority);
+    assertSame(match, matcher.match("foo", null));
+    assertSame(PermittedMatcher.NO_MATCH, matcher.match("bar", null));
+  }
+
+  @Test
+  public void testCacheEviction() {
+    PermittedMatcher matcher = matcher(new PermittedOptions().setAddressRegex("a[0-9]+"));
+    for (int i = 0; i < PermittedMatcher.CACHE_SIZE * 2; i++) {
+      assertTrue(matcher.match("a" + i, null).doesMatch);
+      assertFalse(matcher.match("b" + i, null).doesMatch);
+    }
+  }
+}
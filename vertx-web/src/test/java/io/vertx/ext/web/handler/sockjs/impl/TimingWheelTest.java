@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2011-2020 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.json.JsonObject;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TimingWheelTest extends VertxTestBase {
+
+  @Test
+  public void testWheelPerContext() {
+    Context ctx1 = vertx.getOrCreateContext();
+    Context ctx2 = vertx.getOrCreateContext();
+    assertSame(TimingWheel.get(ctx1), TimingWheel.get(ctx1));
+    assertNotSame(TimingWheel.get(ctx1), TimingWheel.get(ctx2));
+  }
+
+  @Test
+  public void testTimeout() {
+    Context ctx = vertx.getOrCreateContext();
+    long start = System.currentTimeMillis();
+    TimingWheel.get(ctx).schedule(250, 0, () -> {
+      assertSame(ctx, vertx.getOrCreateContext());
+      assertTrue(System.currentTimeMillis() - start >= 250);
+      assertEquals(0, (int) TimingWheel.metrics(vertx).getInteger("timeouts"));
+      testComplete();
+    });
+    assertEquals(1, (int) TimingWheel.metrics(vertx).getInteger("timeouts"));
+    await();
+  }
+
+  @Test
+  public void testPeriodic() {
+    Context ctx = vertx.getOrCreateContext();
+    AtomicInteger count = new AtomicInteger();
+    TimingWheel.Timeout[] heartbeat = new TimingWheel.Timeout[1];
+    heartbeat[0] = TimingWheel.get(ctx).schedule(100, 100, () -> {
+      if (count.incrementAndGet() == 3) {
+        assertEquals(1, (int) TimingWheel.metrics(vertx).getInteger("sessions"));
+        heartbeat[0].cancel();
+        assertEquals(0, (int) TimingWheel.metrics(vertx).getInteger("sessions"));
+        vertx.setTimer(300, id -> {
+          assertEquals(3, count.get());
+          testComplete();
+        });
+      }
+    });
+    await();
+  }
+
+  @Test
+  public void testCancel() {
+    Context ctx = vertx.getOrCreateContext();
+    TimingWheel wheel = TimingWheel.get(ctx);
+    TimingWheel.Timeout timeout = wheel.schedule(100, 0, () -> fail("Cancelled timeout run"));
+    wheel.schedule(300, 0, this::testComplete);
+    timeout.cancel();
+    timeout.cancel();
+    assertEquals(1, (int) TimingWheel.metrics(vertx).getInteger("timeouts"));
+    await();
+  }
+
+  @Test
+  public void testManyTimeouts() {
+    Context ctx = vertx.getOrCreateContext();
+    TimingWheel wheel = TimingWheel.get(ctx);
+    int num = 10_000;
+    AtomicInteger count = new AtomicInteger();
+    for (int i = 0; i < num; i++) {
+      long delay = (i % 10) * TimingWheel.TICK_DURATION * TimingWheel.WHEEL_SIZE / 200;
+      wheel.schedule(delay, 0, () -> {
+        if (count.incrementAndGet() == num) {
+          JsonObject metrics = TimingWheel.metrics(vertx);
+          assertEquals(0, (int) metrics.getInteger("timeouts"));
+          assertTrue(metrics.getLong("maxTimerLag") >= 0);
+          testComplete();
+        }
+      });
+    }
+    await();
+  }
+}